@@ -39,6 +39,9 @@ CREATE TABLE "order".order_items (
 -- Ensure sequence ownership
 ALTER SEQUENCE "order".order_items_id_seq OWNED BY "order".order_items.id;
 
+-- Bước 50 khớp allocationSize của OrderItemEntity (pooled optimizer), cho phép batch INSERT items
+ALTER SEQUENCE "order".order_items_id_seq INCREMENT BY 50;
+
 -- Create indexes
 CREATE INDEX idx_orders_tracking_id
     ON "order".orders(tracking_id);
@@ -46,6 +49,10 @@ CREATE INDEX idx_orders_tracking_id
 CREATE INDEX idx_orders_customer_id
     ON "order".orders(customer_id);
 
+-- Keyset pagination lịch sử đơn hàng: WHERE customer_id = ? ORDER BY created_at DESC, id DESC
+CREATE INDEX idx_orders_customer_created_at_id
+    ON "order".orders(customer_id, created_at, id);
+
 ALTER TABLE "order".orders
     ADD COLUMN original_price NUMERIC(10, 2),
     ADD COLUMN discount NUMERIC(10, 2) DEFAULT 0,
@@ -55,4 +62,72 @@ ALTER TABLE "order".orders
     ADD COLUMN rating INTEGER,
     ADD COLUMN comment VARCHAR;
 
-UPDATE "order".orders SET original_price = price;
\ No newline at end of file
+UPDATE "order".orders SET original_price = price;
+
+-- Outbox cho payment request: ghi cùng transaction, PaymentOutboxRelay đẩy sang Kafka
+CREATE TABLE "order".payment_outbox
+(
+    id UUID NOT NULL,
+    order_id UUID NOT NULL,
+    customer_id UUID NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    status VARCHAR NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR,
+    claimed_until TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP WITH TIME ZONE,
+    kafka_partition INTEGER,
+    kafka_offset BIGINT,
+    CONSTRAINT payment_outbox_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_payment_outbox_pending
+    ON "order".payment_outbox(created_at)
+    WHERE status = 'PENDING';
+
+-- Chặn gửi trùng payment request cho cùng một đơn (OrderPaymentHandler)
+CREATE INDEX idx_payment_outbox_pending_order
+    ON "order".payment_outbox(order_id)
+    WHERE status = 'PENDING';
+
+CREATE INDEX idx_payment_outbox_sent_at
+    ON "order".payment_outbox(sent_at)
+    WHERE status = 'SENT';
+
+-- Payment response đã xử lý: chống xử lý trùng khi Kafka redeliver
+CREATE TABLE "order".processed_payment_response
+(
+    order_id UUID NOT NULL,
+    payment_id UUID NOT NULL,
+    payment_status VARCHAR,
+    processed_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT processed_payment_response_pkey PRIMARY KEY (order_id, payment_id)
+);
+
+-- Thống kê theo ngày: mỗi (ngày, customer) một dòng, cập nhật cùng transaction khi lưu đơn.
+-- Ngày tính theo order.statistics.zone (mặc định UTC)
+CREATE TABLE "order".order_daily_stats
+(
+    day DATE NOT NULL,
+    customer_id UUID NOT NULL,
+    order_count BIGINT NOT NULL,
+    total_revenue NUMERIC(14, 2) NOT NULL,
+    CONSTRAINT order_daily_stats_pkey PRIMARY KEY (day, customer_id)
+);
+
+CREATE INDEX idx_order_daily_stats_customer_day
+    ON "order".order_daily_stats(customer_id, day);
+
+INSERT INTO "order".order_daily_stats (day, customer_id, order_count, total_revenue)
+SELECT (created_at AT TIME ZONE 'UTC')::date, customer_id, COUNT(*), COALESCE(SUM(original_price), 0)
+FROM "order".orders
+GROUP BY 1, 2;
+
+-- Phần ngày lẻ ở hai đầu khoảng thống kê vẫn đếm trực tiếp trên orders (không lọc customer)
+CREATE INDEX idx_orders_created_at
+    ON "order".orders(created_at);
+
+-- Thời điểm chuyển sang PAID, dùng cho độ trễ thanh toán trong /orders/analytics; đơn đã PAID trước đó để NULL
+ALTER TABLE "order".orders
+    ADD COLUMN paid_at TIMESTAMP WITH TIME ZONE;
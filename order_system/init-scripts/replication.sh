@@ -0,0 +1,5 @@
+#!/bin/sh
+# Cho phép replica trong docker network stream WAL (pg_basebackup / walreceiver) bằng user postgres.
+# Chỉ chạy khi khởi tạo volume mới; volume cũ cần xoá (docker compose down -v) để áp dụng.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -2,8 +2,10 @@ package com.system.order_container;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.system") 
+@EnableScheduling
 public class OrderSystemApplication {
 
     public static void main(String[] args) {
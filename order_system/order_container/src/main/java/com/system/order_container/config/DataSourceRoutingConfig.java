@@ -0,0 +1,64 @@
+package com.system.order_container.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Two connection pools: {@code spring.datasource} for writes and {@code order.datasource.read}
+ * (usually a streaming replica) for {@code @Transactional(readOnly = true)} work such as order
+ * history and statistics, so those queries do not take connections from order placement and the
+ * payment response listeners. Without {@code order.datasource.read.jdbc-url} Spring Boot's single
+ * pool is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "order.datasource.read", name = "jdbc-url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("order.datasource.read")
+    public HikariDataSource readDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        // Ghi nhầm vào pool đọc sẽ lỗi ngay cả khi pool đang trỏ về primary
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                                                 @Qualifier("readDataSource") DataSource readDataSource) {
+        return new ReadWriteRoutingDataSource(writeDataSource, readDataSource);
+    }
+
+    // JPA và transaction manager đều dùng DataSource @Primary này
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            ReadWriteRoutingDataSource readWriteRoutingDataSource,
+            @Qualifier("readDataSource") DataSource readDataSource,
+            @Value("${order.datasource.replica.max-lag:PT2S}") Duration maxLag,
+            @Value("${order.datasource.replica.lag-check-interval:PT5S}") Duration lagCheckInterval) {
+        return new ReplicaLagMonitor(readWriteRoutingDataSource, readDataSource, maxLag, lagCheckInterval);
+    }
+}
@@ -5,19 +5,36 @@ import com.system.order_application_service.handler.OrderDtoMapper;
 
 import com.system.order_application_service.ports.OrderRepository;
 import com.system.order_application_service.ports.VoucherServicePort;
+import com.system.order_application_service.ports.output.OrderPaymentMessagePublisher;
+import com.system.order_application_service.ports.output.PaymentOutboxRepository;
+import com.system.order_application_service.ports.output.ProcessedPaymentResponseRepository;
 import com.system.order_dataaccess.adapter.OrderRepositoryImpl;
+import com.system.order_dataaccess.adapter.OutboxOrderPaymentMessagePublisher;
+import com.system.order_dataaccess.adapter.PaymentOutboxRepositoryImpl;
+import com.system.order_dataaccess.adapter.ProcessedPaymentResponseRepositoryImpl;
 import com.system.order_dataaccess.mapper.OrderDataMapper;
+import com.system.order_dataaccess.repository.OrderDailyStatsJpaRepository;
 import com.system.order_dataaccess.repository.OrderJpaRepository;
+import com.system.order_dataaccess.repository.PaymentOutboxJpaRepository;
+import com.system.order_dataaccess.repository.ProcessedPaymentResponseJpaRepository;
 import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import com.system.order_application_service.handler.IdempotentPaymentResponseMessageListener;
 import com.system.order_application_service.handler.PaymentResponseMessageListenerImpl;
 import com.system.order_application_service.ports.input.PaymentResponseMessageListener;
+
+import java.time.ZoneId;
+import java.util.concurrent.ForkJoinPool;
+
 @Configuration
 @EnableJpaRepositories(basePackages = "com.system.order_dataaccess.repository")
 @ComponentScan(basePackages = {"com.system.order_dataaccess", "com.system.order_application_service", "com.system.order_messaging"})
@@ -26,8 +43,9 @@ public class OrderConfig {
 
     @Bean
     public OrderCreateHandler orderCreateHandler(OrderRepository orderRepository,
-                                                 VoucherServicePort voucherServicePort) {
-        return new OrderCreateHandler(orderRepository, voucherServicePort);
+                                                 VoucherServicePort voucherServicePort,
+                                                 @Value("${order.batch.max-orders:1000}") int maxBatchOrders) {
+        return new OrderCreateHandler(orderRepository, voucherServicePort, maxBatchOrders);
     }
 
     @Bean
@@ -46,8 +64,29 @@ public class OrderConfig {
     }
 
     @Bean
-    public OrderStatisticsHandler orderStatisticsHandler(OrderRepository orderRepository) {
-        return new OrderStatisticsHandler(orderRepository);
+    public OrderStatisticsHandler orderStatisticsHandler(OrderRepository orderRepository,
+                                                         @Value("${order.statistics.zone:UTC}") ZoneId statisticsZone) {
+        return new OrderStatisticsHandler(orderRepository, statisticsZone);
+    }
+
+    @Bean
+    public OrderAnalyticsHandler orderAnalyticsHandler(OrderRepository orderRepository,
+                                                       PlatformTransactionManager transactionManager,
+                                                       ForkJoinPool orderAnalyticsPool,
+                                                       @Value("${order.statistics.zone:UTC}") ZoneId statisticsZone,
+                                                       @Value("${order.analytics.partition-days:1}") int partitionDays,
+                                                       @Value("${order.analytics.max-range-days:366}") int maxRangeDays) {
+        // Mỗi partition một transaction readOnly riêng trên luồng worker: đi qua pool đọc (replica)
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return new OrderAnalyticsHandler(orderRepository, readOnlyTransaction, orderAnalyticsPool,
+                statisticsZone, partitionDays, maxRangeDays);
+    }
+
+    // Pool riêng cho analytics: partition chờ JDBC nên không chạy trên ForkJoinPool.commonPool()
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool orderAnalyticsPool(@Value("${order.analytics.parallelism:4}") int parallelism) {
+        return new ForkJoinPool(parallelism);
     }
 
     @Bean
@@ -58,8 +97,23 @@ public class OrderConfig {
     @Bean
     public OrderRepository orderRepository(OrderJpaRepository orderJpaRepository,
                                            OrderDataMapper orderDataMapper,
-                                           EntityManager entityManager) {
-        return new OrderRepositoryImpl(orderJpaRepository, orderDataMapper, entityManager);
+                                           EntityManager entityManager,
+                                           @Value("${order.batch.jdbc-batch-size:50}") int insertBatchSize,
+                                           OrderDailyStatsJpaRepository orderDailyStatsJpaRepository,
+                                           @Value("${order.statistics.zone:UTC}") ZoneId statisticsZone) {
+        return new OrderRepositoryImpl(orderJpaRepository, orderDataMapper, entityManager, insertBatchSize,
+                orderDailyStatsJpaRepository, statisticsZone);
+    }
+
+    @Bean
+    public PaymentOutboxRepository paymentOutboxRepository(PaymentOutboxJpaRepository paymentOutboxJpaRepository,
+                                                           EntityManager entityManager) {
+        return new PaymentOutboxRepositoryImpl(paymentOutboxJpaRepository, entityManager);
+    }
+
+    @Bean
+    public OrderPaymentMessagePublisher orderPaymentMessagePublisher(PaymentOutboxRepository paymentOutboxRepository) {
+        return new OutboxOrderPaymentMessagePublisher(paymentOutboxRepository);
     }
 
     @Bean
@@ -68,8 +122,22 @@ public class OrderConfig {
     }
 
     @Bean
-    public PaymentResponseMessageListener paymentResponseMessageListener(OrderRepository orderRepository) {
-        return new PaymentResponseMessageListenerImpl(orderRepository);
+    public ProcessedPaymentResponseRepository processedPaymentResponseRepository(
+            ProcessedPaymentResponseJpaRepository processedPaymentResponseJpaRepository) {
+        return new ProcessedPaymentResponseRepositoryImpl(processedPaymentResponseJpaRepository);
+    }
+
+    @Bean
+    public PaymentResponseMessageListener paymentResponseMessageListener(
+            OrderRepository orderRepository,
+            ProcessedPaymentResponseRepository processedPaymentResponseRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${payment.response.dedup.cache-size:100000}") int dedupCacheSize) {
+        return new IdempotentPaymentResponseMessageListener(
+                new PaymentResponseMessageListenerImpl(orderRepository),
+                processedPaymentResponseRepository,
+                new TransactionTemplate(transactionManager),
+                dedupCacheSize);
     }
 
     @Bean
@@ -81,6 +149,7 @@ public class OrderConfig {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Next-Cursor") // Cursor trang sau của GET /orders
                         .allowCredentials(true);
 
                 // Also enable CORS for Swagger UI
@@ -2,9 +2,15 @@ package com.system.order_container.handler;
 
 import com.system.order_application_service.dto.OrderPaymentRequest;
 import com.system.order_application_service.dto.OrderPaymentResponse;
+import com.system.order_application_service.exception.OrderNotFoundException;
+import com.system.order_application_service.ports.OrderRepository;
 import com.system.order_application_service.ports.output.OrderPaymentMessagePublisher;
+import com.system.order_application_service.ports.output.PaymentOutboxRepository;
+import com.system.order_domain_core.exception.OrderDomainException;
+import com.system.order_domain_core.valueobject.OrderStatus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -12,27 +18,52 @@ import java.time.LocalDateTime;
 @Component
 public class OrderPaymentHandler {
 
+    private final OrderRepository orderRepository;
+    private final PaymentOutboxRepository paymentOutboxRepository;
     private final OrderPaymentMessagePublisher orderPaymentMessagePublisher;
 
-    public OrderPaymentHandler(OrderPaymentMessagePublisher orderPaymentMessagePublisher) {
+    public OrderPaymentHandler(OrderRepository orderRepository,
+                               PaymentOutboxRepository paymentOutboxRepository,
+                               OrderPaymentMessagePublisher orderPaymentMessagePublisher) {
+        this.orderRepository = orderRepository;
+        this.paymentOutboxRepository = paymentOutboxRepository;
         this.orderPaymentMessagePublisher = orderPaymentMessagePublisher;
     }
 
+    /**
+     * Queues a payment request for a PENDING order. The order row stays locked until the outbox row
+     * commits, so the status check, the duplicate check and the enqueue are atomic with respect to
+     * concurrent payment requests, updates and status changes of the same order.
+     */
+    @Transactional
     public OrderPaymentResponse processOrderPayment(OrderPaymentRequest request) {
         log.info("Processing order payment request for order: {} and customer: {} with amount: {}",
                 request.getOrderId(), request.getCustomerId(), request.getPrice());
 
-        // Publish to Kafka topic for async processing
-        orderPaymentMessagePublisher.publish(request);
+        OrderStatus status = orderRepository.lockStatusById(request.getOrderId())
+                .orElseThrow(() -> new OrderNotFoundException("Không tìm thấy đơn hàng: " + request.getOrderId()));
+        if (status != OrderStatus.PENDING) {
+            throw new OrderDomainException("Order " + request.getOrderId() + " cannot be paid in status " + status);
+        }
+
+        String message;
+        if (paymentOutboxRepository.hasPendingForOrder(request.getOrderId())) {
+            // Bấm thanh toán lần nữa khi request trước chưa được relay: không xếp thêm request trùng
+            message = "Payment request already queued for processing";
+        } else {
+            // Ghi vào outbox trong transaction hiện tại; PaymentOutboxRelay gửi sang Kafka sau khi commit
+            orderPaymentMessagePublisher.publish(request);
+            message = "Payment request queued for processing";
+        }
 
         // Build response
         return OrderPaymentResponse.builder()
                 .orderId(request.getOrderId())
                 .customerId(request.getCustomerId())
                 .status("PENDING")
-                .message("Payment request queued for processing")
+                .message(message)
                 .timestamp(LocalDateTime.now())
                 .statusUpdateUrl("/orders/payment/status/" + request.getOrderId())
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,15 @@
 package com.system.order_container.rest;
 
 import com.system.order_application_service.dto.CreateOrderRequest;
+import com.system.order_application_service.dto.OrderAnalyticsResponse;
 import com.system.order_application_service.dto.OrderPaymentRequest;
 import com.system.order_application_service.dto.OrderPaymentResponse;
+import com.system.order_application_service.dto.OrderPageResponse;
 import com.system.order_application_service.dto.OrderRatingRequest;
 import com.system.order_application_service.dto.OrderResponse;
 import com.system.order_application_service.dto.OrderStatisticsResponse;
 import com.system.order_application_service.dto.UpdateOrderRequest;
+import com.system.order_application_service.handler.OrderAnalyticsHandler;
 import com.system.order_application_service.handler.OrderCreateHandler;
 import com.system.order_container.handler.OrderPaymentHandler;
 import com.system.order_application_service.handler.OrderQueryHandler;
@@ -38,11 +41,14 @@ import java.util.UUID;
 @Tag(name = "Order Management", description = "APIs for managing orders, including creation, updates, ratings, and statistics")
 public class OrderController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderCreateHandler orderCreateHandler;
     private final OrderQueryHandler orderQueryHandler;
     private final OrderUpdateHandler orderUpdateHandler;
     private final OrderRatingHandler orderRatingHandler; // <-- (Feature 5)
     private final OrderStatisticsHandler orderStatisticsHandler; // <-- (Feature 3)
+    private final OrderAnalyticsHandler orderAnalyticsHandler;
     private final OrderPaymentHandler orderPaymentHandler; // <-- (New Feature)
     private final PaymentStatusSseService paymentStatusSseService; // <-- (New Feature)
 
@@ -51,6 +57,7 @@ public class OrderController {
                            OrderUpdateHandler orderUpdateHandler,
                            OrderRatingHandler orderRatingHandler,
                            OrderStatisticsHandler orderStatisticsHandler,
+                           OrderAnalyticsHandler orderAnalyticsHandler,
                            OrderPaymentHandler orderPaymentHandler,
                            PaymentStatusSseService paymentStatusSseService) {
         this.orderCreateHandler = orderCreateHandler;
@@ -58,6 +65,7 @@ public class OrderController {
         this.orderUpdateHandler = orderUpdateHandler;
         this.orderRatingHandler = orderRatingHandler;
         this.orderStatisticsHandler = orderStatisticsHandler;
+        this.orderAnalyticsHandler = orderAnalyticsHandler;
         this.orderPaymentHandler = orderPaymentHandler;
         this.paymentStatusSseService = paymentStatusSseService;
     }
@@ -77,19 +85,46 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create orders in bulk", description = "Creates many orders in one transaction with batched inserts. " +
+            "If any order is invalid, none of them is created")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Orders created successfully",
+                    content = @Content(schema = @Schema(implementation = OrderResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or too many orders"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<OrderResponse>> createOrders(
+            @Parameter(description = "Orders to create, in the same format as POST /orders", required = true)
+            @RequestBody List<CreateOrderRequest> requests) {
+        List<OrderResponse> result = orderCreateHandler.createOrders(requests);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     @GetMapping
-    @Operation(summary = "Get orders by customer ID", description = "Retrieves all orders associated with a specific customer")
+    @Operation(summary = "Get orders by customer ID", description = "Retrieves a customer's orders, newest first. " +
+            "Without cursor and limit the whole history is returned. With either of them one page is returned, and " +
+            "when more orders exist, the X-Next-Cursor response header holds the cursor of the next page")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
                     content = @Content(schema = @Schema(implementation = OrderResponse.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid customer ID format"),
+            @ApiResponse(responseCode = "400", description = "Invalid customer ID format, cursor or page size"),
             @ApiResponse(responseCode = "404", description = "Customer not found or no orders")
     })
     public ResponseEntity<List<OrderResponse>> getOrdersByCustomerId(
             @Parameter(description = "Unique identifier of the customer", required = true)
-            @RequestParam(name = "customerId") UUID customerId) {
-        List<OrderResponse> result = orderQueryHandler.getOrdersByCustomerId(customerId);
-        return ResponseEntity.ok(result);
+            @RequestParam(name = "customerId") UUID customerId,
+            @Parameter(description = "X-Next-Cursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-" + OrderQueryHandler.MAX_PAGE_SIZE + "), " +
+                    OrderQueryHandler.DEFAULT_PAGE_SIZE + " when only a cursor is given")
+            @RequestParam(required = false) Integer limit) {
+        OrderPageResponse result = orderQueryHandler.getOrdersByCustomerId(customerId, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, result.getNextCursor());
+        }
+        return response.body(result.getOrders());
     }
 
     @PutMapping("/{orderId}")
@@ -147,6 +182,25 @@ public class OrderController {
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/analytics")
+    @Operation(summary = "Get order analytics", description = "Computes revenue net of discount, per-status and per-restaurant breakdowns, voucher uptake and payment latency percentiles in one pass over the orders of the period. Can be filtered by customer ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Analytics computed successfully",
+                    content = @Content(schema = @Schema(implementation = OrderAnalyticsResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid date range")
+    })
+    public ResponseEntity<OrderAnalyticsResponse> getAnalytics(
+            @Parameter(description = "Optional customer ID to filter analytics for specific customer")
+            @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "First day of the period, inclusive (ISO format: yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Last day of the period, inclusive (ISO format: yyyy-MM-dd)", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        OrderAnalyticsResponse result = orderAnalyticsHandler.getAnalytics(customerId, startDate, endDate);
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping("/payment")
     @Operation(summary = "Process payment for an order", description = "Initiates payment processing for an order via Kafka messaging and returns SSE endpoint for status updates")
     @ApiResponses(value = {
@@ -171,8 +225,10 @@ public class OrderController {
     })
     public SseEmitter getPaymentStatusUpdates(
             @Parameter(description = "Unique identifier of the order to track payment status for", required = true)
-            @PathVariable UUID orderId) {
+            @PathVariable UUID orderId,
+            @Parameter(description = "Id of the last event received; newer buffered events are replayed")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
 
-        return paymentStatusSseService.createEmitter(orderId.toString());
+        return paymentStatusSseService.createEmitter(orderId.toString(), lastEventId);
     }
-}
\ No newline at end of file
+}
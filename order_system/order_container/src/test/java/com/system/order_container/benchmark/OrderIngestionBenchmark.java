@@ -0,0 +1,102 @@
+package com.system.order_container.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders created per second against a running order service: {@value #ORDERS} calls to
+ * {@code POST /orders} against one {@code POST /orders/batch} carrying the same {@value #ORDERS} orders.
+ * Both scores are per order. Point it at another instance with
+ * {@code -Dbenchmark.args="OrderIngestionBenchmark -jvmArgs -Dbenchmark.order-url=http://host:8081"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderIngestionBenchmark {
+
+    private static final int ORDERS = 100;
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final String MEDIA_TYPE = "application/vnd.api.v1+json";
+
+    private HttpClient client;
+    private URI singleUri;
+    private URI batchUri;
+    private String orderBody;
+    private String batchBody;
+
+    @Setup
+    public void setUp() {
+        String baseUrl = System.getProperty("benchmark.order-url", "http://localhost:8081");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        singleUri = URI.create(baseUrl + "/orders");
+        batchUri = URI.create(baseUrl + "/orders/batch");
+
+        UUID customerId = UUID.randomUUID();
+        UUID restaurantId = UUID.randomUUID();
+        orderBody = orderJson(customerId, restaurantId);
+        StringJoiner batch = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < ORDERS; i++) {
+            batch.add(orderBody);
+        }
+        batchBody = batch.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public int singleOrderCalls() throws IOException, InterruptedException {
+        int created = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            created += post(singleUri, orderBody);
+        }
+        return created;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public int batchCall() throws IOException, InterruptedException {
+        return post(batchUri, batchBody);
+    }
+
+    private int post(URI uri, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header("Accept", MEDIA_TYPE)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException(uri + " returned " + response.statusCode());
+        }
+        return 1;
+    }
+
+    private static String orderJson(UUID customerId, UUID restaurantId) {
+        StringJoiner items = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            items.add("{\"productId\":\"" + UUID.randomUUID() + "\",\"price\":12.50,\"quantity\":2}");
+        }
+        return "{\"customerId\":\"" + customerId + "\",\"restaurantId\":\"" + restaurantId
+                + "\",\"items\":" + items + "}";
+    }
+}
@@ -1,61 +1,265 @@
 package com.system.order_dataaccess.adapter;
 
+import com.system.order_application_service.analytics.OrderAnalytics;
+import com.system.order_application_service.dto.OrderCursor;
 import com.system.order_application_service.ports.OrderRepository;
+import com.system.order_dataaccess.entity.OrderDailyStatsId;
 import com.system.order_dataaccess.entity.OrderEntity;
 import com.system.order_dataaccess.mapper.OrderDataMapper;
+import com.system.order_dataaccess.repository.OrderDailyStatsJpaRepository;
 import com.system.order_dataaccess.repository.OrderJpaRepository;
 import com.system.order_domain_core.entity.Order;
 import com.system.order_domain_core.valueobject.OrderStatistics;
+import com.system.order_domain_core.valueobject.OrderStatus;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class OrderRepositoryImpl implements OrderRepository {
+    // Số dòng mỗi lần đọc khi stream orders cho analytics
+    private static final int ANALYTICS_FETCH_SIZE = 1000;
+
     private final OrderJpaRepository orderJpaRepository;
     private final OrderDataMapper orderDataMapper;
     private final EntityManager entityManager;
+    private final int insertBatchSize;
+    private final OrderDailyStatsJpaRepository orderDailyStatsJpaRepository;
+    private final ZoneId statisticsZone;
 
     public OrderRepositoryImpl(OrderJpaRepository orderJpaRepository,
                                OrderDataMapper orderDataMapper,
-                               EntityManager entityManager) {
+                               EntityManager entityManager,
+                               int insertBatchSize,
+                               OrderDailyStatsJpaRepository orderDailyStatsJpaRepository,
+                               ZoneId statisticsZone) {
+        if (insertBatchSize < 1) {
+            throw new IllegalArgumentException("order.batch.jdbc-batch-size must be positive");
+        }
         this.orderJpaRepository = orderJpaRepository;
         this.orderDataMapper = orderDataMapper;
         this.entityManager = entityManager;
+        this.insertBatchSize = insertBatchSize;
+        this.orderDailyStatsJpaRepository = orderDailyStatsJpaRepository;
+        this.statisticsZone = statisticsZone;
     }
 
     @Override
     public Order save(Order order) {
         OrderEntity orderEntity = orderDataMapper.orderToOrderEntity(order);
+        // Đọc bản đang lưu trước khi merge để biết đơn mới hay chênh lệch original_price
+        OrderEntity existing = orderEntity.getId() != null
+                ? entityManager.find(OrderEntity.class, orderEntity.getId())
+                : null;
+        BigDecimal previousRevenue = existing != null ? revenueOf(existing) : null;
+        ZonedDateTime createdAt = existing != null ? existing.getCreatedAt() : orderEntity.getCreatedAt();
+        UUID customerId = existing != null ? existing.getCustomerId() : orderEntity.getCustomerId();
+
         OrderEntity savedEntity = orderJpaRepository.save(orderEntity);
+
+        if (previousRevenue == null) {
+            orderDailyStatsJpaRepository.increment(dayOf(createdAt), customerId, 1L, revenueOf(savedEntity));
+        } else {
+            BigDecimal delta = revenueOf(savedEntity).subtract(previousRevenue);
+            if (delta.signum() != 0) {
+                orderDailyStatsJpaRepository.increment(dayOf(createdAt), customerId, 0L, delta);
+            }
+        }
         return orderDataMapper.orderEntityToOrder(savedEntity);
     }
 
     @Override
-    public List<Order> findByCustomerId(UUID customerId) {
-        List<OrderEntity> entities = orderJpaRepository.findByCustomerId(customerId);
+    public List<Order> insertAll(List<Order> orders) {
+        // Batch JDBC chỉ bật cho session này; order_inserts gom INSERT orders rồi INSERT items
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(insertBatchSize);
+        try {
+            List<Order> saved = new ArrayList<>(orders.size());
+            // Gom theo (ngày, customer), thứ tự cố định để các batch đồng thời khóa dòng thống kê cùng thứ tự
+            Map<OrderDailyStatsId, OrderStatistics> dailyStats = new TreeMap<>(
+                    Comparator.comparing(OrderDailyStatsId::getDay).thenComparing(OrderDailyStatsId::getCustomerId));
+            for (int i = 0; i < orders.size(); i++) {
+                OrderEntity orderEntity = orderDataMapper.orderToOrderEntity(orders.get(i));
+                // persist thay vì merge: id mới nên không cần SELECT trước khi INSERT
+                entityManager.persist(orderEntity);
+                saved.add(orderDataMapper.orderEntityToOrder(orderEntity));
+                dailyStats.merge(new OrderDailyStatsId(dayOf(orderEntity.getCreatedAt()), orderEntity.getCustomerId()),
+                        new OrderStatistics(1L, revenueOf(orderEntity)), OrderStatistics::add);
+                if ((i + 1) % insertBatchSize == 0) {
+                    // Giữ persistence context nhỏ khi request có nhiều đơn
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            dailyStats.forEach((key, stats) -> orderDailyStatsJpaRepository.increment(
+                    key.getDay(), key.getCustomerId(), stats.getTotalOrders(), stats.getTotalRevenue()));
+            return saved;
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    @Override
+    public List<Order> findPageByCustomerId(UUID customerId, OrderCursor after, int limit) {
+        // Query 1: id của trang theo keyset; query 2: các đơn kèm items
+        List<UUID> ids = after == null
+                ? orderJpaRepository.findFirstPageIdsByCustomerId(customerId, limit)
+                : orderJpaRepository.findPageIdsAfterByCustomerId(customerId, after.getCreatedAt(), after.getOrderId(), limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<OrderEntity> entities = orderJpaRepository.findWithItemsByIdIn(ids);
         return entities.stream()
                 .map(orderDataMapper::orderEntityToOrder)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Order> findByCustomerId(UUID customerId) {
+        return orderJpaRepository.findWithItemsByCustomerId(customerId).stream()
+                .map(orderDataMapper::orderEntityToOrder)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public Optional<Order> findById(UUID orderId) {
         return orderJpaRepository.findById(orderId)
                 .map(orderDataMapper::orderEntityToOrder);
     }
 
+    @Override
+    public Optional<OrderStatus> findStatusById(UUID orderId) {
+        return orderJpaRepository.findStatusById(orderId)
+                .map(status -> OrderStatus.valueOf(status.name()));
+    }
+
+    @Override
+    public Optional<OrderStatus> lockStatusById(UUID orderId) {
+        return orderJpaRepository.lockStatusById(orderId)
+                .map(OrderStatus::valueOf);
+    }
+
+    @Override
+    public boolean transitionStatus(UUID orderId, OrderStatus expectedStatus, OrderStatus newStatus, String failureMessage) {
+        if (newStatus == OrderStatus.PAID && failureMessage == null) {
+            return orderJpaRepository.transitionToPaid(orderId, toEntityStatus(expectedStatus),
+                    toEntityStatus(newStatus), ZonedDateTime.now()) == 1;
+        }
+        int updated = failureMessage == null
+                ? orderJpaRepository.transition(orderId, toEntityStatus(expectedStatus), toEntityStatus(newStatus))
+                : orderJpaRepository.transitionWithFailure(orderId, toEntityStatus(expectedStatus),
+                        toEntityStatus(newStatus), failureMessage);
+        return updated == 1;
+    }
+
+    @Override
+    public boolean updateRating(UUID orderId, Set<OrderStatus> allowedStatuses, int rating, String comment) {
+        List<com.system.order_dataaccess.entity.OrderStatus> statuses = allowedStatuses.stream()
+                .map(OrderRepositoryImpl::toEntityStatus)
+                .collect(Collectors.toList());
+        return orderJpaRepository.rate(orderId, statuses, rating, comment) == 1;
+    }
+
+    private static com.system.order_dataaccess.entity.OrderStatus toEntityStatus(OrderStatus status) {
+        return com.system.order_dataaccess.entity.OrderStatus.valueOf(status.name());
+    }
+
     @Override
     public OrderStatistics getStatistics(UUID customerId, ZonedDateTime startDate, ZonedDateTime endDate) {
+        // Ngày trọn vẹn lấy từ order_daily_stats; chỉ phần ngày lẻ ở hai đầu mới đếm trên orders
+        LocalDate firstFullDay = startDate != null ? firstFullDay(startDate) : null;
+        // endDate tính cả thời điểm đó: ngày cuối trọn vẹn là ngày trước ngày chứa endDate + 1ns
+        ZonedDateTime endExclusive = endDate != null ? endDate.plusNanos(1) : null;
+        LocalDate lastFullDay = endExclusive != null
+                ? endExclusive.withZoneSameInstant(statisticsZone).toLocalDate().minusDays(1)
+                : null;
+        if (firstFullDay != null && lastFullDay != null && firstFullDay.isAfter(lastFullDay)) {
+            return liveStatistics(customerId, startDate, endExclusive);
+        }
+
+        OrderStatistics statistics = orderDailyStatsJpaRepository.sumBetween(customerId, firstFullDay, lastFullDay);
+        if (statistics == null) {
+            statistics = new OrderStatistics(0L, BigDecimal.ZERO);
+        }
+        if (startDate != null) {
+            ZonedDateTime headEnd = firstFullDay.atStartOfDay(statisticsZone);
+            if (startDate.isBefore(headEnd)) {
+                statistics = statistics.add(liveStatistics(customerId, startDate, headEnd));
+            }
+        }
+        if (endExclusive != null) {
+            ZonedDateTime tailStart = lastFullDay.plusDays(1).atStartOfDay(statisticsZone);
+            if (tailStart.isBefore(endExclusive)) {
+                statistics = statistics.add(liveStatistics(customerId, tailStart, endExclusive));
+            }
+        }
+        return statistics;
+    }
+
+    @Override
+    public void accumulateAnalytics(UUID customerId, ZonedDateTime from, ZonedDateTime toExclusive, OrderAnalytics analytics) {
+        // Chỉ lấy cột cần thiết, đọc theo từng lô fetch size: không nạp entity, không giữ cả kết quả trong bộ nhớ
+        String jpql = "SELECT o.orderStatus, o.restaurantId, o.originalPrice, o.discount, o.price, " +
+                "o.voucherCode, o.createdAt, o.paidAt FROM OrderEntity o " +
+                "WHERE o.createdAt >= :from AND o.createdAt < :to" +
+                (customerId != null ? " AND o.customerId = :customerId" : "");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("from", from)
+                .setParameter("to", toExclusive)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, ANALYTICS_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (customerId != null) {
+            query.setParameter("customerId", customerId);
+        }
+        try (Stream<Object[]> rows = query.getResultStream()) {
+            rows.forEach(row -> analytics.accept(
+                    OrderStatus.valueOf(((com.system.order_dataaccess.entity.OrderStatus) row[0]).name()),
+                    (UUID) row[1],
+                    (BigDecimal) row[2],
+                    (BigDecimal) row[3],
+                    (BigDecimal) row[4],
+                    (String) row[5],
+                    (ZonedDateTime) row[6],
+                    (ZonedDateTime) row[7]));
+        }
+    }
+
+    private LocalDate firstFullDay(ZonedDateTime startDate) {
+        LocalDate day = startDate.withZoneSameInstant(statisticsZone).toLocalDate();
+        return startDate.isEqual(day.atStartOfDay(statisticsZone)) ? day : day.plusDays(1);
+    }
+
+    private LocalDate dayOf(ZonedDateTime createdAt) {
+        return createdAt.withZoneSameInstant(statisticsZone).toLocalDate();
+    }
+
+    private static BigDecimal revenueOf(OrderEntity orderEntity) {
+        return orderEntity.getOriginalPrice() != null ? orderEntity.getOriginalPrice() : BigDecimal.ZERO;
+    }
+
+    // Đếm trực tiếp trên orders trong [startDate, endExclusive); package-private để test tách phần ngày lẻ
+    OrderStatistics liveStatistics(UUID customerId, ZonedDateTime startDate, ZonedDateTime endExclusive) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<OrderStatistics> query = cb.createQuery(OrderStatistics.class);
         Root<OrderEntity> order = query.from(OrderEntity.class);
@@ -73,8 +277,8 @@ public class OrderRepositoryImpl implements OrderRepository {
         if (startDate != null) {
             predicates.add(cb.greaterThanOrEqualTo(order.get("createdAt"), startDate));
         }
-        if (endDate != null) {
-            predicates.add(cb.lessThanOrEqualTo(order.get("createdAt"), endDate));
+        if (endExclusive != null) {
+            predicates.add(cb.lessThan(order.get("createdAt"), endExclusive));
         }
         query.where(cb.and(predicates.toArray(new Predicate[0])));
 
@@ -0,0 +1,24 @@
+package com.system.order_dataaccess.adapter;
+
+import com.system.order_application_service.dto.OrderPaymentRequest;
+import com.system.order_application_service.dto.PaymentOutboxMessage;
+import com.system.order_application_service.ports.output.OrderPaymentMessagePublisher;
+import com.system.order_application_service.ports.output.PaymentOutboxRepository;
+
+/**
+ * Publishes payment requests by writing them to the outbox inside the caller's transaction;
+ * {@code PaymentOutboxRelay} forwards them to Kafka after commit.
+ */
+public class OutboxOrderPaymentMessagePublisher implements OrderPaymentMessagePublisher {
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+
+    public OutboxOrderPaymentMessagePublisher(PaymentOutboxRepository paymentOutboxRepository) {
+        this.paymentOutboxRepository = paymentOutboxRepository;
+    }
+
+    @Override
+    public void publish(OrderPaymentRequest request) {
+        paymentOutboxRepository.save(PaymentOutboxMessage.pending(request));
+    }
+}
@@ -0,0 +1,91 @@
+package com.system.order_dataaccess.adapter;
+
+import com.system.order_application_service.dto.PaymentOutboxMessage;
+import com.system.order_application_service.ports.output.PaymentOutboxRepository;
+import com.system.order_dataaccess.entity.PaymentOutboxEntity;
+import com.system.order_dataaccess.repository.PaymentOutboxJpaRepository;
+import jakarta.persistence.EntityManager;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class PaymentOutboxRepositoryImpl implements PaymentOutboxRepository {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PaymentOutboxJpaRepository paymentOutboxJpaRepository;
+    private final EntityManager entityManager;
+
+    public PaymentOutboxRepositoryImpl(PaymentOutboxJpaRepository paymentOutboxJpaRepository,
+                                       EntityManager entityManager) {
+        this.paymentOutboxJpaRepository = paymentOutboxJpaRepository;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void save(PaymentOutboxMessage message) {
+        PaymentOutboxEntity entity = new PaymentOutboxEntity();
+        entity.setId(message.getId());
+        entity.setOrderId(message.getOrderId());
+        entity.setCustomerId(message.getCustomerId());
+        entity.setPrice(message.getPrice());
+        entity.setStatus(PaymentOutboxEntity.STATUS_PENDING);
+        entity.setAttempts(message.getAttempts());
+        entity.setCreatedAt(message.getCreatedAt());
+        // persist thay vì merge: id mới nên không cần SELECT trước khi INSERT
+        entityManager.persist(entity);
+    }
+
+    @Override
+    public List<PaymentOutboxMessage> claimPendingBatch(int limit, ZonedDateTime claimedUntil) {
+        List<PaymentOutboxEntity> entities = paymentOutboxJpaRepository.lockClaimableBatch(ZonedDateTime.now(), limit);
+        List<PaymentOutboxMessage> messages = new ArrayList<>(entities.size());
+        for (PaymentOutboxEntity entity : entities) {
+            // Entity được quản lý: claimed_until được flush khi transaction của caller commit
+            entity.setClaimedUntil(claimedUntil);
+            messages.add(PaymentOutboxMessage.builder()
+                    .id(entity.getId())
+                    .orderId(entity.getOrderId())
+                    .customerId(entity.getCustomerId())
+                    .price(entity.getPrice())
+                    .createdAt(entity.getCreatedAt())
+                    .attempts(entity.getAttempts())
+                    .build());
+        }
+        return messages;
+    }
+
+    @Override
+    public void markSent(UUID id, int partition, long offset, ZonedDateTime sentAt) {
+        PaymentOutboxEntity entity = entityManager.find(PaymentOutboxEntity.class, id);
+        entity.setStatus(PaymentOutboxEntity.STATUS_SENT);
+        entity.setAttempts(entity.getAttempts() + 1);
+        entity.setKafkaPartition(partition);
+        entity.setKafkaOffset(offset);
+        entity.setSentAt(sentAt);
+        entity.setClaimedUntil(null);
+        entity.setLastError(null);
+    }
+
+    @Override
+    public void markFailed(UUID id, String error) {
+        PaymentOutboxEntity entity = entityManager.find(PaymentOutboxEntity.class, id);
+        entity.setAttempts(entity.getAttempts() + 1);
+        entity.setClaimedUntil(null);
+        entity.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error);
+    }
+
+    @Override
+    public boolean hasPendingForOrder(UUID orderId) {
+        return paymentOutboxJpaRepository.existsByOrderIdAndStatus(orderId, PaymentOutboxEntity.STATUS_PENDING);
+    }
+
+    @Override
+    public int deleteSentBefore(ZonedDateTime threshold) {
+        return paymentOutboxJpaRepository.deleteSentBefore(threshold);
+    }
+}
@@ -0,0 +1,20 @@
+package com.system.order_dataaccess.adapter;
+
+import com.system.order_application_service.ports.output.ProcessedPaymentResponseRepository;
+import com.system.order_dataaccess.repository.ProcessedPaymentResponseJpaRepository;
+
+import java.util.UUID;
+
+public class ProcessedPaymentResponseRepositoryImpl implements ProcessedPaymentResponseRepository {
+
+    private final ProcessedPaymentResponseJpaRepository processedPaymentResponseJpaRepository;
+
+    public ProcessedPaymentResponseRepositoryImpl(ProcessedPaymentResponseJpaRepository processedPaymentResponseJpaRepository) {
+        this.processedPaymentResponseJpaRepository = processedPaymentResponseJpaRepository;
+    }
+
+    @Override
+    public boolean markProcessed(UUID orderId, UUID paymentId, String paymentStatus) {
+        return processedPaymentResponseJpaRepository.insertIfAbsent(orderId, paymentId, paymentStatus) > 0;
+    }
+}
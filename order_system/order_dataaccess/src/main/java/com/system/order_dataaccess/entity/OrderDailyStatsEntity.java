@@ -0,0 +1,29 @@
+package com.system.order_dataaccess.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+// Số đơn và tổng original_price theo (ngày, customer); ngày tính theo order.statistics.zone
+@Entity
+@Table(name = "order_daily_stats", schema = "\"order\"")
+public class OrderDailyStatsEntity {
+
+    @EmbeddedId
+    private OrderDailyStatsId id;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "total_revenue", precision = 14, scale = 2, nullable = false)
+    private BigDecimal totalRevenue;
+
+    public OrderDailyStatsEntity() {}
+
+    public OrderDailyStatsId getId() { return id; }
+    public void setId(OrderDailyStatsId id) { this.id = id; }
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+}
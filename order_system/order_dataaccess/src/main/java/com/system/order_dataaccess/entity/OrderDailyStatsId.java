@@ -0,0 +1,42 @@
+package com.system.order_dataaccess.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class OrderDailyStatsId implements Serializable {
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    public OrderDailyStatsId() {}
+
+    public OrderDailyStatsId(LocalDate day, UUID customerId) {
+        this.day = day;
+        this.customerId = customerId;
+    }
+
+    public LocalDate getDay() { return day; }
+    public UUID getCustomerId() { return customerId; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderDailyStatsId that = (OrderDailyStatsId) o;
+        return Objects.equals(day, that.day) && Objects.equals(customerId, that.customerId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, customerId);
+    }
+}
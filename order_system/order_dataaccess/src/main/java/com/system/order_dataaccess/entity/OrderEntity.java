@@ -51,6 +51,9 @@ public class OrderEntity {
     @Column(name = "comment")
     private String comment;
 
+    @Column(name = "paid_at")
+    private ZonedDateTime paidAt;
+
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItemEntity> items = new ArrayList<>();
@@ -66,6 +69,8 @@ public class OrderEntity {
     public void setRating(Integer rating) { this.rating = rating; }
     public String getComment() { return comment; }
     public void setComment(String comment) { this.comment = comment; }
+    public ZonedDateTime getPaidAt() { return paidAt; }
+    public void setPaidAt(ZonedDateTime paidAt) { this.paidAt = paidAt; }
 
     public OrderEntity() {}
     public void addItem(OrderItemEntity item) { items.add(item); item.setOrder(this); }
@@ -9,8 +9,11 @@ import java.util.UUID;
 @Table(name = "order_items", schema = "\"order\"")
 public class OrderItemEntity {
 
+    // Pooled sequence: Hibernate cấp trước 50 id mỗi lần nextval nên INSERT items được batch (IDENTITY thì không)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_seq")
+    @SequenceGenerator(name = "order_items_id_seq", schema = "\"order\"", sequenceName = "order_items_id_seq",
+            allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
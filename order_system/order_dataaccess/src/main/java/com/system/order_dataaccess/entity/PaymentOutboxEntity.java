@@ -0,0 +1,79 @@
+package com.system.order_dataaccess.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "payment_outbox", schema = "\"order\"")
+public class PaymentOutboxEntity {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENT = "SENT";
+
+    @Id
+    private UUID id;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(precision = 10, scale = 2, nullable = false)
+    private BigDecimal price;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", columnDefinition = "VARCHAR")
+    private String lastError;
+
+    // Relay đang gửi dòng này tới thời điểm này; hết hạn thì relay khác được lấy lại
+    @Column(name = "claimed_until")
+    private ZonedDateTime claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private ZonedDateTime sentAt;
+
+    @Column(name = "kafka_partition")
+    private Integer kafkaPartition;
+
+    @Column(name = "kafka_offset")
+    private Long kafkaOffset;
+
+    public PaymentOutboxEntity() {}
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getOrderId() { return orderId; }
+    public void setOrderId(UUID orderId) { this.orderId = orderId; }
+    public UUID getCustomerId() { return customerId; }
+    public void setCustomerId(UUID customerId) { this.customerId = customerId; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public ZonedDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(ZonedDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+    public ZonedDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(ZonedDateTime createdAt) { this.createdAt = createdAt; }
+    public ZonedDateTime getSentAt() { return sentAt; }
+    public void setSentAt(ZonedDateTime sentAt) { this.sentAt = sentAt; }
+    public Integer getKafkaPartition() { return kafkaPartition; }
+    public void setKafkaPartition(Integer kafkaPartition) { this.kafkaPartition = kafkaPartition; }
+    public Long getKafkaOffset() { return kafkaOffset; }
+    public void setKafkaOffset(Long kafkaOffset) { this.kafkaOffset = kafkaOffset; }
+}
@@ -0,0 +1,28 @@
+package com.system.order_dataaccess.entity;
+
+import jakarta.persistence.*;
+
+import java.time.ZonedDateTime;
+
+@Entity
+@Table(name = "processed_payment_response", schema = "\"order\"")
+public class ProcessedPaymentResponseEntity {
+
+    @EmbeddedId
+    private ProcessedPaymentResponseId id;
+
+    @Column(name = "payment_status")
+    private String paymentStatus;
+
+    @Column(name = "processed_at", nullable = false)
+    private ZonedDateTime processedAt;
+
+    public ProcessedPaymentResponseEntity() {}
+
+    public ProcessedPaymentResponseId getId() { return id; }
+    public void setId(ProcessedPaymentResponseId id) { this.id = id; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public ZonedDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(ZonedDateTime processedAt) { this.processedAt = processedAt; }
+}
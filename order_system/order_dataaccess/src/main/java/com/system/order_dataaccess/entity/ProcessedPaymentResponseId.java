@@ -0,0 +1,41 @@
+package com.system.order_dataaccess.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+@Embeddable
+public class ProcessedPaymentResponseId implements Serializable {
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(name = "payment_id", nullable = false)
+    private UUID paymentId;
+
+    public ProcessedPaymentResponseId() {}
+
+    public ProcessedPaymentResponseId(UUID orderId, UUID paymentId) {
+        this.orderId = orderId;
+        this.paymentId = paymentId;
+    }
+
+    public UUID getOrderId() { return orderId; }
+    public UUID getPaymentId() { return paymentId; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProcessedPaymentResponseId that = (ProcessedPaymentResponseId) o;
+        return Objects.equals(orderId, that.orderId) && Objects.equals(paymentId, that.paymentId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderId, paymentId);
+    }
+}
@@ -5,6 +5,7 @@ import com.system.order_dataaccess.entity.OrderItemEntity;
 import com.system.order_domain_core.entity.Order;
 import com.system.order_domain_core.valueobject.*; // Cập nhật import
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,9 +17,9 @@ public class OrderDataMapper {
         orderEntity.setRestaurantId(order.getRestaurantId().getValue());
         orderEntity.setTrackingId(order.getTrackingId().getValue());
 
-        orderEntity.setPrice(order.getPrice()); // Giá cuối
-        orderEntity.setOriginalPrice(order.getOriginalPrice()); // Giá gốc
-        orderEntity.setDiscount(order.getDiscount());
+        orderEntity.setPrice(toBigDecimal(order.getPrice())); // Giá cuối
+        orderEntity.setOriginalPrice(toBigDecimal(order.getOriginalPrice())); // Giá gốc
+        orderEntity.setDiscount(toBigDecimal(order.getDiscount()));
         orderEntity.setVoucherCode(order.getVoucherCode());
         orderEntity.setRating(order.getRating());
         orderEntity.setComment(order.getComment());
@@ -26,6 +27,7 @@ public class OrderDataMapper {
         orderEntity.setOrderStatus(com.system.order_dataaccess.entity.OrderStatus.valueOf(order.getOrderStatus().toString()));
         orderEntity.setFailureMessages(order.getFailureMessages());
         orderEntity.setCreatedAt(order.getCreatedAt());
+        orderEntity.setPaidAt(order.getPaidAt());
 
         orderEntity.setItems(order.getItems().stream()
                 .map(item -> {
@@ -33,9 +35,9 @@ public class OrderDataMapper {
                     itemEntity.setId(item.getId());
                     itemEntity.setOrderId(order.getId().getValue());
                     itemEntity.setProductId(item.getProductId());
-                    itemEntity.setPrice(item.getPrice());
+                    itemEntity.setPrice(toBigDecimal(item.getPrice()));
                     itemEntity.setQuantity(item.getQuantity());
-                    itemEntity.setSubTotal(item.getSubTotal());
+                    itemEntity.setSubTotal(toBigDecimal(item.getSubTotal()));
                     itemEntity.setOrder(orderEntity);
                     return itemEntity;
                 }).collect(Collectors.toList()));
@@ -48,24 +50,34 @@ public class OrderDataMapper {
                 new CustomerId(orderEntity.getCustomerId()),
                 new RestaurantId(orderEntity.getRestaurantId()),
                 new TrackingId(orderEntity.getTrackingId()),
-                orderEntity.getPrice(), // Giá cuối
+                toMoney(orderEntity.getPrice()), // Giá cuối
                 OrderStatus.valueOf(orderEntity.getOrderStatus()),
                 orderEntity.getItems().stream()
                         .map(item -> new OrderItem(
                                 item.getId(),
                                 item.getOrderId(),
                                 item.getProductId(),
-                                item.getPrice(),
+                                toMoney(item.getPrice()),
                                 item.getQuantity(),
-                                item.getSubTotal()))
+                                toMoney(item.getSubTotal())))
                         .collect(Collectors.toList()),
                 orderEntity.getFailureMessages(),
                 orderEntity.getCreatedAt(),
-                orderEntity.getOriginalPrice(),
-                orderEntity.getDiscount(),
+                toMoney(orderEntity.getOriginalPrice()),
+                toMoney(orderEntity.getDiscount()),
                 orderEntity.getVoucherCode(),
                 orderEntity.getRating(),
-                orderEntity.getComment()
+                orderEntity.getComment(),
+                orderEntity.getPaidAt()
         );
     }
+
+    // original_price và discount được thêm sau nên đơn cũ có thể null
+    private static Money toMoney(BigDecimal value) {
+        return value != null ? Money.of(value) : null;
+    }
+
+    private static BigDecimal toBigDecimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.system.order_dataaccess.repository;
+
+import com.system.order_dataaccess.entity.OrderDailyStatsEntity;
+import com.system.order_dataaccess.entity.OrderDailyStatsId;
+import com.system.order_domain_core.valueobject.OrderStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Repository
+public interface OrderDailyStatsJpaRepository extends JpaRepository<OrderDailyStatsEntity, OrderDailyStatsId> {
+
+    // Cộng dồn trong một câu lệnh: hai giao dịch cùng (ngày, customer) không mất cập nhật
+    @Modifying
+    @Query(value = "INSERT INTO \"order\".order_daily_stats AS s (day, customer_id, order_count, total_revenue) " +
+            "VALUES (:day, :customerId, :orderCount, :totalRevenue) " +
+            "ON CONFLICT (day, customer_id) DO UPDATE " +
+            "SET order_count = s.order_count + EXCLUDED.order_count, " +
+            "total_revenue = s.total_revenue + EXCLUDED.total_revenue",
+            nativeQuery = true)
+    int increment(@Param("day") LocalDate day,
+                  @Param("customerId") UUID customerId,
+                  @Param("orderCount") long orderCount,
+                  @Param("totalRevenue") BigDecimal totalRevenue);
+
+    // fromDay/toDay null: không giới hạn phía đó
+    @Query("SELECT new com.system.order_domain_core.valueobject.OrderStatistics(" +
+            "SUM(s.orderCount), SUM(s.totalRevenue)) " +
+            "FROM OrderDailyStatsEntity s " +
+            "WHERE (:customerId IS NULL OR s.id.customerId = :customerId) " +
+            "AND (:fromDay IS NULL OR s.id.day >= :fromDay) " +
+            "AND (:toDay IS NULL OR s.id.day <= :toDay)")
+    OrderStatistics sumBetween(@Param("customerId") UUID customerId,
+                               @Param("fromDay") LocalDate fromDay,
+                               @Param("toDay") LocalDate toDay);
+}
@@ -1,16 +1,82 @@
 package com.system.order_dataaccess.repository;
 
 import com.system.order_dataaccess.entity.OrderEntity;
+import com.system.order_dataaccess.entity.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderJpaRepository extends JpaRepository<OrderEntity, UUID>, JpaSpecificationExecutor<OrderEntity> {
 
-    List<OrderEntity> findByCustomerId(UUID customerId);
+    // Keyset pagination theo (created_at, id) giảm dần: chỉ lấy id, dùng index (customer_id, created_at, id)
+    @Query(value = "SELECT id FROM \"order\".orders WHERE customer_id = :customerId " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<UUID> findFirstPageIdsByCustomerId(@Param("customerId") UUID customerId,
+                                            @Param("limit") int limit);
 
-}
\ No newline at end of file
+    @Query(value = "SELECT id FROM \"order\".orders WHERE customer_id = :customerId " +
+            "AND (created_at, id) < (:createdAt, :id) ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<UUID> findPageIdsAfterByCustomerId(@Param("customerId") UUID customerId,
+                                            @Param("createdAt") ZonedDateTime createdAt,
+                                            @Param("id") UUID id,
+                                            @Param("limit") int limit);
+
+    // Một query cho cả trang: items được fetch join thay vì lazy-load từng đơn
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM OrderEntity o WHERE o.id IN :ids ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderEntity> findWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM OrderEntity o WHERE o.customerId = :customerId ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderEntity> findWithItemsByCustomerId(@Param("customerId") UUID customerId);
+
+    @Query("SELECT o.orderStatus FROM OrderEntity o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") UUID id);
+
+    // Khóa dòng order tới hết transaction của caller
+    @Query(value = "SELECT order_status FROM \"order\".orders WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<String> lockStatusById(@Param("id") UUID id);
+
+    // Chỉ chuyển trạng thái khi đơn vẫn ở trạng thái mong đợi: một câu UPDATE, không load + merge cả aggregate
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderEntity o SET o.orderStatus = :to WHERE o.id = :id AND o.orderStatus = :from")
+    int transition(@Param("id") UUID id,
+                   @Param("from") OrderStatus from,
+                   @Param("to") OrderStatus to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderEntity o SET o.orderStatus = :to, o.paidAt = :paidAt WHERE o.id = :id AND o.orderStatus = :from")
+    int transitionToPaid(@Param("id") UUID id,
+                         @Param("from") OrderStatus from,
+                         @Param("to") OrderStatus to,
+                         @Param("paidAt") ZonedDateTime paidAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderEntity o SET o.orderStatus = :to, o.failureMessages = CASE WHEN o.failureMessages IS NULL " +
+            "THEN :message ELSE CONCAT(o.failureMessages, ', ', :message) END " +
+            "WHERE o.id = :id AND o.orderStatus = :from")
+    int transitionWithFailure(@Param("id") UUID id,
+                              @Param("from") OrderStatus from,
+                              @Param("to") OrderStatus to,
+                              @Param("message") String message);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OrderEntity o SET o.rating = :rating, o.comment = :comment " +
+            "WHERE o.id = :id AND o.orderStatus IN :statuses")
+    int rate(@Param("id") UUID id,
+             @Param("statuses") Collection<OrderStatus> statuses,
+             @Param("rating") int rating,
+             @Param("comment") String comment);
+
+}
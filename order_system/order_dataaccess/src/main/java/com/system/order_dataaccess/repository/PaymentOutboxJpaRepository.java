@@ -0,0 +1,29 @@
+package com.system.order_dataaccess.repository;
+
+import com.system.order_dataaccess.entity.PaymentOutboxEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentOutboxJpaRepository extends JpaRepository<PaymentOutboxEntity, UUID> {
+
+    // SKIP LOCKED: nhiều relay (nhiều instance) lấy các batch khác nhau mà không chờ nhau;
+    // dòng đã được relay khác claim thì bỏ qua tới khi claim hết hạn
+    @Query(value = "SELECT * FROM \"order\".payment_outbox WHERE status = 'PENDING' " +
+            "AND (claimed_until IS NULL OR claimed_until < :now) " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PaymentOutboxEntity> lockClaimableBatch(@Param("now") ZonedDateTime now, @Param("limit") int limit);
+
+    boolean existsByOrderIdAndStatus(UUID orderId, String status);
+
+    @Modifying
+    @Query("DELETE FROM PaymentOutboxEntity o WHERE o.status = 'SENT' AND o.sentAt < :threshold")
+    int deleteSentBefore(@Param("threshold") ZonedDateTime threshold);
+}
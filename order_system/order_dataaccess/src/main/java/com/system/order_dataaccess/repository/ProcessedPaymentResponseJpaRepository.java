@@ -0,0 +1,24 @@
+package com.system.order_dataaccess.repository;
+
+import com.system.order_dataaccess.entity.ProcessedPaymentResponseEntity;
+import com.system.order_dataaccess.entity.ProcessedPaymentResponseId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ProcessedPaymentResponseJpaRepository
+        extends JpaRepository<ProcessedPaymentResponseEntity, ProcessedPaymentResponseId> {
+
+    // ON CONFLICT DO NOTHING: trả về 0 nếu key đã có; insert đồng thời cùng key sẽ chờ transaction kia commit
+    @Modifying
+    @Query(value = "INSERT INTO \"order\".processed_payment_response (order_id, payment_id, payment_status, processed_at) " +
+            "VALUES (:orderId, :paymentId, :paymentStatus, now()) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") UUID orderId,
+                       @Param("paymentId") UUID paymentId,
+                       @Param("paymentStatus") String paymentStatus);
+}
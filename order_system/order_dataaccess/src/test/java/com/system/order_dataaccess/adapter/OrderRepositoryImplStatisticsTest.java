@@ -0,0 +1,163 @@
+package com.system.order_dataaccess.adapter;
+
+import com.system.order_dataaccess.mapper.OrderDataMapper;
+import com.system.order_dataaccess.repository.OrderDailyStatsJpaRepository;
+import com.system.order_dataaccess.repository.OrderJpaRepository;
+import com.system.order_domain_core.valueobject.OrderStatistics;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * getStatistics splits [startDate, endDate] into whole days read from order_daily_stats and the
+ * partial days at either end counted live on orders. Days are cut in the statistics zone (UTC here).
+ */
+class OrderRepositoryImplStatisticsTest {
+
+    private static final UUID CUSTOMER_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final OrderStatistics DAILY = new OrderStatistics(10L, new BigDecimal("100.00"));
+    private static final OrderStatistics LIVE = new OrderStatistics(1L, new BigDecimal("5.00"));
+
+    private OrderDailyStatsJpaRepository orderDailyStatsJpaRepository;
+    private OrderRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        orderDailyStatsJpaRepository = mock(OrderDailyStatsJpaRepository.class);
+        repository = spy(new OrderRepositoryImpl(mock(OrderJpaRepository.class), mock(OrderDataMapper.class),
+                mock(EntityManager.class), 50, orderDailyStatsJpaRepository, ZoneOffset.UTC));
+        when(orderDailyStatsJpaRepository.sumBetween(any(), any(), any())).thenReturn(DAILY);
+        doReturn(LIVE).when(repository).liveStatistics(any(), any(), any());
+    }
+
+    @Test
+    void intraDayRange_countsLiveOnly() {
+        ZonedDateTime start = utc("2025-03-10T08:00:00");
+        ZonedDateTime end = utc("2025-03-10T17:00:00");
+
+        OrderStatistics statistics = repository.getStatistics(CUSTOMER_ID, start, end);
+
+        verify(orderDailyStatsJpaRepository, never()).sumBetween(any(), any(), any());
+        verify(repository).liveStatistics(eq(CUSTOMER_ID), at(start), at(end.plusNanos(1)));
+        verify(repository, times(1)).liveStatistics(any(), any(), any());
+        assertTotals(statistics, LIVE);
+    }
+
+    @Test
+    void rangeStartingAtMidnight_hasNoHead() {
+        ZonedDateTime start = utc("2025-03-10T00:00:00");
+        ZonedDateTime end = utc("2025-03-12T12:00:00");
+
+        OrderStatistics statistics = repository.getStatistics(CUSTOMER_ID, start, end);
+
+        verify(orderDailyStatsJpaRepository).sumBetween(CUSTOMER_ID, LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 11));
+        verify(repository).liveStatistics(eq(CUSTOMER_ID), at(utc("2025-03-12T00:00:00")), at(end.plusNanos(1)));
+        verify(repository, times(1)).liveStatistics(any(), any(), any());
+        assertTotals(statistics, DAILY.add(LIVE));
+    }
+
+    @Test
+    void midnightToMidnight_endInstantCountedLive() {
+        ZonedDateTime start = utc("2025-03-10T00:00:00");
+        ZonedDateTime end = utc("2025-03-12T00:00:00");
+
+        repository.getStatistics(CUSTOMER_ID, start, end);
+
+        // endDate là mốc bao gồm: đơn tạo đúng 00:00 ngày 12 vẫn được đếm
+        verify(orderDailyStatsJpaRepository).sumBetween(CUSTOMER_ID, LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 11));
+        verify(repository).liveStatistics(eq(CUSTOMER_ID), at(end), at(end.plusNanos(1)));
+        verify(repository, times(1)).liveStatistics(any(), any(), any());
+    }
+
+    @Test
+    void nullStart_readsAllDaysBeforeTail() {
+        ZonedDateTime end = utc("2025-03-12T12:00:00");
+
+        OrderStatistics statistics = repository.getStatistics(CUSTOMER_ID, null, end);
+
+        verify(orderDailyStatsJpaRepository).sumBetween(eq(CUSTOMER_ID), isNull(), eq(LocalDate.of(2025, 3, 11)));
+        verify(repository).liveStatistics(eq(CUSTOMER_ID), at(utc("2025-03-12T00:00:00")), at(end.plusNanos(1)));
+        verify(repository, times(1)).liveStatistics(any(), any(), any());
+        assertTotals(statistics, DAILY.add(LIVE));
+    }
+
+    @Test
+    void nullEnd_readsAllDaysAfterHead() {
+        ZonedDateTime start = utc("2025-03-10T08:00:00");
+
+        OrderStatistics statistics = repository.getStatistics(CUSTOMER_ID, start, null);
+
+        verify(orderDailyStatsJpaRepository).sumBetween(eq(CUSTOMER_ID), eq(LocalDate.of(2025, 3, 11)), isNull());
+        verify(repository).liveStatistics(eq(CUSTOMER_ID), at(start), at(utc("2025-03-11T00:00:00")));
+        verify(repository, times(1)).liveStatistics(any(), any(), any());
+        assertTotals(statistics, DAILY.add(LIVE));
+    }
+
+    @Test
+    void noBounds_readsDailyStatsOnly() {
+        OrderStatistics statistics = repository.getStatistics(CUSTOMER_ID, null, null);
+
+        verify(orderDailyStatsJpaRepository).sumBetween(eq(CUSTOMER_ID), isNull(), isNull());
+        verify(repository, never()).liveStatistics(any(), any(), any());
+        assertTotals(statistics, DAILY);
+    }
+
+    @Test
+    void nonUtcOffset_cutsDaysInStatisticsZone() {
+        // 05:00+07:00 ngày 10 là 22:00Z ngày 9; 03:00+07:00 ngày 12 là 20:00Z ngày 11
+        ZonedDateTime start = ZonedDateTime.parse("2025-03-10T05:00:00+07:00");
+        ZonedDateTime end = ZonedDateTime.parse("2025-03-12T03:00:00+07:00");
+
+        OrderStatistics statistics = repository.getStatistics(CUSTOMER_ID, start, end);
+
+        verify(orderDailyStatsJpaRepository).sumBetween(CUSTOMER_ID, LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 10));
+        verify(repository).liveStatistics(eq(CUSTOMER_ID), at(start), at(utc("2025-03-10T00:00:00")));
+        verify(repository).liveStatistics(eq(CUSTOMER_ID), at(utc("2025-03-11T00:00:00")), at(end.plusNanos(1)));
+        verify(repository, times(2)).liveStatistics(any(), any(), any());
+        assertTotals(statistics, DAILY.add(LIVE).add(LIVE));
+    }
+
+    @Test
+    void emptyDailyStats_treatedAsZero() {
+        when(orderDailyStatsJpaRepository.sumBetween(any(), any(), any())).thenReturn(null);
+
+        OrderStatistics statistics = repository.getStatistics(CUSTOMER_ID, null, null);
+
+        assertTotals(statistics, new OrderStatistics(0L, BigDecimal.ZERO));
+    }
+
+    private static ZonedDateTime utc(String localDateTime) {
+        return ZonedDateTime.parse(localDateTime + "Z");
+    }
+
+    // So sánh theo thời điểm, không theo zone: mốc ngày được tính trong statistics zone
+    private static ZonedDateTime at(ZonedDateTime expected) {
+        ArgumentMatcher<ZonedDateTime> sameInstant = actual -> actual != null && actual.isEqual(expected);
+        return argThat(sameInstant);
+    }
+
+    private static void assertTotals(OrderStatistics actual, OrderStatistics expected) {
+        assertThat(actual.getTotalOrders()).isEqualTo(expected.getTotalOrders());
+        assertThat(actual.getTotalRevenue()).isEqualByComparingTo(expected.getTotalRevenue());
+    }
+}
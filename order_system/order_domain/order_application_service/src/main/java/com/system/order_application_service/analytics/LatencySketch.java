@@ -0,0 +1,94 @@
+package com.system.order_application_service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch for non-negative durations in milliseconds. Values go into logarithmic
+ * buckets of ratio {@code gamma = (1 + a) / (1 - a)}, so any quantile is within relative error
+ * {@code a} of the true value. Memory depends on the largest value (about 1100 buckets up to 30 days
+ * at a = 1%), not on how many values were added; two sketches merge by adding bucket counts.
+ */
+public class LatencySketch {
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+
+    // counts[i] = số giá trị trong (gamma^(i-1), gamma^i]; giá trị < 1ms tính vào zeroCount
+    private long[] counts = new long[0];
+    private long zeroCount;
+    private long count;
+    private long minMillis = Long.MAX_VALUE;
+    private long maxMillis;
+
+    public LatencySketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1)");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    public void add(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative: " + millis);
+        }
+        if (millis < 1) {
+            zeroCount++;
+        } else {
+            int index = (int) Math.ceil(Math.log(millis) / logGamma);
+            if (index >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+            }
+            counts[index]++;
+        }
+        count++;
+        minMillis = Math.min(minMillis, millis);
+        maxMillis = Math.max(maxMillis, millis);
+    }
+
+    public LatencySketch merge(LatencySketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relative accuracy");
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        minMillis = Math.min(minMillis, other.minMillis);
+        maxMillis = Math.max(maxMillis, other.maxMillis);
+        return this;
+    }
+
+    /**
+     * Estimated value at quantile {@code q} in [0, 1]; 0 when the sketch is empty.
+     */
+    public long quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Điểm giữa (theo sai số tương đối) của bucket, kẹp trong [min, max] đã biết chính xác
+                long estimate = Math.round(2 * Math.exp(i * logGamma) / (1 + Math.exp(logGamma)));
+                return Math.max(minMillis, Math.min(maxMillis, estimate));
+            }
+        }
+        return maxMillis;
+    }
+
+    public long getCount() { return count; }
+    public long getMaxMillis() { return maxMillis; }
+}
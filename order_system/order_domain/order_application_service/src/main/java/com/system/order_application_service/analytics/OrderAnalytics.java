@@ -0,0 +1,117 @@
+package com.system.order_application_service.analytics;
+
+import com.system.order_domain_core.valueobject.Money;
+import com.system.order_domain_core.valueobject.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Single-pass accumulator over orders: every order is seen once through {@link #accept} and then
+ * dropped, so memory grows with the number of statuses and restaurants, not with the number of
+ * orders. Partial results of disjoint partitions combine with {@link #merge}. Not thread-safe: each
+ * partition fills its own instance.
+ */
+public class OrderAnalytics {
+
+    // Đơn đã thu tiền: tính vào doanh thu và breakdown theo nhà hàng
+    public static final Set<OrderStatus> REVENUE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(OrderStatus.PAID, OrderStatus.APPROVED));
+
+    // Sai số tương đối 1% cho percentile độ trễ thanh toán
+    private static final double LATENCY_RELATIVE_ACCURACY = 0.01;
+
+    private long totalOrders;
+    private long voucherOrders;
+    private final Breakdown revenue = new Breakdown();
+    private final Map<OrderStatus, Breakdown> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<UUID, Breakdown> byRestaurant = new HashMap<>();
+    private final LatencySketch paymentLatency = new LatencySketch(LATENCY_RELATIVE_ACCURACY);
+
+    /**
+     * @param originalPrice giá gốc; null với đơn cũ trước khi có cột
+     * @param discount      null được coi là 0
+     * @param price         giá cuối sau giảm giá
+     * @param paidAt        null khi đơn chưa (hoặc không ghi nhận) thanh toán
+     */
+    public void accept(OrderStatus status, UUID restaurantId, BigDecimal originalPrice, BigDecimal discount,
+                       BigDecimal price, String voucherCode, ZonedDateTime createdAt, ZonedDateTime paidAt) {
+        long netCents = cents(price);
+        long discountCents = cents(discount);
+        // Đơn cũ không có original_price: giá gốc = giá cuối + giảm giá
+        long grossCents = originalPrice != null ? cents(originalPrice) : Math.addExact(netCents, discountCents);
+
+        totalOrders++;
+        if (voucherCode != null && !voucherCode.isEmpty()) {
+            voucherOrders++;
+        }
+        byStatus.computeIfAbsent(status, s -> new Breakdown()).add(grossCents, discountCents, netCents);
+        if (REVENUE_STATUSES.contains(status)) {
+            revenue.add(grossCents, discountCents, netCents);
+            byRestaurant.computeIfAbsent(restaurantId, r -> new Breakdown()).add(grossCents, discountCents, netCents);
+        }
+        if (paidAt != null && createdAt != null && !paidAt.isBefore(createdAt)) {
+            paymentLatency.add(Duration.between(createdAt, paidAt).toMillis());
+        }
+    }
+
+    public OrderAnalytics merge(OrderAnalytics other) {
+        totalOrders += other.totalOrders;
+        voucherOrders += other.voucherOrders;
+        revenue.merge(other.revenue);
+        other.byStatus.forEach((status, breakdown) ->
+                byStatus.computeIfAbsent(status, s -> new Breakdown()).merge(breakdown));
+        other.byRestaurant.forEach((restaurantId, breakdown) ->
+                byRestaurant.computeIfAbsent(restaurantId, r -> new Breakdown()).merge(breakdown));
+        paymentLatency.merge(other.paymentLatency);
+        return this;
+    }
+
+    private static long cents(BigDecimal value) {
+        return value != null ? Money.of(value).getCents() : 0L;
+    }
+
+    public long getTotalOrders() { return totalOrders; }
+    public long getVoucherOrders() { return voucherOrders; }
+    public Breakdown getRevenue() { return revenue; }
+    public Map<OrderStatus, Breakdown> getByStatus() { return Collections.unmodifiableMap(byStatus); }
+    public Map<UUID, Breakdown> getByRestaurant() { return Collections.unmodifiableMap(byRestaurant); }
+    public LatencySketch getPaymentLatency() { return paymentLatency; }
+
+    /**
+     * Số đơn và tổng tiền (cents) của một nhóm.
+     */
+    public static class Breakdown {
+        private long orders;
+        private long grossCents;
+        private long discountCents;
+        private long netCents;
+
+        void add(long gross, long discount, long net) {
+            orders++;
+            grossCents = Math.addExact(grossCents, gross);
+            discountCents = Math.addExact(discountCents, discount);
+            netCents = Math.addExact(netCents, net);
+        }
+
+        void merge(Breakdown other) {
+            orders += other.orders;
+            grossCents = Math.addExact(grossCents, other.grossCents);
+            discountCents = Math.addExact(discountCents, other.discountCents);
+            netCents = Math.addExact(netCents, other.netCents);
+        }
+
+        public long getOrders() { return orders; }
+        public Money getGrossRevenue() { return Money.ofCents(grossCents); }
+        public Money getDiscount() { return Money.ofCents(discountCents); }
+        public Money getNetRevenue() { return Money.ofCents(netCents); }
+    }
+}
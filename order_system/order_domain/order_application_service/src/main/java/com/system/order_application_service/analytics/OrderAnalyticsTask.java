@@ -0,0 +1,58 @@
+package com.system.order_application_service.analytics;
+
+import com.system.order_application_service.ports.OrderRepository;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits [{@code fromDay}, {@code toDayExclusive}) in halves until a partition spans at most
+ * {@code partitionDays}; each partition streams its orders in its own read-only transaction and the
+ * partial {@link OrderAnalytics} are merged on the way back up.
+ */
+public class OrderAnalyticsTask extends RecursiveTask<OrderAnalytics> {
+
+    private final OrderRepository orderRepository;
+    private final TransactionOperations readOnlyTransaction;
+    private final UUID customerId;
+    private final LocalDate fromDay;
+    private final LocalDate toDayExclusive;
+    private final ZoneId zone;
+    private final int partitionDays;
+
+    public OrderAnalyticsTask(OrderRepository orderRepository, TransactionOperations readOnlyTransaction,
+                              UUID customerId, LocalDate fromDay, LocalDate toDayExclusive,
+                              ZoneId zone, int partitionDays) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.customerId = customerId;
+        this.fromDay = fromDay;
+        this.toDayExclusive = toDayExclusive;
+        this.zone = zone;
+        this.partitionDays = partitionDays;
+    }
+
+    @Override
+    protected OrderAnalytics compute() {
+        long days = ChronoUnit.DAYS.between(fromDay, toDayExclusive);
+        if (days <= partitionDays) {
+            OrderAnalytics analytics = new OrderAnalytics();
+            // Transaction gắn với luồng worker hiện tại; readOnly nên đọc từ replica khi có
+            readOnlyTransaction.executeWithoutResult(status -> orderRepository.accumulateAnalytics(
+                    customerId, fromDay.atStartOfDay(zone), toDayExclusive.atStartOfDay(zone), analytics));
+            return analytics;
+        }
+        LocalDate middle = fromDay.plusDays(days / 2);
+        OrderAnalyticsTask left = new OrderAnalyticsTask(orderRepository, readOnlyTransaction, customerId,
+                fromDay, middle, zone, partitionDays);
+        OrderAnalyticsTask right = new OrderAnalyticsTask(orderRepository, readOnlyTransaction, customerId,
+                middle, toDayExclusive, zone, partitionDays);
+        left.fork();
+        OrderAnalytics rightResult = right.compute();
+        return left.join().merge(rightResult);
+    }
+}
@@ -0,0 +1,66 @@
+package com.system.order_application_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+@Schema(description = "Order analytics for a period: revenue net of discount, breakdowns, voucher uptake and payment latency")
+public class OrderAnalyticsResponse {
+    @Schema(description = "Number of orders created in the period, in any status", example = "150")
+    private Long totalOrders;
+
+    @Schema(description = "Revenue of paid orders (PAID, APPROVED): count, gross, discount and net")
+    private OrderBreakdownResponse revenue;
+
+    @Schema(description = "Average net value of a paid order", example = "28.34")
+    private BigDecimal averageNetOrderValue;
+
+    @Schema(description = "Number of orders that used a voucher", example = "37")
+    private Long voucherOrders;
+
+    @Schema(description = "Share of orders that used a voucher (voucherOrders / totalOrders)", example = "0.2467")
+    private BigDecimal voucherUptakeRate;
+
+    @Schema(description = "All orders of the period grouped by status")
+    private Map<String, OrderBreakdownResponse> byStatus;
+
+    @Schema(description = "Paid orders grouped by restaurant ID")
+    private Map<UUID, OrderBreakdownResponse> byRestaurant;
+
+    @Schema(description = "Latency between order creation and payment")
+    private PaymentLatencyResponse paymentLatency;
+
+    public OrderAnalyticsResponse(Long totalOrders, OrderBreakdownResponse revenue, BigDecimal averageNetOrderValue,
+                                  Long voucherOrders, BigDecimal voucherUptakeRate,
+                                  Map<String, OrderBreakdownResponse> byStatus,
+                                  Map<UUID, OrderBreakdownResponse> byRestaurant,
+                                  PaymentLatencyResponse paymentLatency) {
+        this.totalOrders = totalOrders;
+        this.revenue = revenue;
+        this.averageNetOrderValue = averageNetOrderValue;
+        this.voucherOrders = voucherOrders;
+        this.voucherUptakeRate = voucherUptakeRate;
+        this.byStatus = byStatus;
+        this.byRestaurant = byRestaurant;
+        this.paymentLatency = paymentLatency;
+    }
+
+    public Long getTotalOrders() { return totalOrders; }
+    public void setTotalOrders(Long totalOrders) { this.totalOrders = totalOrders; }
+    public OrderBreakdownResponse getRevenue() { return revenue; }
+    public void setRevenue(OrderBreakdownResponse revenue) { this.revenue = revenue; }
+    public BigDecimal getAverageNetOrderValue() { return averageNetOrderValue; }
+    public void setAverageNetOrderValue(BigDecimal averageNetOrderValue) { this.averageNetOrderValue = averageNetOrderValue; }
+    public Long getVoucherOrders() { return voucherOrders; }
+    public void setVoucherOrders(Long voucherOrders) { this.voucherOrders = voucherOrders; }
+    public BigDecimal getVoucherUptakeRate() { return voucherUptakeRate; }
+    public void setVoucherUptakeRate(BigDecimal voucherUptakeRate) { this.voucherUptakeRate = voucherUptakeRate; }
+    public Map<String, OrderBreakdownResponse> getByStatus() { return byStatus; }
+    public void setByStatus(Map<String, OrderBreakdownResponse> byStatus) { this.byStatus = byStatus; }
+    public Map<UUID, OrderBreakdownResponse> getByRestaurant() { return byRestaurant; }
+    public void setByRestaurant(Map<UUID, OrderBreakdownResponse> byRestaurant) { this.byRestaurant = byRestaurant; }
+    public PaymentLatencyResponse getPaymentLatency() { return paymentLatency; }
+    public void setPaymentLatency(PaymentLatencyResponse paymentLatency) { this.paymentLatency = paymentLatency; }
+}
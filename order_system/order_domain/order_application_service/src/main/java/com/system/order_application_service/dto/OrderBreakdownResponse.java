@@ -0,0 +1,36 @@
+package com.system.order_application_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Order count and amounts of one group (status or restaurant)")
+public class OrderBreakdownResponse {
+    @Schema(description = "Number of orders in the group", example = "42")
+    private Long orders;
+
+    @Schema(description = "Sum of original prices, before discount", example = "1250.00")
+    private BigDecimal grossRevenue;
+
+    @Schema(description = "Sum of voucher discounts", example = "75.50")
+    private BigDecimal discount;
+
+    @Schema(description = "Sum of final prices, net of discount", example = "1174.50")
+    private BigDecimal netRevenue;
+
+    public OrderBreakdownResponse(Long orders, BigDecimal grossRevenue, BigDecimal discount, BigDecimal netRevenue) {
+        this.orders = orders;
+        this.grossRevenue = grossRevenue;
+        this.discount = discount;
+        this.netRevenue = netRevenue;
+    }
+
+    public Long getOrders() { return orders; }
+    public void setOrders(Long orders) { this.orders = orders; }
+    public BigDecimal getGrossRevenue() { return grossRevenue; }
+    public void setGrossRevenue(BigDecimal grossRevenue) { this.grossRevenue = grossRevenue; }
+    public BigDecimal getDiscount() { return discount; }
+    public void setDiscount(BigDecimal discount) { this.discount = discount; }
+    public BigDecimal getNetRevenue() { return netRevenue; }
+    public void setNetRevenue(BigDecimal netRevenue) { this.netRevenue = netRevenue; }
+}
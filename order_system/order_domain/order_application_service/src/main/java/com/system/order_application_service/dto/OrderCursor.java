@@ -0,0 +1,45 @@
+package com.system.order_application_service.dto;
+
+import com.system.order_domain_core.exception.OrderDomainException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the (created_at DESC, id DESC) ordering of a customer's orders, exchanged with clients
+ * as an opaque token.
+ */
+public class OrderCursor {
+
+    private final ZonedDateTime createdAt;
+    private final UUID orderId;
+
+    public OrderCursor(ZonedDateTime createdAt, UUID orderId) {
+        this.createdAt = createdAt;
+        this.orderId = orderId;
+    }
+
+    public String encode() {
+        String raw = createdAt.toInstant() + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new OrderCursor(
+                    Instant.parse(raw.substring(0, separator)).atZone(ZoneOffset.UTC),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new OrderDomainException("Invalid order cursor: " + token);
+        }
+    }
+
+    public ZonedDateTime getCreatedAt() { return createdAt; }
+    public UUID getOrderId() { return orderId; }
+}
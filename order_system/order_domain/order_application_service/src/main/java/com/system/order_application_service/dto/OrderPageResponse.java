@@ -0,0 +1,17 @@
+package com.system.order_application_service.dto;
+
+import java.util.List;
+
+// Một trang lịch sử đơn hàng; nextCursor null khi đã tới trang cuối
+public class OrderPageResponse {
+    private final List<OrderResponse> orders;
+    private final String nextCursor;
+
+    public OrderPageResponse(List<OrderResponse> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderResponse> getOrders() { return orders; }
+    public String getNextCursor() { return nextCursor; }
+}
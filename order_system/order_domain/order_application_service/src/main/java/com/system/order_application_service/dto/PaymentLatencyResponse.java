@@ -0,0 +1,47 @@
+package com.system.order_application_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Time from order creation to payment; percentiles are within 1% relative error")
+public class PaymentLatencyResponse {
+    @Schema(description = "Number of paid orders with a recorded payment time", example = "120")
+    private Long sampleCount;
+
+    @Schema(description = "Median latency in milliseconds", example = "1850")
+    private Long p50Millis;
+
+    @Schema(description = "90th percentile latency in milliseconds", example = "4200")
+    private Long p90Millis;
+
+    @Schema(description = "95th percentile latency in milliseconds", example = "6100")
+    private Long p95Millis;
+
+    @Schema(description = "99th percentile latency in milliseconds", example = "15000")
+    private Long p99Millis;
+
+    @Schema(description = "Exact maximum latency in milliseconds", example = "42000")
+    private Long maxMillis;
+
+    public PaymentLatencyResponse(Long sampleCount, Long p50Millis, Long p90Millis, Long p95Millis,
+                                  Long p99Millis, Long maxMillis) {
+        this.sampleCount = sampleCount;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public Long getSampleCount() { return sampleCount; }
+    public void setSampleCount(Long sampleCount) { this.sampleCount = sampleCount; }
+    public Long getP50Millis() { return p50Millis; }
+    public void setP50Millis(Long p50Millis) { this.p50Millis = p50Millis; }
+    public Long getP90Millis() { return p90Millis; }
+    public void setP90Millis(Long p90Millis) { this.p90Millis = p90Millis; }
+    public Long getP95Millis() { return p95Millis; }
+    public void setP95Millis(Long p95Millis) { this.p95Millis = p95Millis; }
+    public Long getP99Millis() { return p99Millis; }
+    public void setP99Millis(Long p99Millis) { this.p99Millis = p99Millis; }
+    public Long getMaxMillis() { return maxMillis; }
+    public void setMaxMillis(Long maxMillis) { this.maxMillis = maxMillis; }
+}
@@ -0,0 +1,35 @@
+package com.system.order_application_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * A payment request waiting in the outbox to be relayed to {@code order.payment.request}.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class PaymentOutboxMessage {
+    private final UUID id;
+    private final UUID orderId;
+    private final UUID customerId;
+    private final BigDecimal price;
+    private final ZonedDateTime createdAt;
+    private final int attempts;
+
+    public static PaymentOutboxMessage pending(OrderPaymentRequest request) {
+        return PaymentOutboxMessage.builder()
+                .id(UUID.randomUUID())
+                .orderId(request.getOrderId())
+                .customerId(request.getCustomerId())
+                .price(request.getPrice())
+                .createdAt(ZonedDateTime.now())
+                .attempts(0)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.system.order_application_service.handler;
+
+import com.system.order_application_service.dto.PaymentResponse;
+import com.system.order_application_service.ports.input.PaymentResponseMessageListener;
+import com.system.order_application_service.ports.output.ProcessedPaymentResponseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Drops redelivered payment responses before they reach the order.
+ *
+ * <p>Recently seen (orderId, paymentId) keys are kept in a bounded LRU, so a duplicate from a
+ * rebalance is answered from memory, before any transaction is opened. On a miss the key is claimed in
+ * {@link ProcessedPaymentResponseRepository} in the same transaction as the order update; a key that
+ * is already there (older than the LRU, or seen by another instance) is dropped the same way.
+ * Dropped responses return false so callers can skip side effects such as notifications.
+ */
+@Slf4j
+public class IdempotentPaymentResponseMessageListener implements PaymentResponseMessageListener {
+
+    // Payment FAILED trước khi tạo payment (vd. không đủ credit) không có paymentId
+    private static final UUID NO_PAYMENT_ID = new UUID(0L, 0L);
+
+    private final PaymentResponseMessageListener delegate;
+    private final ProcessedPaymentResponseRepository processedPaymentResponseRepository;
+    private final TransactionOperations transactionOperations;
+    private final Map<String, Boolean> recentlyProcessed;
+
+    public IdempotentPaymentResponseMessageListener(PaymentResponseMessageListener delegate,
+                                                    ProcessedPaymentResponseRepository processedPaymentResponseRepository,
+                                                    TransactionOperations transactionOperations,
+                                                    int cacheSize) {
+        this.delegate = delegate;
+        this.processedPaymentResponseRepository = processedPaymentResponseRepository;
+        this.transactionOperations = transactionOperations;
+        this.recentlyProcessed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public boolean paymentCompleted(PaymentResponse paymentResponse) {
+        return process(paymentResponse, delegate::paymentCompleted);
+    }
+
+    @Override
+    public boolean paymentFailed(PaymentResponse paymentResponse) {
+        return process(paymentResponse, delegate::paymentFailed);
+    }
+
+    private boolean process(PaymentResponse paymentResponse, Predicate<PaymentResponse> apply) {
+        UUID orderId = paymentResponse.getOrderId();
+        UUID paymentId = paymentResponse.getPaymentId() != null ? paymentResponse.getPaymentId() : NO_PAYMENT_ID;
+        String key = orderId + ":" + paymentId;
+
+        // Kiểm tra LRU trước khi mở transaction: bản trùng đã cache không tốn connection hay round trip DB
+        if (isCached(key)) {
+            log.debug("Dropping duplicate payment response for order: {} payment: {}", orderId, paymentId);
+            return false;
+        }
+
+        return Boolean.TRUE.equals(transactionOperations.execute(
+                status -> claim(paymentResponse, orderId, paymentId, key) && apply.test(paymentResponse)));
+    }
+
+    private boolean claim(PaymentResponse paymentResponse, UUID orderId, UUID paymentId, String key) {
+        if (!processedPaymentResponseRepository.markProcessed(orderId, paymentId, paymentResponse.getPaymentStatus())) {
+            log.debug("Dropping already processed payment response for order: {} payment: {}", orderId, paymentId);
+            cache(key);
+            return false;
+        }
+
+        // Chỉ cache sau khi commit: nếu transaction rollback thì lần redeliver sau vẫn được xử lý
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(key);
+                }
+            });
+        } else {
+            cache(key);
+        }
+        return true;
+    }
+
+    private boolean isCached(String key) {
+        synchronized (recentlyProcessed) {
+            return recentlyProcessed.get(key) != null;
+        }
+    }
+
+    private void cache(String key) {
+        synchronized (recentlyProcessed) {
+            recentlyProcessed.put(key, Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.system.order_application_service.handler;
+
+import com.system.order_application_service.analytics.LatencySketch;
+import com.system.order_application_service.analytics.OrderAnalytics;
+import com.system.order_application_service.analytics.OrderAnalyticsTask;
+import com.system.order_application_service.dto.OrderAnalyticsResponse;
+import com.system.order_application_service.dto.OrderBreakdownResponse;
+import com.system.order_application_service.dto.PaymentLatencyResponse;
+import com.system.order_application_service.ports.OrderRepository;
+import com.system.order_domain_core.exception.OrderDomainException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+public class OrderAnalyticsHandler {
+
+    private final OrderRepository orderRepository;
+    private final TransactionOperations readOnlyTransaction;
+    private final ForkJoinPool analyticsPool;
+    private final ZoneId zone;
+    private final int partitionDays;
+    private final int maxRangeDays;
+
+    public OrderAnalyticsHandler(OrderRepository orderRepository, TransactionOperations readOnlyTransaction,
+                                 ForkJoinPool analyticsPool, ZoneId zone, int partitionDays, int maxRangeDays) {
+        if (partitionDays < 1 || maxRangeDays < 1) {
+            throw new IllegalArgumentException("order.analytics.partition-days and max-range-days must be positive");
+        }
+        this.orderRepository = Objects.requireNonNull(orderRepository, "OrderRepository cannot be null");
+        this.readOnlyTransaction = Objects.requireNonNull(readOnlyTransaction, "TransactionOperations cannot be null");
+        this.analyticsPool = Objects.requireNonNull(analyticsPool, "ForkJoinPool cannot be null");
+        this.zone = Objects.requireNonNull(zone, "Zone cannot be null");
+        this.partitionDays = partitionDays;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Use case: Phân tích đơn hàng trong [startDate, endDate] (tính cả hai ngày), một lượt đọc duy nhất,
+     * chia theo ngày và chạy song song trên analyticsPool.
+     */
+    public OrderAnalyticsResponse getAnalytics(UUID customerId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new OrderDomainException("startDate and endDate are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new OrderDomainException("endDate must not be before startDate");
+        }
+        LocalDate endExclusive = endDate.plusDays(1);
+        if (ChronoUnit.DAYS.between(startDate, endExclusive) > maxRangeDays) {
+            throw new OrderDomainException("Analytics range must not exceed " + maxRangeDays + " days");
+        }
+
+        OrderAnalytics analytics = analyticsPool.invoke(new OrderAnalyticsTask(
+                orderRepository, readOnlyTransaction, customerId, startDate, endExclusive, zone, partitionDays));
+        return toResponse(analytics);
+    }
+
+    private OrderAnalyticsResponse toResponse(OrderAnalytics analytics) {
+        OrderAnalytics.Breakdown revenue = analytics.getRevenue();
+        BigDecimal averageNetOrderValue = revenue.getOrders() == 0
+                ? BigDecimal.ZERO
+                : revenue.getNetRevenue().toBigDecimal()
+                        .divide(BigDecimal.valueOf(revenue.getOrders()), 2, RoundingMode.HALF_UP);
+        BigDecimal voucherUptakeRate = analytics.getTotalOrders() == 0
+                ? BigDecimal.ZERO
+                : BigDecimal.valueOf(analytics.getVoucherOrders())
+                        .divide(BigDecimal.valueOf(analytics.getTotalOrders()), 4, RoundingMode.HALF_UP);
+
+        Map<String, OrderBreakdownResponse> byStatus = new LinkedHashMap<>();
+        analytics.getByStatus().forEach((status, breakdown) -> byStatus.put(status.name(), toResponse(breakdown)));
+        Map<UUID, OrderBreakdownResponse> byRestaurant = new LinkedHashMap<>();
+        analytics.getByRestaurant().forEach((restaurantId, breakdown) -> byRestaurant.put(restaurantId, toResponse(breakdown)));
+
+        LatencySketch latency = analytics.getPaymentLatency();
+        PaymentLatencyResponse paymentLatency = new PaymentLatencyResponse(
+                latency.getCount(),
+                latency.quantile(0.50),
+                latency.quantile(0.90),
+                latency.quantile(0.95),
+                latency.quantile(0.99),
+                latency.getMaxMillis());
+
+        return new OrderAnalyticsResponse(
+                analytics.getTotalOrders(),
+                toResponse(revenue),
+                averageNetOrderValue,
+                analytics.getVoucherOrders(),
+                voucherUptakeRate,
+                byStatus,
+                byRestaurant,
+                paymentLatency);
+    }
+
+    private static OrderBreakdownResponse toResponse(OrderAnalytics.Breakdown breakdown) {
+        return new OrderBreakdownResponse(
+                breakdown.getOrders(),
+                breakdown.getGrossRevenue().toBigDecimal(),
+                breakdown.getDiscount().toBigDecimal(),
+                breakdown.getNetRevenue().toBigDecimal());
+    }
+}
@@ -7,8 +7,8 @@ import com.system.order_application_service.ports.VoucherServicePort;
 import com.system.order_domain_core.entity.Order;
 import com.system.order_domain_core.exception.OrderDomainException;
 import com.system.order_domain_core.valueobject.*;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -18,22 +18,55 @@ public class OrderCreateHandler {
     private final OrderRepository orderRepository;
     private final VoucherServicePort voucherServicePort;
     private final OrderDtoMapper orderDtoMapper;
+    private final int maxBatchOrders;
 
-    public OrderCreateHandler(OrderRepository orderRepository, VoucherServicePort voucherServicePort) {
+    public OrderCreateHandler(OrderRepository orderRepository, VoucherServicePort voucherServicePort, int maxBatchOrders) {
         this.orderRepository = Objects.requireNonNull(orderRepository, "OrderRepository cannot be null");
         this.voucherServicePort = Objects.requireNonNull(voucherServicePort, "VoucherServicePort cannot be null");
         this.orderDtoMapper = new OrderDtoMapper();
+        this.maxBatchOrders = maxBatchOrders;
     }
 
+    @Transactional
     public OrderResponse createOrder(CreateOrderRequest request) {
+        Order order = buildOrder(request);
+
+        // 4. Lưu vào DB
+        Order savedOrder = orderRepository.save(order);
+        // 5. Ánh xạ sang OrderResponse
+        return orderDtoMapper.mapDomainToDto(savedOrder);
+    }
+
+    /**
+     * Use case: Tạo nhiều đơn hàng trong một transaction. Một đơn không hợp lệ thì không đơn nào được lưu.
+     */
+    @Transactional
+    public List<OrderResponse> createOrders(List<CreateOrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new OrderDomainException("Batch must contain at least one order");
+        }
+        if (requests.size() > maxBatchOrders) {
+            throw new OrderDomainException("Batch must not contain more than " + maxBatchOrders + " orders");
+        }
+        // Dựng và validate toàn bộ trước khi ghi
+        List<Order> orders = requests.stream()
+                .map(this::buildOrder)
+                .collect(Collectors.toList());
+
+        return orderRepository.insertAll(orders).stream()
+                .map(orderDtoMapper::mapDomainToDto)
+                .collect(Collectors.toList());
+    }
+
+    private Order buildOrder(CreateOrderRequest request) {
         // 1. Map DTO sang Domain (OrderItem)
         List<OrderItem> orderItems = request.getItems().stream()
                 .map(item -> new OrderItem(
                         null, null,
                         item.getProductId(),
-                        item.getPrice(),
+                        Money.of(item.getPrice()),
                         item.getQuantity() != null ? item.getQuantity() : 0,
-                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity() != null ? item.getQuantity() : 0))))
+                        Money.of(item.getPrice()).multiply(item.getQuantity() != null ? item.getQuantity() : 0)))
                 .collect(Collectors.toList());
 
         // 2. Tạo Order (Sử dụng static factory method)
@@ -54,10 +87,6 @@ public class OrderCreateHandler {
             // Gọi logic domain
             order.applyVoucher(voucher);
         }
-
-        // 4. Lưu vào DB
-        Order savedOrder = orderRepository.save(order);
-        // 5. Ánh xạ sang OrderResponse
-        return orderDtoMapper.mapDomainToDto(savedOrder);
+        return order;
     }
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package com.system.order_application_service.handler;
 import com.system.order_application_service.dto.OrderItemResponse;
 import com.system.order_application_service.dto.OrderResponse;
 import com.system.order_domain_core.entity.Order;
+import com.system.order_domain_core.valueobject.Money;
 
+import java.math.BigDecimal;
 import java.util.stream.Collectors;
 
 /**
@@ -17,24 +19,28 @@ public class OrderDtoMapper {
                 order.getCustomerId().getValue(),
                 order.getRestaurantId().getValue(),
                 order.getTrackingId().getValue(),
-                order.getPrice(), // Giá cuối
+                toBigDecimal(order.getPrice()), // Giá cuối
                 order.getOrderStatus().toString(),
                 order.getItems().stream()
                         .map(item -> new OrderItemResponse(
                                 item.getId(),
                                 item.getOrderId(),
                                 item.getProductId(),
-                                item.getPrice(),
+                                toBigDecimal(item.getPrice()),
                                 item.getQuantity(),
-                                item.getSubTotal()))
+                                toBigDecimal(item.getSubTotal())))
                         .collect(Collectors.toList()),
                 order.getFailureMessages(),
                 order.getCreatedAt(),
-                order.getOriginalPrice(),
-                order.getDiscount(),
+                toBigDecimal(order.getOriginalPrice()),
+                toBigDecimal(order.getDiscount()),
                 order.getVoucherCode(),
                 order.getRating(),
                 order.getComment()
         );
     }
+
+    private static BigDecimal toBigDecimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.system.order_application_service.handler;
 
+import com.system.order_application_service.dto.OrderCursor;
+import com.system.order_application_service.dto.OrderPageResponse;
 import com.system.order_application_service.dto.OrderResponse;
 import com.system.order_application_service.ports.OrderRepository;
 import com.system.order_domain_core.entity.Order;
+import com.system.order_domain_core.exception.OrderDomainException;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -10,6 +14,9 @@ import java.util.stream.Collectors;
 
 public class OrderQueryHandler {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final OrderDtoMapper orderDtoMapper;
     public OrderQueryHandler(OrderRepository orderRepository, OrderDtoMapper orderDtoMapper) {
@@ -18,16 +25,41 @@ public class OrderQueryHandler {
     }
 
     /**
-     * Use case: Lấy lịch sử đơn hàng theo customerId.
+     * Use case: Lấy lịch sử đơn hàng theo customerId, mới nhất trước.
+     * Không có cursor lẫn limit thì trả toàn bộ lịch sử như trước, để client cũ không mất đơn cũ;
+     * có một trong hai thì trả từng trang, limit mặc định {@link #DEFAULT_PAGE_SIZE}.
      */
-    public List<OrderResponse> getOrdersByCustomerId(UUID customerId) {
-        // 1. Gọi port để lấy dữ liệu
-        List<Order> orders = orderRepository.findByCustomerId(customerId);
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrdersByCustomerId(UUID customerId, String cursor, Integer limit) {
+        boolean hasCursor = cursor != null && !cursor.isBlank();
+        if (!hasCursor && limit == null) {
+            List<OrderResponse> all = orderRepository.findByCustomerId(customerId).stream()
+                    .map(orderDtoMapper::mapDomainToDto)
+                    .collect(Collectors.toList());
+            return new OrderPageResponse(all, null);
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new OrderDomainException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OrderCursor after = hasCursor ? OrderCursor.decode(cursor) : null;
+
+        // 1. Gọi port để lấy dữ liệu, thêm một dòng để biết còn trang sau hay không
+        List<Order> orders = orderRepository.findPageByCustomerId(customerId, after, pageSize + 1);
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId().getValue()).encode();
+        }
 
         // 2. Map từ Domain Entity (Order) sang DTO (OrderResponse)
-        return orders.stream()
+        List<OrderResponse> responses = page.stream()
                 .map(orderDtoMapper::mapDomainToDto)
                 .collect(Collectors.toList());
+        return new OrderPageResponse(responses, nextCursor);
     }
 
 }
\ No newline at end of file
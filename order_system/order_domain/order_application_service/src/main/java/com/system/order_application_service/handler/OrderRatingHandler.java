@@ -5,6 +5,8 @@ import com.system.order_application_service.dto.OrderResponse;
 import com.system.order_application_service.exception.OrderNotFoundException;
 import com.system.order_application_service.ports.OrderRepository;
 import com.system.order_domain_core.entity.Order;
+import com.system.order_domain_core.exception.OrderDomainException;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Objects;
 import java.util.UUID;
@@ -19,14 +21,21 @@ public class OrderRatingHandler {
         this.orderDtoMapper = new OrderDtoMapper();
     }
 
+    @Transactional
     public OrderResponse rateOrder(UUID orderId, OrderRatingRequest request) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Không tìm thấy đơn hàng: " + orderId));
+        Order.validateRating(request.getRating());
 
-        order.addRating(request.getRating(), request.getComment());
+        // Chỉ ghi rating/comment, điều kiện trạng thái nằm trong câu UPDATE
+        if (!orderRepository.updateRating(orderId, Order.RATEABLE_STATUSES, request.getRating(), request.getComment())) {
+            if (orderRepository.findStatusById(orderId).isEmpty()) {
+                throw new OrderNotFoundException("Không tìm thấy đơn hàng: " + orderId);
+            }
+            throw new OrderDomainException(Order.NOT_RATEABLE_MESSAGE);
+        }
 
-        Order savedOrder = orderRepository.save(order);
+        Order ratedOrder = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Không tìm thấy đơn hàng: " + orderId));
 
-        return orderDtoMapper.mapDomainToDto(savedOrder);
+        return orderDtoMapper.mapDomainToDto(ratedOrder);
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.system.order_application_service.handler;
 import com.system.order_application_service.dto.OrderStatisticsResponse;
 import com.system.order_application_service.ports.OrderRepository;
 import com.system.order_domain_core.valueobject.OrderStatistics;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -14,16 +15,19 @@ import java.util.UUID;
 public class OrderStatisticsHandler {
 
     private final OrderRepository orderRepository;
+    private final ZoneId statisticsZone;
 
-    public OrderStatisticsHandler(OrderRepository orderRepository) {
+    public OrderStatisticsHandler(OrderRepository orderRepository, ZoneId statisticsZone) {
         this.orderRepository = Objects.requireNonNull(orderRepository, "OrderRepository cannot be null");
+        this.statisticsZone = Objects.requireNonNull(statisticsZone, "Statistics zone cannot be null");
     }
 
+    @Transactional(readOnly = true)
     public OrderStatisticsResponse getStatistics(UUID customerId, LocalDate startDate, LocalDate endDate) {
 
-        // Chuyển đổi LocalDate sang ZonedDateTime (Vì CSDL dùng ZonedDateTime)
-        ZonedDateTime startDateTime = (startDate != null) ? startDate.atStartOfDay(ZoneId.systemDefault()) : null;
-        ZonedDateTime endDateTime = (endDate != null) ? endDate.atTime(LocalTime.MAX).atZone(ZoneId.systemDefault()) : null;
+        // Chuyển đổi LocalDate sang ZonedDateTime theo múi giờ của bảng thống kê ngày: luôn là ngày trọn vẹn
+        ZonedDateTime startDateTime = (startDate != null) ? startDate.atStartOfDay(statisticsZone) : null;
+        ZonedDateTime endDateTime = (endDate != null) ? endDate.atTime(LocalTime.MAX).atZone(statisticsZone) : null;
 
         // 1. Gọi Port
         OrderStatistics stats = orderRepository.getStatistics(customerId, startDateTime, endDateTime);
@@ -8,10 +8,11 @@ import com.system.order_application_service.ports.OrderRepository;
 import com.system.order_application_service.ports.VoucherServicePort;
 import com.system.order_domain_core.entity.Order;
 import com.system.order_domain_core.exception.OrderDomainException;
+import com.system.order_domain_core.valueobject.Money;
 import com.system.order_domain_core.valueobject.OrderItem;
 import com.system.order_domain_core.valueobject.Voucher;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -29,6 +30,7 @@ public class OrderUpdateHandler {
         this.orderDtoMapper = new OrderDtoMapper();
     }
 
+    @Transactional
     public OrderResponse updateOrder(UUID orderId, UpdateOrderRequest request) {
         // 1. Lấy Order
         Order order = orderRepository.findById(orderId)
@@ -60,9 +62,9 @@ public class OrderUpdateHandler {
                 .map(item -> new OrderItem(
                         null, null,
                         item.getProductId(),
-                        item.getPrice(),
+                        Money.of(item.getPrice()),
                         item.getQuantity() != null ? item.getQuantity() : 0,
-                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity() != null ? item.getQuantity() : 0))))
+                        Money.of(item.getPrice()).multiply(item.getQuantity() != null ? item.getQuantity() : 0)))
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
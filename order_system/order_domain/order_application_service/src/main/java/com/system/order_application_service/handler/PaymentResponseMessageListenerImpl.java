@@ -4,10 +4,13 @@ import com.system.order_application_service.dto.PaymentResponse;
 import com.system.order_application_service.exception.OrderNotFoundException;
 import com.system.order_application_service.ports.input.PaymentResponseMessageListener;
 import com.system.order_application_service.ports.OrderRepository;
-import com.system.order_domain_core.entity.Order;
+import com.system.order_domain_core.exception.OrderDomainException;
+import com.system.order_domain_core.valueobject.OrderStatus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.UUID;
+
 @Slf4j
 public class PaymentResponseMessageListenerImpl implements PaymentResponseMessageListener {
 
@@ -17,21 +20,33 @@ public class PaymentResponseMessageListenerImpl implements PaymentResponseMessag
         this.orderRepository = orderRepository;
     }
 
+    // Một câu UPDATE có điều kiện PENDING thay vì load + merge cả aggregate (cùng luật với Order.pay/cancel)
     @Override
     @Transactional
-    public void paymentCompleted(PaymentResponse paymentResponse) {
-        Order order = orderRepository.findById(paymentResponse.getOrderId())
-                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + paymentResponse.getOrderId()));
-        order.pay();
-        orderRepository.save(order);
+    public boolean paymentCompleted(PaymentResponse paymentResponse) {
+        UUID orderId = paymentResponse.getOrderId();
+        if (!orderRepository.transitionStatus(orderId, OrderStatus.PENDING, OrderStatus.PAID, null)) {
+            throw rejectedTransition(orderId, "Only PENDING orders can be paid");
+        }
+        return true;
     }
 
     @Override
     @Transactional
-    public void paymentFailed(PaymentResponse paymentResponse) {
-        Order order = orderRepository.findById(paymentResponse.getOrderId())
-                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + paymentResponse.getOrderId()));
-        order.cancel(paymentResponse.getFailureMessage());
-        orderRepository.save(order);
+    public boolean paymentFailed(PaymentResponse paymentResponse) {
+        UUID orderId = paymentResponse.getOrderId();
+        if (!orderRepository.transitionStatus(orderId, OrderStatus.PENDING, OrderStatus.CANCELLED,
+                String.valueOf(paymentResponse.getFailureMessage()))) {
+            throw rejectedTransition(orderId, "Only PENDING orders can be cancelled");
+        }
+        return true;
+    }
+
+    // Không dòng nào được cập nhật: chỉ khi đó mới đọc lại để phân biệt đơn không tồn tại với sai trạng thái
+    private RuntimeException rejectedTransition(UUID orderId, String message) {
+        if (orderRepository.findStatusById(orderId).isEmpty()) {
+            return new OrderNotFoundException("Order not found: " + orderId);
+        }
+        return new OrderDomainException(message);
     }
 }
\ No newline at end of file
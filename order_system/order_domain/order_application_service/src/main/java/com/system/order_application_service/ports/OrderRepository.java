@@ -1,16 +1,62 @@
 package com.system.order_application_service.ports;
+import com.system.order_application_service.analytics.OrderAnalytics;
+import com.system.order_application_service.dto.OrderCursor;
 import com.system.order_domain_core.entity.Order;
 import com.system.order_domain_core.valueobject.OrderStatistics; // <-- THÊM IMPORT
+import com.system.order_domain_core.valueobject.OrderStatus;
 
 import java.time.ZonedDateTime; // <-- THÊM IMPORT
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface OrderRepository {
     Order save(Order order);
+
+    /**
+     * Inserts orders that do not exist yet, with JDBC-batched statements. Must run inside the
+     * caller's transaction; the returned orders carry the generated item ids.
+     */
+    List<Order> insertAll(List<Order> orders);
+
+    /**
+     * At most {@code limit} orders of the customer, newest first, strictly after {@code after}
+     * in (created_at DESC, id DESC) order; a null cursor starts from the newest order.
+     * Items are loaded with the page, not lazily per order.
+     */
+    List<Order> findPageByCustomerId(UUID customerId, OrderCursor after, int limit);
+
+    /** Every order of the customer with its items, newest first. */
     List<Order> findByCustomerId(UUID customerId);
     Optional<Order> findById(UUID orderId);
+    Optional<OrderStatus> findStatusById(UUID orderId);
+
+    /**
+     * Status of the order, locking its row until the caller's transaction ends so that status
+     * changes and other writes to the order wait for it.
+     */
+    Optional<OrderStatus> lockStatusById(UUID orderId);
+
+    /**
+     * Single conditional UPDATE of the status, applied only while the order is still in
+     * {@code expectedStatus}. Returns false when no row matched: the order does not exist or has
+     * already moved on. A non-null {@code failureMessage} is appended to the failure messages.
+     * Moving to {@code PAID} also stamps the paid time.
+     */
+    boolean transitionStatus(UUID orderId, OrderStatus expectedStatus, OrderStatus newStatus, String failureMessage);
+
+    /**
+     * Single conditional UPDATE of rating and comment, applied only while the order's status is in
+     * {@code allowedStatuses}. Returns false when no row matched.
+     */
+    boolean updateRating(UUID orderId, Set<OrderStatus> allowedStatuses, int rating, String comment);
 
     OrderStatistics getStatistics(UUID customerId, ZonedDateTime startDate, ZonedDateTime endDate);
-}
\ No newline at end of file
+
+    /**
+     * Streams every order created in [{@code from}, {@code toExclusive}) into {@code analytics} in a
+     * single pass, without materializing the orders. Must run inside the caller's transaction.
+     */
+    void accumulateAnalytics(UUID customerId, ZonedDateTime from, ZonedDateTime toExclusive, OrderAnalytics analytics);
+}
@@ -3,7 +3,8 @@ package com.system.order_application_service.ports.input;
 import com.system.order_application_service.dto.PaymentResponse;
 
 // Input port để lắng nghe kết quả payment
+// Trả về false khi response là bản trùng đã bị bỏ qua, order không thay đổi
 public interface PaymentResponseMessageListener {
-    void paymentCompleted(PaymentResponse paymentResponse);
-    void paymentFailed(PaymentResponse paymentResponse);
+    boolean paymentCompleted(PaymentResponse paymentResponse);
+    boolean paymentFailed(PaymentResponse paymentResponse);
 }
\ No newline at end of file
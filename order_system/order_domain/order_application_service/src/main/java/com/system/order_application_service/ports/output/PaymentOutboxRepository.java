@@ -0,0 +1,28 @@
+package com.system.order_application_service.ports.output;
+
+import com.system.order_application_service.dto.PaymentOutboxMessage;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Output port cho bảng outbox của payment request
+public interface PaymentOutboxRepository {
+    void save(PaymentOutboxMessage message);
+
+    /**
+     * Claims up to {@code limit} pending messages, oldest first, until {@code claimedUntil}. Messages
+     * claimed by another relay are skipped until their claim expires, so the caller can commit right
+     * away and send without holding row locks; a relay that dies mid-send only delays its messages.
+     */
+    List<PaymentOutboxMessage> claimPendingBatch(int limit, ZonedDateTime claimedUntil);
+
+    void markSent(UUID id, int partition, long offset, ZonedDateTime sentAt);
+
+    /** Records the error and releases the claim so the next pass retries the message. */
+    void markFailed(UUID id, String error);
+
+    boolean hasPendingForOrder(UUID orderId);
+
+    int deleteSentBefore(ZonedDateTime threshold);
+}
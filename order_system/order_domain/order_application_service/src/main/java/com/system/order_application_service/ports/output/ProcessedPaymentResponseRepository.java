@@ -0,0 +1,14 @@
+package com.system.order_application_service.ports.output;
+
+import java.util.UUID;
+
+// Output port lưu các payment response đã xử lý (chống xử lý trùng khi Kafka redeliver)
+public interface ProcessedPaymentResponseRepository {
+
+    /**
+     * Records (orderId, paymentId) as processed in the current transaction.
+     *
+     * @return false if it was already recorded, i.e. the response is a duplicate
+     */
+    boolean markProcessed(UUID orderId, UUID paymentId, String paymentStatus);
+}
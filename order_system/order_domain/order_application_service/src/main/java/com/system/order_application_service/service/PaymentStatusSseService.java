@@ -1,100 +1,471 @@
 package com.system.order_application_service.service;
 
 import com.system.order_application_service.dto.PaymentStatusUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * SSE hub for payment status updates.
+ * <p>
+ * Each order has a channel holding its subscribers (one per open browser tab) and a ring buffer of
+ * its most recent events. Every event id is this instance's boot id plus an increasing sequence; a
+ * client reconnecting with {@code Last-Event-ID} is replayed the buffered events it missed, and a
+ * client connecting after the update was sent still receives it. An id from an earlier run or
+ * another instance says nothing about this sequence, so such a client is replayed the whole buffer.
+ * Channels without subscribers are evicted once idle for {@code payment.sse.idle-ttl}, or
+ * oldest-first when the total number of buffered events exceeds
+ * {@code payment.sse.max-buffered-events}.
+ * <p>
+ * Publishing never writes to a socket: events are put on each subscriber's bounded queue and written
+ * by the {@code payment-sse-dispatch} threads, one drain task per subscriber at a time. While a
+ * subscriber is behind, queued PENDING/PROCESSING statuses are replaced by the newer event and, if
+ * the queue is still full, the oldest event is dropped; the client can recover anything dropped via
+ * {@code Last-Event-ID}. Idle subscribers get a heartbeat comment so dead connections are detected.
+ */
 @Slf4j
 @Service
-public class PaymentStatusSseService {
+public class PaymentStatusSseService implements DisposableBean {
 
-    private final ConcurrentHashMap<String, SseEmitter> emitters = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor();
+    private static final String EVENT_NAME = "status";
+    private static final int MAX_EVENTS_PER_DRAIN = 16;
 
-    public PaymentStatusSseService() {
-        // Schedule cleanup of completed emitters every 5 minutes
-        cleanupExecutor.scheduleAtFixedRate(this::cleanupCompletedEmitters, 5, 5, TimeUnit.MINUTES);
+    // Sequence bắt đầu lại từ 0 sau restart: Last-Event-ID chỉ so sánh được khi cùng boot id
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final ConcurrentHashMap<String, OrderChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final AtomicLong bufferedEvents = new AtomicLong();
+    private final AtomicLong queuedEvents = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService cleanupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "payment-sse-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadPoolExecutor dispatchExecutor;
+
+    private final long emitterTimeoutMs;
+    private final int bufferSize;
+    private final int subscriberQueueSize;
+    private final long maxBufferedEvents;
+    private final long idleTtlNanos;
+
+    private final Counter coalescedCounter;
+    private final Counter overflowCounter;
+    private final Counter sendFailureCounter;
+    private final Timer sendTimer;
+
+    public PaymentStatusSseService(MeterRegistry meterRegistry,
+                                   @Value("${payment.sse.emitter-timeout:PT30M}") Duration emitterTimeout,
+                                   @Value("${payment.sse.buffer-size:16}") int bufferSize,
+                                   @Value("${payment.sse.subscriber-queue-size:8}") int subscriberQueueSize,
+                                   @Value("${payment.sse.max-buffered-events:200000}") long maxBufferedEvents,
+                                   @Value("${payment.sse.idle-ttl:PT10M}") Duration idleTtl,
+                                   @Value("${payment.sse.cleanup-interval:PT30S}") Duration cleanupInterval,
+                                   @Value("${payment.sse.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                                   @Value("${payment.sse.dispatch-threads:4}") int dispatchThreads) {
+        this.emitterTimeoutMs = emitterTimeout.toMillis();
+        this.bufferSize = Math.max(1, bufferSize);
+        this.subscriberQueueSize = Math.max(1, subscriberQueueSize);
+        this.maxBufferedEvents = maxBufferedEvents;
+        this.idleTtlNanos = idleTtl.toNanos();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatchExecutor = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-sse-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.coalescedCounter = Counter.builder("payment.sse.events.dropped").tag("reason", "coalesced").register(meterRegistry);
+        this.overflowCounter = Counter.builder("payment.sse.events.dropped").tag("reason", "overflow").register(meterRegistry);
+        this.sendFailureCounter = Counter.builder("payment.sse.send.failures").register(meterRegistry);
+        this.sendTimer = Timer.builder("payment.sse.send").register(meterRegistry);
+        Gauge.builder("payment.sse.queue.depth", queuedEvents, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("payment.sse.dispatch.pending", dispatchExecutor, executor -> executor.getQueue().size()).register(meterRegistry);
+        Gauge.builder("payment.sse.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("payment.sse.channels", channels, ConcurrentHashMap::size).register(meterRegistry);
+        Gauge.builder("payment.sse.buffered.events", bufferedEvents, AtomicLong::get).register(meterRegistry);
+
+        long intervalMs = cleanupInterval.toMillis();
+        cleanupExecutor.scheduleWithFixedDelay(this::evictIdleChannels, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        long heartbeatMs = heartbeatInterval.toMillis();
+        cleanupExecutor.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
     }
 
     public SseEmitter createEmitter(String orderId) {
-        log.info("Creating SSE emitter for order: {}", orderId);
-
-        // Create emitter with 30-minute timeout
-        SseEmitter emitter = new SseEmitter(30 * 60 * 1000L);
+        return createEmitter(orderId, null);
+    }
 
-        emitter.onCompletion(() -> {
-            log.info("SSE emitter completed for order: {}", orderId);
-            emitters.remove(orderId);
-        });
+    /**
+     * Subscribes to an order's updates. Buffered events newer than {@code lastEventId} are replayed
+     * (all buffered events when it is null); with nothing buffered the initial PENDING status is sent.
+     */
+    public SseEmitter createEmitter(String orderId, String lastEventId) {
+        log.info("Creating SSE emitter for order: {} (Last-Event-ID: {})", orderId, lastEventId);
+        Long lastSequence = parseLastEventId(lastEventId);
 
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(orderId, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
         emitter.onTimeout(() -> {
             log.info("SSE emitter timed out for order: {}", orderId);
-            emitters.remove(orderId);
+            unsubscribe(subscriber);
         });
-
         emitter.onError(throwable -> {
-            log.error("SSE emitter error for order: {}", orderId, throwable);
-            emitters.remove(orderId);
+            log.debug("SSE emitter error for order: {}", orderId, throwable);
+            unsubscribe(subscriber);
         });
 
-        // Send initial status
+        while (true) {
+            OrderChannel channel = channels.computeIfAbsent(orderId, OrderChannel::new);
+            synchronized (channel) {
+                if (channel.evicted) {
+                    continue;
+                }
+                channel.touch();
+                // Replay được xếp hàng trong lock của channel nên không chen ngang update mới
+                if (channel.events.isEmpty()) {
+                    subscriber.enqueue(new BufferedEvent(0, PaymentStatusUpdate.builder()
+                            .orderId(UUID.fromString(orderId))
+                            .status("PENDING")
+                            .message("Waiting for payment processing")
+                            .timestamp(LocalDateTime.now())
+                            .build()));
+                } else {
+                    for (BufferedEvent event : channel.events) {
+                        if (lastSequence == null || event.id > lastSequence) {
+                            subscriber.enqueue(event);
+                        }
+                    }
+                }
+                channel.subscribers.add(subscriber);
+                subscriberCount.incrementAndGet();
+                return emitter;
+            }
+        }
+    }
+
+    /**
+     * Sequence part of a {@code Last-Event-ID} issued by this boot, or null when the id is missing,
+     * malformed or was issued by an earlier run or another instance.
+     */
+    private Long parseLastEventId(String lastEventId) {
+        String prefix = bootId + "-";
+        if (lastEventId == null || !lastEventId.trim().startsWith(prefix)) {
+            return null;
+        }
         try {
-            emitter.send(SseEmitter.event()
-                .name("status")
-                .data(PaymentStatusUpdate.builder()
-                    .orderId(java.util.UUID.fromString(orderId))
-                    .status("PENDING")
-                    .message("Waiting for payment processing")
-                    .timestamp(LocalDateTime.now())
-                    .build()));
-        } catch (IOException e) {
-            log.error("Error sending initial status for order: {}", orderId, e);
-            emitter.complete();
+            return Long.parseLong(lastEventId.trim().substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            // Id không hợp lệ: replay toàn bộ buffer
             return null;
         }
-
-        emitters.put(orderId, emitter);
-        return emitter;
     }
 
+    /**
+     * Buffers the update and queues it for every subscriber of the order. Returns without any network
+     * I/O, so callers (Kafka listener threads) are never held up by slow clients.
+     */
     public void sendStatusUpdate(String orderId, PaymentStatusUpdate statusUpdate) {
-        SseEmitter emitter = emitters.get(orderId);
-        if (emitter != null) {
+        while (true) {
+            OrderChannel channel = channels.computeIfAbsent(orderId, OrderChannel::new);
+            synchronized (channel) {
+                if (channel.evicted) {
+                    continue;
+                }
+                channel.touch();
+                BufferedEvent event = new BufferedEvent(eventSequence.incrementAndGet(), statusUpdate);
+                channel.events.addLast(event);
+                if (channel.events.size() > bufferSize) {
+                    channel.events.removeFirst();
+                } else {
+                    bufferedEvents.incrementAndGet();
+                }
+
+                for (Subscriber subscriber : channel.subscribers) {
+                    subscriber.enqueue(event);
+                }
+                log.debug("Queued status update for order {} to {} subscriber(s): {}",
+                        orderId, channel.subscribers.size(), statusUpdate.getStatus());
+                break;
+            }
+        }
+
+        if (bufferedEvents.get() > maxBufferedEvents && evictionScheduled.compareAndSet(false, true)) {
+            cleanupExecutor.execute(this::evictIdleChannels);
+        }
+    }
+
+    public int getChannelCount() {
+        return channels.size();
+    }
+
+    public long getBufferedEventCount() {
+        return bufferedEvents.get();
+    }
+
+    public long getQueuedEventCount() {
+        return queuedEvents.get();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.close();
+        OrderChannel channel = channels.get(subscriber.orderId);
+        if (channel != null) {
+            synchronized (channel) {
+                if (channel.subscribers.remove(subscriber)) {
+                    subscriberCount.decrementAndGet();
+                }
+                channel.touch();
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        try {
+            for (OrderChannel channel : channels.values()) {
+                for (Subscriber subscriber : channel.subscribers) {
+                    subscriber.enqueueHeartbeat();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error sending SSE heartbeats", e);
+        }
+    }
+
+    /**
+     * Evicts channels without subscribers that have been idle longer than the TTL, then, while the
+     * buffered-event budget is exceeded, the least recently active channels without subscribers.
+     */
+    private void evictIdleChannels() {
+        evictionScheduled.set(false);
+        try {
+            long now = System.nanoTime();
+            List<OrderChannel> idle = new ArrayList<>();
+            for (OrderChannel channel : channels.values()) {
+                if (channel.subscribers.isEmpty()) {
+                    if (now - channel.lastActivity > idleTtlNanos) {
+                        evict(channel);
+                    } else {
+                        idle.add(channel);
+                    }
+                }
+            }
+
+            if (bufferedEvents.get() > maxBufferedEvents) {
+                idle.sort(Comparator.comparingLong(channel -> channel.lastActivity));
+                for (OrderChannel channel : idle) {
+                    if (bufferedEvents.get() <= maxBufferedEvents) {
+                        break;
+                    }
+                    evict(channel);
+                }
+            }
+            log.debug("SSE channels: {}, buffered events: {}, queued events: {}",
+                    channels.size(), bufferedEvents.get(), queuedEvents.get());
+        } catch (RuntimeException e) {
+            log.error("Error evicting idle SSE channels", e);
+        }
+    }
+
+    private void evict(OrderChannel channel) {
+        synchronized (channel) {
+            if (channel.evicted || !channel.subscribers.isEmpty()) {
+                return;
+            }
+            channel.evicted = true;
+            channels.remove(channel.orderId, channel);
+            bufferedEvents.addAndGet(-channel.events.size());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        cleanupExecutor.shutdownNow();
+        dispatchExecutor.shutdownNow();
+        for (OrderChannel channel : channels.values()) {
+            channel.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    private static boolean isTerminal(BufferedEvent event) {
+        String status = event.update.getStatus();
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
+    /**
+     * One connected client. Its queue is only touched under its own monitor; {@code draining} makes
+     * sure at most one dispatch task writes to the emitter at a time, which keeps events in order.
+     */
+    private final class Subscriber {
+        private final String orderId;
+        private final SseEmitter emitter;
+        private final Deque<BufferedEvent> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(String orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(BufferedEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                // Client đang chậm: status trung gian đã bị event mới thay thế
+                Iterator<BufferedEvent> queued = queue.iterator();
+                while (queued.hasNext()) {
+                    BufferedEvent pending = queued.next();
+                    if (pending == BufferedEvent.HEARTBEAT || !isTerminal(pending)) {
+                        queued.remove();
+                        queuedEvents.decrementAndGet();
+                        if (pending != BufferedEvent.HEARTBEAT) {
+                            coalescedCounter.increment();
+                        }
+                    }
+                }
+                if (queue.size() >= subscriberQueueSize) {
+                    queue.removeFirst();
+                    queuedEvents.decrementAndGet();
+                    overflowCounter.increment();
+                }
+                queue.addLast(event);
+                queuedEvents.incrementAndGet();
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            scheduleDrain();
+        }
+
+        private void enqueueHeartbeat() {
+            synchronized (this) {
+                if (closed || draining || !queue.isEmpty()) {
+                    return;
+                }
+                queue.addLast(BufferedEvent.HEARTBEAT);
+                queuedEvents.incrementAndGet();
+                draining = true;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
             try {
-                emitter.send(SseEmitter.event()
-                    .name("status")
-                    .data(statusUpdate));
-
-                log.info("Sent status update for order {}: {}", orderId, statusUpdate.getStatus());
-
-                // // If payment is completed or failed, complete the emitter after 5 seconds
-                // if ("COMPLETED".equals(statusUpdate.getStatus()) || "FAILED".equals(statusUpdate.getStatus())) {
-                //     cleanupExecutor.schedule(() -> {
-                //         emitter.complete();
-                //         emitters.remove(orderId);
-                //         log.info("Completed SSE emitter for order {} after 5 second delay", orderId);
-                //     }, 5, TimeUnit.SECONDS);
-                // }
-            } catch (IOException e) {
-                log.error("Error sending status update for order: {}", orderId, e);
-                emitter.completeWithError(e);
-                emitters.remove(orderId);
+                dispatchExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+
+        private void drain() {
+            for (int sent = 0; sent < MAX_EVENTS_PER_DRAIN; sent++) {
+                BufferedEvent event;
+                synchronized (this) {
+                    event = queue.pollFirst();
+                    if (event == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                    queuedEvents.decrementAndGet();
+                }
+
+                long start = System.nanoTime();
+                try {
+                    emitter.send(event.toSseEvent(bootId));
+                    sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping SSE subscriber for order: {}", orderId, e);
+                    sendFailureCounter.increment();
+                    unsubscribe(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
             }
-        } else {
-            log.warn("No active SSE emitter found for order: {}", orderId);
+            // Nhường luồng dispatch cho subscriber khác rồi tiếp tục
+            scheduleDrain();
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                queuedEvents.addAndGet(-queue.size());
+                queue.clear();
+            }
+        }
+    }
+
+    private static final class OrderChannel {
+        private final String orderId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final Deque<BufferedEvent> events = new ArrayDeque<>();
+        private volatile long lastActivity = System.nanoTime();
+        private boolean evicted;
+
+        private OrderChannel(String orderId) {
+            this.orderId = orderId;
+        }
+
+        private void touch() {
+            lastActivity = System.nanoTime();
         }
     }
 
-    private void cleanupCompletedEmitters() {
-        log.debug("Cleaning up completed emitters. Current count: {}", emitters.size());
-        // Emitters are automatically removed on completion/timeout, but we can add additional cleanup logic here if needed
+    private static final class BufferedEvent {
+        private static final BufferedEvent HEARTBEAT = new BufferedEvent(0, null);
+
+        private final long id;
+        private final PaymentStatusUpdate update;
+
+        private BufferedEvent(long id, PaymentStatusUpdate update) {
+            this.id = id;
+            this.update = update;
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent(String bootId) {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(EVENT_NAME).data(update);
+            // Event khởi tạo (id 0) không có id để không ghi đè Last-Event-ID của client
+            return id > 0 ? builder.id(bootId + "-" + id) : builder;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.system.order_application_service.analytics;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+class LatencySketchTest {
+
+    private static final double ACCURACY = 0.01;
+    private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1};
+
+    @Test
+    void uniformDistribution_quantilesWithinRelativeAccuracy() {
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        assertQuantilesWithinAccuracy(values);
+    }
+
+    @Test
+    void longTailedDistribution_quantilesWithinRelativeAccuracy() {
+        // Log-normal: phần lớn vài trăm ms, đuôi dài tới hàng phút như độ trễ thanh toán thật
+        Random random = new Random(42);
+        long[] values = new long[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.max(1, Math.round(Math.exp(6 + 1.5 * random.nextGaussian())));
+        }
+        assertQuantilesWithinAccuracy(values);
+    }
+
+    @Test
+    void merge_equalsAddingEverythingToOneSketch() {
+        Random random = new Random(7);
+        LatencySketch single = new LatencySketch(ACCURACY);
+        LatencySketch small = new LatencySketch(ACCURACY);
+        LatencySketch large = new LatencySketch(ACCURACY);
+        for (int i = 0; i < 20_000; i++) {
+            // Hai phần có dải giá trị khác nhau để merge phải nới mảng bucket
+            boolean toSmall = i % 2 == 0;
+            long millis = toSmall ? random.nextInt(1_000) : 1_000 + random.nextInt(10_000_000);
+            single.add(millis);
+            (toSmall ? small : large).add(millis);
+        }
+
+        LatencySketch merged = small.merge(large);
+
+        assertEquals(merged.getCount(), single.getCount());
+        assertEquals(merged.getMaxMillis(), single.getMaxMillis());
+        for (double q : QUANTILES) {
+            assertEquals(merged.quantile(q), single.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void emptySketch_returnsZero() {
+        LatencySketch sketch = new LatencySketch(ACCURACY);
+
+        assertEquals(sketch.getCount(), 0);
+        assertEquals(sketch.getMaxMillis(), 0);
+        for (double q : QUANTILES) {
+            assertEquals(sketch.quantile(q), 0, "q=" + q);
+        }
+    }
+
+    @Test
+    void mergeWithEmpty_keepsValues() {
+        LatencySketch reference = new LatencySketch(ACCURACY);
+        LatencySketch sketch = new LatencySketch(ACCURACY);
+        for (long millis : new long[]{250, 4_000}) {
+            reference.add(millis);
+            sketch.add(millis);
+        }
+
+        sketch.merge(new LatencySketch(ACCURACY));
+        LatencySketch fromEmpty = new LatencySketch(ACCURACY).merge(sketch);
+
+        assertEquals(fromEmpty.getCount(), 2);
+        assertEquals(fromEmpty.getMaxMillis(), 4_000);
+        for (double q : QUANTILES) {
+            assertEquals(sketch.quantile(q), reference.quantile(q), "q=" + q);
+            assertEquals(fromEmpty.quantile(q), reference.quantile(q), "q=" + q);
+        }
+    }
+
+    @Test
+    void zeroMillis_countedBelowEveryBucket() {
+        LatencySketch sketch = new LatencySketch(ACCURACY);
+        for (int i = 0; i < 3; i++) {
+            sketch.add(0);
+        }
+        sketch.add(100);
+
+        assertEquals(sketch.getCount(), 4);
+        assertEquals(sketch.quantile(0), 0);
+        assertEquals(sketch.quantile(0.5), 0);
+        assertTrue(Math.abs(sketch.quantile(1) - 100) <= ACCURACY * 100 + 0.5);
+    }
+
+    @Test
+    void onlyZeroMillis_returnsZero() {
+        LatencySketch sketch = new LatencySketch(ACCURACY);
+        sketch.add(0);
+        sketch.add(0);
+
+        assertEquals(sketch.quantile(0.99), 0);
+        assertEquals(sketch.getMaxMillis(), 0);
+    }
+
+    @Test
+    void invalidInput_isRejected() {
+        LatencySketch sketch = new LatencySketch(ACCURACY);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new LatencySketch(0.05)));
+        assertThrows(IllegalArgumentException.class, () -> new LatencySketch(0));
+    }
+
+    private static void assertQuantilesWithinAccuracy(long[] values) {
+        LatencySketch sketch = new LatencySketch(ACCURACY);
+        for (long value : values) {
+            sketch.add(value);
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (double q : QUANTILES) {
+            long exact = sorted[(int) Math.floor(q * (sorted.length - 1))];
+            long estimate = sketch.quantile(q);
+            // quantile() làm tròn về ms nguyên nên cho thêm nửa ms
+            double tolerance = ACCURACY * exact + 0.5;
+            assertTrue(Math.abs(estimate - exact) <= tolerance,
+                    "q=" + q + ": estimate " + estimate + " vs exact " + exact);
+        }
+    }
+}
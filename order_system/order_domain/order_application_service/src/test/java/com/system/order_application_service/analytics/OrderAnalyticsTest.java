@@ -0,0 +1,101 @@
+package com.system.order_application_service.analytics;
+
+import com.system.order_domain_core.valueobject.OrderStatus;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+class OrderAnalyticsTest {
+
+    private static final UUID RESTAURANT_A = UUID.fromString("660e8400-e29b-41d4-a716-446655440000");
+    private static final UUID RESTAURANT_B = UUID.fromString("770e8400-e29b-41d4-a716-446655440000");
+    private static final ZonedDateTime CREATED_AT = ZonedDateTime.parse("2025-03-01T10:00:00Z");
+
+    @Test
+    void accept_splitsRevenueByStatusAndRestaurant() {
+        OrderAnalytics analytics = new OrderAnalytics();
+        analytics.accept(OrderStatus.PAID, RESTAURANT_A, new BigDecimal("20.00"), new BigDecimal("2.00"),
+                new BigDecimal("18.00"), "SAVE10", CREATED_AT, CREATED_AT.plusSeconds(3));
+        analytics.accept(OrderStatus.PENDING, RESTAURANT_A, new BigDecimal("15.00"), null,
+                new BigDecimal("15.00"), null, CREATED_AT, null);
+        // Đơn cũ không có original_price: giá gốc = giá cuối + giảm giá
+        analytics.accept(OrderStatus.APPROVED, RESTAURANT_B, null, new BigDecimal("5.00"),
+                new BigDecimal("25.00"), "SAVE5", CREATED_AT, CREATED_AT.plusSeconds(1));
+
+        assertEquals(analytics.getTotalOrders(), 3);
+        assertEquals(analytics.getVoucherOrders(), 2);
+        assertBreakdown(analytics.getRevenue(), 2, 5000, 700, 4300);
+        assertBreakdown(analytics.getByStatus().get(OrderStatus.PENDING), 1, 1500, 0, 1500);
+        assertBreakdown(analytics.getByRestaurant().get(RESTAURANT_A), 1, 2000, 200, 1800);
+        assertBreakdown(analytics.getByRestaurant().get(RESTAURANT_B), 1, 3000, 500, 2500);
+        assertEquals(analytics.getPaymentLatency().getCount(), 2);
+    }
+
+    @Test
+    void merge_equalsAcceptingEverythingInOneInstance() {
+        OrderAnalytics single = new OrderAnalytics();
+        OrderAnalytics left = new OrderAnalytics();
+        OrderAnalytics right = new OrderAnalytics();
+        OrderStatus[] statuses = OrderStatus.values();
+        for (int i = 0; i < 200; i++) {
+            OrderStatus status = statuses[i % statuses.length];
+            UUID restaurantId = i % 3 == 0 ? RESTAURANT_A : RESTAURANT_B;
+            BigDecimal discount = BigDecimal.valueOf(i % 4, 1);
+            BigDecimal price = BigDecimal.valueOf(1000 + i, 2);
+            BigDecimal original = i % 5 == 0 ? null : price.add(discount);
+            String voucher = i % 4 == 0 ? null : "SAVE10";
+            ZonedDateTime paidAt = status == OrderStatus.PAID ? CREATED_AT.plusSeconds(i) : null;
+
+            single.accept(status, restaurantId, original, discount, price, voucher, CREATED_AT, paidAt);
+            (i < 70 ? left : right).accept(status, restaurantId, original, discount, price, voucher, CREATED_AT, paidAt);
+        }
+
+        OrderAnalytics merged = left.merge(right);
+
+        assertEquals(merged.getTotalOrders(), single.getTotalOrders());
+        assertEquals(merged.getVoucherOrders(), single.getVoucherOrders());
+        assertSameBreakdown(merged.getRevenue(), single.getRevenue());
+        assertEquals(merged.getByStatus().keySet(), single.getByStatus().keySet());
+        single.getByStatus().forEach((status, breakdown) ->
+                assertSameBreakdown(merged.getByStatus().get(status), breakdown));
+        assertEquals(merged.getByRestaurant().keySet(), single.getByRestaurant().keySet());
+        single.getByRestaurant().forEach((restaurantId, breakdown) ->
+                assertSameBreakdown(merged.getByRestaurant().get(restaurantId), breakdown));
+        assertEquals(merged.getPaymentLatency().getCount(), single.getPaymentLatency().getCount());
+        assertEquals(merged.getPaymentLatency().quantile(0.5), single.getPaymentLatency().quantile(0.5));
+    }
+
+    @Test
+    void merge_withEmptyPartition_keepsTotals() {
+        OrderAnalytics analytics = new OrderAnalytics();
+        analytics.accept(OrderStatus.PAID, RESTAURANT_A, new BigDecimal("10.00"), BigDecimal.ZERO,
+                new BigDecimal("10.00"), null, CREATED_AT, CREATED_AT);
+
+        OrderAnalytics merged = new OrderAnalytics().merge(analytics);
+
+        assertEquals(merged.getTotalOrders(), 1);
+        assertBreakdown(merged.getRevenue(), 1, 1000, 0, 1000);
+        assertFalse(merged.getByRestaurant().containsKey(RESTAURANT_B));
+        // paidAt == createdAt: độ trễ 0ms vẫn được đếm
+        assertEquals(merged.getPaymentLatency().getCount(), 1);
+        assertEquals(merged.getPaymentLatency().quantile(1), 0);
+    }
+
+    private static void assertBreakdown(OrderAnalytics.Breakdown breakdown, long orders,
+                                        long grossCents, long discountCents, long netCents) {
+        assertEquals(breakdown.getOrders(), orders);
+        assertEquals(breakdown.getGrossRevenue().getCents(), grossCents);
+        assertEquals(breakdown.getDiscount().getCents(), discountCents);
+        assertEquals(breakdown.getNetRevenue().getCents(), netCents);
+    }
+
+    private static void assertSameBreakdown(OrderAnalytics.Breakdown actual, OrderAnalytics.Breakdown expected) {
+        assertBreakdown(actual, expected.getOrders(), expected.getGrossRevenue().getCents(),
+                expected.getDiscount().getCents(), expected.getNetRevenue().getCents());
+    }
+}
@@ -3,35 +3,43 @@ package com.system.order_domain_core.entity;
 import com.system.order_domain_core.exception.OrderDomainException;
 import com.system.order_domain_core.valueobject.*;
 
-import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class Order {
+    // Trạng thái cho phép đánh giá; OrderRatingHandler dùng làm điều kiện của câu UPDATE
+    public static final Set<OrderStatus> RATEABLE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(OrderStatus.APPROVED, OrderStatus.PAID));
+    public static final String NOT_RATEABLE_MESSAGE = "Không thể đánh giá đơn hàng chưa hoàn thành.";
+
     private final OrderId id;
     private final CustomerId customerId;
     private final RestaurantId restaurantId;
     private final TrackingId trackingId;
 
-    private BigDecimal price;
+    private Money price;
     private OrderStatus orderStatus;
     private List<OrderItem> items;
     private String failureMessages;
     private final ZonedDateTime createdAt;
 
-    private BigDecimal originalPrice;
-    private BigDecimal discount;
+    private Money originalPrice;
+    private Money discount;
     private String voucherCode;
 
     private Integer rating;
     private String comment;
+    private ZonedDateTime paidAt;
 
 
     public Order(OrderId id, CustomerId customerId, RestaurantId restaurantId, TrackingId trackingId,
-                 BigDecimal price, OrderStatus orderStatus, List<OrderItem> items, String failureMessages,
-                 ZonedDateTime createdAt, BigDecimal originalPrice, BigDecimal discount, String voucherCode,
-                 Integer rating, String comment) {
+                 Money price, OrderStatus orderStatus, List<OrderItem> items, String failureMessages,
+                 ZonedDateTime createdAt, Money originalPrice, Money discount, String voucherCode,
+                 Integer rating, String comment, ZonedDateTime paidAt) {
         this.id = id;
         this.customerId = customerId;
         this.restaurantId = restaurantId;
@@ -46,6 +54,7 @@ public class Order {
         this.voucherCode = voucherCode;
         this.rating = rating;
         this.comment = comment;
+        this.paidAt = paidAt;
     }
 
 
@@ -53,9 +62,12 @@ public class Order {
      * (Feature 4) Tính toán tổng tiền gốc
      */
     private void calculateOriginalPrice() {
-        this.originalPrice = this.items.stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity() != null ? item.getQuantity() : 0)))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Cộng dồn cents trực tiếp, không tạo BigDecimal trung gian cho mỗi món
+        Money total = Money.ZERO;
+        for (OrderItem item : this.items) {
+            total = total.add(item.getPrice().multiply(item.getQuantity() != null ? item.getQuantity() : 0));
+        }
+        this.originalPrice = total;
         this.price = this.originalPrice;
     }
 
@@ -67,7 +79,7 @@ public class Order {
             throw new OrderDomainException("Chỉ áp dụng voucher cho đơn hàng PENDING.");
         }
 
-        BigDecimal calculatedDiscount = voucher.calculateDiscount(this.originalPrice);
+        Money calculatedDiscount = voucher.calculateDiscount(this.originalPrice);
 
         this.discount = calculatedDiscount;
         this.price = this.originalPrice.subtract(this.discount); // Giá cuối = Gốc - Giảm
@@ -84,7 +96,7 @@ public class Order {
         this.items = new ArrayList<>(newItems);
         calculateOriginalPrice();
 
-        this.discount = BigDecimal.ZERO;
+        this.discount = Money.ZERO;
         this.voucherCode = null;
     }
 
@@ -92,14 +104,18 @@ public class Order {
      * (Feature 5) Thêm đánh giá
      */
     public void addRating(int rating, String comment) {
-        if (this.orderStatus != OrderStatus.APPROVED && this.orderStatus != OrderStatus.PAID) {
-            throw new OrderDomainException("Không thể đánh giá đơn hàng chưa hoàn thành.");
+        if (!RATEABLE_STATUSES.contains(this.orderStatus)) {
+            throw new OrderDomainException(NOT_RATEABLE_MESSAGE);
         }
+        validateRating(rating);
+        this.rating = rating;
+        this.comment = comment;
+    }
+
+    public static void validateRating(int rating) {
         if (rating < 1 || rating > 5) {
             throw new OrderDomainException("Rating phải từ 1 đến 5 sao.");
         }
-        this.rating = rating;
-        this.comment = comment;
     }
 
     public void pay() {
@@ -107,6 +123,7 @@ public class Order {
             throw new OrderDomainException("Only PENDING orders can be paid");
         }
         this.orderStatus = OrderStatus.PAID;
+        this.paidAt = ZonedDateTime.now();
     }
 
     public void cancel(String failureMessage) {
@@ -118,8 +135,8 @@ public class Order {
     }
     public static Order createOrder(OrderId id, CustomerId customerId, RestaurantId restaurantId,
                                     TrackingId trackingId, List<OrderItem> items) {
-        Order order = new Order(id, customerId, restaurantId, trackingId, BigDecimal.ZERO, OrderStatus.PENDING,
-                items, null, ZonedDateTime.now(), BigDecimal.ZERO, BigDecimal.ZERO, null, null, null);
+        Order order = new Order(id, customerId, restaurantId, trackingId, Money.ZERO, OrderStatus.PENDING,
+                items, null, ZonedDateTime.now(), Money.ZERO, Money.ZERO, null, null, null, null);
         order.calculateOriginalPrice(); // Tính giá gốc và giá cuối
         return order;
     }
@@ -129,14 +146,15 @@ public class Order {
     public CustomerId getCustomerId() { return customerId; }
     public RestaurantId getRestaurantId() { return restaurantId; }
     public TrackingId getTrackingId() { return trackingId; }
-    public BigDecimal getPrice() { return price; }
+    public Money getPrice() { return price; }
     public OrderStatus getOrderStatus() { return orderStatus; }
     public List<OrderItem> getItems() { return items; }
     public String getFailureMessages() { return failureMessages; }
     public ZonedDateTime getCreatedAt() { return createdAt; }
-    public BigDecimal getOriginalPrice() { return originalPrice; }
-    public BigDecimal getDiscount() { return discount; }
+    public Money getOriginalPrice() { return originalPrice; }
+    public Money getDiscount() { return discount; }
     public String getVoucherCode() { return voucherCode; }
     public Integer getRating() { return rating; }
     public String getComment() { return comment; }
+    public ZonedDateTime getPaidAt() { return paidAt; }
 }
\ No newline at end of file
@@ -1,16 +1,15 @@
 package com.system.order_domain_core.valueobject;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 public class OrderItem {
     private final Long id;
     private final UUID orderId;
     private final UUID productId;
-    private final BigDecimal price;
+    private final Money price;
     private final Integer quantity;
-    private final BigDecimal subTotal;
+    private final Money subTotal;
 
-    public OrderItem(Long id, UUID orderId, UUID productId, BigDecimal price, Integer quantity, BigDecimal subTotal) {
+    public OrderItem(Long id, UUID orderId, UUID productId, Money price, Integer quantity, Money subTotal) {
         this.id = id;
         this.orderId = orderId;
         this.productId = productId;
@@ -22,7 +21,7 @@ public class OrderItem {
     public Long getId() { return id; }
     public UUID getOrderId() { return orderId; }
     public UUID getProductId() { return productId; }
-    public BigDecimal getPrice() { return price; }
+    public Money getPrice() { return price; }
     public Integer getQuantity() { return quantity; }
-    public BigDecimal getSubTotal() { return subTotal; }
+    public Money getSubTotal() { return subTotal; }
 }
\ No newline at end of file
@@ -21,4 +21,8 @@ public class OrderStatistics {
         }
         return totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP);
     }
+
+    public OrderStatistics add(OrderStatistics other) {
+        return new OrderStatistics(totalOrders + other.totalOrders, totalRevenue.add(other.totalRevenue));
+    }
 }
\ No newline at end of file
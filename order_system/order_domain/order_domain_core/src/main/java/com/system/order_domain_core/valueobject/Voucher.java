@@ -1,18 +1,16 @@
 package com.system.order_domain_core.valueobject;
 
-import java.math.BigDecimal;
-
 public class Voucher {
     private final String code;
-    private final BigDecimal discountValue;
+    private final Money discountValue;
 
-    public Voucher(String code, BigDecimal discountValue) {
+    public Voucher(String code, Money discountValue) {
         this.code = code;
         this.discountValue = discountValue;
     }
 
-    public BigDecimal calculateDiscount(BigDecimal originalPrice) {
-        return originalPrice.compareTo(discountValue) > 0 ? discountValue : originalPrice;
+    public Money calculateDiscount(Money originalPrice) {
+        return originalPrice.min(discountValue);
     }
 
     public String getCode() { return code; }
@@ -0,0 +1,171 @@
+package com.system.order_messaging.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.system.order_messaging.dto.PaymentBatchProcessRequest;
+import com.system.order_messaging.dto.PaymentBatchProcessResponse;
+import com.system.order_messaging.dto.PaymentProcessRequest;
+import com.system.order_messaging.dto.PaymentProcessResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking client for the Payment Service REST API.
+ * <p>
+ * Every call goes through the circuit breaker (fails fast with {@link CallNotPermittedException} while open)
+ * and the bulkhead (fails fast with {@link BulkheadFullException} when too many calls are in flight),
+ * then runs on the pooled async HTTP client. HTTP 5xx responses count as circuit breaker failures.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.processing.mode", havingValue = "rest")
+public class PaymentServiceClient {
+
+    private static final String PROCESS_BATCH_PATH = "/api/v1/payments/process/batch";
+    private static final String REQUEST_TIMER = "payment.client.requests";
+
+    private final CloseableHttpAsyncClient paymentHttpClient;
+    private final CircuitBreaker paymentServiceCircuitBreaker;
+    private final Bulkhead paymentServiceBulkhead;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final URI processBatchUri;
+
+    public PaymentServiceClient(CloseableHttpAsyncClient paymentHttpClient,
+                                CircuitBreaker paymentServiceCircuitBreaker,
+                                Bulkhead paymentServiceBulkhead,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${payment.service.url:http://localhost:8082}") String paymentServiceUrl) {
+        this.paymentHttpClient = paymentHttpClient;
+        this.paymentServiceCircuitBreaker = paymentServiceCircuitBreaker;
+        this.paymentServiceBulkhead = paymentServiceBulkhead;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.processBatchUri = URI.create(paymentServiceUrl + PROCESS_BATCH_PATH);
+    }
+
+    /**
+     * Settles a batch of payments with one HTTP round trip; the payment service answers with one
+     * result per request, in request order.
+     */
+    public CompletableFuture<PaymentServiceResult> processPayments(List<PaymentProcessRequest> requests) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new PaymentBatchProcessRequest(requests));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (!paymentServiceCircuitBreaker.tryAcquirePermission()) {
+            recordRejection("circuit_open");
+            return CompletableFuture.failedFuture(
+                    CallNotPermittedException.createCallNotPermittedException(paymentServiceCircuitBreaker));
+        }
+        if (!paymentServiceBulkhead.tryAcquirePermission()) {
+            paymentServiceCircuitBreaker.releasePermission();
+            recordRejection("bulkhead_full");
+            return CompletableFuture.failedFuture(
+                    BulkheadFullException.createBulkheadFullException(paymentServiceBulkhead));
+        }
+
+        SimpleHttpRequest httpRequest = SimpleRequestBuilder.post(processBatchUri)
+                .setHeader("Accept", "application/json")
+                .setBody(body, ContentType.APPLICATION_JSON)
+                .build();
+
+        log.info("Calling payment service API at: {} with {} payments", processBatchUri, requests.size());
+        long start = System.nanoTime();
+        CompletableFuture<SimpleHttpResponse> response = new CompletableFuture<>();
+        paymentHttpClient.execute(httpRequest, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse result) {
+                response.complete(result);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                response.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                response.completeExceptionally(new CancellationException("Payment service call cancelled"));
+            }
+        });
+
+        return response.whenComplete((result, error) -> {
+            long elapsed = System.nanoTime() - start;
+            paymentServiceBulkhead.onComplete();
+            if (error != null) {
+                paymentServiceCircuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, error);
+                recordCall(elapsed, "error", "none");
+            } else if (result.getCode() >= 500) {
+                paymentServiceCircuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS,
+                        new IllegalStateException("Payment service responded with HTTP " + result.getCode()));
+                recordCall(elapsed, "server_error", String.valueOf(result.getCode()));
+            } else {
+                paymentServiceCircuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+                recordCall(elapsed, result.getCode() < 400 ? "success" : "client_error", String.valueOf(result.getCode()));
+            }
+        }).thenApply(this::toResult);
+    }
+
+    /**
+     * True for fast-fail rejections (circuit open, bulkhead full), where the request never reached the service.
+     */
+    public static boolean isRejection(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException;
+    }
+
+    private PaymentServiceResult toResult(SimpleHttpResponse response) {
+        List<PaymentProcessResponse> results = List.of();
+        byte[] bytes = response.getBodyBytes();
+        if (response.getCode() == 200 && bytes != null && bytes.length > 0) {
+            try {
+                PaymentBatchProcessResponse body = objectMapper.readValue(bytes, PaymentBatchProcessResponse.class);
+                if (body.getResults() != null) {
+                    results = body.getResults();
+                }
+            } catch (IOException e) {
+                log.warn("Could not decode payment service response (status {}): {}",
+                        response.getCode(), e.getMessage());
+            }
+        }
+        return new PaymentServiceResult(response.getCode(), results);
+    }
+
+    private void recordCall(long elapsedNanos, String outcome, String status) {
+        Timer.builder(REQUEST_TIMER)
+                .description("Payment Service call latency")
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordRejection(String outcome) {
+        meterRegistry.counter("payment.client.rejected", "reason", outcome).increment();
+    }
+}
@@ -0,0 +1,22 @@
+package com.system.order_messaging.client;
+
+import com.system.order_messaging.dto.PaymentProcessResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * HTTP status and decoded per-order results of a Payment Service batch call.
+ * {@code results} is empty when the body could not be decoded.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentServiceResult {
+    private final int statusCode;
+    private final List<PaymentProcessResponse> results;
+
+    public boolean isSuccessful() {
+        return statusCode == 200;
+    }
+}
@@ -1,21 +1,122 @@
 package com.system.order_messaging.config;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
+import java.util.function.ToDoubleFunction;
 
+/**
+ * HTTP client stack for the Payment Service: pooled keep-alive connections with per-route limits,
+ * a bulkhead capping in-flight calls and a circuit breaker that fails fast while the service is degraded.
+ */
 @Configuration
+@ConditionalOnProperty(name = "payment.processing.mode", havingValue = "rest")
 public class HttpConfig {
 
+    private static final String PAYMENT_SERVICE = "payment-service";
+
+    @Bean(destroyMethod = "close")
+    public PoolingAsyncClientConnectionManager paymentConnectionManager(
+            @Value("${payment.service.client.max-connections:40}") int maxConnections,
+            @Value("${payment.service.client.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${payment.service.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+            MeterRegistry meterRegistry) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        registerPoolGauge(meterRegistry, connectionManager, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, connectionManager, "max", PoolStats::getMax);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient paymentHttpClient(
+            PoolingAsyncClientConnectionManager paymentConnectionManager,
+            @Value("${payment.service.request-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${payment.service.client.connection-request-timeout-ms:1000}") long connectionRequestTimeoutMs) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(paymentConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        client.start();
+        return client;
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout((int) Duration.ofSeconds(10).toMillis());
-        factory.setReadTimeout((int) Duration.ofSeconds(30).toMillis());
+    public Bulkhead paymentServiceBulkhead(
+            @Value("${payment.service.client.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(PAYMENT_SERVICE);
+    }
+
+    @Bean
+    public CircuitBreaker paymentServiceCircuitBreaker(
+            @Value("${payment.service.client.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${payment.service.client.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${payment.service.client.circuit-breaker.wait-duration-open-ms:10000}") long waitDurationOpenMs,
+            @Value("${payment.service.client.circuit-breaker.slow-call-threshold-ms:3000}") long slowCallThresholdMs,
+            MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallThresholdMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(slidingWindowSize, 10))
+                .waitDurationInOpenState(Duration.ofMillis(waitDurationOpenMs))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(PAYMENT_SERVICE);
+    }
 
-        return new RestTemplate(factory);
+    private static void registerPoolGauge(MeterRegistry meterRegistry,
+                                          PoolingAsyncClientConnectionManager connectionManager,
+                                          String state,
+                                          ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("payment.client.pool.connections", connectionManager,
+                        manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("state", state)
+                .description("Payment Service HTTP connection pool")
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.system.order_messaging.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Order service sở hữu topic request; listener concurrency ở cả hai service dùng cùng số partition.
+     * Tăng số partition sẽ đổi partition của các key hiện có, nên chỉ tăng khi topic đã xử lý hết.
+     */
+    @Bean
+    public NewTopic orderPaymentRequestTopic(
+            @Value("${kafka.topic.order-payment-request.partitions:6}") int partitions,
+            @Value("${kafka.topic.order-payment-request.replicas:1}") int replicas) {
+        return TopicBuilder.name("order.payment.request")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.system.order_messaging.config;
+
+import java.util.UUID;
+
+/**
+ * Which id keys {@code order.payment.request} records (payment.request.partition-key).
+ * <p>
+ * CUSTOMER puts every payment of a customer on one partition, so debits on the same credit entry are
+ * processed one after another by a single consumer while different customers spread across partitions.
+ * ORDER spreads one customer's orders over several partitions, where their debits can race.
+ */
+public enum PaymentPartitionKey {
+    ORDER,
+    CUSTOMER;
+
+    public UUID keyOf(UUID orderId, UUID customerId) {
+        return this == CUSTOMER ? customerId : orderId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.system.order_messaging.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+@ConditionalOnProperty(name = "payment.processing.mode", havingValue = "rest")
+public class PaymentPipelineConfig {
+
+    /**
+     * Container factory for the asynchronous payment pipeline.
+     * <p>
+     * Records are delivered as batches (one poll per listener call) and acknowledged manually from
+     * the pipeline's completion threads. With async acks the container commits offsets in order and
+     * pauses the consumer (without blocking the thread) until the previous poll has been acknowledged,
+     * so {@code max.poll.records} on the listener is the in-flight limit per consumer. This also keeps
+     * requests for the same order in order across polls.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentRequestListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+}
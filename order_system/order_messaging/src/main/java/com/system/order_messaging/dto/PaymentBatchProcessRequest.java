@@ -0,0 +1,17 @@
+package com.system.order_messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body for the Payment Service {@code /api/v1/payments/process/batch} endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchProcessRequest {
+    private List<PaymentProcessRequest> payments;
+}
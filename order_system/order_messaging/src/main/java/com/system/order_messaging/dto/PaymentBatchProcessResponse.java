@@ -0,0 +1,20 @@
+package com.system.order_messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response body of the Payment Service batch endpoint; {@code results} follow the request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchProcessResponse {
+    private int totalCount;
+    private int completedCount;
+    private int failedCount;
+    private List<PaymentProcessResponse> results;
+}
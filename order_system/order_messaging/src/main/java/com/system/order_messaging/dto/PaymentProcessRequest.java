@@ -0,0 +1,22 @@
+package com.system.order_messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Request body for the Payment Service {@code /api/v1/payments/process} endpoint.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentProcessRequest {
+    private UUID orderId;
+    private UUID customerId;
+    private BigDecimal price;
+}
@@ -0,0 +1,29 @@
+package com.system.order_messaging.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Response body returned by the Payment Service {@code /api/v1/payments/process} endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentProcessResponse {
+    private UUID paymentId;
+    private UUID orderId;
+    private UUID customerId;
+    private BigDecimal price;
+    private PaymentStatus status;
+    private String message;
+    private ZonedDateTime createdAt;
+
+    public enum PaymentStatus {
+        PENDING, COMPLETED, FAILED
+    }
+}
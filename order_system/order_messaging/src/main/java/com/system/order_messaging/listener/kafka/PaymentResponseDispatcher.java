@@ -0,0 +1,204 @@
+package com.system.order_messaging.listener.kafka;
+
+import com.system.order_application_service.dto.PaymentResponse;
+import com.system.order_application_service.dto.PaymentStatusUpdate;
+import com.system.order_application_service.exception.OrderNotFoundException;
+import com.system.order_application_service.ports.input.PaymentResponseMessageListener;
+import com.system.order_application_service.service.PaymentStatusSseService;
+import com.system.order_domain_core.exception.OrderDomainException;
+import com.system.order_messaging.dto.PaymentResponseEvent;
+import com.system.order_messaging.pipeline.OrderedStage;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single consumer of {@code payment.order.response}.
+ * <p>
+ * Each record is deserialized once and passed through two ordered stages: {@code persist} updates
+ * the order through {@link PaymentResponseMessageListener}, then {@code notify} pushes the status to
+ * SSE subscribers. Both stages are striped by order id, so responses for one order are persisted and
+ * notified in offset order while different orders proceed in parallel. A response whose persist
+ * fails, or that the listener drops as a duplicate, is not notified.
+ * <p>
+ * The listener thread waits for the persist stage of the whole poll. The poll is acknowledged only when
+ * every record was persisted or rejected by the domain (a rejection would fail the same way on every
+ * redelivery). On any other failure the poll is nacked from the first failed record, so it and everything
+ * after it are redelivered after {@code retry-backoff}; records that were already persisted come back as
+ * duplicates and are dropped by the listener's dedup. Later responses of an order whose persist failed are
+ * not persisted in this poll, so an order never skips ahead of its failed response.
+ */
+@Slf4j
+@Component
+public class PaymentResponseDispatcher implements DisposableBean {
+
+    private final PaymentResponseMessageListener paymentResponseMessageListener;
+    private final PaymentStatusSseService paymentStatusSseService;
+    private final OrderedStage persistStage;
+    private final OrderedStage notifyStage;
+    private final Duration retryBackoff;
+
+    public PaymentResponseDispatcher(PaymentResponseMessageListener paymentResponseMessageListener,
+                                     PaymentStatusSseService paymentStatusSseService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${payment.response.dispatcher.persist-threads:8}") int persistThreads,
+                                     @Value("${payment.response.dispatcher.notify-threads:2}") int notifyThreads,
+                                     @Value("${payment.response.dispatcher.retry-backoff:PT1S}") Duration retryBackoff) {
+        this.paymentResponseMessageListener = paymentResponseMessageListener;
+        this.paymentStatusSseService = paymentStatusSseService;
+        this.persistStage = new OrderedStage("persist", persistThreads, meterRegistry);
+        this.notifyStage = new OrderedStage("notify", notifyThreads, meterRegistry);
+        this.retryBackoff = retryBackoff;
+    }
+
+    @KafkaListener(
+            topics = "payment.order.response",
+            groupId = "order-payment-response-consumer-group",
+            containerFactory = "paymentResponseListenerContainerFactory",
+            concurrency = "${kafka.topic.payment-order-response.partitions:6}",
+            properties = {
+                    "spring.json.value.default.type=com.system.order_messaging.dto.PaymentResponseEvent",
+                    "max.poll.records=${payment.response.dispatcher.max-in-flight:500}"
+            }
+    )
+    public void dispatch(List<PaymentResponseEvent> events, Acknowledgment acknowledgment) {
+        log.debug("Received batch of {} payment responses", events.size());
+
+        Set<UUID> failedOrders = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<PersistOutcome>> persisted = events.stream()
+                .map(event -> dispatch(event, failedOrders))
+                .toList();
+
+        // Chờ hết cả poll trên luồng consumer: nack chỉ gọi được từ đây, và lúc seek lại không còn record nào đang chạy
+        int firstFailed = -1;
+        for (int i = 0; i < persisted.size(); i++) {
+            if (persisted.get(i).join() == PersistOutcome.FAILED && firstFailed < 0) {
+                firstFailed = i;
+            }
+        }
+
+        if (firstFailed < 0) {
+            acknowledgment.acknowledge();
+        } else {
+            log.warn("Redelivering payment responses from index {} of {} in {}", firstFailed, events.size(), retryBackoff);
+            acknowledgment.nack(firstFailed, retryBackoff);
+        }
+    }
+
+    private CompletableFuture<PersistOutcome> dispatch(PaymentResponseEvent event, Set<UUID> failedOrders) {
+        if (event == null || event.getOrderId() == null) {
+            log.warn("Skipping payment response without order id");
+            return CompletableFuture.completedFuture(PersistOutcome.REJECTED);
+        }
+        CompletableFuture<PersistOutcome> persisted = persistStage.submit(event.getOrderId(),
+                () -> persistOnce(event, failedOrders));
+        persisted.thenAccept(outcome -> {
+            if (outcome == PersistOutcome.PERSISTED) {
+                notifyStage.submit(event.getOrderId(), () -> {
+                    notifySubscribers(event);
+                    return null;
+                }).exceptionally(error -> {
+                    // Thông báo SSE chỉ là best-effort, không làm giao lại record
+                    log.warn("Failed to notify payment status for order: {}", event.getOrderId(), error);
+                    return null;
+                });
+            }
+        });
+        return persisted;
+    }
+
+    /**
+     * Chạy trên stripe của orderId nên các response cùng đơn được xử lý tuần tự, đọc failedOrders không bị race.
+     */
+    private PersistOutcome persistOnce(PaymentResponseEvent event, Set<UUID> failedOrders) {
+        if (failedOrders.contains(event.getOrderId())) {
+            return PersistOutcome.FAILED;
+        }
+        try {
+            return persist(event) ? PersistOutcome.PERSISTED : PersistOutcome.DUPLICATE;
+        } catch (OrderDomainException | OrderNotFoundException e) {
+            log.warn("Payment response for order: {} with status: {} rejected - {}",
+                    event.getOrderId(), event.getPaymentStatus(), e.getMessage());
+            return PersistOutcome.REJECTED;
+        } catch (RuntimeException e) {
+            failedOrders.add(event.getOrderId());
+            log.error("Failed to persist payment response for order: {} with status: {}",
+                    event.getOrderId(), event.getPaymentStatus(), e);
+            return PersistOutcome.FAILED;
+        }
+    }
+
+    private boolean persist(PaymentResponseEvent event) {
+        PaymentResponse paymentResponse = new PaymentResponse();
+        paymentResponse.setPaymentId(event.getPaymentId());
+        paymentResponse.setOrderId(event.getOrderId());
+        paymentResponse.setCustomerId(event.getCustomerId());
+        paymentResponse.setPrice(event.getPrice());
+        paymentResponse.setPaymentStatus(event.getPaymentStatus() != null ? event.getPaymentStatus().name() : null);
+        paymentResponse.setFailureMessage(event.getFailureMessage());
+
+        if (event.getPaymentStatus() == PaymentResponseEvent.PaymentStatus.COMPLETED) {
+            return paymentResponseMessageListener.paymentCompleted(paymentResponse);
+        } else if (event.getPaymentStatus() == PaymentResponseEvent.PaymentStatus.FAILED) {
+            return paymentResponseMessageListener.paymentFailed(paymentResponse);
+        }
+        return true;
+    }
+
+    private void notifySubscribers(PaymentResponseEvent event) {
+        PaymentStatusUpdate statusUpdate = PaymentStatusUpdate.builder()
+                .orderId(event.getOrderId())
+                .customerId(event.getCustomerId())
+                .status(String.valueOf(event.getPaymentStatus()))
+                .message(getStatusMessage(event.getPaymentStatus(), event.getFailureMessage()))
+                .timestamp(LocalDateTime.now())
+                .amount(event.getPrice())
+                .transactionId(event.getPaymentId() != null ? event.getPaymentId().toString() : null)
+                .build();
+
+        paymentStatusSseService.sendStatusUpdate(event.getOrderId().toString(), statusUpdate);
+    }
+
+    private String getStatusMessage(PaymentResponseEvent.PaymentStatus status, String failureMessage) {
+        if (status == null) {
+            return "Payment status updated";
+        }
+        switch (status) {
+            case COMPLETED:
+                return "Payment processed successfully";
+            case FAILED:
+                return failureMessage != null ? failureMessage : "Payment processing failed";
+            case PENDING:
+                return "Payment is pending processing";
+            default:
+                return "Payment status updated to: " + status;
+        }
+    }
+
+    private enum PersistOutcome {
+        PERSISTED,
+        // Bản trùng bị dedup bỏ qua: vẫn ack nhưng không đẩy lại trạng thái cho SSE
+        DUPLICATE,
+        REJECTED,
+        FAILED
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        persistStage.shutdown(10, TimeUnit.SECONDS);
+        notifyStage.shutdown(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,85 @@
+package com.system.order_messaging.pipeline;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A processing stage backed by single-threaded stripes. Tasks submitted with the same key run on the
+ * same stripe, so they execute one at a time in submission order; different keys run in parallel.
+ * <p>
+ * Publishes {@code payment.response.stage} (timer, tags stage/outcome) and
+ * {@code payment.response.stage.queued} (gauge, tag stage).
+ */
+public class OrderedStage {
+
+    public static final String STAGE_TIMER = "payment.response.stage";
+    public static final String STAGE_QUEUED_GAUGE = "payment.response.stage.queued";
+
+    private final String name;
+    private final ThreadPoolExecutor[] stripes;
+    private final Timer successTimer;
+    private final Timer errorTimer;
+
+    public OrderedStage(String name, int stripeCount, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.stripes = new ThreadPoolExecutor[Math.max(1, stripeCount)];
+        AtomicInteger threadCount = new AtomicInteger();
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "payment-response-" + name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        this.successTimer = Timer.builder(STAGE_TIMER).tag("stage", name).tag("outcome", "success").register(meterRegistry);
+        this.errorTimer = Timer.builder(STAGE_TIMER).tag("stage", name).tag("outcome", "error").register(meterRegistry);
+        Gauge.builder(STAGE_QUEUED_GAUGE, this, OrderedStage::queued).tag("stage", name).register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Object key, Supplier<T> task) {
+        ExecutorService stripe = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = task.get();
+                successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (RuntimeException e) {
+                errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        }, stripe);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int queued() {
+        int queued = 0;
+        for (ThreadPoolExecutor stripe : stripes) {
+            queued += stripe.getQueue().size() + stripe.getActiveCount();
+        }
+        return queued;
+    }
+
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.system.order_messaging.pipeline;
+
+import com.system.order_application_service.dto.PaymentResponse;
+import com.system.order_application_service.dto.PaymentStatusUpdate;
+import com.system.order_application_service.ports.input.PaymentResponseMessageListener;
+import com.system.order_application_service.service.PaymentStatusSseService;
+import com.system.order_messaging.client.PaymentServiceClient;
+import com.system.order_messaging.client.PaymentServiceResult;
+import com.system.order_messaging.config.PaymentPartitionKey;
+import com.system.order_messaging.dto.OrderPaymentRequest;
+import com.system.order_messaging.dto.PaymentProcessRequest;
+import com.system.order_messaging.dto.PaymentProcessResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Asynchronous payment processing pipeline:
+ * simulated latency (scheduler) -> Payment Service batch call (non-blocking client) -> simulated latency
+ * -> completion ({@link PaymentResponseMessageListener} + SSE) on a bounded executor.
+ * <p>
+ * A polled batch is grouped into buckets by the record's partition key ({@link PaymentPartitionKey}), so
+ * requests sharing a key land in the same bucket in their original order. Each bucket is sent in chunks of
+ * at most {@code payment.pipeline.batch-size} requests, one HTTP call per chunk; the chunks of a bucket are
+ * sent one after another, so the payment service still settles a key's requests sequentially. No stage
+ * parks a thread.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.processing.mode", havingValue = "rest")
+public class PaymentRequestPipeline implements DisposableBean {
+
+    private final PaymentServiceClient paymentServiceClient;
+    private final PaymentResponseMessageListener paymentResponseMessageListener;
+    private final PaymentStatusSseService paymentStatusSseService;
+    private final PaymentPartitionKey partitionKey;
+    private final int batchSize;
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private final long rejectedRetryDelayMs;
+    private final int rejectedMaxAttempts;
+
+    private final ScheduledExecutorService latencyScheduler;
+    private final ExecutorService completionExecutor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public PaymentRequestPipeline(PaymentServiceClient paymentServiceClient,
+                                  PaymentResponseMessageListener paymentResponseMessageListener,
+                                  PaymentStatusSseService paymentStatusSseService,
+                                  @Value("${payment.request.partition-key:CUSTOMER}") PaymentPartitionKey partitionKey,
+                                  @Value("${payment.pipeline.batch-size:50}") int batchSize,
+                                  @Value("${payment.pipeline.simulated-delay.min-ms:1000}") long minDelayMs,
+                                  @Value("${payment.pipeline.simulated-delay.max-ms:2000}") long maxDelayMs,
+                                  @Value("${payment.pipeline.completion-threads:8}") int completionThreads,
+                                  @Value("${payment.pipeline.rejected-retry-delay-ms:1000}") long rejectedRetryDelayMs,
+                                  @Value("${payment.pipeline.rejected-max-attempts:10}") int rejectedMaxAttempts) {
+        this.paymentServiceClient = paymentServiceClient;
+        this.paymentResponseMessageListener = paymentResponseMessageListener;
+        this.paymentStatusSseService = paymentStatusSseService;
+        this.partitionKey = partitionKey;
+        this.batchSize = Math.max(1, batchSize);
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = Math.max(minDelayMs, maxDelayMs);
+        this.rejectedRetryDelayMs = rejectedRetryDelayMs;
+        this.rejectedMaxAttempts = Math.max(1, rejectedMaxAttempts);
+        this.latencyScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("payment-latency"));
+        this.completionExecutor = Executors.newFixedThreadPool(completionThreads, namedThreads("payment-completion"));
+    }
+
+    /**
+     * Submits a polled batch of payment requests. The returned future completes once every order in
+     * the batch has been updated, whatever the payment outcomes.
+     */
+    public CompletableFuture<Void> submitBatch(List<OrderPaymentRequest> requests) {
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        inFlight.addAndGet(requests.size());
+        requests.forEach(request -> sendPaymentStatusUpdate(request, "PROCESSING", "Payment is being processed"));
+
+        CompletableFuture<?>[] buckets = partitionByKey(requests).stream()
+                .map(this::processBucket)
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(buckets)
+                .whenComplete((ignored, error) -> inFlight.addAndGet(-requests.size()));
+    }
+
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    private List<List<OrderPaymentRequest>> partitionByKey(List<OrderPaymentRequest> requests) {
+        int bucketCount = (requests.size() + batchSize - 1) / batchSize;
+        List<List<OrderPaymentRequest>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (OrderPaymentRequest request : requests) {
+            UUID key = partitionKey.keyOf(request.getOrderId(), request.getCustomerId());
+            buckets.get(Math.floorMod(key.hashCode(), bucketCount)).add(request);
+        }
+        buckets.removeIf(List::isEmpty);
+        return buckets;
+    }
+
+    /**
+     * Sends a bucket in chunks of at most {@code batchSize} requests. Hash bucketing can put more than
+     * {@code batchSize} requests in one bucket; its chunks are chained so a key's requests stay in order.
+     */
+    private CompletableFuture<Void> processBucket(List<OrderPaymentRequest> bucket) {
+        CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        for (int from = 0; from < bucket.size(); from += batchSize) {
+            List<OrderPaymentRequest> chunk = bucket.subList(from, Math.min(bucket.size(), from + batchSize));
+            tail = tail.thenCompose(ignored -> processChunk(chunk));
+        }
+        return tail;
+    }
+
+    private CompletableFuture<Void> processChunk(List<OrderPaymentRequest> chunk) {
+        List<PaymentProcessRequest> paymentRequests = chunk.stream()
+                .map(request -> PaymentProcessRequest.builder()
+                        .orderId(request.getOrderId())
+                        .customerId(request.getCustomerId())
+                        .price(request.getPrice())
+                        .build())
+                .toList();
+
+        return delay("Payment batch preparation for " + chunk.size() + " orders")
+                .thenCompose(ignored -> callPaymentService(paymentRequests, 1))
+                .thenCompose(result -> delay("Payment batch response processing for " + chunk.size() + " orders")
+                        .thenApply(ignored -> result))
+                .handleAsync((result, error) -> {
+                    completeChunk(chunk, result, error);
+                    return null;
+                }, completionExecutor);
+    }
+
+    private void completeChunk(List<OrderPaymentRequest> chunk, PaymentServiceResult result, Throwable error) {
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            log.error("Error processing payment batch of {} orders", chunk.size(), cause);
+            chunk.forEach(request -> handlePaymentFailure(request, "Payment processing error: " + cause.getMessage()));
+            return;
+        }
+        if (!result.isSuccessful() || result.getResults().size() != chunk.size()) {
+            log.error("Unexpected response from payment service: {} for batch of {} orders (results: {})",
+                    result.getStatusCode(), chunk.size(), result.getResults().size());
+            chunk.forEach(request -> handlePaymentFailure(request, "Payment service error: " + result.getStatusCode()));
+            return;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            OrderPaymentRequest request = chunk.get(i);
+            PaymentProcessResponse response = result.getResults().get(i);
+            if (response.getStatus() == PaymentProcessResponse.PaymentStatus.COMPLETED) {
+                log.info("Payment completed successfully for order: {}", request.getOrderId());
+                handlePaymentSuccess(request, response.getPaymentId());
+            } else {
+                log.warn("Payment failed for order: {} with status: {}", request.getOrderId(), response.getStatus());
+                handlePaymentFailure(request, response.getMessage() != null
+                        ? response.getMessage()
+                        : "Payment processing failed");
+            }
+        }
+    }
+
+    /**
+     * Calls the payment service. Fast-fail rejections (circuit open, bulkhead full) never reached the
+     * service, so the chunk is retried after a pause instead of cancelling its orders; the batch stays
+     * unacknowledged meanwhile, which keeps the consumer paused. After {@code rejectedMaxAttempts}
+     * rejected calls the rejection is returned and the chunk's orders fail like any other call error.
+     */
+    private CompletableFuture<PaymentServiceResult> callPaymentService(List<PaymentProcessRequest> requests, int attempt) {
+        return paymentServiceClient.processPayments(requests)
+                .handle((result, error) -> {
+                    if (error != null && PaymentServiceClient.isRejection(error)) {
+                        if (attempt >= rejectedMaxAttempts) {
+                            log.error("Payment service call rejected {} times ({}), failing {} payments",
+                                    attempt, error.getMessage(), requests.size());
+                            return CompletableFuture.<PaymentServiceResult>failedFuture(error);
+                        }
+                        log.warn("Payment service call rejected ({}), retrying {} payments in {}ms (attempt {}/{})",
+                                error.getMessage(), requests.size(), rejectedRetryDelayMs, attempt, rejectedMaxAttempts);
+                        return schedule(rejectedRetryDelayMs)
+                                .thenCompose(ignored -> callPaymentService(requests, attempt + 1));
+                    }
+                    return error != null
+                            ? CompletableFuture.<PaymentServiceResult>failedFuture(error)
+                            : CompletableFuture.completedFuture(result);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Simulated processing latency without sleeping: the returned future is completed by the scheduler.
+     */
+    private CompletableFuture<Void> delay(String operation) {
+        long delayMs = maxDelayMs > minDelayMs
+                ? ThreadLocalRandom.current().nextLong(minDelayMs, maxDelayMs)
+                : minDelayMs;
+        log.info("Adding {}ms delay for operation: {}", delayMs, operation);
+        return schedule(delayMs);
+    }
+
+    private CompletableFuture<Void> schedule(long delayMs) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        latencyScheduler.schedule(() -> future.complete(null), delayMs, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private void handlePaymentSuccess(OrderPaymentRequest request, UUID paymentId) {
+        try {
+            PaymentResponse paymentResponse = new PaymentResponse();
+            paymentResponse.setOrderId(request.getOrderId());
+            paymentResponse.setCustomerId(request.getCustomerId());
+            paymentResponse.setPrice(request.getPrice());
+            paymentResponse.setPaymentId(paymentId);
+            paymentResponse.setPaymentStatus("COMPLETED");
+
+            paymentResponseMessageListener.paymentCompleted(paymentResponse);
+
+            // Send SSE notification for payment success
+            sendPaymentStatusUpdate(request, "COMPLETED", "Payment processed successfully");
+
+            log.info("Order status updated to PAID for order: {}", request.getOrderId());
+        } catch (Exception e) {
+            log.error("Error updating order status after successful payment for order: {}",
+                    request.getOrderId(), e);
+        }
+    }
+
+    private void handlePaymentFailure(OrderPaymentRequest request, String failureMessage) {
+        try {
+            PaymentResponse paymentResponse = new PaymentResponse();
+            paymentResponse.setOrderId(request.getOrderId());
+            paymentResponse.setCustomerId(request.getCustomerId());
+            paymentResponse.setPrice(request.getPrice());
+            paymentResponse.setFailureMessage(failureMessage);
+            paymentResponse.setPaymentStatus("FAILED");
+
+            paymentResponseMessageListener.paymentFailed(paymentResponse);
+            // Send SSE notification for payment failure
+            sendPaymentStatusUpdate(request, "FAILED", failureMessage);
+
+            log.info("Order status updated to CANCELLED for order: {} due to payment failure",
+                    request.getOrderId());
+        } catch (Exception e) {
+            log.error("Error updating order status after payment failure for order: {}",
+                    request.getOrderId(), e);
+        }
+    }
+
+    private void sendPaymentStatusUpdate(OrderPaymentRequest request, String status, String message) {
+        try {
+            PaymentStatusUpdate statusUpdate = PaymentStatusUpdate.builder()
+                    .orderId(request.getOrderId())
+                    .customerId(request.getCustomerId())
+                    .status(status)
+                    .message(message)
+                    .timestamp(LocalDateTime.now())
+                    .amount(request.getPrice())
+                    .build();
+
+            paymentStatusSseService.sendStatusUpdate(request.getOrderId().toString(), statusUpdate);
+            log.info("Sent SSE status update for order {}: {} - {}",
+                    request.getOrderId(), status, message);
+        } catch (Exception e) {
+            log.error("Error sending SSE status update for order: {}", request.getOrderId(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        latencyScheduler.shutdownNow();
+        completionExecutor.shutdown();
+        try {
+            if (!completionExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                completionExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            completionExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
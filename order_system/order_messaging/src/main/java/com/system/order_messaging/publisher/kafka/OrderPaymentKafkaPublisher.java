@@ -1,42 +1,45 @@
 package com.system.order_messaging.publisher.kafka;
 
-import com.system.order_application_service.dto.OrderPaymentRequest;
-import com.system.order_application_service.ports.output.OrderPaymentMessagePublisher;
-import lombok.extern.slf4j.Slf4j;
+import com.system.order_application_service.dto.PaymentOutboxMessage;
+import com.system.order_messaging.config.PaymentPartitionKey;
+import com.system.order_messaging.dto.OrderPaymentRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
-@Slf4j
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends outbox messages to {@code order.payment.request}. Only {@code PaymentOutboxRelay} calls this;
+ * request handlers publish through the outbox so a message is never sent for a rolled-back transaction.
+ */
 @Component
-public class OrderPaymentKafkaPublisher implements OrderPaymentMessagePublisher {
+public class OrderPaymentKafkaPublisher {
+
+    public static final String TOPIC = "order.payment.request";
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final PaymentPartitionKey partitionKey;
 
-    public OrderPaymentKafkaPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
+    public OrderPaymentKafkaPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                      @Value("${payment.request.partition-key:CUSTOMER}") PaymentPartitionKey partitionKey) {
         this.kafkaTemplate = kafkaTemplate;
+        this.partitionKey = partitionKey;
     }
 
-    @Override
-    public void publish(OrderPaymentRequest request) {
-        String topic = "order.payment.request";
-
-        log.info("Publishing order payment request to topic: {} for order: {} and customer: {}",
-                topic, request.getOrderId(), request.getCustomerId());
-
-        // Convert to messaging DTO for Kafka
-        com.system.order_messaging.dto.OrderPaymentRequest kafkaRequest =
-            com.system.order_messaging.dto.OrderPaymentRequest.builder()
-                .orderId(request.getOrderId())
-                .customerId(request.getCustomerId())
-                .price(request.getPrice())
+    /**
+     * Hands the record to the producer without waiting; the producer groups it with other records
+     * headed for the same partition (linger.ms / batch.size) and the future completes on broker ack.
+     */
+    public CompletableFuture<SendResult<String, Object>> send(PaymentOutboxMessage message) {
+        OrderPaymentRequest kafkaRequest = OrderPaymentRequest.builder()
+                .orderId(message.getOrderId())
+                .customerId(message.getCustomerId())
+                .price(message.getPrice())
                 .build();
 
-        try {
-            kafkaTemplate.send(topic, request.getOrderId().toString(), kafkaRequest);
-            log.info("Successfully published order payment request for order: {}", request.getOrderId());
-        } catch (Exception e) {
-            log.error("Error publishing order payment request for order id: {}", request.getOrderId(), e);
-            throw new RuntimeException("Failed to publish order payment request", e);
-        }
+        String key = partitionKey.keyOf(message.getOrderId(), message.getCustomerId()).toString();
+        return kafkaTemplate.send(TOPIC, key, kafkaRequest);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,149 @@
+package com.system.order_messaging.relay;
+
+import com.system.order_application_service.dto.PaymentOutboxMessage;
+import com.system.order_application_service.ports.output.PaymentOutboxRepository;
+import com.system.order_messaging.publisher.kafka.OrderPaymentKafkaPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the payment outbox to Kafka.
+ *
+ * <p>Each pass claims a batch of pending rows in a short transaction ({@code FOR UPDATE SKIP LOCKED}
+ * plus a claim that expires after {@code payment.outbox.relay.claim-timeout-ms}, so several instances
+ * can relay concurrently) and commits it. It then sends every row without waiting in between, so the
+ * producer can batch and compress them, and waits for the acknowledgements with no transaction or row
+ * lock held. A second short transaction records partition/offset per acknowledged row. A row whose
+ * send fails, or whose relay dies before marking it, stays PENDING and is retried on a later pass.
+ *
+ * <p>Delivery is therefore at-least-once. Copies of a request share a partition key, so the payment
+ * service handles them one after another and answers a copy for an already paid order with the
+ * existing COMPLETED payment instead of debiting again; the response side drops repeated responses.
+ */
+@Slf4j
+@Component
+public class PaymentOutboxRelay {
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final OrderPaymentKafkaPublisher orderPaymentKafkaPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final Duration claimTimeout;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    public PaymentOutboxRelay(PaymentOutboxRepository paymentOutboxRepository,
+                              OrderPaymentKafkaPublisher orderPaymentKafkaPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${payment.outbox.relay.batch-size:500}") int batchSize,
+                              @Value("${payment.outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+                              @Value("${payment.outbox.relay.claim-timeout-ms:30000}") long claimTimeoutMs,
+                              @Value("${payment.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                              @Value("${payment.outbox.retention:PT24H}") Duration retention) {
+        if (claimTimeoutMs <= sendTimeoutMs) {
+            throw new IllegalArgumentException(
+                    "payment.outbox.relay.claim-timeout-ms must exceed payment.outbox.relay.send-timeout-ms");
+        }
+        this.paymentOutboxRepository = paymentOutboxRepository;
+        this.orderPaymentKafkaPublisher = orderPaymentKafkaPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.relay.interval-ms:200}")
+    public void relay() {
+        // Bảng còn tồn thì rút tiếp ngay, không chờ tới lượt schedule sau
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.cleanup-interval-ms:600000}")
+    public void deleteSentMessages() {
+        Integer deleted = transactionTemplate.execute(status ->
+                paymentOutboxRepository.deleteSentBefore(ZonedDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} relayed payment outbox messages older than {}", deleted, retention);
+        }
+    }
+
+    private int relayBatch() {
+        // 1. Claim rồi commit ngay: không giữ row lock hay transaction trong lúc chờ Kafka ack
+        ZonedDateTime claimedUntil = ZonedDateTime.now().plus(claimTimeout);
+        List<PaymentOutboxMessage> messages = transactionTemplate.execute(status ->
+                paymentOutboxRepository.claimPendingBatch(batchSize, claimedUntil));
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Gửi hết rồi mới chờ, ngoài transaction
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(messages.size());
+        for (PaymentOutboxMessage message : messages) {
+            sends.add(orderPaymentKafkaPublisher.send(message));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        RecordMetadata[] acks = new RecordMetadata[messages.size()];
+        String[] errors = new String[messages.size()];
+        int failed = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                acks[i] = sends.get(i).get(remaining, TimeUnit.NANOSECONDS).getRecordMetadata();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors[i] = "Interrupted while waiting for ack";
+                failed++;
+            } catch (ExecutionException | TimeoutException e) {
+                Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                errors[i] = cause.toString();
+                failed++;
+            }
+        }
+
+        // 3. Ghi kết quả trong một transaction ngắn; nếu lỗi, claim hết hạn và các dòng được gửi lại
+        ZonedDateTime sentAt = ZonedDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < messages.size(); i++) {
+                UUID id = messages.get(i).getId();
+                if (acks[i] != null) {
+                    paymentOutboxRepository.markSent(id, acks[i].partition(), acks[i].offset(), sentAt);
+                } else {
+                    paymentOutboxRepository.markFailed(id, errors[i]);
+                }
+            }
+        });
+
+        if (failed > 0) {
+            log.warn("Relayed {} of {} payment outbox messages; {} will be retried",
+                    messages.size() - failed, messages.size(), failed);
+            // Broker đang lỗi: dừng lượt này thay vì lấy lại ngay chính các dòng vừa thất bại
+            return 0;
+        }
+        log.debug("Relayed {} payment outbox messages", messages.size());
+        return messages.size();
+    }
+}
@@ -6,6 +6,7 @@ CREATE TABLE "payment".credit_entry (
                                         id UUID NOT NULL,
                                         customer_id UUID NOT NULL UNIQUE,
                                         total_credit NUMERIC(10, 2) NOT NULL,
+                                        held_credit NUMERIC(10, 2) NOT NULL DEFAULT 0,
                                         CONSTRAINT credit_entry_pkey PRIMARY KEY (id)
 );
 
@@ -20,6 +21,102 @@ CREATE TABLE "payment".payment (
                                    CONSTRAINT payment_pkey PRIMARY KEY (id)
 );
 
+-- Duplicate-payment checks look payments up by order
+CREATE INDEX idx_payment_order_id
+    ON "payment".payment (order_id);
+
+-- An order can be charged at most once, even by concurrent requests on different instances
+CREATE UNIQUE INDEX uq_payment_completed_order
+    ON "payment".payment (order_id)
+    WHERE payment_status = 'COMPLETED';
+
+-- Response stored per Idempotency-Key of POST /api/v1/payments/process
+CREATE TABLE "payment".payment_idempotency (
+                                               idempotency_key VARCHAR(255) NOT NULL,
+                                               request_fingerprint VARCHAR NOT NULL,
+                                               payment_id UUID,
+                                               order_id UUID NOT NULL,
+                                               customer_id UUID NOT NULL,
+                                               price NUMERIC(10, 2) NOT NULL,
+                                               payment_status VARCHAR NOT NULL,
+                                               message VARCHAR,
+                                               created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                                               CONSTRAINT payment_idempotency_pkey PRIMARY KEY (idempotency_key)
+);
+
+-- Keyset pagination and export order payments by (created_at, id)
+CREATE INDEX idx_payment_created_at_id
+    ON "payment".payment (created_at, id);
+
+CREATE INDEX idx_payment_customer_created_at_id
+    ON "payment".payment (customer_id, created_at, id);
+
+-- Running count and sum of payments per (customer, status), maintained in the same transaction
+-- as each payment insert so group-by-status never scans the payment table
+CREATE TABLE "payment".payment_status_aggregate (
+                                                    customer_id UUID NOT NULL,
+                                                    payment_status VARCHAR NOT NULL,
+                                                    payment_count BIGINT NOT NULL,
+                                                    total_amount NUMERIC(15, 2) NOT NULL,
+                                                    CONSTRAINT payment_status_aggregate_pkey PRIMARY KEY (customer_id, payment_status)
+);
+
+-- Backfill from existing payments (no-op on a fresh database)
+INSERT INTO "payment".payment_status_aggregate (customer_id, payment_status, payment_count, total_amount)
+SELECT customer_id, payment_status, COUNT(*), SUM(price)
+FROM "payment".payment
+GROUP BY customer_id, payment_status;
+
+-- Credit hold table (credit reserved for an order until captured, released or expired)
+CREATE TABLE "payment".credit_hold (
+                                       id UUID NOT NULL,
+                                       customer_id UUID NOT NULL,
+                                       order_id UUID NOT NULL,
+                                       amount NUMERIC(10, 2) NOT NULL,
+                                       status VARCHAR NOT NULL,
+                                       created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                                       expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                                       settled_at TIMESTAMP WITH TIME ZONE,
+                                       CONSTRAINT credit_hold_pkey PRIMARY KEY (id)
+);
+
+-- Only active holds are swept for expiry
+CREATE INDEX idx_credit_hold_active_expires_at
+    ON "payment".credit_hold (expires_at)
+    WHERE status = 'HELD';
+
+-- At most one active hold per order
+CREATE UNIQUE INDEX uq_credit_hold_active_order
+    ON "payment".credit_hold (order_id)
+    WHERE status = 'HELD';
+
+-- Append-only movements of credit_entry.total_credit (positive = credit added, negative = debited)
+CREATE TABLE "payment".credit_ledger (
+                                         id BIGINT GENERATED ALWAYS AS IDENTITY,
+                                         customer_id UUID NOT NULL,
+                                         amount NUMERIC(12, 2) NOT NULL,
+                                         entry_type VARCHAR NOT NULL,
+                                         reference_id UUID,
+                                         created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                                         CONSTRAINT credit_ledger_pkey PRIMARY KEY (id)
+);
+
+-- Balance tail and history are read per customer in id order
+CREATE INDEX idx_credit_ledger_customer_id_id
+    ON "payment".credit_ledger (customer_id, id);
+
+-- Sum of a customer's ledger entries up to last_ledger_id, folded periodically
+CREATE TABLE "payment".credit_balance_snapshot (
+                                                   customer_id UUID NOT NULL,
+                                                   balance NUMERIC(12, 2) NOT NULL,
+                                                   last_ledger_id BIGINT NOT NULL,
+                                                   snapshot_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                                                   CONSTRAINT credit_balance_snapshot_pkey PRIMARY KEY (customer_id)
+);
+
+CREATE INDEX idx_credit_balance_snapshot_last_ledger_id
+    ON "payment".credit_balance_snapshot (last_ledger_id);
+
 -- Seed data for credit (TESTING)
 INSERT INTO "payment".credit_entry (id, customer_id, total_credit)
 VALUES ('d215b5f8-0249-4dc5-89a3-51fd148cfb1f', 'd215b5f8-0249-4dc5-89a3-51fd148cfb40', 100.00);
@@ -27,3 +124,9 @@ VALUES ('d215b5f8-0249-4dc5-89a3-51fd148cfb1f', 'd215b5f8-0249-4dc5-89a3-51fd148
 
 INSERT INTO "payment".credit_entry (id, customer_id, total_credit)
 VALUES ('550e8400-e29b-41d4-a716-446655440000', '550e8400-e29b-41d4-a716-446655440000', 50.00);
+
+-- Opening balance of every existing credit entry, so the ledger sums to total_credit
+INSERT INTO "payment".credit_ledger (customer_id, amount, entry_type, created_at)
+SELECT customer_id, total_credit, 'OPENING_BALANCE', now()
+FROM "payment".credit_entry
+WHERE total_credit <> 0;
@@ -0,0 +1,62 @@
+package com.system.payment_container.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.Money;
+import io.swagger.v3.oas.models.media.NumberSchema;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Money} as a plain JSON number with two decimals ({@code 100.00}), the same wire format
+ * as the {@code BigDecimal} fields, straight from the cents without building a {@code BigDecimal}.
+ */
+@Configuration
+public class MoneyJsonConfig {
+
+    static {
+        SpringDocUtils.getConfig().replaceWithSchema(Money.class, new NumberSchema().example("100.00"));
+    }
+
+    // Spring Boot đăng ký mọi bean Module vào ObjectMapper dùng chung
+    @Bean
+    public Module moneyModule() {
+        return new SimpleModule("MoneyModule")
+                .addSerializer(Money.class, new MoneySerializer())
+                .addDeserializer(Money.class, new MoneyDeserializer());
+    }
+
+    static class MoneySerializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeNumber(value.toString());
+        }
+    }
+
+    static class MoneyDeserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) context.handleUnexpectedToken(Money.class, parser);
+            }
+            try {
+                return Money.parse(parser.getText());
+            } catch (PaymentDomainException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.system.payment_container.config;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Opens connections of read-only transactions on the read pool and every other connection on the
+ * write pool. Reads fall back to the write pool while the replica is marked unusable.
+ * <p>
+ * Must be wrapped in a {@link LazyConnectionDataSourceProxy}: the transaction manager asks for its
+ * connection before the transaction's read-only flag is visible, the proxy delays that until the
+ * first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { WRITE, READ }
+
+    // Chỉ route sang replica sau khi ReplicaLagMonitor kiểm tra xong lần đầu
+    private volatile boolean replicaUsable;
+
+    public ReadWriteRoutingDataSource(DataSource writeDataSource, DataSource readDataSource) {
+        setTargetDataSources(Map.of(Route.WRITE, writeDataSource, Route.READ, readDataSource));
+        setDefaultTargetDataSource(writeDataSource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaUsable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Route.READ
+                : Route.WRITE;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public void setReplicaUsable(boolean replicaUsable) {
+        this.replicaUsable = replicaUsable;
+    }
+}
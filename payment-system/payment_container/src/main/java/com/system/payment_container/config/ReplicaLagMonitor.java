@@ -0,0 +1,70 @@
+package com.system.payment_container.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the read replica is behind and stops routing reads to it while the lag exceeds
+ * {@code payment.datasource.replica.max-lag} or the replica cannot be reached.
+ * <p>
+ * A replica that has replayed everything it received reports no lag, so an idle primary does not
+ * make a caught-up replica look stale. On a database that is not in recovery (the read pool pointed
+ * at the primary) the lag is always zero.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    private static final String LAG_MS_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final JdbcTemplate readJdbcTemplate;
+    private final long maxLagMs;
+    private final ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource, DataSource readDataSource,
+                             Duration maxLag, Duration checkInterval) {
+        this.routingDataSource = routingDataSource;
+        this.readJdbcTemplate = new JdbcTemplate(readDataSource);
+        this.maxLagMs = maxLag.toMillis();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void check() {
+        boolean usable;
+        try {
+            Double lagMs = readJdbcTemplate.queryForObject(LAG_MS_SQL, Double.class);
+            usable = lagMs != null && lagMs <= maxLagMs;
+            if (!usable && routingDataSource.isReplicaUsable()) {
+                log.warn("Read replica is {} ms behind (max {} ms), routing reads to the primary", lagMs, maxLagMs);
+            }
+        } catch (RuntimeException e) {
+            usable = false;
+            if (routingDataSource.isReplicaUsable()) {
+                log.warn("Read replica unreachable, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+        if (usable && !routingDataSource.isReplicaUsable()) {
+            log.info("Read replica within {} ms of the primary, routing read-only transactions to it", maxLagMs);
+        }
+        routingDataSource.setReplicaUsable(usable);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
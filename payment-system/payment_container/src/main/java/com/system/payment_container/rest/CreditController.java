@@ -1,7 +1,15 @@
 package com.system.payment_container.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.system.payment_application_service.ports.input.CreditService;
+import com.system.payment_application_service.dto.CreditHoldResponse;
+import com.system.payment_application_service.dto.CreditImportResult;
+import com.system.payment_application_service.dto.CreditLedgerResponse;
 import com.system.payment_application_service.dto.CreditResponse;
+import com.system.payment_container.rest.dto.RestCreditHoldRequest;
+import com.system.payment_container.rest.dto.RestCreditHoldResponse;
+import com.system.payment_container.rest.dto.RestCreditImportResponse;
+import com.system.payment_container.rest.dto.RestCreditLedgerResponse;
 import com.system.payment_container.rest.dto.RestCreditResponse;
 import com.system.payment_container.rest.dto.RestUpdateCreditRequest;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,12 +20,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @RestController
@@ -27,7 +42,10 @@ import java.util.UUID;
 @Tag(name = "Credit Management", description = "APIs for managing customer credits")
 public class CreditController {
 
+    private static final String TEXT_CSV = "text/csv";
+
     private final CreditService creditService;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Get total credit by customer ID",
@@ -50,6 +68,32 @@ public class CreditController {
         return ResponseEntity.ok(RestCreditResponse.fromCreditResponse(response));
     }
 
+    @Operation(
+            summary = "Get credit ledger by customer ID",
+            description = "Every movement of the customer's total credit, newest first, with the balance rebuilt "
+                    + "from the ledger. Pass the nextBefore of a page to fetch older entries.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Ledger page retrieved",
+                            content = @Content(schema = @Schema(implementation = RestCreditLedgerResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid page size"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @GetMapping("/ledger")
+    public ResponseEntity<RestCreditLedgerResponse> getCreditLedger(
+            @Parameter(description = "Customer unique identifier", required = true,
+                    example = "550e8400-e29b-41d4-a716-446655440000")
+            @RequestParam("customerId") UUID customerId,
+            @Parameter(description = "nextBefore of the previous page; omit for the newest entries")
+            @RequestParam(required = false) Long before,
+            @Parameter(description = "Page size (1-500)")
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("REST request to get credit ledger for customer: {} (limit: {})", customerId, limit);
+
+        CreditLedgerResponse response = creditService.getCreditLedger(customerId, before, limit);
+        return ResponseEntity.ok(RestCreditLedgerResponse.fromCreditLedgerResponse(response));
+    }
+
     @Operation(
             summary = "Update total credit for a customer",
             description = "Set the total credit balance for a specific customer. Creates a new credit entry if it doesn't exist.",
@@ -93,4 +137,96 @@ public class CreditController {
         CreditResponse response = creditService.addCreditToCustomer(customerId, amount);
         return ResponseEntity.status(HttpStatus.CREATED).body(RestCreditResponse.fromCreditResponse(response));
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Import credit top-ups in bulk",
+            description = "Stream a CSV body (customerId,amount per line, optional header) or an NDJSON body "
+                    + "({\"customerId\": ..., \"amount\": ...} per line). Valid rows are added to the customers' "
+                    + "credit in chunked batches; invalid or failed rows are reported by line number.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Import processed, see failedRows and errors",
+                            content = @Content(schema = @Schema(implementation = RestCreditImportResponse.class))),
+                    @ApiResponse(responseCode = "415", description = "Body is neither text/csv nor application/x-ndjson"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @PostMapping(value = "/import", consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<RestCreditImportResponse> importCredits(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        CreditImportReader.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? CreditImportReader.Format.NDJSON
+                : CreditImportReader.Format.CSV;
+        log.info("REST request to import credits from {} body", format);
+
+        // Đọc từng dòng từ request stream, không buffer toàn bộ body
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body,
+                contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8))) {
+            CreditImportResult result = creditService.importCredits(
+                    new CreditImportReader(reader, format, objectMapper));
+            return ResponseEntity.ok(RestCreditImportResponse.fromCreditImportResult(result));
+        }
+    }
+
+    @Operation(
+            summary = "Hold credit for an order",
+            description = "Reserve part of the customer's available credit until it is captured, released or expires. "
+                    + "Holding again for an order with an active hold returns that hold.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Credit held",
+                            content = @Content(schema = @Schema(implementation = RestCreditHoldResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid input or insufficient available credit"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @PostMapping("/holds")
+    public ResponseEntity<RestCreditHoldResponse> holdCredit(
+            @Parameter(description = "Credit hold request", required = true)
+            @Valid @RequestBody RestCreditHoldRequest creditHoldRequest) {
+        log.info("REST request to hold credit {} for order: {}",
+                creditHoldRequest.getAmount(), creditHoldRequest.getOrderId());
+
+        CreditHoldResponse response = creditService.holdCredit(creditHoldRequest.toCreditHoldRequest());
+        return ResponseEntity.status(HttpStatus.CREATED).body(RestCreditHoldResponse.fromCreditHoldResponse(response));
+    }
+
+    @Operation(
+            summary = "Capture a credit hold",
+            description = "Debit the held amount from the customer's credit and close the hold",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Hold captured",
+                            content = @Content(schema = @Schema(implementation = RestCreditHoldResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Hold not found, expired or no longer active"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @PostMapping("/holds/{holdId}/capture")
+    public ResponseEntity<RestCreditHoldResponse> captureHold(
+            @Parameter(description = "Credit hold unique identifier", required = true)
+            @PathVariable("holdId") UUID holdId) {
+        log.info("REST request to capture credit hold: {}", holdId);
+
+        CreditHoldResponse response = creditService.captureHold(holdId);
+        return ResponseEntity.ok(RestCreditHoldResponse.fromCreditHoldResponse(response));
+    }
+
+    @Operation(
+            summary = "Release a credit hold",
+            description = "Return the held amount to the customer's available credit and close the hold",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Hold released",
+                            content = @Content(schema = @Schema(implementation = RestCreditHoldResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Hold not found or no longer active"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    @PostMapping("/holds/{holdId}/release")
+    public ResponseEntity<RestCreditHoldResponse> releaseHold(
+            @Parameter(description = "Credit hold unique identifier", required = true)
+            @PathVariable("holdId") UUID holdId) {
+        log.info("REST request to release credit hold: {}", holdId);
+
+        CreditHoldResponse response = creditService.releaseHold(holdId);
+        return ResponseEntity.ok(RestCreditHoldResponse.fromCreditHoldResponse(response));
+    }
+}
@@ -0,0 +1,122 @@
+package com.system.payment_container.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.system.payment_application_service.dto.CreditImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Reads a credit import body one line at a time, so only the current line is held in memory.
+ * <p>
+ * CSV: {@code customerId,amount} per line, with an optional header line. NDJSON: one
+ * {@code {"customerId": "...", "amount": 12.50}} object per line. Blank lines are skipped; a line
+ * that cannot be parsed becomes an invalid row carrying the reason.
+ */
+class CreditImportReader implements Iterator<CreditImportRow> {
+
+    enum Format { CSV, NDJSON }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectReader jsonReader;
+    private long lineNumber;
+    private CreditImportRow next;
+
+    CreditImportReader(BufferedReader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.jsonReader = objectMapper.readerFor(JsonRow.class);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public CreditImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        CreditImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private CreditImportRow readRow() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.NDJSON) {
+                    return parseJson(line);
+                }
+                if (lineNumber == 1 && isCsvHeader(line)) {
+                    continue;
+                }
+                return parseCsv(line);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CreditImportRow parseJson(String line) {
+        try {
+            JsonRow row = jsonReader.readValue(line);
+            return CreditImportRow.of(lineNumber, row.customerId, row.amount);
+        } catch (JsonProcessingException e) {
+            return CreditImportRow.invalid(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private CreditImportRow parseCsv(String line) {
+        int comma = line.indexOf(',');
+        if (comma < 0 || line.indexOf(',', comma + 1) >= 0) {
+            return CreditImportRow.invalid(lineNumber, "Expected 2 columns: customerId,amount");
+        }
+        String customerId = unquote(line.substring(0, comma));
+        String amount = unquote(line.substring(comma + 1));
+        try {
+            return CreditImportRow.of(lineNumber,
+                    customerId.isEmpty() ? null : UUID.fromString(customerId),
+                    amount.isEmpty() ? null : new BigDecimal(amount));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException cũng là IllegalArgumentException
+            return CreditImportRow.invalid(lineNumber, "Invalid customerId or amount: " + line.strip());
+        }
+    }
+
+    private static boolean isCsvHeader(String line) {
+        String first = unquote(line.substring(0, line.indexOf(',') < 0 ? line.length() : line.indexOf(',')));
+        return first.equalsIgnoreCase("customerId") || first.equalsIgnoreCase("customer_id");
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.strip();
+        if (trimmed.length() >= 2 && trimmed.charAt(0) == '"' && trimmed.charAt(trimmed.length() - 1) == '"') {
+            return trimmed.substring(1, trimmed.length() - 1).strip();
+        }
+        return trimmed;
+    }
+
+    private static class JsonRow {
+        public UUID customerId;
+        public BigDecimal amount;
+    }
+}
@@ -1,11 +1,21 @@
 package com.system.payment_container.rest;
 
 import com.system.payment_application_service.ports.input.PaymentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.system.payment_application_service.dto.PaymentGroupByStatusResponse;
+import com.system.payment_application_service.dto.PaymentPageResponse;
 import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_container.rest.dto.RestPaymentBatchProcessRequest;
+import com.system.payment_container.rest.dto.RestPaymentBatchProcessResponse;
 import com.system.payment_container.rest.dto.RestPaymentGroupByStatusResponse;
+import com.system.payment_container.rest.dto.RestPaymentPageResponse;
 import com.system.payment_container.rest.dto.RestPaymentProcessRequest;
 import com.system.payment_container.rest.dto.RestPaymentProcessResponse;
+import com.system.payment_container.rest.dto.RestPaymentSummaryDto;
+import com.system.payment_domain_core.exception.PaymentDomainException;
 import com.system.payment_domain_core.valueobject.PaymentStatus;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,10 +27,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -30,7 +45,11 @@ import java.util.UUID;
 @Tag(name = "Payment Processing", description = "APIs for processing payments")
 public class PaymentController {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
 
     @Operation(
             summary = "Process payment for an order",
@@ -47,12 +66,20 @@ public class PaymentController {
     })
     @PostMapping("/process")
     public ResponseEntity<RestPaymentProcessResponse> processPayment(
+            @Parameter(description = "Client-chosen key; retries with the same key get the original response " +
+                    "instead of charging again", required = false, example = "checkout-7c9e6679")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody RestPaymentProcessRequest paymentProcessRequest) {
 
         log.info("REST request to process payment for order: {} and customer: {} with amount: {}",
                 paymentProcessRequest.getOrderId(), paymentProcessRequest.getCustomerId(), paymentProcessRequest.getPrice());
 
-        PaymentProcessResponse response = paymentService.processPayment(paymentProcessRequest.toPaymentProcessRequest());
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new PaymentDomainException("Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        PaymentProcessResponse response = idempotencyKey == null
+                ? paymentService.processPayment(paymentProcessRequest.toPaymentProcessRequest())
+                : paymentService.processPayment(paymentProcessRequest.toPaymentProcessRequest(), idempotencyKey);
 
         HttpStatus status = response.getStatus() == PaymentStatus.COMPLETED ? HttpStatus.OK : HttpStatus.PAYMENT_REQUIRED;
 
@@ -60,10 +87,34 @@ public class PaymentController {
                 .body(RestPaymentProcessResponse.fromPaymentProcessResponse(response));
     }
 
+    @Operation(
+            summary = "Process a batch of payments",
+            description = "Settle several payments in one transaction. Credit entries are loaded once per batch. " +
+                    "Each order gets its own result in request order; an order that fails does not fail the batch."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see per-order results",
+                    content = @Content(schema = @Schema(implementation = RestPaymentBatchProcessResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/process/batch")
+    public ResponseEntity<RestPaymentBatchProcessResponse> processPayments(
+            @Valid @RequestBody RestPaymentBatchProcessRequest batchProcessRequest) {
+
+        log.info("REST request to process payment batch of {} payments", batchProcessRequest.getPayments().size());
+
+        List<PaymentProcessResponse> responses =
+                paymentService.processPayments(batchProcessRequest.toPaymentProcessRequests());
+
+        return ResponseEntity.ok(RestPaymentBatchProcessResponse.fromPaymentProcessResponses(responses));
+    }
+
     @Operation(
             summary = "Get all payments grouped by status",
-            description = "Retrieve all payments grouped by their status (PENDING, COMPLETED, FAILED). " +
-                    "Can be filtered by customer ID. If no customer ID is provided, returns payments for all customers."
+            description = "Retrieve payment counts and totals grouped by status (PENDING, COMPLETED, FAILED). " +
+                    "Can be filtered by customer ID. If no customer ID is provided, returns totals for all customers. " +
+                    "Individual payments are only listed when includePayments=true."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Payments retrieved successfully",
@@ -74,12 +125,77 @@ public class PaymentController {
     @GetMapping("/group-by-status")
     public ResponseEntity<RestPaymentGroupByStatusResponse> getPaymentsGroupByStatus(
             @Parameter(description = "Customer ID to filter payments (optional)", required = false)
-            @RequestParam(required = false) UUID customerId) {
+            @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "Also list the payments of each status group", required = false)
+            @RequestParam(defaultValue = "false") boolean includePayments) {
 
         log.info("REST request to get payments grouped by status for customer: {}", customerId);
 
-        PaymentGroupByStatusResponse response = paymentService.getPaymentsGroupByStatus(customerId);
+        PaymentGroupByStatusResponse response = paymentService.getPaymentsGroupByStatus(customerId, includePayments);
 
         return ResponseEntity.ok(RestPaymentGroupByStatusResponse.fromPaymentGroupByStatusResponse(response));
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "List payments page by page",
+            description = "Payments ordered by creation time, optionally filtered by customer ID. " +
+                    "Pass the nextCursor of a page to fetch the following one."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = RestPaymentPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping
+    public ResponseEntity<RestPaymentPageResponse> listPayments(
+            @Parameter(description = "Customer ID to filter payments (optional)", required = false)
+            @RequestParam(required = false) UUID customerId,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page", required = false)
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-500)", required = false)
+            @RequestParam(defaultValue = "50") int limit) {
+
+        log.info("REST request to list payments for customer: {} (limit: {})", customerId, limit);
+
+        PaymentPageResponse response = paymentService.listPayments(customerId, cursor, limit);
+
+        return ResponseEntity.ok(RestPaymentPageResponse.fromPaymentPageResponse(response));
+    }
+
+    @Operation(
+            summary = "Export payments as NDJSON",
+            description = "Streams every payment, one JSON object per line, ordered by creation time. " +
+                    "Memory use does not depend on the number of payments."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @Parameter(description = "Customer ID to filter payments (optional)", required = false)
+            @RequestParam(required = false) UUID customerId) {
+
+        log.info("REST request to export payments for customer: {}", customerId);
+
+        // Không flush sau mỗi dòng: generator tự đẩy ra response khi buffer đầy
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // Không đóng response stream sau mỗi dòng
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                paymentService.exportPayments(customerId, payment -> {
+                    try {
+                        writer.writeValue(generator, RestPaymentSummaryDto.fromPaymentSummaryDto(payment));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,72 @@
+package com.system.payment_container.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.system.payment_application_service.dto.CreditHoldRequest;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+@Getter
+@Builder
+@Schema(description = "Request to reserve customer credit for an order")
+@NoArgsConstructor
+public class RestCreditHoldRequest {
+
+    @NotNull(message = "Customer ID is required")
+    @Schema(description = "Customer unique identifier",
+            example = "550e8400-e29b-41d4-a716-446655440000",
+            required = true)
+    @JsonProperty("customerId")
+    private UUID customerId;
+
+    @NotNull(message = "Order ID is required")
+    @Schema(description = "Order the credit is reserved for",
+            example = "123e4567-e89b-12d3-a456-426614174000",
+            required = true)
+    @JsonProperty("orderId")
+    private UUID orderId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be positive")
+    @Schema(description = "Amount to reserve",
+            example = "25.00",
+            minimum = "0.01",
+            required = true)
+    @JsonProperty("amount")
+    private BigDecimal amount;
+
+    @Positive(message = "TTL must be positive")
+    @Schema(description = "Seconds until the hold expires; the server default is used when omitted",
+            example = "900")
+    @JsonProperty("ttlSeconds")
+    private Long ttlSeconds;
+
+    @JsonCreator
+    public RestCreditHoldRequest(@JsonProperty("customerId") UUID customerId,
+                                 @JsonProperty("orderId") UUID orderId,
+                                 @JsonProperty("amount") BigDecimal amount,
+                                 @JsonProperty("ttlSeconds") Long ttlSeconds) {
+        this.customerId = customerId;
+        this.orderId = orderId;
+        this.amount = amount;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public CreditHoldRequest toCreditHoldRequest() {
+        return CreditHoldRequest.builder()
+                .customerId(this.customerId)
+                .orderId(this.orderId)
+                .amount(this.amount)
+                .ttl(this.ttlSeconds != null ? Duration.ofSeconds(this.ttlSeconds) : null)
+                .build();
+    }
+}
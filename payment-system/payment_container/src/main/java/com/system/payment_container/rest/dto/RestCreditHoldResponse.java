@@ -0,0 +1,61 @@
+package com.system.payment_container.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.system.payment_application_service.dto.CreditHoldResponse;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+@Schema(description = "Credit hold information response")
+public class RestCreditHoldResponse {
+
+    @Schema(description = "Credit hold unique identifier",
+            example = "7c9e6679-7425-40de-944b-e07fc1f90ae7")
+    @JsonProperty("holdId")
+    private UUID holdId;
+
+    @Schema(description = "Customer unique identifier",
+            example = "550e8400-e29b-41d4-a716-446655440000")
+    @JsonProperty("customerId")
+    private UUID customerId;
+
+    @Schema(description = "Order the credit is reserved for",
+            example = "123e4567-e89b-12d3-a456-426614174000")
+    @JsonProperty("orderId")
+    private UUID orderId;
+
+    @Schema(description = "Reserved amount", example = "25.00")
+    @JsonProperty("amount")
+    private BigDecimal amount;
+
+    @Schema(description = "Hold status", example = "HELD")
+    @JsonProperty("status")
+    private CreditHoldStatus status;
+
+    @Schema(description = "When the hold was created", example = "2024-01-15T10:30:00Z")
+    @JsonProperty("createdAt")
+    private ZonedDateTime createdAt;
+
+    @Schema(description = "When the hold expires unless captured or released", example = "2024-01-15T10:45:00Z")
+    @JsonProperty("expiresAt")
+    private ZonedDateTime expiresAt;
+
+    public static RestCreditHoldResponse fromCreditHoldResponse(CreditHoldResponse creditHoldResponse) {
+        return RestCreditHoldResponse.builder()
+                .holdId(creditHoldResponse.getHoldId())
+                .customerId(creditHoldResponse.getCustomerId())
+                .orderId(creditHoldResponse.getOrderId())
+                .amount(creditHoldResponse.getAmount().toBigDecimal())
+                .status(creditHoldResponse.getStatus())
+                .createdAt(creditHoldResponse.getCreatedAt())
+                .expiresAt(creditHoldResponse.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.system.payment_container.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.system.payment_application_service.dto.CreditImportError;
+import com.system.payment_application_service.dto.CreditImportResult;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+@Schema(description = "Result of a bulk credit import")
+public class RestCreditImportResponse {
+
+    @Schema(description = "Data rows read from the body (header and blank lines excluded)", example = "50000")
+    @JsonProperty("totalRows")
+    private long totalRows;
+
+    @Schema(description = "Rows whose credit was added", example = "49998")
+    @JsonProperty("appliedRows")
+    private long appliedRows;
+
+    @Schema(description = "Rows rejected or not applied", example = "2")
+    @JsonProperty("failedRows")
+    private long failedRows;
+
+    @Schema(description = "Rejected rows, in input order, up to payment.credit-import.max-reported-errors")
+    @JsonProperty("errors")
+    private List<RestCreditImportError> errors;
+
+    @Schema(description = "True if more rows failed than are listed in errors", example = "false")
+    @JsonProperty("errorsTruncated")
+    private boolean errorsTruncated;
+
+    public static RestCreditImportResponse fromCreditImportResult(CreditImportResult result) {
+        return RestCreditImportResponse.builder()
+                .totalRows(result.getTotalRows())
+                .appliedRows(result.getAppliedRows())
+                .failedRows(result.getFailedRows())
+                .errors(result.getErrors().stream().map(RestCreditImportError::fromCreditImportError).toList())
+                .errorsTruncated(result.isErrorsTruncated())
+                .build();
+    }
+
+    @Getter
+    @Builder
+    @Schema(description = "A rejected import row")
+    public static class RestCreditImportError {
+
+        @Schema(description = "1-based line number in the request body", example = "42")
+        @JsonProperty("line")
+        private long line;
+
+        @Schema(description = "Customer of the row, if it could be parsed",
+                example = "550e8400-e29b-41d4-a716-446655440000")
+        @JsonProperty("customerId")
+        private UUID customerId;
+
+        @Schema(description = "Why the row was not applied", example = "Credit amount must be positive")
+        @JsonProperty("message")
+        private String message;
+
+        static RestCreditImportError fromCreditImportError(CreditImportError error) {
+            return RestCreditImportError.builder()
+                    .line(error.getLineNumber())
+                    .customerId(error.getCustomerId())
+                    .message(error.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.system.payment_container.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.system.payment_application_service.dto.CreditLedgerEntryDto;
+import com.system.payment_application_service.dto.CreditLedgerResponse;
+import com.system.payment_domain_core.valueobject.CreditLedgerEntryType;
+import com.system.payment_domain_core.valueobject.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+@Schema(description = "One page of a customer's credit ledger, newest entry first")
+public class RestCreditLedgerResponse {
+
+    @Schema(description = "Customer unique identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+    @JsonProperty("customerId")
+    private UUID customerId;
+
+    @Schema(description = "Balance rebuilt from the ledger (latest snapshot plus later entries)", example = "1250.00")
+    @JsonProperty("ledgerBalance")
+    private Money ledgerBalance;
+
+    @Schema(description = "Ledger entries on this page")
+    @JsonProperty("entries")
+    private List<RestCreditLedgerEntry> entries;
+
+    @Schema(description = "Pass as before to fetch older entries; absent on the last page", example = "1042")
+    @JsonProperty("nextBefore")
+    private Long nextBefore;
+
+    public static RestCreditLedgerResponse fromCreditLedgerResponse(CreditLedgerResponse response) {
+        return RestCreditLedgerResponse.builder()
+                .customerId(response.getCustomerId())
+                .ledgerBalance(response.getLedgerBalance())
+                .entries(response.getEntries().stream().map(RestCreditLedgerEntry::fromCreditLedgerEntryDto).toList())
+                .nextBefore(response.getNextBefore())
+                .build();
+    }
+
+    @Getter
+    @Builder
+    @Schema(description = "A movement of the customer's total credit")
+    public static class RestCreditLedgerEntry {
+
+        @Schema(description = "Ledger entry id, increasing with insertion order", example = "1043")
+        @JsonProperty("id")
+        private Long id;
+
+        @Schema(description = "Signed amount: positive adds credit, negative takes it", example = "-42.50")
+        @JsonProperty("amount")
+        private Money amount;
+
+        @Schema(description = "Kind of movement", example = "PAYMENT_DEBIT")
+        @JsonProperty("entryType")
+        private CreditLedgerEntryType entryType;
+
+        @Schema(description = "Payment or credit hold that caused the movement, if any",
+                example = "7c9e6679-7425-40de-944b-e07fc1f90ae7")
+        @JsonProperty("referenceId")
+        private UUID referenceId;
+
+        @Schema(description = "When the movement was recorded", example = "2024-01-15T10:30:00Z")
+        @JsonProperty("createdAt")
+        private ZonedDateTime createdAt;
+
+        static RestCreditLedgerEntry fromCreditLedgerEntryDto(CreditLedgerEntryDto entry) {
+            return RestCreditLedgerEntry.builder()
+                    .id(entry.getId())
+                    .amount(entry.getAmount())
+                    .entryType(entry.getEntryType())
+                    .referenceId(entry.getReferenceId())
+                    .createdAt(entry.getCreatedAt())
+                    .build();
+        }
+    }
+}
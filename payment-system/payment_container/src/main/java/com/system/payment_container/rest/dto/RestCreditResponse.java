@@ -30,11 +30,25 @@ public class RestCreditResponse {
     @JsonProperty("totalCredit")
     private BigDecimal totalCredit;
 
+    @Schema(description = "Credit reserved by active holds",
+            example = "100.00",
+            minimum = "0.0")
+    @JsonProperty("heldCredit")
+    private BigDecimal heldCredit;
+
+    @Schema(description = "Credit that can still be spent or held (total minus held)",
+            example = "1400.00",
+            minimum = "0.0")
+    @JsonProperty("availableCredit")
+    private BigDecimal availableCredit;
+
     public static RestCreditResponse fromCreditResponse(CreditResponse creditResponse) {
         return RestCreditResponse.builder()
                 .id(creditResponse.getId())
                 .customerId(creditResponse.getCustomerId())
-                .totalCredit(creditResponse.getTotalCredit())
+                .totalCredit(creditResponse.getTotalCredit().toBigDecimal())
+                .heldCredit(creditResponse.getHeldCredit().toBigDecimal())
+                .availableCredit(creditResponse.getAvailableCredit().toBigDecimal())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.system.payment_container.rest.dto;
+
+import com.system.payment_application_service.dto.PaymentProcessRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestPaymentBatchProcessRequest {
+
+    @NotEmpty(message = "At least one payment is required")
+    @Size(max = 1000, message = "A batch can contain at most 1000 payments")
+    private List<@Valid RestPaymentProcessRequest> payments;
+
+    public List<PaymentProcessRequest> toPaymentProcessRequests() {
+        return payments.stream()
+                .map(RestPaymentProcessRequest::toPaymentProcessRequest)
+                .toList();
+    }
+}
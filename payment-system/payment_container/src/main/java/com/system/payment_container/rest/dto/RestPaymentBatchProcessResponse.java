@@ -0,0 +1,37 @@
+package com.system.payment_container.rest.dto;
+
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestPaymentBatchProcessResponse {
+    private int totalCount;
+    private int completedCount;
+    private int failedCount;
+    private List<RestPaymentProcessResponse> results;
+
+    public static RestPaymentBatchProcessResponse fromPaymentProcessResponses(List<PaymentProcessResponse> responses) {
+        int completed = (int) responses.stream()
+                .filter(response -> response.getStatus() == PaymentStatus.COMPLETED)
+                .count();
+        return RestPaymentBatchProcessResponse.builder()
+                .totalCount(responses.size())
+                .completedCount(completed)
+                .failedCount(responses.size() - completed)
+                .results(responses.stream()
+                        .map(RestPaymentProcessResponse::fromPaymentProcessResponse)
+                        .toList())
+                .build();
+    }
+}
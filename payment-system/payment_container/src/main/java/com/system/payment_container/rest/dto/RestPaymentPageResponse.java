@@ -0,0 +1,33 @@
+package com.system.payment_container.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.system.payment_application_service.dto.PaymentPageResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+@Schema(description = "One page of payments ordered by creation time")
+public class RestPaymentPageResponse {
+
+    @Schema(description = "Payments on this page")
+    @JsonProperty("payments")
+    private List<RestPaymentSummaryDto> payments;
+
+    @Schema(description = "Cursor for the next page; absent on the last page",
+            example = "MjAyNC0wMS0xNVQxMDozMDowMFp8N2M5ZTY2NzktNzQyNS00MGRlLTk0NGItZTA3ZmMxZjkwYWU3")
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    public static RestPaymentPageResponse fromPaymentPageResponse(PaymentPageResponse pageResponse) {
+        return RestPaymentPageResponse.builder()
+                .payments(pageResponse.getPayments().stream()
+                        .map(RestPaymentSummaryDto::fromPaymentSummaryDto)
+                        .toList())
+                .nextCursor(pageResponse.getNextCursor())
+                .build();
+    }
+}
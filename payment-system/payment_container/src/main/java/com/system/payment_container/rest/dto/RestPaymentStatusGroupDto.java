@@ -27,7 +27,7 @@ public class RestPaymentStatusGroupDto {
                 .status(groupDto.getStatus())
                 .count(groupDto.getCount())
                 .totalAmount(groupDto.getTotalAmount())
-                .payments(groupDto.getPayments().stream()
+                .payments(groupDto.getPayments() == null ? null : groupDto.getPayments().stream()
                         .map(RestPaymentSummaryDto::fromPaymentSummaryDto)
                         .toList())
                 .build();
@@ -1,5 +1,6 @@
 package com.system.payment_container.rest.dto;
 
+import com.system.payment_domain_core.valueobject.Money;
 import com.system.payment_domain_core.valueobject.PaymentStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,7 +8,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
@@ -20,7 +20,8 @@ public class RestPaymentSummaryDto {
     private UUID paymentId;
     private UUID orderId;
     private UUID customerId;
-    private BigDecimal price;
+    // Ghi thẳng từ cents qua MoneyJsonConfig: export NDJSON không tạo BigDecimal cho mỗi dòng
+    private Money price;
     private PaymentStatus status;
     private ZonedDateTime createdAt;
 
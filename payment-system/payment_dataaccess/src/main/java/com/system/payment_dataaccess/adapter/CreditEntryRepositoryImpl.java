@@ -6,19 +6,34 @@ import com.system.payment_dataaccess.mapper.PaymentDataMapper;
 import com.system.payment_dataaccess.repository.CreditEntryJpaRepository;
 import com.system.payment_domain_core.entity.CreditEntry;
 import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public class CreditEntryRepositoryImpl implements CreditEntryRepository {
 
+    // Ràng buộc UNIQUE(customer_id) biến insert thành cộng dồn cho customer đã có credit entry
+    private static final String ADD_CREDIT_SQL =
+            "INSERT INTO payment.credit_entry (id, customer_id, total_credit, held_credit) VALUES (?, ?, ?, 0) " +
+            "ON CONFLICT (customer_id) DO UPDATE SET total_credit = credit_entry.total_credit + EXCLUDED.total_credit";
+
     private final CreditEntryJpaRepository jpaRepository;
     private final PaymentDataMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
 
-    public CreditEntryRepositoryImpl(CreditEntryJpaRepository jpaRepository, PaymentDataMapper mapper) {
+    public CreditEntryRepositoryImpl(CreditEntryJpaRepository jpaRepository, PaymentDataMapper mapper,
+                                     JdbcTemplate jdbcTemplate) {
         this.jpaRepository = jpaRepository;
         this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -27,10 +42,73 @@ public class CreditEntryRepositoryImpl implements CreditEntryRepository {
                 .map(mapper::creditEntryEntityToCreditEntry);
     }
 
+    @Override
+    public Optional<CreditEntry> findByCustomerIdForUpdate(CustomerId customerId) {
+        return jpaRepository.findForUpdateByCustomerId(customerId.getValue())
+                .map(mapper::creditEntryEntityToCreditEntry);
+    }
+
+    @Override
+    public List<CreditEntry> findByCustomerIds(Collection<CustomerId> customerIds) {
+        List<UUID> ids = customerIds.stream()
+                .map(CustomerId::getValue)
+                .toList();
+        return jpaRepository.findByCustomerIdIn(ids).stream()
+                .map(mapper::creditEntryEntityToCreditEntry)
+                .toList();
+    }
+
     @Override
     public CreditEntry save(CreditEntry creditEntry) {
         CreditEntryEntity entity = mapper.creditEntryToCreditEntryEntity(creditEntry);
         CreditEntryEntity savedEntity = jpaRepository.save(entity);
         return mapper.creditEntryEntityToCreditEntry(savedEntity);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<CreditEntry> saveAll(Collection<CreditEntry> creditEntries) {
+        List<CreditEntryEntity> entities = creditEntries.stream()
+                .map(mapper::creditEntryToCreditEntryEntity)
+                .toList();
+        return jpaRepository.saveAll(entities).stream()
+                .map(mapper::creditEntryEntityToCreditEntry)
+                .toList();
+    }
+
+    @Override
+    public boolean debitIfSufficient(CustomerId customerId, Money amount) {
+        return jpaRepository.debitIfSufficient(customerId.getValue(), amount.toBigDecimal()) > 0;
+    }
+
+    @Override
+    public boolean holdIfAvailable(CustomerId customerId, Money amount) {
+        return jpaRepository.holdIfAvailable(customerId.getValue(), amount.toBigDecimal()) > 0;
+    }
+
+    @Override
+    public boolean captureHeld(CustomerId customerId, Money amount) {
+        return jpaRepository.captureHeld(customerId.getValue(), amount.toBigDecimal()) > 0;
+    }
+
+    @Override
+    public boolean releaseHeld(CustomerId customerId, Money amount) {
+        return jpaRepository.releaseHeld(customerId.getValue(), amount.toBigDecimal()) > 0;
+    }
+
+    /**
+     * One JDBC batch (rewritten into multi-row INSERTs by reWriteBatchedInserts), bypassing the
+     * persistence context. Rows go in customer id order so concurrent imports and debits lock
+     * credit rows in the same order.
+     */
+    @Override
+    public void addCredits(Map<CustomerId, Money> amounts) {
+        List<Map.Entry<CustomerId, Money>> rows = amounts.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(CustomerId::getValue)))
+                .toList();
+        jdbcTemplate.batchUpdate(ADD_CREDIT_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setObject(1, UUID.randomUUID());
+            statement.setObject(2, row.getKey().getValue());
+            statement.setBigDecimal(3, row.getValue().toBigDecimal());
+        });
+    }
+}
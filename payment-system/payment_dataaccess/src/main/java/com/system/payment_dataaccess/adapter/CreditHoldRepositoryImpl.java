@@ -0,0 +1,58 @@
+package com.system.payment_dataaccess.adapter;
+
+import com.system.payment_application_service.ports.output.CreditHoldRepository;
+import com.system.payment_dataaccess.entity.CreditHoldEntity;
+import com.system.payment_dataaccess.mapper.PaymentDataMapper;
+import com.system.payment_dataaccess.repository.CreditHoldJpaRepository;
+import com.system.payment_domain_core.entity.CreditHold;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class CreditHoldRepositoryImpl implements CreditHoldRepository {
+
+    private final CreditHoldJpaRepository jpaRepository;
+    private final PaymentDataMapper mapper;
+
+    public CreditHoldRepositoryImpl(CreditHoldJpaRepository jpaRepository, PaymentDataMapper mapper) {
+        this.jpaRepository = jpaRepository;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public CreditHold save(CreditHold creditHold) {
+        CreditHoldEntity entity = mapper.creditHoldToCreditHoldEntity(creditHold);
+        return mapper.creditHoldEntityToCreditHold(jpaRepository.save(entity));
+    }
+
+    @Override
+    public Optional<CreditHold> findById(UUID holdId) {
+        return jpaRepository.findById(holdId)
+                .map(mapper::creditHoldEntityToCreditHold);
+    }
+
+    @Override
+    public Optional<CreditHold> findActiveByOrderId(UUID orderId) {
+        return jpaRepository.findByOrderIdAndStatus(orderId, CreditHoldStatus.HELD)
+                .map(mapper::creditHoldEntityToCreditHold);
+    }
+
+    @Override
+    public boolean transition(UUID holdId, CreditHoldStatus from, CreditHoldStatus to) {
+        return jpaRepository.transition(holdId, from, to, ZonedDateTime.now()) > 0;
+    }
+
+    @Override
+    public List<CreditHold> findActiveExpiredBefore(ZonedDateTime threshold, int limit) {
+        return jpaRepository.findByStatusAndExpiresAtBefore(CreditHoldStatus.HELD, threshold, PageRequest.of(0, limit))
+                .stream()
+                .map(mapper::creditHoldEntityToCreditHold)
+                .toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.system.payment_dataaccess.adapter;
+
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
+import com.system.payment_domain_core.valueobject.CreditLedgerEntryType;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC: entries take their id from an identity column, which would stop Hibernate from
+ * batching the inserts, and the ledger is never loaded as managed entities.
+ */
+@Repository
+public class CreditLedgerRepositoryImpl implements CreditLedgerRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payment.credit_ledger (customer_id, amount, entry_type, reference_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String BALANCE_SQL =
+            "SELECT COALESCE(s.balance, 0) + COALESCE((SELECT SUM(l.amount) FROM payment.credit_ledger l " +
+            "    WHERE l.customer_id = c.customer_id AND l.id > COALESCE(s.last_ledger_id, 0)), 0) " +
+            "FROM (SELECT CAST(? AS UUID) AS customer_id) c " +
+            "LEFT JOIN payment.credit_balance_snapshot s ON s.customer_id = c.customer_id";
+
+    private static final String HISTORY_SQL =
+            "SELECT id, customer_id, amount, entry_type, reference_id, created_at FROM payment.credit_ledger " +
+            "WHERE customer_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+
+    // Không chờ writer quá lâu: hết thời gian thì bỏ qua lượt gộp này
+    private static final String HORIZON_LOCK_TIMEOUT_SQL = "SET LOCAL lock_timeout = '2s'";
+
+    // SHARE xung đột với ROW EXCLUSIVE của INSERT: chờ mọi transaction đang ghi ledger kết thúc
+    // và chặn transaction mới lấy id cho tới khi transaction này kết thúc
+    private static final String HORIZON_LOCK_SQL = "LOCK TABLE payment.credit_ledger IN SHARE MODE";
+
+    private static final String HORIZON_SQL = "SELECT COALESCE(MAX(id), 0) FROM payment.credit_ledger";
+
+    // Mỗi lần gộp xử lý mọi customer tới cùng một id, nên mọi entry <= MAX(last_ledger_id) đã nằm trong snapshot
+    private static final String FOLD_LOWER_BOUND_SQL =
+            "SELECT COALESCE(MAX(last_ledger_id), 0) FROM payment.credit_balance_snapshot";
+
+    private static final String FOLD_SQL =
+            "INSERT INTO payment.credit_balance_snapshot (customer_id, balance, last_ledger_id, snapshot_at) " +
+            "SELECT l.customer_id, COALESCE(s.balance, 0) + SUM(l.amount), MAX(l.id), now() " +
+            "FROM payment.credit_ledger l " +
+            "LEFT JOIN payment.credit_balance_snapshot s ON s.customer_id = l.customer_id " +
+            "WHERE l.id > ? AND l.id <= ? AND l.id > COALESCE(s.last_ledger_id, 0) " +
+            "GROUP BY l.customer_id, s.balance " +
+            "ON CONFLICT (customer_id) DO UPDATE SET balance = EXCLUDED.balance, " +
+            "last_ledger_id = EXCLUDED.last_ledger_id, snapshot_at = EXCLUDED.snapshot_at " +
+            "WHERE credit_balance_snapshot.last_ledger_id < EXCLUDED.last_ledger_id";
+
+    private static final RowMapper<CreditLedgerEntry> ENTRY_MAPPER = (rs, rowNum) -> new CreditLedgerEntry(
+            rs.getLong("id"),
+            new CustomerId(rs.getObject("customer_id", UUID.class)),
+            Money.of(rs.getBigDecimal("amount")),
+            CreditLedgerEntryType.valueOf(rs.getString("entry_type")),
+            rs.getObject("reference_id", UUID.class),
+            rs.getObject("created_at", OffsetDateTime.class).toZonedDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CreditLedgerRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendAll(Collection<CreditLedgerEntry> entries) {
+        List<CreditLedgerEntry> rows = new ArrayList<>(entries);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, entry) -> {
+            statement.setObject(1, entry.getCustomerId().getValue());
+            statement.setBigDecimal(2, entry.getAmount().toBigDecimal());
+            statement.setString(3, entry.getEntryType().name());
+            statement.setObject(4, entry.getReferenceId());
+            statement.setObject(5, entry.getCreatedAt().toOffsetDateTime());
+        });
+    }
+
+    @Override
+    public Money balanceOf(CustomerId customerId) {
+        BigDecimal balance = jdbcTemplate.queryForObject(BALANCE_SQL, BigDecimal.class, customerId.getValue());
+        return Money.of(balance);
+    }
+
+    @Override
+    public List<CreditLedgerEntry> findHistory(CustomerId customerId, Long beforeId, int limit) {
+        return jdbcTemplate.query(HISTORY_SQL, ENTRY_MAPPER, customerId.getValue(),
+                beforeId != null ? beforeId : Long.MAX_VALUE, limit);
+    }
+
+    @Override
+    public long committedHorizon() {
+        jdbcTemplate.execute(HORIZON_LOCK_TIMEOUT_SQL);
+        jdbcTemplate.execute(HORIZON_LOCK_SQL);
+        return jdbcTemplate.queryForObject(HORIZON_SQL, Long.class);
+    }
+
+    @Override
+    public int foldSnapshots(long upToId) {
+        Long lowerBound = jdbcTemplate.queryForObject(FOLD_LOWER_BOUND_SQL, Long.class);
+        if (upToId <= lowerBound) {
+            return 0;
+        }
+        return jdbcTemplate.update(FOLD_SQL, lowerBound, upToId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.system.payment_dataaccess.adapter;
+
+import com.system.payment_application_service.dto.IdempotentPaymentRecord;
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_application_service.ports.output.PaymentIdempotencyRepository;
+import com.system.payment_dataaccess.entity.PaymentIdempotencyEntity;
+import com.system.payment_dataaccess.repository.PaymentIdempotencyJpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+@Repository
+public class PaymentIdempotencyRepositoryImpl implements PaymentIdempotencyRepository {
+
+    private final PaymentIdempotencyJpaRepository jpaRepository;
+
+    public PaymentIdempotencyRepositoryImpl(PaymentIdempotencyJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public Optional<IdempotentPaymentRecord> findByKey(String idempotencyKey) {
+        return jpaRepository.findById(idempotencyKey)
+                .map(entity -> new IdempotentPaymentRecord(
+                        entity.getIdempotencyKey(),
+                        entity.getRequestFingerprint(),
+                        PaymentProcessResponse.builder()
+                                .paymentId(entity.getPaymentId())
+                                .orderId(entity.getOrderId())
+                                .customerId(entity.getCustomerId())
+                                .price(entity.getPrice())
+                                .status(entity.getPaymentStatus())
+                                .message(entity.getMessage())
+                                .build()));
+    }
+
+    @Override
+    public boolean insertIfAbsent(IdempotentPaymentRecord record) {
+        PaymentProcessResponse response = record.getResponse();
+        return jpaRepository.insertIfAbsent(
+                record.getIdempotencyKey(),
+                record.getRequestFingerprint(),
+                response.getPaymentId(),
+                response.getOrderId(),
+                response.getCustomerId(),
+                response.getPrice(),
+                response.getStatus().name(),
+                response.getMessage(),
+                ZonedDateTime.now()) > 0;
+    }
+}
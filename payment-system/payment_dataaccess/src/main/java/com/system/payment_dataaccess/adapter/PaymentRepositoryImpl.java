@@ -1,41 +1,101 @@
 package com.system.payment_dataaccess.adapter;
 
+import com.system.payment_application_service.dto.PaymentCursor;
+import com.system.payment_application_service.dto.PaymentStatusTotal;
 import com.system.payment_application_service.ports.output.PaymentRepository;
 import com.system.payment_dataaccess.entity.PaymentEntity;
+import com.system.payment_dataaccess.entity.PaymentStatusAggregateId;
 import com.system.payment_dataaccess.mapper.PaymentDataMapper;
 import com.system.payment_dataaccess.repository.PaymentJpaRepository;
+import com.system.payment_dataaccess.repository.PaymentStatusAggregateJpaRepository;
 import com.system.payment_domain_core.entity.Payment;
+import com.system.payment_domain_core.valueobject.Money;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 public class PaymentRepositoryImpl implements PaymentRepository {
 
     private final PaymentJpaRepository jpaRepository;
+    private final PaymentStatusAggregateJpaRepository aggregateJpaRepository;
     private final PaymentDataMapper mapper;
+    private final EntityManager entityManager;
 
-    public PaymentRepositoryImpl(PaymentJpaRepository jpaRepository, PaymentDataMapper mapper) {
+    public PaymentRepositoryImpl(PaymentJpaRepository jpaRepository,
+                                 PaymentStatusAggregateJpaRepository aggregateJpaRepository,
+                                 PaymentDataMapper mapper,
+                                 EntityManager entityManager) {
         this.jpaRepository = jpaRepository;
+        this.aggregateJpaRepository = aggregateJpaRepository;
         this.mapper = mapper;
+        this.entityManager = entityManager;
     }
 
     @Override
     public Payment save(Payment payment) {
         PaymentEntity entity = mapper.paymentToPaymentEntity(payment);
         PaymentEntity savedEntity = jpaRepository.save(entity);
+        aggregateJpaRepository.increment(payment.getCustomerId().getValue(), payment.getPaymentStatus().name(),
+                1, payment.getPrice().toBigDecimal());
         return mapper.paymentEntityToPayment(savedEntity);
     }
 
+    @Override
+    public List<Payment> saveAll(Collection<Payment> payments) {
+        List<PaymentEntity> entities = payments.stream()
+                .map(mapper::paymentToPaymentEntity)
+                .collect(Collectors.toList());
+        List<Payment> savedPayments = jpaRepository.saveAll(entities).stream()
+                .map(mapper::paymentEntityToPayment)
+                .collect(Collectors.toList());
+        incrementAggregates(payments);
+        return savedPayments;
+    }
+
+    // Một upsert cho mỗi (customer, status) của batch, theo thứ tự khóa cố định để tránh deadlock
+    private void incrementAggregates(Collection<Payment> payments) {
+        Map<PaymentStatusAggregateId, List<Payment>> paymentsByKey = payments.stream()
+                .collect(Collectors.groupingBy(payment ->
+                        new PaymentStatusAggregateId(payment.getCustomerId().getValue(), payment.getPaymentStatus())));
+        paymentsByKey.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator
+                        .comparing(PaymentStatusAggregateId::getCustomerId)
+                        .thenComparing(PaymentStatusAggregateId::getPaymentStatus)))
+                .forEach(entry -> aggregateJpaRepository.increment(
+                        entry.getKey().getCustomerId(),
+                        entry.getKey().getPaymentStatus().name(),
+                        entry.getValue().size(),
+                        entry.getValue().stream().map(Payment::getPrice).reduce(Money.ZERO, Money::add).toBigDecimal()));
+    }
+
     @Override
     public Optional<Payment> findByOrderId(UUID orderId) {
-        Optional<PaymentEntity> entity = jpaRepository.findByOrderId(orderId);
+        Optional<PaymentEntity> entity = jpaRepository.findFirstByOrderIdOrderByCreatedAtDesc(orderId);
         return entity.map(mapper::paymentEntityToPayment);
     }
 
+    @Override
+    public boolean existsCompletedByOrderId(UUID orderId) {
+        return jpaRepository.existsByOrderIdAndPaymentStatus(orderId, PaymentStatus.COMPLETED);
+    }
+
+    @Override
+    public List<Payment> findByOrderIds(Collection<UUID> orderIds) {
+        return jpaRepository.findByOrderIdIn(orderIds).stream()
+                .map(mapper::paymentEntityToPayment)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public List<Payment> findByCustomerId(UUID customerId) {
         List<PaymentEntity> entities = jpaRepository.findByCustomerId(customerId);
@@ -59,4 +119,37 @@ public class PaymentRepositoryImpl implements PaymentRepository {
                 .map(mapper::paymentEntityToPayment)
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<PaymentStatusTotal> sumByStatus(UUID customerId) {
+        return aggregateJpaRepository.sumByStatus(customerId);
+    }
+
+    @Override
+    public List<Payment> findPage(UUID customerId, PaymentCursor after, int limit) {
+        List<PaymentEntity> entities;
+        if (customerId == null) {
+            entities = after == null
+                    ? jpaRepository.findFirstPage(limit)
+                    : jpaRepository.findPageAfter(after.getCreatedAt(), after.getPaymentId(), limit);
+        } else {
+            entities = after == null
+                    ? jpaRepository.findFirstPageByCustomerId(customerId, limit)
+                    : jpaRepository.findPageAfterByCustomerId(customerId, after.getCreatedAt(), after.getPaymentId(), limit);
+        }
+        return entities.stream()
+                .map(mapper::paymentEntityToPayment)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Payment> streamByCustomerIdOptional(UUID customerId) {
+        // Detach từng entity sau khi map để persistence context không lớn dần theo số dòng
+        return jpaRepository.streamByCustomerIdOptional(customerId)
+                .map(entity -> {
+                    Payment payment = mapper.paymentEntityToPayment(entity);
+                    entityManager.detach(entity);
+                    return payment;
+                });
+    }
+}
@@ -0,0 +1,25 @@
+package com.system.payment_dataaccess.converter;
+
+import com.system.payment_domain_core.valueobject.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Money} onto NUMERIC(…, 2) columns. Only for columns that JPQL never does arithmetic on;
+ * credit_entry stays {@link BigDecimal} because its conditional UPDATEs compute on the columns.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal value) {
+        return value != null ? Money.of(value) : null;
+    }
+}
@@ -26,4 +26,8 @@ public class CreditEntryEntity {
 
     @Column(name = "total_credit", nullable = false, precision = 15, scale = 2)
     private BigDecimal totalCredit;
+
+    // Chỉ được thay đổi bằng các câu UPDATE có điều kiện; save() không ghi đè hold đồng thời
+    @Column(name = "held_credit", nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal heldCredit = BigDecimal.ZERO;
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.system.payment_dataaccess.entity;
+
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+import com.system.payment_dataaccess.converter.MoneyConverter;
+import com.system.payment_domain_core.valueobject.Money;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "credit_hold", schema = "payment")
+public class CreditHoldEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CreditHoldStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private ZonedDateTime expiresAt;
+
+    @Column(name = "settled_at")
+    private ZonedDateTime settledAt;
+}
@@ -1,12 +1,13 @@
 package com.system.payment_dataaccess.entity;
 
 import com.system.payment_domain_core.valueobject.PaymentStatus;
+import com.system.payment_dataaccess.converter.MoneyConverter;
+import com.system.payment_domain_core.valueobject.Money;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
@@ -27,7 +28,8 @@ public class PaymentEntity {
     private UUID customerId;
 
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal price;
+    @Convert(converter = MoneyConverter.class)
+    private Money price;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "payment_status", nullable = false)
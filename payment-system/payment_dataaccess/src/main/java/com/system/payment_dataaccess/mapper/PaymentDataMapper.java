@@ -1,10 +1,13 @@
 package com.system.payment_dataaccess.mapper;
 
 import com.system.payment_dataaccess.entity.CreditEntryEntity;
+import com.system.payment_dataaccess.entity.CreditHoldEntity;
 import com.system.payment_dataaccess.entity.PaymentEntity;
 import com.system.payment_domain_core.entity.CreditEntry;
+import com.system.payment_domain_core.entity.CreditHold;
 import com.system.payment_domain_core.entity.Payment;
 import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
 import com.system.payment_domain_core.valueobject.PaymentId;
 import org.springframework.stereotype.Component;
 
@@ -39,7 +42,8 @@ public class PaymentDataMapper {
         CreditEntryEntity entity = new CreditEntryEntity();
         entity.setId(creditEntry.getId());
         entity.setCustomerId(creditEntry.getCustomerId().getValue());
-        entity.setTotalCredit(creditEntry.getTotalCredit());
+        entity.setTotalCredit(creditEntry.getTotalCredit().toBigDecimal());
+        entity.setHeldCredit(creditEntry.getHeldCredit().toBigDecimal());
         return entity;
     }
 
@@ -47,7 +51,33 @@ public class PaymentDataMapper {
         return new CreditEntry(
                 entity.getId(),
                 new CustomerId(entity.getCustomerId()),
-                entity.getTotalCredit()
+                Money.of(entity.getTotalCredit()),
+                entity.getHeldCredit() != null ? Money.of(entity.getHeldCredit()) : Money.ZERO
+        );
+    }
+
+    // CreditHold Mappers
+    public CreditHoldEntity creditHoldToCreditHoldEntity(CreditHold creditHold) {
+        CreditHoldEntity entity = new CreditHoldEntity();
+        entity.setId(creditHold.getId());
+        entity.setCustomerId(creditHold.getCustomerId().getValue());
+        entity.setOrderId(creditHold.getOrderId());
+        entity.setAmount(creditHold.getAmount());
+        entity.setStatus(creditHold.getStatus());
+        entity.setCreatedAt(creditHold.getCreatedAt());
+        entity.setExpiresAt(creditHold.getExpiresAt());
+        return entity;
+    }
+
+    public CreditHold creditHoldEntityToCreditHold(CreditHoldEntity entity) {
+        return new CreditHold(
+                entity.getId(),
+                new CustomerId(entity.getCustomerId()),
+                entity.getOrderId(),
+                entity.getAmount(),
+                entity.getStatus(),
+                entity.getCreatedAt(),
+                entity.getExpiresAt()
         );
     }
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.system.payment_dataaccess.repository;
 
 import com.system.payment_dataaccess.entity.CreditEntryEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +19,34 @@ import java.util.UUID;
 public interface CreditEntryJpaRepository extends JpaRepository<CreditEntryEntity, UUID> {
 
     Optional<CreditEntryEntity> findByCustomerId(UUID customerId);
+
+    List<CreditEntryEntity> findByCustomerIdIn(Collection<UUID> customerIds);
+
+    // SELECT ... FOR UPDATE: khoá dòng tới hết transaction, các câu UPDATE có điều kiện phải chờ
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CreditEntryEntity c WHERE c.customerId = :customerId")
+    Optional<CreditEntryEntity> findForUpdateByCustomerId(@Param("customerId") UUID customerId);
+
+    // Kiểm tra số dư và trừ trong cùng một câu lệnh: không có lost update giữa các giao dịch đồng thời
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CreditEntryEntity c SET c.totalCredit = c.totalCredit - :amount " +
+            "WHERE c.customerId = :customerId AND c.totalCredit - c.heldCredit >= :amount")
+    int debitIfSufficient(@Param("customerId") UUID customerId, @Param("amount") BigDecimal amount);
+
+    // Giữ tiền: số dư khả dụng = total_credit - held_credit, kiểm tra và cộng held trong cùng một câu lệnh
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CreditEntryEntity c SET c.heldCredit = c.heldCredit + :amount " +
+            "WHERE c.customerId = :customerId AND c.totalCredit - c.heldCredit >= :amount")
+    int holdIfAvailable(@Param("customerId") UUID customerId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CreditEntryEntity c SET c.heldCredit = c.heldCredit - :amount, " +
+            "c.totalCredit = c.totalCredit - :amount " +
+            "WHERE c.customerId = :customerId AND c.heldCredit >= :amount")
+    int captureHeld(@Param("customerId") UUID customerId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CreditEntryEntity c SET c.heldCredit = c.heldCredit - :amount " +
+            "WHERE c.customerId = :customerId AND c.heldCredit >= :amount")
+    int releaseHeld(@Param("customerId") UUID customerId, @Param("amount") BigDecimal amount);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.system.payment_dataaccess.repository;
+
+import com.system.payment_dataaccess.entity.CreditHoldEntity;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CreditHoldJpaRepository extends JpaRepository<CreditHoldEntity, UUID> {
+
+    Optional<CreditHoldEntity> findByOrderIdAndStatus(UUID orderId, CreditHoldStatus status);
+
+    // Chỉ chuyển trạng thái khi hold vẫn ở trạng thái mong đợi: capture/release/expire không chạy trùng
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CreditHoldEntity h SET h.status = :to, h.settledAt = :settledAt " +
+            "WHERE h.id = :id AND h.status = :from")
+    int transition(@Param("id") UUID id,
+                   @Param("from") CreditHoldStatus from,
+                   @Param("to") CreditHoldStatus to,
+                   @Param("settledAt") ZonedDateTime settledAt);
+
+    // Dùng partial index idx_credit_hold_active_expires_at (status = 'HELD')
+    @Query("SELECT h FROM CreditHoldEntity h WHERE h.status = :status AND h.expiresAt < :threshold " +
+            "ORDER BY h.expiresAt")
+    List<CreditHoldEntity> findByStatusAndExpiresAtBefore(@Param("status") CreditHoldStatus status,
+                                                          @Param("threshold") ZonedDateTime threshold,
+                                                          Pageable pageable);
+}
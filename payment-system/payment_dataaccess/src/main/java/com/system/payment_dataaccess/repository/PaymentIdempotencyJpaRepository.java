@@ -0,0 +1,33 @@
+package com.system.payment_dataaccess.repository;
+
+import com.system.payment_dataaccess.entity.PaymentIdempotencyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Repository
+public interface PaymentIdempotencyJpaRepository extends JpaRepository<PaymentIdempotencyEntity, String> {
+
+    // Khóa chính trên idempotency_key: transaction thứ hai cùng key chờ transaction đầu rồi không chèn gì
+    @Modifying
+    @Query(value = "INSERT INTO payment.payment_idempotency " +
+            "(idempotency_key, request_fingerprint, payment_id, order_id, customer_id, price, payment_status, message, created_at) " +
+            "VALUES (:idempotencyKey, :requestFingerprint, :paymentId, :orderId, :customerId, :price, :paymentStatus, :message, :createdAt) " +
+            "ON CONFLICT (idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("idempotencyKey") String idempotencyKey,
+                       @Param("requestFingerprint") String requestFingerprint,
+                       @Param("paymentId") UUID paymentId,
+                       @Param("orderId") UUID orderId,
+                       @Param("customerId") UUID customerId,
+                       @Param("price") BigDecimal price,
+                       @Param("paymentStatus") String paymentStatus,
+                       @Param("message") String message,
+                       @Param("createdAt") ZonedDateTime createdAt);
+}
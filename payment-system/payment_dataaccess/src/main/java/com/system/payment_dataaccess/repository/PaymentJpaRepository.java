@@ -1,18 +1,29 @@
 package com.system.payment_dataaccess.repository;
 
 import com.system.payment_dataaccess.entity.PaymentEntity;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentJpaRepository extends JpaRepository<PaymentEntity, UUID> {
-    Optional<PaymentEntity> findByOrderId(UUID orderId);
+    Optional<PaymentEntity> findFirstByOrderIdOrderByCreatedAtDesc(UUID orderId);
+
+    boolean existsByOrderIdAndPaymentStatus(UUID orderId, PaymentStatus paymentStatus);
+
+    List<PaymentEntity> findByOrderIdIn(Collection<UUID> orderIds);
 
     List<PaymentEntity> findByCustomerId(UUID customerId);
 
@@ -20,4 +31,36 @@ public interface PaymentJpaRepository extends JpaRepository<PaymentEntity, UUID>
 
     @Query("SELECT p FROM PaymentEntity p WHERE (:customerId IS NULL OR p.customerId = :customerId)")
     List<PaymentEntity> findByCustomerIdOptional(@Param("customerId") UUID customerId);
+
+    // Keyset pagination theo (created_at, id): so sánh row-value dùng được index, không OFFSET
+    @Query(value = "SELECT * FROM payment.payment ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<PaymentEntity> findFirstPage(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM payment.payment WHERE (created_at, id) > (:createdAt, :id) " +
+            "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<PaymentEntity> findPageAfter(@Param("createdAt") ZonedDateTime createdAt,
+                                      @Param("id") UUID id,
+                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM payment.payment WHERE customer_id = :customerId " +
+            "ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<PaymentEntity> findFirstPageByCustomerId(@Param("customerId") UUID customerId,
+                                                  @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM payment.payment WHERE customer_id = :customerId " +
+            "AND (created_at, id) > (:createdAt, :id) ORDER BY created_at, id LIMIT :limit", nativeQuery = true)
+    List<PaymentEntity> findPageAfterByCustomerId(@Param("customerId") UUID customerId,
+                                                  @Param("createdAt") ZonedDateTime createdAt,
+                                                  @Param("id") UUID id,
+                                                  @Param("limit") int limit);
+
+    // Cursor phía server: PostgreSQL chỉ trả từng 500 dòng khi chạy trong transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM PaymentEntity p WHERE (:customerId IS NULL OR p.customerId = :customerId) " +
+            "ORDER BY p.createdAt, p.id")
+    Stream<PaymentEntity> streamByCustomerIdOptional(@Param("customerId") UUID customerId);
 }
\ No newline at end of file
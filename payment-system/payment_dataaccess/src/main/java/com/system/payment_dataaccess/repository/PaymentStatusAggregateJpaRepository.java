@@ -0,0 +1,39 @@
+package com.system.payment_dataaccess.repository;
+
+import com.system.payment_application_service.dto.PaymentStatusTotal;
+import com.system.payment_dataaccess.entity.PaymentStatusAggregateEntity;
+import com.system.payment_dataaccess.entity.PaymentStatusAggregateId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentStatusAggregateJpaRepository extends JpaRepository<PaymentStatusAggregateEntity, PaymentStatusAggregateId> {
+
+    // Cộng dồn trong một câu lệnh: hai giao dịch cùng (customer, status) không mất cập nhật
+    @Modifying
+    @Query(value = "INSERT INTO payment.payment_status_aggregate AS a " +
+            "(customer_id, payment_status, payment_count, total_amount) " +
+            "VALUES (:customerId, :paymentStatus, :paymentCount, :totalAmount) " +
+            "ON CONFLICT (customer_id, payment_status) DO UPDATE " +
+            "SET payment_count = a.payment_count + EXCLUDED.payment_count, " +
+            "total_amount = a.total_amount + EXCLUDED.total_amount",
+            nativeQuery = true)
+    int increment(@Param("customerId") UUID customerId,
+                  @Param("paymentStatus") String paymentStatus,
+                  @Param("paymentCount") long paymentCount,
+                  @Param("totalAmount") BigDecimal totalAmount);
+
+    @Query("SELECT new com.system.payment_application_service.dto.PaymentStatusTotal(" +
+            "a.id.paymentStatus, SUM(a.paymentCount), SUM(a.totalAmount)) " +
+            "FROM PaymentStatusAggregateEntity a " +
+            "WHERE (:customerId IS NULL OR a.id.customerId = :customerId) " +
+            "GROUP BY a.id.paymentStatus")
+    List<PaymentStatusTotal> sumByStatus(@Param("customerId") UUID customerId);
+}
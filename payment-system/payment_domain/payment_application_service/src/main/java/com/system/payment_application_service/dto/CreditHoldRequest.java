@@ -0,0 +1,19 @@
+package com.system.payment_application_service.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class CreditHoldRequest {
+
+    private final UUID customerId;
+    private final UUID orderId;
+    private final BigDecimal amount;
+    // null: dùng payment.credit-hold.default-ttl
+    private final Duration ttl;
+}
@@ -0,0 +1,35 @@
+package com.system.payment_application_service.dto;
+
+import com.system.payment_domain_core.entity.CreditHold;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+import com.system.payment_domain_core.valueobject.Money;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class CreditHoldResponse {
+
+    private final UUID holdId;
+    private final UUID customerId;
+    private final UUID orderId;
+    private final Money amount;
+    private final CreditHoldStatus status;
+    private final ZonedDateTime createdAt;
+    private final ZonedDateTime expiresAt;
+
+    public static CreditHoldResponse fromCreditHold(CreditHold creditHold) {
+        return CreditHoldResponse.builder()
+                .holdId(creditHold.getId())
+                .customerId(creditHold.getCustomerId().getValue())
+                .orderId(creditHold.getOrderId())
+                .amount(creditHold.getAmount())
+                .status(creditHold.getStatus())
+                .createdAt(creditHold.getCreatedAt())
+                .expiresAt(creditHold.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.system.payment_application_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class CreditImportError {
+
+    private final long lineNumber;
+    // null khi dòng không parse được
+    private final UUID customerId;
+    private final String message;
+}
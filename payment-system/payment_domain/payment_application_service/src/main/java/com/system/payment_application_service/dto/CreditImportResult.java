@@ -0,0 +1,18 @@
+package com.system.payment_application_service.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class CreditImportResult {
+
+    private final long totalRows;
+    private final long appliedRows;
+    private final long failedRows;
+    // Chỉ giữ tối đa payment.credit-import.max-reported-errors lỗi đầu tiên
+    private final List<CreditImportError> errors;
+    private final boolean errorsTruncated;
+}
@@ -0,0 +1,30 @@
+package com.system.payment_application_service.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One (customerId, amount) line of a credit import. A line that could not be parsed carries the
+ * parse error instead, so it is reported like any other rejected row.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CreditImportRow {
+
+    private final long lineNumber;
+    private final UUID customerId;
+    private final BigDecimal amount;
+    private final String error;
+
+    public static CreditImportRow of(long lineNumber, UUID customerId, BigDecimal amount) {
+        return new CreditImportRow(lineNumber, customerId, amount, null);
+    }
+
+    public static CreditImportRow invalid(long lineNumber, String error) {
+        return new CreditImportRow(lineNumber, null, null, error);
+    }
+}
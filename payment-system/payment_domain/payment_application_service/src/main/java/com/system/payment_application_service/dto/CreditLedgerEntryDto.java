@@ -0,0 +1,30 @@
+package com.system.payment_application_service.dto;
+
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
+import com.system.payment_domain_core.valueobject.CreditLedgerEntryType;
+import com.system.payment_domain_core.valueobject.Money;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class CreditLedgerEntryDto {
+    private final Long id;
+    private final Money amount;
+    private final CreditLedgerEntryType entryType;
+    private final UUID referenceId;
+    private final ZonedDateTime createdAt;
+
+    public static CreditLedgerEntryDto fromCreditLedgerEntry(CreditLedgerEntry entry) {
+        return CreditLedgerEntryDto.builder()
+                .id(entry.getId())
+                .amount(entry.getAmount())
+                .entryType(entry.getEntryType())
+                .referenceId(entry.getReferenceId())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.system.payment_application_service.dto;
+
+import com.system.payment_domain_core.valueobject.Money;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@Builder
+public class CreditLedgerResponse {
+    private final UUID customerId;
+    // Snapshot + các entry sau snapshot, độc lập với credit_entry.total_credit
+    private final Money ledgerBalance;
+    private final List<CreditLedgerEntryDto> entries;
+    // null khi đây là trang cuối
+    private final Long nextBefore;
+}
@@ -1,9 +1,9 @@
 package com.system.payment_application_service.dto;
 
+import com.system.payment_domain_core.valueobject.Money;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Getter
@@ -12,5 +12,7 @@ public class CreditResponse {
 
     private final UUID id;
     private final UUID customerId;
-    private final BigDecimal totalCredit;
+    private final Money totalCredit;
+    private final Money heldCredit;
+    private final Money availableCredit;
 }
\ No newline at end of file
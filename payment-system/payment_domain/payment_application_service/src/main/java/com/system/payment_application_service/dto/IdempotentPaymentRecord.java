@@ -0,0 +1,15 @@
+package com.system.payment_application_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The response stored for an Idempotency-Key, with the fingerprint of the request that produced it.
+ */
+@Getter
+@AllArgsConstructor
+public class IdempotentPaymentRecord {
+    private final String idempotencyKey;
+    private final String requestFingerprint;
+    private final PaymentProcessResponse response;
+}
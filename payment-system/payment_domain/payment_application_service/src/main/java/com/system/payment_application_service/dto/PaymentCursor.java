@@ -0,0 +1,40 @@
+package com.system.payment_application_service.dto;
+
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the (created_at, id) ordering of payments, exchanged with clients as an opaque token.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentCursor {
+
+    private final ZonedDateTime createdAt;
+    private final UUID paymentId;
+
+    public String encode() {
+        String raw = createdAt.toInstant() + "|" + paymentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PaymentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new PaymentCursor(
+                    Instant.parse(raw.substring(0, separator)).atZone(ZoneOffset.UTC),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new PaymentDomainException("Invalid payment cursor: " + token);
+        }
+    }
+}
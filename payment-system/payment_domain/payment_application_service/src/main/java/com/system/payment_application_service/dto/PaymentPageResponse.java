@@ -0,0 +1,14 @@
+package com.system.payment_application_service.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class PaymentPageResponse {
+    private final List<PaymentSummaryDto> payments;
+    // null khi đây là trang cuối
+    private final String nextCursor;
+}
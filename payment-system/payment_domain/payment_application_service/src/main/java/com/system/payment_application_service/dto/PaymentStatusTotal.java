@@ -0,0 +1,18 @@
+package com.system.payment_application_service.dto;
+
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Running count and sum of payments in one status, read from the payment_status_aggregate table.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentStatusTotal {
+    private final PaymentStatus status;
+    private final long count;
+    private final BigDecimal totalAmount;
+}
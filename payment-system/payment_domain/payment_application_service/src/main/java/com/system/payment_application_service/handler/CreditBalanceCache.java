@@ -0,0 +1,78 @@
+package com.system.payment_application_service.handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.system.payment_application_service.dto.CreditResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of customer credit balances, bounded by size and TTL.
+ * <p>
+ * Every write to a credit entry in this service invalidates the customer's balance, once right away
+ * and once after commit: a read that loaded the old row while the write was in flight cannot leave
+ * it behind, because Caffeine makes the invalidation wait for an in-flight load of the same key.
+ * The TTL bounds staleness for writes made by other instances. Hit, miss and eviction counts are
+ * exported as {@code cache.*{cache=credit.balance}}.
+ */
+@Component
+public class CreditBalanceCache {
+
+    static final String CACHE_NAME = "credit.balance";
+
+    private final Cache<UUID, CreditResponse> cache;
+
+    public CreditBalanceCache(MeterRegistry meterRegistry,
+                              @Value("${payment.credit-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${payment.credit-cache.ttl:PT60S}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached balance, loading it with {@code loader} on a miss. Concurrent misses for
+     * the same customer share one load; a loader that throws caches nothing.
+     */
+    public CreditResponse get(UUID customerId, Function<UUID, CreditResponse> loader) {
+        return cache.get(customerId, loader);
+    }
+
+    public void invalidate(UUID customerId) {
+        cache.invalidate(customerId);
+        afterCommit(() -> cache.invalidate(customerId));
+    }
+
+    public void invalidateAll(Collection<UUID> customerIds) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(customerIds);
+        cache.invalidateAll(ids);
+        afterCommit(() -> cache.invalidateAll(ids));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
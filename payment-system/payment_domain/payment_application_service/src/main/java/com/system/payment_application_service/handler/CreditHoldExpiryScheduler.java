@@ -0,0 +1,135 @@
+package com.system.payment_application_service.handler;
+
+import com.system.payment_application_service.ports.input.CreditService;
+import com.system.payment_application_service.ports.output.CreditHoldRepository;
+import com.system.payment_domain_core.entity.CreditHold;
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires abandoned credit holds.
+ * <p>
+ * Holds created by this instance sit in a {@link HierarchicalTimerWheel}, so each tick costs O(1)
+ * regardless of how many holds are outstanding and capture/release cancel their timer in O(1).
+ * Holds the wheel does not know about (created before a restart or by another instance) are picked
+ * up by a periodic sweep over the partial index on {@code credit_hold.expires_at}. Expiring twice is
+ * harmless: {@link CreditService#expireHold} only acts on a hold that is still HELD.
+ */
+@Slf4j
+@Component
+public class CreditHoldExpiryScheduler implements DisposableBean {
+
+    private final ObjectProvider<CreditService> creditService;
+    private final CreditHoldRepository creditHoldRepository;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final int sweepBatchSize;
+    private final HierarchicalTimerWheel<UUID> wheel;
+    private final Map<UUID, HierarchicalTimerWheel.Timeout<UUID>> timeouts = new HashMap<>();
+    private final ScheduledExecutorService executor;
+
+    public CreditHoldExpiryScheduler(
+            ObjectProvider<CreditService> creditService,
+            CreditHoldRepository creditHoldRepository,
+            @Value("${payment.credit-hold.default-ttl:PT15M}") Duration defaultTtl,
+            @Value("${payment.credit-hold.max-ttl:PT24H}") Duration maxTtl,
+            @Value("${payment.credit-hold.tick-ms:100}") long tickMs,
+            @Value("${payment.credit-hold.wheel-size:512}") int wheelSize,
+            @Value("${payment.credit-hold.sweep-interval:PT1M}") Duration sweepInterval,
+            @Value("${payment.credit-hold.sweep-batch-size:500}") int sweepBatchSize) {
+        this.creditService = creditService;
+        this.creditHoldRepository = creditHoldRepository;
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.sweepBatchSize = sweepBatchSize;
+        this.wheel = new HierarchicalTimerWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credit-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::sweep, sweepInterval.toMillis(), sweepInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Resolves the expiry of a new hold; {@code null} means the default TTL.
+     */
+    public ZonedDateTime expiryFor(Duration ttl) {
+        Duration effectiveTtl = ttl != null ? ttl : defaultTtl;
+        if (effectiveTtl.isNegative() || effectiveTtl.isZero()) {
+            throw new PaymentDomainException("Hold TTL must be positive");
+        }
+        if (effectiveTtl.compareTo(maxTtl) > 0) {
+            throw new PaymentDomainException("Hold TTL cannot exceed " + maxTtl);
+        }
+        return ZonedDateTime.now().plus(effectiveTtl);
+    }
+
+    public synchronized void schedule(CreditHold creditHold) {
+        HierarchicalTimerWheel.Timeout<UUID> timeout =
+                wheel.schedule(creditHold.getId(), creditHold.getExpiresAt().toInstant().toEpochMilli());
+        timeouts.put(creditHold.getId(), timeout);
+    }
+
+    public synchronized void cancel(UUID holdId) {
+        HierarchicalTimerWheel.Timeout<UUID> timeout = timeouts.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    void tick() {
+        List<UUID> due;
+        synchronized (this) {
+            due = wheel.advance(System.currentTimeMillis());
+            due.forEach(timeouts::remove);
+        }
+        due.forEach(this::expire);
+    }
+
+    void sweep() {
+        try {
+            List<CreditHold> expired;
+            int expiredCount;
+            do {
+                expired = creditHoldRepository.findActiveExpiredBefore(ZonedDateTime.now(), sweepBatchSize);
+                expiredCount = (int) expired.stream().map(CreditHold::getId).filter(this::expire).count();
+                expired.forEach(hold -> cancel(hold.getId()));
+            // Dừng khi hết hold quá hạn hoặc cả batch đều lỗi, tránh lặp vô hạn trên cùng các dòng
+            } while (expired.size() == sweepBatchSize && expiredCount > 0);
+        } catch (RuntimeException e) {
+            log.error("Credit hold expiry sweep failed", e);
+        }
+    }
+
+    private boolean expire(UUID holdId) {
+        try {
+            return creditService.getObject().expireHold(holdId);
+        } catch (RuntimeException e) {
+            // Hold vẫn HELD nên lần sweep sau sẽ thử lại
+            log.error("Failed to expire credit hold: {}", holdId, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
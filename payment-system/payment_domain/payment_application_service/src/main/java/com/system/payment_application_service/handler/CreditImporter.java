@@ -0,0 +1,173 @@
+package com.system.payment_application_service.handler;
+
+import com.system.payment_application_service.dto.CreditImportError;
+import com.system.payment_application_service.dto.CreditImportResult;
+import com.system.payment_application_service.dto.CreditImportRow;
+import com.system.payment_application_service.ports.output.CreditEntryRepository;
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies a stream of credit top-ups in chunks of {@code payment.credit-import.chunk-size} rows.
+ * <p>
+ * Rows of a chunk are summed per customer and written with one batch of upserts in its own
+ * transaction. If the batch fails, the chunk's customers are retried one by one so that only the
+ * rows of the failing customer are reported. Memory is bounded by the chunk size and the number of
+ * reported errors, not by the size of the import.
+ */
+@Component
+@Slf4j
+public class CreditImporter {
+
+    private final CreditEntryRepository creditEntryRepository;
+    private final CreditLedgerRepository creditLedgerRepository;
+    private final CreditBalanceCache creditBalanceCache;
+    private final TransactionOperations transactionOperations;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public CreditImporter(CreditEntryRepository creditEntryRepository,
+                          CreditLedgerRepository creditLedgerRepository,
+                          CreditBalanceCache creditBalanceCache,
+                          TransactionOperations transactionOperations,
+                          @Value("${payment.credit-import.chunk-size:1000}") int chunkSize,
+                          @Value("${payment.credit-import.max-reported-errors:1000}") int maxReportedErrors) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("payment.credit-import.chunk-size must be positive");
+        }
+        this.creditEntryRepository = creditEntryRepository;
+        this.creditLedgerRepository = creditLedgerRepository;
+        this.creditBalanceCache = creditBalanceCache;
+        this.transactionOperations = transactionOperations;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public CreditImportResult importCredits(Iterator<CreditImportRow> rows) {
+        ImportProgress progress = new ImportProgress();
+        Map<CustomerId, PendingCredit> chunk = new LinkedHashMap<>();
+        int chunkRows = 0;
+
+        while (rows.hasNext()) {
+            CreditImportRow row = rows.next();
+            progress.totalRows++;
+            try {
+                Money amount = validate(row);
+                chunk.computeIfAbsent(new CustomerId(row.getCustomerId()), id -> new PendingCredit())
+                        .add(row.getLineNumber(), amount);
+            } catch (PaymentDomainException | ArithmeticException e) {
+                progress.fail(row.getLineNumber(), row.getCustomerId(), e.getMessage());
+                continue;
+            }
+            if (++chunkRows == chunkSize) {
+                flush(chunk, progress);
+                chunk.clear();
+                chunkRows = 0;
+            }
+        }
+        flush(chunk, progress);
+
+        log.info("Credit import finished. Rows: {}, applied: {}, failed: {}",
+                progress.totalRows, progress.appliedRows, progress.failedRows);
+        return CreditImportResult.builder()
+                .totalRows(progress.totalRows)
+                .appliedRows(progress.appliedRows)
+                .failedRows(progress.failedRows)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failedRows > progress.errors.size())
+                .build();
+    }
+
+    private static Money validate(CreditImportRow row) {
+        if (row.getError() != null) {
+            throw new PaymentDomainException(row.getError());
+        }
+        if (row.getCustomerId() == null) {
+            throw new PaymentDomainException("customerId is required");
+        }
+        if (row.getAmount() == null) {
+            throw new PaymentDomainException("amount is required");
+        }
+        Money amount = Money.of(row.getAmount());
+        if (!amount.isPositive()) {
+            throw new PaymentDomainException("Credit amount must be positive for customer: " + row.getCustomerId());
+        }
+        return amount;
+    }
+
+    private void flush(Map<CustomerId, PendingCredit> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<CustomerId, Money> amounts = new LinkedHashMap<>();
+        chunk.forEach((customerId, pending) -> amounts.put(customerId, pending.total));
+
+        try {
+            transactionOperations.executeWithoutResult(status -> apply(amounts));
+            chunk.values().forEach(pending -> progress.appliedRows += pending.lineNumbers.size());
+        } catch (DataAccessException e) {
+            log.warn("Credit import chunk of {} customers failed, applying customers one by one: {}",
+                    chunk.size(), e.getMostSpecificCause().getMessage());
+            chunk.forEach((customerId, pending) -> applySingle(customerId, pending, progress));
+        } finally {
+            creditBalanceCache.invalidateAll(chunk.keySet().stream().map(CustomerId::getValue).toList());
+        }
+    }
+
+    private void applySingle(CustomerId customerId, PendingCredit pending, ImportProgress progress) {
+        try {
+            transactionOperations.executeWithoutResult(status -> apply(Map.of(customerId, pending.total)));
+            progress.appliedRows += pending.lineNumbers.size();
+        } catch (DataAccessException e) {
+            String message = "Could not apply credit: " + e.getMostSpecificCause().getMessage();
+            pending.lineNumbers.forEach(lineNumber -> progress.fail(lineNumber, customerId.getValue(), message));
+        }
+    }
+
+    // Một ledger entry cho mỗi customer trong chunk, cùng transaction với upsert
+    private void apply(Map<CustomerId, Money> amounts) {
+        creditEntryRepository.addCredits(amounts);
+        creditLedgerRepository.appendAll(amounts.entrySet().stream()
+                .map(entry -> CreditLedgerEntry.topUp(entry.getKey(), entry.getValue()))
+                .toList());
+    }
+
+    private static final class PendingCredit {
+        private Money total = Money.ZERO;
+        private final List<Long> lineNumbers = new ArrayList<>(1);
+
+        private void add(long lineNumber, Money amount) {
+            total = total.add(amount);
+            lineNumbers.add(lineNumber);
+        }
+    }
+
+    private final class ImportProgress {
+        private long totalRows;
+        private long appliedRows;
+        private long failedRows;
+        private final List<CreditImportError> errors = new ArrayList<>();
+
+        private void fail(long lineNumber, UUID customerId, String message) {
+            failedRows++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CreditImportError(lineNumber, customerId, message));
+            }
+        }
+    }
+}
@@ -2,17 +2,37 @@ package com.system.payment_application_service.handler;
 
 import com.system.payment_application_service.ports.input.CreditService;
 import com.system.payment_application_service.ports.output.CreditEntryRepository;
+import com.system.payment_application_service.ports.output.CreditHoldRepository;
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_application_service.dto.CreditHoldRequest;
+import com.system.payment_application_service.dto.CreditHoldResponse;
+import com.system.payment_application_service.dto.CreditImportResult;
+import com.system.payment_application_service.dto.CreditImportRow;
+import com.system.payment_application_service.dto.CreditLedgerEntryDto;
+import com.system.payment_application_service.dto.CreditLedgerResponse;
 import com.system.payment_application_service.dto.CreditResponse;
 import com.system.payment_application_service.dto.UpdateCreditRequest;
 import com.system.payment_domain_core.entity.CreditEntry;
+import com.system.payment_domain_core.entity.CreditHold;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
 import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
 import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -20,75 +40,241 @@ import java.util.UUID;
 @Slf4j
 public class CreditServiceImpl implements CreditService {
 
+    private static final int MAX_LEDGER_PAGE_SIZE = 500;
+
     private final CreditEntryRepository creditEntryRepository;
+    private final CreditHoldRepository creditHoldRepository;
+    private final CreditLedgerRepository creditLedgerRepository;
+    private final CreditHoldExpiryScheduler creditHoldExpiryScheduler;
+    private final CreditBalanceCache creditBalanceCache;
+    private final CreditImporter creditImporter;
+    private final TransactionOperations transactionOperations;
+    private final CustomerLockStripes customerLocks;
 
+    /**
+     * Không đặt @Transactional: cache hit không chạm tới Postgres. Cache miss đọc trong transaction ghi để đi
+     * primary; replica có thể chưa thấy lần ghi vừa invalidate cache và số dư cũ sẽ nằm trong cache cả TTL.
+     */
     @Override
-    @Transactional(readOnly = true)
     public CreditResponse getTotalCreditByCustomerId(UUID customerId) {
-        log.info("Retrieving total credit for customer: {}", customerId);
+        log.debug("Retrieving total credit for customer: {}", customerId);
 
-        CustomerId custId = new CustomerId(customerId);
-        CreditEntry creditEntry = creditEntryRepository.findByCustomerId(custId)
-                .orElseThrow(() -> new PaymentDomainException("Credit entry not found for customer: " + customerId));
-
-        return CreditResponse.builder()
-                .id(creditEntry.getId())
-                .customerId(creditEntry.getCustomerId().getValue())
-                .totalCredit(creditEntry.getTotalCredit())
-                .build();
+        return creditBalanceCache.get(customerId, id -> transactionOperations.execute(status -> {
+            CreditEntry creditEntry = creditEntryRepository.findByCustomerId(new CustomerId(id))
+                    .orElseThrow(() -> new PaymentDomainException("Credit entry not found for customer: " + id));
+            return toCreditResponse(creditEntry);
+        }));
     }
 
     @Override
-    @Transactional
     public CreditResponse updateTotalCredit(UpdateCreditRequest updateCreditRequest) {
         log.info("Updating total credit for customer: {} with amount: {}",
                 updateCreditRequest.getCustomerId(), updateCreditRequest.getTotalCredit());
 
         CustomerId customerId = new CustomerId(updateCreditRequest.getCustomerId());
-        CreditEntry creditEntry = creditEntryRepository.findByCustomerId(customerId)
-                .orElseGet(() -> createNewCreditEntry(customerId, updateCreditRequest.getTotalCredit()));
+        Money totalCredit = Money.of(updateCreditRequest.getTotalCredit());
+        return customerLocks.callLocked(List.of(customerId.getValue()), () -> transactionOperations.execute(status -> {
+            // Đặt lại giá trị tuyệt đối: giữ khoá dòng từ lúc đọc tới lúc commit để không ghi đè một lần trừ đồng thời
+            CreditEntry creditEntry = lockCreditEntry(customerId);
+            // Chênh lệch cho ledger lấy từ dòng đã khoá, không từ một lần đọc trước đó có thể đã cũ
+            Money previousCredit = creditEntry.getTotalCredit();
 
-        creditEntry.updateTotalCredit(updateCreditRequest.getTotalCredit());
+            creditEntry.updateTotalCredit(totalCredit);
 
-        CreditEntry savedCreditEntry = creditEntryRepository.save(creditEntry);
+            CreditEntry savedCreditEntry = creditEntryRepository.save(creditEntry);
+            // Ledger chỉ ghi phần chênh lệch để tổng các entry luôn bằng total_credit
+            Money delta = totalCredit.subtract(previousCredit);
+            if (!delta.isZero()) {
+                creditLedgerRepository.appendAll(List.of(CreditLedgerEntry.adjustment(customerId, delta)));
+            }
+            creditBalanceCache.invalidate(savedCreditEntry.getCustomerId().getValue());
 
-        return CreditResponse.builder()
-                .id(savedCreditEntry.getId())
-                .customerId(savedCreditEntry.getCustomerId().getValue())
-                .totalCredit(savedCreditEntry.getTotalCredit())
-                .build();
+            return toCreditResponse(savedCreditEntry);
+        }));
     }
 
     @Override
-    @Transactional
     public CreditResponse addCreditToCustomer(UUID customerId, BigDecimal amount) {
         log.info("Adding credit {} for customer: {}", amount, customerId);
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        Money credit = Money.of(amount);
+        if (!credit.isPositive()) {
             throw new PaymentDomainException("Credit amount must be positive for customer: " + customerId);
         }
 
         CustomerId custId = new CustomerId(customerId);
-        CreditEntry creditEntry = creditEntryRepository.findByCustomerId(custId)
-                .orElseGet(() -> createNewCreditEntry(custId, BigDecimal.ZERO));
+        return customerLocks.callLocked(List.of(customerId), () -> transactionOperations.execute(status -> {
+            // Cộng tương đối (total_credit + :amount) trong một câu upsert, không đọc rồi ghi đè số dư
+            creditEntryRepository.addCredits(Map.of(custId, credit));
+            creditLedgerRepository.appendAll(List.of(CreditLedgerEntry.topUp(custId, credit)));
+            creditBalanceCache.invalidate(customerId);
+
+            CreditEntry creditEntry = creditEntryRepository.findByCustomerId(custId)
+                    .orElseThrow(() -> new PaymentDomainException("Credit entry not found for customer: " + customerId));
+            return toCreditResponse(creditEntry);
+        }));
+    }
+
+    // Không mở transaction chung: mỗi chunk commit riêng để import lớn không giữ một transaction dài
+    @Override
+    public CreditImportResult importCredits(Iterator<CreditImportRow> rows) {
+        return creditImporter.importCredits(rows);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CreditLedgerResponse getCreditLedger(UUID customerId, Long before, int limit) {
+        if (limit < 1 || limit > MAX_LEDGER_PAGE_SIZE) {
+            throw new PaymentDomainException("Page size must be between 1 and " + MAX_LEDGER_PAGE_SIZE);
+        }
+        CustomerId custId = new CustomerId(customerId);
+
+        // Lấy thêm một dòng để biết còn trang sau hay không
+        List<CreditLedgerEntry> entries = creditLedgerRepository.findHistory(custId, before, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        List<CreditLedgerEntry> page = hasMore ? entries.subList(0, limit) : entries;
+
+        return CreditLedgerResponse.builder()
+                .customerId(customerId)
+                .ledgerBalance(creditLedgerRepository.balanceOf(custId))
+                .entries(page.stream().map(CreditLedgerEntryDto::fromCreditLedgerEntry).toList())
+                .nextBefore(hasMore ? page.get(page.size() - 1).getId() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public CreditHoldResponse holdCredit(CreditHoldRequest creditHoldRequest) {
+        log.info("Holding credit {} for order: {} of customer: {}", creditHoldRequest.getAmount(),
+                creditHoldRequest.getOrderId(), creditHoldRequest.getCustomerId());
+
+        Optional<CreditHold> activeHold = creditHoldRepository.findActiveByOrderId(creditHoldRequest.getOrderId());
+        if (activeHold.isPresent()) {
+            return existingHold(activeHold.get(), creditHoldRequest);
+        }
+
+        CustomerId customerId = new CustomerId(creditHoldRequest.getCustomerId());
+        CreditHold creditHold = CreditHold.createHold(customerId, creditHoldRequest.getOrderId(),
+                Money.of(creditHoldRequest.getAmount()), creditHoldExpiryScheduler.expiryFor(creditHoldRequest.getTtl()));
+
+        // held_credit là tổng các hold đang HELD: số dư khả dụng không cần quét bảng credit_hold
+        if (!creditEntryRepository.holdIfAvailable(customerId, creditHold.getAmount())) {
+            CreditEntry creditEntry = creditEntryRepository.findByCustomerId(customerId)
+                    .orElseThrow(() -> new PaymentDomainException("Credit entry not found for customer: " + customerId.getValue()));
+            throw new PaymentDomainException("Insufficient available credit for customer: " + customerId.getValue()
+                    + ". Available: " + creditEntry.getAvailableCredit() + ", Requested: " + creditHold.getAmount());
+        }
+
+        creditBalanceCache.invalidate(customerId.getValue());
+        CreditHold savedHold = creditHoldRepository.save(creditHold);
+        afterCommit(() -> creditHoldExpiryScheduler.schedule(savedHold));
+        return CreditHoldResponse.fromCreditHold(savedHold);
+    }
+
+    @Override
+    @Transactional
+    public CreditHoldResponse captureHold(UUID holdId) {
+        log.info("Capturing credit hold: {}", holdId);
+
+        CreditHold creditHold = findHold(holdId);
+        if (creditHold.isExpiredAt(ZonedDateTime.now())) {
+            throw new PaymentDomainException("Credit hold " + holdId + " has expired");
+        }
+        creditHold.capture();
+        settle(creditHold, CreditHoldStatus.CAPTURED);
+        if (!creditEntryRepository.captureHeld(creditHold.getCustomerId(), creditHold.getAmount())) {
+            throw new PaymentDomainException("Held credit is inconsistent for customer: " + creditHold.getCustomerId().getValue());
+        }
+        creditLedgerRepository.appendAll(List.of(
+                CreditLedgerEntry.holdCapture(creditHold.getCustomerId(), creditHold.getAmount(), creditHold.getId())));
+        creditBalanceCache.invalidate(creditHold.getCustomerId().getValue());
+        return CreditHoldResponse.fromCreditHold(creditHold);
+    }
+
+    @Override
+    @Transactional
+    public CreditHoldResponse releaseHold(UUID holdId) {
+        log.info("Releasing credit hold: {}", holdId);
+
+        CreditHold creditHold = findHold(holdId);
+        creditHold.release();
+        settle(creditHold, CreditHoldStatus.RELEASED);
+        if (!creditEntryRepository.releaseHeld(creditHold.getCustomerId(), creditHold.getAmount())) {
+            throw new PaymentDomainException("Held credit is inconsistent for customer: " + creditHold.getCustomerId().getValue());
+        }
+        creditBalanceCache.invalidate(creditHold.getCustomerId().getValue());
+        return CreditHoldResponse.fromCreditHold(creditHold);
+    }
+
+    @Override
+    @Transactional
+    public boolean expireHold(UUID holdId) {
+        Optional<CreditHold> creditHold = creditHoldRepository.findById(holdId);
+        if (creditHold.isEmpty() || creditHold.get().getStatus() != CreditHoldStatus.HELD
+                || !creditHoldRepository.transition(holdId, CreditHoldStatus.HELD, CreditHoldStatus.EXPIRED)) {
+            return false;
+        }
+        if (!creditEntryRepository.releaseHeld(creditHold.get().getCustomerId(), creditHold.get().getAmount())) {
+            throw new PaymentDomainException("Held credit is inconsistent for customer: " + creditHold.get().getCustomerId().getValue());
+        }
+        creditBalanceCache.invalidate(creditHold.get().getCustomerId().getValue());
+        log.info("Credit hold {} expired, released {} for customer: {}", holdId,
+                creditHold.get().getAmount(), creditHold.get().getCustomerId().getValue());
+        return true;
+    }
 
-        creditEntry.addCredit(amount);
+    private CreditHoldResponse existingHold(CreditHold creditHold, CreditHoldRequest creditHoldRequest) {
+        if (!creditHold.getCustomerId().getValue().equals(creditHoldRequest.getCustomerId())
+                || !creditHold.getAmount().equals(Money.of(creditHoldRequest.getAmount()))) {
+            throw new PaymentDomainException("Order " + creditHoldRequest.getOrderId() + " already has an active credit hold");
+        }
+        log.info("Order {} already has active credit hold: {}", creditHold.getOrderId(), creditHold.getId());
+        return CreditHoldResponse.fromCreditHold(creditHold);
+    }
 
-        CreditEntry savedCreditEntry = creditEntryRepository.save(creditEntry);
+    private CreditHold findHold(UUID holdId) {
+        return creditHoldRepository.findById(holdId)
+                .orElseThrow(() -> new PaymentDomainException("Credit hold not found: " + holdId));
+    }
 
+    // Chỉ một trong capture/release/expire thắng khi chạy đồng thời trên cùng hold
+    private void settle(CreditHold creditHold, CreditHoldStatus newStatus) {
+        if (!creditHoldRepository.transition(creditHold.getId(), CreditHoldStatus.HELD, newStatus)) {
+            throw new PaymentDomainException("Credit hold " + creditHold.getId() + " is no longer active");
+        }
+        afterCommit(() -> creditHoldExpiryScheduler.cancel(creditHold.getId()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private CreditResponse toCreditResponse(CreditEntry creditEntry) {
         return CreditResponse.builder()
-                .id(savedCreditEntry.getId())
-                .customerId(savedCreditEntry.getCustomerId().getValue())
-                .totalCredit(savedCreditEntry.getTotalCredit())
+                .id(creditEntry.getId())
+                .customerId(creditEntry.getCustomerId().getValue())
+                .totalCredit(creditEntry.getTotalCredit())
+                .heldCredit(creditEntry.getHeldCredit())
+                .availableCredit(creditEntry.getAvailableCredit())
                 .build();
     }
 
-    private CreditEntry createNewCreditEntry(CustomerId customerId, BigDecimal initialCredit) {
-        log.info("Creating new credit entry for customer: {} with initial credit: {}", customerId.getValue(), initialCredit);
-        return CreditEntry.createNewCreditEntry(
-                UUID.randomUUID(),
-                customerId,
-                initialCredit
-        );
+    // Customer chưa có credit entry thì tạo dòng 0 bằng upsert (không lỗi khi hai request cùng tạo), rồi khoá lại
+    private CreditEntry lockCreditEntry(CustomerId customerId) {
+        return creditEntryRepository.findByCustomerIdForUpdate(customerId).orElseGet(() -> {
+            log.info("Creating new credit entry for customer: {}", customerId.getValue());
+            creditEntryRepository.addCredits(Map.of(customerId, Money.ZERO));
+            return creditEntryRepository.findByCustomerIdForUpdate(customerId)
+                    .orElseThrow(() -> new PaymentDomainException("Credit entry not found for customer: " + customerId.getValue()));
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package com.system.payment_application_service.handler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks striped by customer id.
+ * <p>
+ * Serializes a customer's debits and credit updates within this instance; other instances still rely on
+ * the conditional UPDATEs and row locks in the database. Callers take the stripes before opening their
+ * transaction and run it inside {@link #callLocked}, so a waiter does not hold a pooled connection and the
+ * stripes are released only after the commit. Customers hashed to the same stripe queue behind each other.
+ * Called inside an already open transaction, the stripes are instead held until that transaction
+ * completes. Stripes are always taken in index order, so batches covering several customers cannot
+ * deadlock each other. One instance is shared by payments and credit updates of the same customer.
+ */
+@Component
+public class CustomerLockStripes {
+
+    private final ReentrantLock[] stripes;
+
+    public CustomerLockStripes(@Value("${payment.customer-lock-stripes:256}") int stripeCount) {
+        this.stripes = new ReentrantLock[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T callLocked(Collection<UUID> customerIds, Supplier<T> action) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (UUID customerId : customerIds) {
+            indexes.add(Math.floorMod(customerId.hashCode(), stripes.length));
+        }
+
+        for (Integer index : indexes) {
+            stripes[index].lock();
+        }
+        boolean releaseAfterTransaction = false;
+        try {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        unlock(indexes);
+                    }
+                });
+                releaseAfterTransaction = true;
+            }
+            return action.get();
+        } finally {
+            if (!releaseAfterTransaction) {
+                unlock(indexes);
+            }
+        }
+    }
+
+    private void unlock(TreeSet<Integer> indexes) {
+        for (Integer index : indexes.descendingSet()) {
+            stripes[index].unlock();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.system.payment_application_service.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel.
+ * <p>
+ * Level 0 has {@code wheelSize} buckets of {@code tickMs}; each higher level has buckets as wide as
+ * the whole level below. Scheduling and cancelling are O(1) (a bucket is an intrusive doubly linked
+ * list), and each tick only touches the bucket that just elapsed, plus - once per revolution of a
+ * level - the next bucket of the level above, whose timers are redistributed downwards. Timers fire
+ * at the first tick at or after their deadline, never early.
+ * <p>
+ * Not thread-safe; callers synchronize.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Bucket<T>[]> levels = new ArrayList<>();
+    private final List<Long> levelTickMs = new ArrayList<>();
+    // Mọi timer có deadline < currentTime đã được trả về
+    private long currentTime;
+    private int size;
+
+    public HierarchicalTimerWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+        addLevel();
+    }
+
+    /**
+     * Schedules {@code item} to fire at {@code deadlineMs}. A deadline that has already passed fires
+     * on the next {@link #advance}.
+     */
+    public Timeout<T> schedule(T item, long deadlineMs) {
+        Timeout<T> timeout = new Timeout<>(this, item, Math.max(deadlineMs, currentTime));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel to {@code nowMs} and returns the items whose deadline has passed, in tick order.
+     */
+    public List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMs <= nowMs) {
+            // Bucket [currentTime, currentTime + tick) đã trôi qua hoàn toàn
+            drain(levels.get(0)[slot(currentTime, 0)], expired);
+            currentTime += tickMs;
+            cascade();
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    private void place(Timeout<T> timeout) {
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                addLevel();
+            }
+            long levelTick = levelTickMs.get(level);
+            if (timeout.deadline / levelTick - currentTime / levelTick < wheelSize) {
+                levels.get(level)[slot(timeout.deadline, level)].add(timeout);
+                return;
+            }
+        }
+    }
+
+    private void cascade() {
+        for (int level = levels.size() - 1; level >= 1; level--) {
+            long levelTick = levelTickMs.get(level);
+            if (currentTime % levelTick != 0) {
+                continue;
+            }
+            Bucket<T> bucket = levels.get(level)[slot(currentTime, level)];
+            Timeout<T> timeout = bucket.head;
+            bucket.head = null;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = null;
+                place(timeout);
+                timeout = next;
+            }
+        }
+    }
+
+    private void drain(Bucket<T> bucket, List<T> expired) {
+        Timeout<T> timeout = bucket.head;
+        bucket.head = null;
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            timeout.fired = true;
+            size--;
+            expired.add(timeout.item);
+            timeout = next;
+        }
+    }
+
+    private int slot(long timeMs, int level) {
+        return (int) Math.floorMod(timeMs / levelTickMs.get(level), (long) wheelSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addLevel() {
+        long levelTick = levels.isEmpty() ? tickMs : Math.multiplyExact(levelTickMs.get(levels.size() - 1), wheelSize);
+        Bucket<T>[] buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        levels.add(buckets);
+        levelTickMs.add(levelTick);
+    }
+
+    public static final class Timeout<T> {
+        private final HierarchicalTimerWheel<T> wheel;
+        private final T item;
+        private final long deadline;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean fired;
+
+        private Timeout(HierarchicalTimerWheel<T> wheel, T item, long deadline) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * @return false if the timer already fired or was cancelled
+         */
+        public boolean cancel() {
+            if (fired || bucket == null) {
+                return false;
+            }
+            bucket.remove(this);
+            wheel.size--;
+            return true;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.system.payment_application_service.handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.system.payment_application_service.dto.IdempotentPaymentRecord;
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * In-process front of the payment_idempotency table.
+ * <p>
+ * Recently stored responses are replayed from a small Caffeine cache. Requests that arrive while
+ * the same key is still executing wait for that execution and receive its outcome (response or
+ * exception) instead of running again.
+ */
+@Component
+public class PaymentIdempotencyCache {
+
+    private final Cache<String, IdempotentPaymentRecord> completed;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public PaymentIdempotencyCache(MeterRegistry meterRegistry,
+                                   @Value("${payment.idempotency.cache-size:10000}") long cacheSize,
+                                   @Value("${payment.idempotency.cache-ttl:PT10M}") Duration cacheTtl) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "payment.idempotency");
+    }
+
+    /**
+     * Returns the response for {@code idempotencyKey}, running {@code execution} only if no
+     * response is cached and no other thread is executing the key.
+     */
+    public PaymentProcessResponse execute(String idempotencyKey, String requestFingerprint,
+                                          Supplier<IdempotentPaymentRecord> execution) {
+        IdempotentPaymentRecord cached = completed.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return replay(cached, requestFingerprint);
+        }
+
+        InFlight mine = new InFlight(requestFingerprint);
+        InFlight running = inFlight.putIfAbsent(idempotencyKey, mine);
+        if (running != null) {
+            requireSameRequest(idempotencyKey, running.requestFingerprint, requestFingerprint);
+            return await(running.result);
+        }
+
+        try {
+            IdempotentPaymentRecord record = execution.get();
+            completed.put(idempotencyKey, record);
+            PaymentProcessResponse response = replay(record, requestFingerprint);
+            mine.result.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, mine);
+        }
+    }
+
+    private static PaymentProcessResponse replay(IdempotentPaymentRecord record, String requestFingerprint) {
+        requireSameRequest(record.getIdempotencyKey(), record.getRequestFingerprint(), requestFingerprint);
+        return record.getResponse();
+    }
+
+    private static void requireSameRequest(String idempotencyKey, String storedFingerprint, String requestFingerprint) {
+        if (!storedFingerprint.equals(requestFingerprint)) {
+            throw new PaymentDomainException("Idempotency-Key " + idempotencyKey + " was already used for a different request");
+        }
+    }
+
+    private static PaymentProcessResponse await(CompletableFuture<PaymentProcessResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class InFlight {
+        private final String requestFingerprint;
+        private final CompletableFuture<PaymentProcessResponse> result = new CompletableFuture<>();
+
+        private InFlight(String requestFingerprint) {
+            this.requestFingerprint = requestFingerprint;
+        }
+    }
+}
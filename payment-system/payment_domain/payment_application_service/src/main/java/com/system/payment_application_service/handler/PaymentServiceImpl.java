@@ -2,168 +2,393 @@ package com.system.payment_application_service.handler;
 
 import com.system.payment_application_service.ports.input.PaymentService;
 import com.system.payment_application_service.ports.output.CreditEntryRepository;
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_application_service.ports.output.PaymentIdempotencyRepository;
 import com.system.payment_application_service.ports.output.PaymentRepository;
 import com.system.payment_application_service.dto.*;
 import com.system.payment_domain_core.entity.CreditEntry;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
 import com.system.payment_domain_core.entity.Payment;
 import com.system.payment_domain_core.exception.PaymentDomainException;
 import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
 import com.system.payment_domain_core.valueobject.PaymentStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final PaymentRepository paymentRepository;
     private final CreditEntryRepository creditEntryRepository;
+    private final CreditLedgerRepository creditLedgerRepository;
+    private final CreditBalanceCache creditBalanceCache;
+    private final PaymentIdempotencyRepository paymentIdempotencyRepository;
+    private final PaymentIdempotencyCache paymentIdempotencyCache;
+    private final TransactionOperations transactionOperations;
+    private final CustomerLockStripes customerLocks;
 
+    // Lấy stripe trước khi mở transaction: request chờ cùng customer không giữ connection
     @Override
-    @Transactional
     public PaymentProcessResponse processPayment(PaymentProcessRequest paymentProcessRequest) {
         log.info("Processing payment for order: {} and customer: {} with amount: {}",
                 paymentProcessRequest.getOrderId(), paymentProcessRequest.getCustomerId(), paymentProcessRequest.getPrice());
 
         CustomerId customerId = new CustomerId(paymentProcessRequest.getCustomerId());
+        Money price = requirePrice(paymentProcessRequest);
 
-        // Check if completed payment already exists for this order
-        paymentRepository.findByOrderId(paymentProcessRequest.getOrderId())
-                .ifPresent(existingPayment -> {
-                    if (existingPayment.getPaymentStatus() == PaymentStatus.COMPLETED) {
-                        throw new PaymentDomainException("Payment already completed for order: " + paymentProcessRequest.getOrderId());
-                    }
-                });
+        return customerLocks.callLocked(List.of(customerId.getValue()), () -> transactionOperations.execute(
+                status -> debitAndRecord(paymentProcessRequest, customerId, price)));
+    }
 
-        // Get customer credit entry
-        CreditEntry creditEntry = creditEntryRepository.findByCustomerId(customerId)
-                .orElseThrow(() -> new PaymentDomainException("Credit entry not found for customer: " + paymentProcessRequest.getCustomerId()));
+    /**
+     * Không đặt @Transactional: các request trùng key chờ kết quả ở ngoài transaction (không giữ
+     * connection), còn lần thực thi duy nhất chạy trong transactionOperations.
+     */
+    @Override
+    public PaymentProcessResponse processPayment(PaymentProcessRequest paymentProcessRequest, String idempotencyKey) {
+        Money price = requirePrice(paymentProcessRequest);
+        String fingerprint = requestFingerprint(paymentProcessRequest);
+        return paymentIdempotencyCache.execute(idempotencyKey, fingerprint,
+                () -> processOnce(paymentProcessRequest, price, idempotencyKey, fingerprint));
+    }
+
+    private IdempotentPaymentRecord processOnce(PaymentProcessRequest paymentProcessRequest, Money price,
+                                                String idempotencyKey, String fingerprint) {
+        CustomerId customerId = new CustomerId(paymentProcessRequest.getCustomerId());
+        try {
+            // Stripe được nhả sau khi transaction commit, nên lần trừ tiền kế tiếp của customer thấy số dư mới
+            return customerLocks.callLocked(List.of(customerId.getValue()), () -> transactionOperations.execute(
+                    status -> paymentIdempotencyRepository.findByKey(idempotencyKey)
+                            .orElseGet(() -> {
+                                log.info("Processing payment for order: {} with idempotency key: {}",
+                                        paymentProcessRequest.getOrderId(), idempotencyKey);
+                                PaymentProcessResponse response = debitAndRecord(paymentProcessRequest, customerId, price);
+                                IdempotentPaymentRecord record = new IdempotentPaymentRecord(idempotencyKey, fingerprint, response);
+                                if (!paymentIdempotencyRepository.insertIfAbsent(record)) {
+                                    // Instance khác vừa commit cùng key: rollback lần trừ tiền này và trả kết quả đã lưu
+                                    throw new IdempotencyKeyTakenException();
+                                }
+                                return record;
+                            })));
+        } catch (IdempotencyKeyTakenException e) {
+            // Bản ghi vừa được instance khác commit: đọc trong transaction ghi để đi primary, replica có thể chưa có
+            return transactionOperations.execute(status -> paymentIdempotencyRepository.findByKey(idempotencyKey))
+                    .orElseThrow(() -> new PaymentDomainException("Idempotency-Key " + idempotencyKey + " could not be resolved"));
+        }
+    }
+
+    private static String requestFingerprint(PaymentProcessRequest request) {
+        return request.getOrderId() + "|" + request.getCustomerId() + "|" + request.getPrice().stripTrailingZeros().toPlainString();
+    }
+
+    private static final class IdempotencyKeyTakenException extends RuntimeException {
+        private IdempotencyKeyTakenException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private PaymentProcessResponse debitAndRecord(PaymentProcessRequest paymentProcessRequest, CustomerId customerId, Money price) {
+        // Check if completed payment already exists for this order
+        if (paymentRepository.existsCompletedByOrderId(paymentProcessRequest.getOrderId())) {
+            throw new PaymentDomainException("Payment already completed for order: " + paymentProcessRequest.getOrderId());
+        }
 
-        // Create new payment
         Payment payment = Payment.createPayment(
                 paymentProcessRequest.getOrderId(),
                 customerId,
-                paymentProcessRequest.getPrice()
+                price
         );
 
-        try {
-            // Check if customer has sufficient credit and process payment
-            if (creditEntry.hasSufficientCredit(paymentProcessRequest.getPrice())) {
-                    
-                // Complete the payment
-                payment.processPayment(creditEntry.getTotalCredit());
-                    
-                // Subtract credit from customer account
-                creditEntry.subtractCredit(paymentProcessRequest.getPrice());
-                // Save credit entry and payment
-                creditEntryRepository.save(creditEntry);
-                Payment savedPayment = paymentRepository.save(payment);
-
-                log.info("Payment completed successfully. Payment ID: {}, Remaining credit: {}",
-                        savedPayment.getId().getValue(), creditEntry.getTotalCredit());
-
-                return PaymentProcessResponse.builder()
-                        .paymentId(savedPayment.getId().getValue())
-                        .orderId(savedPayment.getOrderId())
-                        .customerId(savedPayment.getCustomerId().getValue())
-                        .price(savedPayment.getPrice())
-                        .status(PaymentStatus.COMPLETED)
-                        .message("Payment processed successfully")
-                        .build();
+        // Kiểm tra và trừ credit bằng một câu UPDATE có điều kiện, không read-check-write
+        if (creditEntryRepository.debitIfSufficient(customerId, price)) {
+            creditBalanceCache.invalidate(customerId.getValue());
+            payment.complete();
+            Payment savedPayment = paymentRepository.save(payment);
+            if (price.isPositive()) {
+                creditLedgerRepository.appendAll(List.of(CreditLedgerEntry.paymentDebit(
+                        customerId, price, savedPayment.getId().getValue())));
+            }
+
+            log.info("Payment completed successfully. Payment ID: {}", savedPayment.getId().getValue());
 
-            } else {
-                // Fail the payment due to insufficient credit
-                payment.fail();
-                paymentRepository.save(payment);
+            return PaymentProcessResponse.builder()
+                    .paymentId(savedPayment.getId().getValue())
+                    .orderId(savedPayment.getOrderId())
+                    .customerId(savedPayment.getCustomerId().getValue())
+                    .price(savedPayment.getPrice().toBigDecimal())
+                    .status(PaymentStatus.COMPLETED)
+                    .message("Payment processed successfully")
+                    .build();
+        }
 
-                log.warn("Payment failed due to insufficient credit. Order ID: {}, Available: {}, Required: {}",
-                        paymentProcessRequest.getOrderId(), creditEntry.getTotalCredit(), paymentProcessRequest.getPrice());
+        // Không trừ được: hoặc không có credit entry, hoặc không đủ credit
+        CreditEntry creditEntry = creditEntryRepository.findByCustomerId(customerId)
+                .orElseThrow(() -> new PaymentDomainException("Credit entry not found for customer: " + paymentProcessRequest.getCustomerId()));
 
-                return PaymentProcessResponse.builder()
-                        .paymentId(payment.getId().getValue())
-                        .orderId(payment.getOrderId())
-                        .customerId(payment.getCustomerId().getValue())
-                        .price(payment.getPrice())
+        payment.fail();
+        paymentRepository.save(payment);
+
+        log.warn("Payment failed due to insufficient credit. Order ID: {}, Available: {}, Required: {}",
+                paymentProcessRequest.getOrderId(), creditEntry.getAvailableCredit(), price);
+
+        return PaymentProcessResponse.builder()
+                .paymentId(payment.getId().getValue())
+                .orderId(payment.getOrderId())
+                .customerId(payment.getCustomerId().getValue())
+                .price(payment.getPrice().toBigDecimal())
+                .status(PaymentStatus.FAILED)
+                .message(insufficientCreditMessage(creditEntry.getAvailableCredit(), price))
+                .build();
+    }
+
+    @Override
+    public List<PaymentProcessResponse> processPayments(List<PaymentProcessRequest> paymentProcessRequests) {
+        log.info("Processing payment batch of {} requests", paymentProcessRequests.size());
+
+        Set<UUID> lockedCustomerIds = paymentProcessRequests.stream()
+                .map(PaymentProcessRequest::getCustomerId)
+                .collect(Collectors.toSet());
+        return customerLocks.callLocked(lockedCustomerIds,
+                () -> transactionOperations.execute(status -> settleBatch(paymentProcessRequests)));
+    }
+
+    private List<PaymentProcessResponse> settleBatch(List<PaymentProcessRequest> paymentProcessRequests) {
+        // Grouped lookups: one query for all credit entries, one for all existing payments
+        Set<CustomerId> customerIds = paymentProcessRequests.stream()
+                .map(request -> new CustomerId(request.getCustomerId()))
+                .collect(Collectors.toSet());
+        Map<CustomerId, CreditEntry> creditEntries = creditEntryRepository.findByCustomerIds(customerIds).stream()
+                .collect(Collectors.toMap(CreditEntry::getCustomerId, Function.identity()));
+
+        Set<UUID> orderIds = paymentProcessRequests.stream()
+                .map(PaymentProcessRequest::getOrderId)
+                .collect(Collectors.toSet());
+        Set<UUID> completedOrderIds = paymentRepository.findByOrderIds(orderIds).stream()
+                .filter(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETED)
+                .map(Payment::getOrderId)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<Payment> payments = new ArrayList<>();
+        Map<CustomerId, List<Integer>> debitsByCustomer = new LinkedHashMap<>();
+        List<PaymentProcessResponse> responses = new ArrayList<>(paymentProcessRequests.size());
+
+        for (PaymentProcessRequest request : paymentProcessRequests) {
+            try {
+                responses.add(settlePayment(request, requirePrice(request), creditEntries, completedOrderIds, payments));
+                if (responses.get(responses.size() - 1).getStatus() == PaymentStatus.COMPLETED) {
+                    debitsByCustomer.computeIfAbsent(new CustomerId(request.getCustomerId()), id -> new ArrayList<>())
+                            .add(responses.size() - 1);
+                }
+            } catch (PaymentDomainException e) {
+                log.warn("Payment rejected in batch for order: {} - {}", request.getOrderId(), e.getMessage());
+                responses.add(PaymentProcessResponse.builder()
+                        .orderId(request.getOrderId())
+                        .customerId(request.getCustomerId())
+                        .price(request.getPrice())
                         .status(PaymentStatus.FAILED)
-                        .message(String.format("Insufficient credit. Available: %.2f, Required: %.2f",
-                                creditEntry.getTotalCredit(), paymentProcessRequest.getPrice()))
-                        .build();
+                        .message(e.getMessage())
+                        .build());
             }
+        }
 
-        } catch (PaymentDomainException e) {
-            // Mark payment as failed if any domain rule violation occurs
-            payment.fail();
-            paymentRepository.save(payment);
-            throw e;
+        applyDebits(debitsByCustomer, responses, payments);
+        creditBalanceCache.invalidateAll(debitsByCustomer.keySet().stream().map(CustomerId::getValue).toList());
+        paymentRepository.saveAll(payments);
+        // Một entry cho mỗi payment (không phải tổng theo customer) để ledger truy được về từng payment
+        List<CreditLedgerEntry> debits = payments.stream()
+                .filter(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETED && payment.getPrice().isPositive())
+                .map(payment -> CreditLedgerEntry.paymentDebit(payment.getCustomerId(), payment.getPrice(),
+                        payment.getId().getValue()))
+                .toList();
+        if (!debits.isEmpty()) {
+            creditLedgerRepository.appendAll(debits);
         }
+
+        log.info("Payment batch settled. Requests: {}, Payments stored: {}, Customers debited: {}",
+                paymentProcessRequests.size(), payments.size(), debitsByCustomer.size());
+        return responses;
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public PaymentGroupByStatusResponse getPaymentsGroupByStatus(UUID customerId) {
-        log.info("Getting payments grouped by status for customer: {}", customerId);
-
-        List<Payment> payments = paymentRepository.findByCustomerIdOptional(customerId);
-
-        if (payments.isEmpty()) {
-            log.info("No payments found for customer: {}", customerId);
-            return PaymentGroupByStatusResponse.builder()
-                    .customerId(customerId)
-                    .totalCount(0)
-                    .totalAmount(BigDecimal.ZERO)
-                    .statusGroups(List.of())
+    /**
+     * Debits each customer's batch total with one conditional UPDATE (customers in id order, so two
+     * batches never lock credit rows in opposite order). If the balance changed since it was read,
+     * the customer's payments are debited one by one and those no longer covered are failed.
+     */
+    private void applyDebits(Map<CustomerId, List<Integer>> debitsByCustomer,
+                             List<PaymentProcessResponse> responses,
+                             List<Payment> payments) {
+        Map<UUID, Integer> paymentIndexByOrderId = new HashMap<>();
+        for (int i = 0; i < payments.size(); i++) {
+            paymentIndexByOrderId.put(payments.get(i).getOrderId(), i);
+        }
+
+        debitsByCustomer.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(CustomerId::getValue)))
+                .forEach(entry -> {
+                    CustomerId customerId = entry.getKey();
+                    Money total = Money.ZERO;
+                    for (Integer index : entry.getValue()) {
+                        Payment payment = payments.get(paymentIndexByOrderId.get(responses.get(index).getOrderId()));
+                        total = total.add(payment.getPrice());
+                    }
+                    if (creditEntryRepository.debitIfSufficient(customerId, total)) {
+                        return;
+                    }
+
+                    log.warn("Credit of customer {} changed during batch, debiting payments individually", customerId.getValue());
+                    for (Integer index : entry.getValue()) {
+                        PaymentProcessResponse completed = responses.get(index);
+                        int paymentIndex = paymentIndexByOrderId.get(completed.getOrderId());
+                        Payment payment = payments.get(paymentIndex);
+                        if (creditEntryRepository.debitIfSufficient(customerId, payment.getPrice())) {
+                            continue;
+                        }
+                        payments.set(paymentIndex, new Payment(payment.getId(), payment.getOrderId(), customerId,
+                                payment.getPrice(), PaymentStatus.FAILED, payment.getCreatedAt()));
+                        responses.set(index, PaymentProcessResponse.builder()
+                                .paymentId(completed.getPaymentId())
+                                .orderId(completed.getOrderId())
+                                .customerId(completed.getCustomerId())
+                                .price(completed.getPrice())
+                                .status(PaymentStatus.FAILED)
+                                .message("Insufficient credit for customer: " + customerId.getValue())
+                                .build());
+                    }
+                });
+    }
+
+    private PaymentProcessResponse settlePayment(PaymentProcessRequest request,
+                                                 Money price,
+                                                 Map<CustomerId, CreditEntry> creditEntries,
+                                                 Set<UUID> completedOrderIds,
+                                                 List<Payment> payments) {
+        if (completedOrderIds.contains(request.getOrderId())) {
+            throw new PaymentDomainException("Payment already completed for order: " + request.getOrderId());
+        }
+
+        CustomerId customerId = new CustomerId(request.getCustomerId());
+        CreditEntry creditEntry = creditEntries.get(customerId);
+        if (creditEntry == null) {
+            throw new PaymentDomainException("Credit entry not found for customer: " + request.getCustomerId());
+        }
+
+        Payment payment = Payment.createPayment(request.getOrderId(), customerId, price);
+
+        // Số dư trong bộ nhớ chỉ để quyết định trong batch; ghi DB qua applyDebits
+        if (creditEntry.hasSufficientCredit(price)) {
+            payment.processPayment(creditEntry.getAvailableCredit());
+            creditEntry.subtractCredit(price);
+            completedOrderIds.add(request.getOrderId());
+            payments.add(payment);
+
+            return PaymentProcessResponse.builder()
+                    .paymentId(payment.getId().getValue())
+                    .orderId(payment.getOrderId())
+                    .customerId(customerId.getValue())
+                    .price(payment.getPrice().toBigDecimal())
+                    .status(PaymentStatus.COMPLETED)
+                    .message("Payment processed successfully")
                     .build();
         }
 
-        // Group payments by status
-        Map<PaymentStatus, List<Payment>> paymentsByStatus = payments.stream()
-                .collect(Collectors.groupingBy(Payment::getPaymentStatus));
-
-        // Create status groups
-        List<PaymentStatusGroupDto> statusGroups = paymentsByStatus.entrySet().stream()
-                .map(entry -> {
-                    PaymentStatus status = entry.getKey();
-                    List<Payment> statusPayments = entry.getValue();
-
-                    // Create payment summaries
-                    List<PaymentSummaryDto> paymentSummaries = statusPayments.stream()
-                            .map(payment -> PaymentSummaryDto.builder()
-                                    .paymentId(payment.getId().getValue())
-                                    .orderId(payment.getOrderId())
-                                    .customerId(payment.getCustomerId().getValue())
-                                    .price(payment.getPrice())
-                                    .status(payment.getPaymentStatus())
-                                    .createdAt(payment.getCreatedAt())
-                                    .build())
-                            .collect(Collectors.toList());
-
-                    // Calculate total amount for this status
-                    BigDecimal totalAmount = statusPayments.stream()
-                            .map(Payment::getPrice)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    return PaymentStatusGroupDto.builder()
-                            .status(status)
-                            .count(statusPayments.size())
-                            .totalAmount(totalAmount)
-                            .payments(paymentSummaries)
-                            .build();
-                })
-                .collect(Collectors.toList());
-
-        // Calculate overall statistics
-        int totalCount = payments.size();
-        BigDecimal totalAmount = payments.stream()
-                .map(Payment::getPrice)
+        payment.fail();
+        payments.add(payment);
+
+        return PaymentProcessResponse.builder()
+                .paymentId(payment.getId().getValue())
+                .orderId(payment.getOrderId())
+                .customerId(customerId.getValue())
+                .price(payment.getPrice().toBigDecimal())
+                .status(PaymentStatus.FAILED)
+                .message(insufficientCreditMessage(creditEntry.getAvailableCredit(), price))
+                .build();
+    }
+
+    // Chuyển sang Money một lần cho cả request; số lẻ dưới 1 cent bị từ chối thay vì để DB làm tròn
+    private static Money requirePrice(PaymentProcessRequest request) {
+        // Số âm qua câu UPDATE sẽ thành cộng credit
+        if (request.getPrice() == null || request.getPrice().signum() < 0) {
+            throw new PaymentDomainException("Payment amount cannot be negative for order: " + request.getOrderId());
+        }
+        return Money.of(request.getPrice());
+    }
+
+    private static String insufficientCreditMessage(Money available, Money required) {
+        return "Insufficient credit. Available: " + available + ", Required: " + required;
+    }
+
+    /**
+     * Không readOnly: vừa commit ở instance khác thì replica có thể chưa thấy, phải đọc từ primary.
+     */
+    @Override
+    @Transactional
+    public Optional<PaymentProcessResponse> findCompletedPayment(UUID orderId) {
+        return paymentRepository.findByOrderIds(List.of(orderId)).stream()
+                .filter(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETED)
+                .findFirst()
+                .map(payment -> PaymentProcessResponse.builder()
+                        .paymentId(payment.getId().getValue())
+                        .orderId(payment.getOrderId())
+                        .customerId(payment.getCustomerId().getValue())
+                        .price(payment.getPrice().toBigDecimal())
+                        .status(PaymentStatus.COMPLETED)
+                        .message("Payment already completed")
+                        .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentGroupByStatusResponse getPaymentsGroupByStatus(UUID customerId, boolean includePayments) {
+        log.info("Getting payments grouped by status for customer: {} (includePayments: {})", customerId, includePayments);
+
+        // Tổng theo status đọc từ bảng aggregate: O(số status), không phụ thuộc lịch sử thanh toán
+        List<PaymentStatusTotal> totals = paymentRepository.sumByStatus(customerId).stream()
+                .sorted(Comparator.comparing(PaymentStatusTotal::getStatus))
+                .toList();
+
+        Map<PaymentStatus, List<PaymentSummaryDto>> summariesByStatus = includePayments && !totals.isEmpty()
+                ? paymentRepository.findByCustomerIdOptional(customerId).stream()
+                        .collect(Collectors.groupingBy(Payment::getPaymentStatus,
+                                Collectors.mapping(this::toPaymentSummary, Collectors.toList())))
+                : Map.of();
+
+        List<PaymentStatusGroupDto> statusGroups = totals.stream()
+                .map(total -> PaymentStatusGroupDto.builder()
+                        .status(total.getStatus())
+                        .count(Math.toIntExact(total.getCount()))
+                        .totalAmount(total.getTotalAmount())
+                        .payments(includePayments ? summariesByStatus.getOrDefault(total.getStatus(), List.of()) : null)
+                        .build())
+                .toList();
+
+        int totalCount = Math.toIntExact(totals.stream().mapToLong(PaymentStatusTotal::getCount).sum());
+        BigDecimal totalAmount = totals.stream()
+                .map(PaymentStatusTotal::getTotalAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         log.info("Found {} payments for customer: {} with total amount: {}",
@@ -176,4 +401,56 @@ public class PaymentServiceImpl implements PaymentService {
                 .statusGroups(statusGroups)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentPageResponse listPayments(UUID customerId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new PaymentDomainException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PaymentCursor after = cursor == null || cursor.isBlank() ? null : PaymentCursor.decode(cursor);
+
+        // Lấy thêm một dòng để biết còn trang sau hay không
+        List<Payment> payments = paymentRepository.findPage(customerId, after, limit + 1);
+        boolean hasMore = payments.size() > limit;
+        List<Payment> page = hasMore ? payments.subList(0, limit) : payments;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Payment last = page.get(page.size() - 1);
+            nextCursor = new PaymentCursor(last.getCreatedAt(), last.getId().getValue()).encode();
+        }
+        return PaymentPageResponse.builder()
+                .payments(page.stream().map(this::toPaymentSummary).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPayments(UUID customerId, Consumer<PaymentSummaryDto> sink) {
+        log.info("Exporting payments for customer: {}", customerId);
+
+        long exported = 0;
+        try (Stream<Payment> payments = paymentRepository.streamByCustomerIdOptional(customerId)) {
+            Iterator<Payment> iterator = payments.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(toPaymentSummary(iterator.next()));
+                exported++;
+            }
+        }
+        log.info("Exported {} payments for customer: {}", exported, customerId);
+        return exported;
+    }
+
+    private PaymentSummaryDto toPaymentSummary(Payment payment) {
+        return PaymentSummaryDto.builder()
+                .paymentId(payment.getId().getValue())
+                .orderId(payment.getOrderId())
+                .customerId(payment.getCustomerId().getValue())
+                .price(payment.getPrice())
+                .status(payment.getPaymentStatus())
+                .createdAt(payment.getCreatedAt())
+                .build();
+    }
+}
@@ -1,8 +1,14 @@
 package com.system.payment_application_service.ports.input;
 
+import com.system.payment_application_service.dto.CreditHoldRequest;
+import com.system.payment_application_service.dto.CreditHoldResponse;
+import com.system.payment_application_service.dto.CreditImportResult;
+import com.system.payment_application_service.dto.CreditImportRow;
+import com.system.payment_application_service.dto.CreditLedgerResponse;
 import com.system.payment_application_service.dto.UpdateCreditRequest;
 import com.system.payment_application_service.dto.CreditResponse;
 
+import java.util.Iterator;
 import java.util.UUID;
 
 public interface CreditService {
@@ -12,4 +18,35 @@ public interface CreditService {
     CreditResponse updateTotalCredit(UpdateCreditRequest updateCreditRequest);
 
     CreditResponse addCreditToCustomer(UUID customerId, java.math.BigDecimal amount);
-}
\ No newline at end of file
+
+    /**
+     * Adds credit for every valid row, reading {@code rows} once. Rows are applied in chunks, each in
+     * its own transaction, so a failure only affects the rows it is reported for.
+     */
+    CreditImportResult importCredits(Iterator<CreditImportRow> rows);
+
+    /**
+     * One page of the customer's credit movements, newest first, with the balance rebuilt from the
+     * ledger. Pass the previous page's {@code nextBefore} to continue; null starts from the newest.
+     */
+    CreditLedgerResponse getCreditLedger(UUID customerId, Long before, int limit);
+
+    /**
+     * Reserves credit for an order. Holding again for an order that already has an active hold
+     * returns that hold.
+     */
+    CreditHoldResponse holdCredit(CreditHoldRequest creditHoldRequest);
+
+    /** Debits the held amount and closes the hold. */
+    CreditHoldResponse captureHold(UUID holdId);
+
+    /** Returns the held amount to the available balance and closes the hold. */
+    CreditHoldResponse releaseHold(UUID holdId);
+
+    /**
+     * Releases the hold if it is still active.
+     *
+     * @return false if the hold was already captured, released or expired
+     */
+    boolean expireHold(UUID holdId);
+}
@@ -1,12 +1,57 @@
 package com.system.payment_application_service.ports.input;
 
 import com.system.payment_application_service.dto.PaymentGroupByStatusResponse;
+import com.system.payment_application_service.dto.PaymentPageResponse;
 import com.system.payment_application_service.dto.PaymentProcessRequest;
 import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_application_service.dto.PaymentSummaryDto;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface PaymentService {
     PaymentProcessResponse processPayment(PaymentProcessRequest paymentProcessRequest);
-    PaymentGroupByStatusResponse getPaymentsGroupByStatus(UUID customerId);
+
+    /**
+     * Processes the payment at most once per {@code idempotencyKey}. A retry with the same key gets
+     * the stored response; concurrent requests with the same key share one execution. Reusing a key
+     * for a different request is rejected.
+     */
+    PaymentProcessResponse processPayment(PaymentProcessRequest paymentProcessRequest, String idempotencyKey);
+
+    /**
+     * Settles a batch of payments in a single transaction.
+     * Returns one response per request, in request order; a request that violates a domain rule
+     * is reported as FAILED without affecting the rest of the batch.
+     */
+    List<PaymentProcessResponse> processPayments(List<PaymentProcessRequest> paymentProcessRequests);
+
+    /**
+     * The COMPLETED payment of {@code orderId}, if any, read from the primary. Lets a redelivered
+     * request be answered with the original outcome instead of being rejected.
+     */
+    Optional<PaymentProcessResponse> findCompletedPayment(UUID orderId);
+
+    /**
+     * Count and total per status for one customer, or for all customers when {@code customerId} is
+     * null. Individual payments are only loaded when {@code includePayments} is true; otherwise each
+     * group's {@code payments} is null.
+     */
+    PaymentGroupByStatusResponse getPaymentsGroupByStatus(UUID customerId, boolean includePayments);
+
+    /**
+     * One page of payments ordered by (createdAt, paymentId). Pass the previous page's
+     * {@code nextCursor} to continue; a null cursor starts from the oldest payment.
+     */
+    PaymentPageResponse listPayments(UUID customerId, String cursor, int limit);
+
+    /**
+     * Streams every payment, ordered by (createdAt, paymentId), to {@code sink} without holding
+     * them in memory.
+     *
+     * @return the number of payments exported
+     */
+    long exportPayments(UUID customerId, Consumer<PaymentSummaryDto> sink);
 }
\ No newline at end of file
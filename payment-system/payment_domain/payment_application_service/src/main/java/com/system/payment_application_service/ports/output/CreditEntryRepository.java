@@ -2,10 +2,45 @@ package com.system.payment_application_service.ports.output;
 
 import com.system.payment_domain_core.entity.CreditEntry;
 import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface CreditEntryRepository {
     Optional<CreditEntry> findByCustomerId(CustomerId customerId);
+
+    /**
+     * Loads the credit entry and locks its row until the current transaction ends, so no debit,
+     * hold or top-up can change the balance in between. Must be called inside a transaction.
+     */
+    Optional<CreditEntry> findByCustomerIdForUpdate(CustomerId customerId);
+
+    List<CreditEntry> findByCustomerIds(Collection<CustomerId> customerIds);
     CreditEntry save(CreditEntry creditEntry);
-}
\ No newline at end of file
+    List<CreditEntry> saveAll(Collection<CreditEntry> creditEntries);
+
+    /**
+     * Atomically subtracts {@code amount} from the customer's credit if the balance covers it.
+     *
+     * @return false if the customer has no credit entry or the balance is insufficient
+     */
+    boolean debitIfSufficient(CustomerId customerId, Money amount);
+
+    /** Atomically adds {@code amount} to the held credit if the available balance covers it. */
+    boolean holdIfAvailable(CustomerId customerId, Money amount);
+
+    /** Atomically moves {@code amount} out of the held credit and the total (the hold is debited). */
+    boolean captureHeld(CustomerId customerId, Money amount);
+
+    /** Atomically returns {@code amount} from the held credit to the available balance. */
+    boolean releaseHeld(CustomerId customerId, Money amount);
+
+    /**
+     * Adds each amount to the customer's total credit, creating the credit entry if the customer
+     * has none, as one batch of upserts.
+     */
+    void addCredits(Map<CustomerId, Money> amounts);
+}
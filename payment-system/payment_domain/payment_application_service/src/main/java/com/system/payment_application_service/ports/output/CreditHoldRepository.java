@@ -0,0 +1,24 @@
+package com.system.payment_application_service.ports.output;
+
+import com.system.payment_domain_core.entity.CreditHold;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CreditHoldRepository {
+    CreditHold save(CreditHold creditHold);
+    Optional<CreditHold> findById(UUID holdId);
+    Optional<CreditHold> findActiveByOrderId(UUID orderId);
+
+    /**
+     * Moves the hold from {@code from} to {@code to} only if it is still in {@code from}.
+     *
+     * @return false if another transaction already settled the hold
+     */
+    boolean transition(UUID holdId, CreditHoldStatus from, CreditHoldStatus to);
+
+    List<CreditHold> findActiveExpiredBefore(ZonedDateTime threshold, int limit);
+}
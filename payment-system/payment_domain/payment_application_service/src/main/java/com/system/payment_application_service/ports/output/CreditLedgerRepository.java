@@ -0,0 +1,39 @@
+package com.system.payment_application_service.ports.output;
+
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CreditLedgerRepository {
+
+    /** Inserts the entries as one batch; entries are never updated or deleted afterwards. */
+    void appendAll(Collection<CreditLedgerEntry> entries);
+
+    /** Latest snapshot of the customer's balance plus the sum of the entries recorded after it. */
+    Money balanceOf(CustomerId customerId);
+
+    /**
+     * Entries of the customer, newest first.
+     *
+     * @param beforeId only entries with a smaller id, or {@code null} for the newest page
+     */
+    List<CreditLedgerEntry> findHistory(CustomerId customerId, Long beforeId, int limit);
+
+    /**
+     * Highest ledger id up to which no entry can still commit. Waits for the transactions that are
+     * writing ledger entries and blocks new ones until the caller's transaction ends, so it must run
+     * in a short transaction of its own.
+     */
+    long committedHorizon();
+
+    /**
+     * Folds the entries with an id up to {@code upToId} into each customer's balance snapshot.
+     *
+     * @param upToId a value returned by {@link #committedHorizon()}
+     * @return number of customers whose snapshot moved forward
+     */
+    int foldSnapshots(long upToId);
+}
@@ -0,0 +1,17 @@
+package com.system.payment_application_service.ports.output;
+
+import com.system.payment_application_service.dto.IdempotentPaymentRecord;
+
+import java.util.Optional;
+
+public interface PaymentIdempotencyRepository {
+    Optional<IdempotentPaymentRecord> findByKey(String idempotencyKey);
+
+    /**
+     * Stores the record unless the key is already taken. If another transaction holds the key
+     * uncommitted, this waits for it to finish.
+     *
+     * @return false if the key already has a record
+     */
+    boolean insertIfAbsent(IdempotentPaymentRecord record);
+}
@@ -1,14 +1,44 @@
 package com.system.payment_application_service.ports.output;
 
+import com.system.payment_application_service.dto.PaymentCursor;
+import com.system.payment_application_service.dto.PaymentStatusTotal;
 import com.system.payment_domain_core.entity.Payment;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface PaymentRepository {
+    /**
+     * Inserts the payment and, in the same transaction, adds it to the per-(customer, status)
+     * aggregate. Payments are insert-only: saving an existing payment again would count it twice.
+     */
     Payment save(Payment payment);
+    List<Payment> saveAll(Collection<Payment> payments);
+    /** The most recent payment of the order; an order may have several FAILED attempts. */
     Optional<Payment> findByOrderId(UUID orderId);
+    boolean existsCompletedByOrderId(UUID orderId);
+    List<Payment> findByOrderIds(Collection<UUID> orderIds);
     List<Payment> findByCustomerId(UUID customerId);
     List<Payment> findAll();
     List<Payment> findByCustomerIdOptional(UUID customerId);
-}
\ No newline at end of file
+
+    /**
+     * Count and sum per status from the aggregate table, for one customer or for all customers when
+     * {@code customerId} is null. Only statuses with at least one payment are returned.
+     */
+    List<PaymentStatusTotal> sumByStatus(UUID customerId);
+
+    /**
+     * Up to {@code limit} payments ordered by (created_at, id), strictly after {@code after} when it
+     * is not null. {@code customerId} null means all customers.
+     */
+    List<Payment> findPage(UUID customerId, PaymentCursor after, int limit);
+
+    /**
+     * Forward-only stream of payments ordered by (created_at, id). Must be consumed and closed inside
+     * a transaction; rows are not kept in the persistence context once read.
+     */
+    Stream<Payment> streamByCustomerIdOptional(UUID customerId);
+}
@@ -0,0 +1,151 @@
+package com.system.payment_application_service.handler;
+
+import com.system.payment_application_service.dto.CreditImportResult;
+import com.system.payment_application_service.dto.CreditImportRow;
+import com.system.payment_application_service.ports.output.CreditEntryRepository;
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
+import com.system.payment_domain_core.valueobject.CreditLedgerEntryType;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Credit Importer Tests")
+class CreditImporterTest {
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    private CreditEntryRepository creditEntryRepository;
+    private CreditLedgerRepository creditLedgerRepository;
+    private CreditBalanceCache creditBalanceCache;
+
+    @BeforeEach
+    void setUp() {
+        creditEntryRepository = mock(CreditEntryRepository.class);
+        creditLedgerRepository = mock(CreditLedgerRepository.class);
+        creditBalanceCache = new CreditBalanceCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    }
+
+    private CreditImporter importer(int chunkSize, int maxReportedErrors) {
+        return new CreditImporter(creditEntryRepository, creditLedgerRepository, creditBalanceCache,
+                TransactionOperations.withoutTransaction(), chunkSize, maxReportedErrors);
+    }
+
+    @Test
+    @DisplayName("Import - Rows are summed per customer and written once per chunk")
+    void whenImporting_thenRowsAreAggregatedPerChunk() {
+        List<CreditImportRow> rows = List.of(
+                CreditImportRow.of(1, alice, new BigDecimal("10.00")),
+                CreditImportRow.of(2, bob, new BigDecimal("5.50")),
+                CreditImportRow.of(3, alice, new BigDecimal("2.25")),
+                CreditImportRow.of(4, bob, new BigDecimal("1.00")));
+
+        CreditImportResult result = importer(3, 10).importCredits(rows.iterator());
+
+        assertThat(result.getTotalRows()).isEqualTo(4);
+        assertThat(result.getAppliedRows()).isEqualTo(4);
+        assertThat(result.getFailedRows()).isZero();
+        assertThat(creditBatches()).containsExactly(
+                Map.of(new CustomerId(alice), Money.of("12.25"), new CustomerId(bob), Money.of("5.50")),
+                Map.of(new CustomerId(bob), Money.of("1.00")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<CreditLedgerEntry>> ledgerEntries = ArgumentCaptor.forClass(Collection.class);
+        verify(creditLedgerRepository, times(2)).appendAll(ledgerEntries.capture());
+        assertThat(ledgerEntries.getAllValues()).flatExtracting(entries -> entries.stream().toList())
+                .extracting(CreditLedgerEntry::getEntryType, CreditLedgerEntry::getAmount)
+                .containsExactly(
+                        tuple(CreditLedgerEntryType.TOP_UP, Money.of("12.25")),
+                        tuple(CreditLedgerEntryType.TOP_UP, Money.of("5.50")),
+                        tuple(CreditLedgerEntryType.TOP_UP, Money.of("1.00")));
+    }
+
+    @Test
+    @DisplayName("Import - Invalid rows are reported by line and skipped")
+    void whenRowsAreInvalid_thenTheyAreReportedAndSkipped() {
+        List<CreditImportRow> rows = List.of(
+                CreditImportRow.invalid(1, "Invalid JSON"),
+                CreditImportRow.of(2, null, new BigDecimal("1.00")),
+                CreditImportRow.of(3, alice, new BigDecimal("-1.00")),
+                CreditImportRow.of(4, alice, new BigDecimal("1.005")),
+                CreditImportRow.of(5, alice, new BigDecimal("3.00")));
+
+        CreditImportResult result = importer(100, 10).importCredits(rows.iterator());
+
+        assertThat(result.getAppliedRows()).isEqualTo(1);
+        assertThat(result.getFailedRows()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting("lineNumber").containsExactly(1L, 2L, 3L, 4L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Invalid JSON");
+        assertThat(creditBatches()).containsExactly(Map.of(new CustomerId(alice), Money.of("3.00")));
+    }
+
+    @Test
+    @DisplayName("Import - A failing batch is retried per customer")
+    void whenBatchFails_thenOnlyFailingCustomerIsReported() {
+        doThrow(new DataIntegrityViolationException("credit_entry rejected " + bob))
+                .when(creditEntryRepository).addCredits(argThat(amounts -> amounts.containsKey(new CustomerId(bob))));
+        List<CreditImportRow> rows = List.of(
+                CreditImportRow.of(1, alice, new BigDecimal("10.00")),
+                CreditImportRow.of(2, bob, new BigDecimal("5.00")),
+                CreditImportRow.of(3, bob, new BigDecimal("5.00")));
+
+        CreditImportResult result = importer(100, 10).importCredits(rows.iterator());
+
+        assertThat(result.getAppliedRows()).isEqualTo(1);
+        assertThat(result.getFailedRows()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("lineNumber").containsExactly(2L, 3L);
+        assertThat(result.getErrors()).extracting("customerId").containsOnly(bob);
+        // Batch đầu lỗi vì bob, sau đó từng customer được thử lại riêng
+        assertThat(creditBatches()).filteredOn(amounts -> !amounts.containsKey(new CustomerId(bob)))
+                .containsExactly(Map.of(new CustomerId(alice), Money.of("10.00")));
+    }
+
+    @Test
+    @DisplayName("Import - Reported errors are capped but still counted")
+    void whenManyRowsFail_thenErrorsAreTruncated() {
+        List<CreditImportRow> rows = new ArrayList<>();
+        for (int line = 1; line <= 5; line++) {
+            rows.add(CreditImportRow.invalid(line, "bad row"));
+        }
+
+        CreditImportResult result = importer(100, 2).importCredits(rows.iterator());
+
+        assertThat(result.getFailedRows()).isEqualTo(5);
+        assertThat(result.getErrors()).hasSize(2);
+        assertThat(result.isErrorsTruncated()).isTrue();
+        verify(creditEntryRepository, never()).addCredits(any());
+    }
+
+    private List<Map<CustomerId, Money>> creditBatches() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<CustomerId, Money>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(creditEntryRepository, atLeastOnce()).addCredits(batches.capture());
+        return batches.getAllValues();
+    }
+}
@@ -1,25 +1,43 @@
 package com.system.payment_application_service.handler;
 
 import com.system.payment_application_service.ports.output.CreditEntryRepository;
+import com.system.payment_application_service.ports.output.CreditHoldRepository;
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_application_service.dto.CreditHoldRequest;
 import com.system.payment_application_service.dto.UpdateCreditRequest;
 import com.system.payment_domain_core.entity.CreditEntry;
+import com.system.payment_domain_core.entity.CreditHold;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
 import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+import com.system.payment_domain_core.valueobject.CreditLedgerEntryType;
 import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +47,25 @@ class CreditServiceImplTest {
     @Mock
     private CreditEntryRepository creditEntryRepository;
 
+    @Mock
+    private CreditHoldRepository creditHoldRepository;
+
+    @Mock
+    private CreditLedgerRepository creditLedgerRepository;
+
+    @Mock
+    private CreditHoldExpiryScheduler creditHoldExpiryScheduler;
+
+    @Spy
+    private CreditBalanceCache creditBalanceCache =
+            new CreditBalanceCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Spy
+    private CustomerLockStripes customerLocks = new CustomerLockStripes(16);
+
     @InjectMocks
     private CreditServiceImpl creditService;
 
@@ -42,7 +79,7 @@ class CreditServiceImplTest {
         customerId = UUID.randomUUID();
         creditId = UUID.randomUUID();
         customerIdValueObject = new CustomerId(customerId);
-        mockCreditEntry = new CreditEntry(creditId, customerIdValueObject, new BigDecimal("1000.00"));
+        mockCreditEntry = new CreditEntry(creditId, customerIdValueObject, Money.of("1000.00"));
     }
 
     @Test
@@ -55,9 +92,39 @@ class CreditServiceImplTest {
 
         assertThat(result.getId()).isEqualTo(creditId);
         assertThat(result.getCustomerId()).isEqualTo(customerId);
-        assertThat(result.getTotalCredit()).isEqualByComparingTo("1000.00");
+        assertThat(result.getTotalCredit()).isEqualTo(Money.of("1000.00"));
 
         verify(creditEntryRepository).findByCustomerId(customerIdValueObject);
+        // Cache miss đọc trong transaction ghi (đi primary), không đọc replica
+        verify(transactionOperations).execute(any());
+    }
+
+    @Test
+    @DisplayName("Get total credit by customer ID - Repeated reads are served from cache")
+    void whenGetTotalCreditRepeatedly_thenRepositoryIsQueriedOnce() {
+        when(creditEntryRepository.findByCustomerId(customerIdValueObject))
+                .thenReturn(Optional.of(mockCreditEntry));
+
+        creditService.getTotalCreditByCustomerId(customerId);
+        var result = creditService.getTotalCreditByCustomerId(customerId);
+
+        assertThat(result.getTotalCredit()).isEqualTo(Money.of("1000.00"));
+        verify(creditEntryRepository, times(1)).findByCustomerId(customerIdValueObject);
+    }
+
+    @Test
+    @DisplayName("Get total credit by customer ID - Write invalidates cached balance")
+    void whenCreditAddedAfterRead_thenNextReadReloads() {
+        CreditEntry toppedUp = new CreditEntry(creditId, customerIdValueObject, Money.of("1200.00"));
+        when(creditEntryRepository.findByCustomerId(customerIdValueObject))
+                .thenReturn(Optional.of(mockCreditEntry), Optional.of(toppedUp), Optional.of(toppedUp));
+
+        creditService.getTotalCreditByCustomerId(customerId);
+        creditService.addCreditToCustomer(customerId, new BigDecimal("200.00"));
+        var result = creditService.getTotalCreditByCustomerId(customerId);
+
+        assertThat(result.getTotalCredit()).isEqualTo(Money.of("1200.00"));
+        verify(creditBalanceCache).invalidate(customerId);
     }
 
     @Test
@@ -81,8 +148,8 @@ class CreditServiceImplTest {
                 .totalCredit(new BigDecimal("1500.00"))
                 .build();
 
-        CreditEntry updatedCreditEntry = new CreditEntry(creditId, customerIdValueObject, new BigDecimal("1500.00"));
-        when(creditEntryRepository.findByCustomerId(customerIdValueObject))
+        CreditEntry updatedCreditEntry = new CreditEntry(creditId, customerIdValueObject, Money.of("1500.00"));
+        when(creditEntryRepository.findByCustomerIdForUpdate(customerIdValueObject))
                 .thenReturn(Optional.of(mockCreditEntry));
         when(creditEntryRepository.save(any(CreditEntry.class)))
                 .thenReturn(updatedCreditEntry);
@@ -91,10 +158,37 @@ class CreditServiceImplTest {
 
         assertThat(result.getId()).isEqualTo(creditId);
         assertThat(result.getCustomerId()).isEqualTo(customerId);
-        assertThat(result.getTotalCredit()).isEqualByComparingTo("1500.00");
+        assertThat(result.getTotalCredit()).isEqualTo(Money.of("1500.00"));
 
-        verify(creditEntryRepository).findByCustomerId(customerIdValueObject);
+        verify(creditEntryRepository).findByCustomerIdForUpdate(customerIdValueObject);
+        verify(creditEntryRepository, never()).addCredits(any());
         verify(creditEntryRepository).save(any(CreditEntry.class));
+        CreditLedgerEntry adjustment = singleLedgerEntry();
+        assertThat(adjustment.getEntryType()).isEqualTo(CreditLedgerEntryType.ADJUSTMENT);
+        assertThat(adjustment.getAmount()).isEqualTo(Money.of("500.00"));
+    }
+
+    @Test
+    @DisplayName("Update total credit - Adjustment is computed from the locked balance")
+    void whenBalanceChangedBeforeLock_thenAdjustmentUsesLockedBalance() {
+        UpdateCreditRequest request = UpdateCreditRequest.builder()
+                .customerId(customerId)
+                .totalCredit(new BigDecimal("1500.00"))
+                .build();
+
+        // Lần đọc không khoá còn thấy 1000.00; một lần nạp 200.00 đã commit trước khi lấy được khoá dòng
+        lenient().when(creditEntryRepository.findByCustomerId(customerIdValueObject))
+                .thenReturn(Optional.of(mockCreditEntry));
+        when(creditEntryRepository.findByCustomerIdForUpdate(customerIdValueObject))
+                .thenReturn(Optional.of(new CreditEntry(creditId, customerIdValueObject, Money.of("1200.00"))));
+        when(creditEntryRepository.save(any(CreditEntry.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        creditService.updateTotalCredit(request);
+
+        CreditLedgerEntry adjustment = singleLedgerEntry();
+        assertThat(adjustment.getEntryType()).isEqualTo(CreditLedgerEntryType.ADJUSTMENT);
+        assertThat(adjustment.getAmount()).isEqualTo(Money.of("300.00"));
     }
 
     @Test
@@ -105,19 +199,24 @@ class CreditServiceImplTest {
                 .totalCredit(new BigDecimal("500.00"))
                 .build();
 
-        when(creditEntryRepository.findByCustomerId(customerIdValueObject))
-                .thenReturn(Optional.empty());
+        CreditEntry createdCreditEntry = new CreditEntry(creditId, customerIdValueObject, Money.ZERO);
+        CreditEntry savedCreditEntry = new CreditEntry(creditId, customerIdValueObject, Money.of("500.00"));
+        when(creditEntryRepository.findByCustomerIdForUpdate(customerIdValueObject))
+                .thenReturn(Optional.empty(), Optional.of(createdCreditEntry));
         when(creditEntryRepository.save(any(CreditEntry.class)))
-                .thenReturn(mockCreditEntry);
+                .thenReturn(savedCreditEntry);
 
         var result = creditService.updateTotalCredit(request);
 
         assertThat(result.getId()).isEqualTo(creditId);
         assertThat(result.getCustomerId()).isEqualTo(customerId);
-        assertThat(result.getTotalCredit()).isEqualByComparingTo("1000.00");
+        assertThat(result.getTotalCredit()).isEqualTo(Money.of("500.00"));
 
-        verify(creditEntryRepository).findByCustomerId(customerIdValueObject);
+        // Dòng mới được tạo bằng upsert 0 rồi khoá lại, không insert trực tiếp
+        verify(creditEntryRepository).addCredits(Map.of(customerIdValueObject, Money.ZERO));
+        verify(creditEntryRepository, times(2)).findByCustomerIdForUpdate(customerIdValueObject);
         verify(creditEntryRepository).save(any(CreditEntry.class));
+        assertThat(singleLedgerEntry().getAmount()).isEqualTo(Money.of("500.00"));
     }
 
     @Test
@@ -125,20 +224,23 @@ class CreditServiceImplTest {
     void whenAddCreditToCustomerExistingEntry_thenReturnUpdatedCredit() {
         BigDecimal addAmount = new BigDecimal("200.00");
 
-        CreditEntry updatedCreditEntry = new CreditEntry(creditId, customerIdValueObject, new BigDecimal("1200.00"));
+        CreditEntry updatedCreditEntry = new CreditEntry(creditId, customerIdValueObject, Money.of("1200.00"));
         when(creditEntryRepository.findByCustomerId(customerIdValueObject))
-                .thenReturn(Optional.of(mockCreditEntry));
-        when(creditEntryRepository.save(any(CreditEntry.class)))
-                .thenReturn(updatedCreditEntry);
+                .thenReturn(Optional.of(updatedCreditEntry));
 
         var result = creditService.addCreditToCustomer(customerId, addAmount);
 
         assertThat(result.getId()).isEqualTo(creditId);
         assertThat(result.getCustomerId()).isEqualTo(customerId);
-        assertThat(result.getTotalCredit()).isEqualByComparingTo("1200.00");
-
-        verify(creditEntryRepository).findByCustomerId(customerIdValueObject);
-        verify(creditEntryRepository).save(any(CreditEntry.class));
+        assertThat(result.getTotalCredit()).isEqualTo(Money.of("1200.00"));
+
+        // Cộng tương đối bằng upsert, không ghi đè số dư đã đọc
+        verify(creditEntryRepository).addCredits(Map.of(customerIdValueObject, Money.of("200.00")));
+        verify(creditEntryRepository, never()).save(any(CreditEntry.class));
+        CreditLedgerEntry topUp = singleLedgerEntry();
+        assertThat(topUp.getEntryType()).isEqualTo(CreditLedgerEntryType.TOP_UP);
+        assertThat(topUp.getCustomerId()).isEqualTo(customerIdValueObject);
+        assertThat(topUp.getAmount()).isEqualTo(Money.of("200.00"));
     }
 
     @Test
@@ -146,20 +248,18 @@ class CreditServiceImplTest {
     void whenAddCreditToCustomerNewEntry_thenReturnNewCredit() {
         BigDecimal addAmount = new BigDecimal("200.00");
 
-        CreditEntry newCreditEntry = new CreditEntry(creditId, customerIdValueObject, new BigDecimal("200.00"));
+        CreditEntry newCreditEntry = new CreditEntry(creditId, customerIdValueObject, Money.of("200.00"));
         when(creditEntryRepository.findByCustomerId(customerIdValueObject))
-                .thenReturn(Optional.empty());
-        when(creditEntryRepository.save(any(CreditEntry.class)))
-                .thenReturn(newCreditEntry);
+                .thenReturn(Optional.of(newCreditEntry));
 
         var result = creditService.addCreditToCustomer(customerId, addAmount);
 
         assertThat(result.getId()).isEqualTo(creditId);
         assertThat(result.getCustomerId()).isEqualTo(customerId);
-        assertThat(result.getTotalCredit()).isEqualByComparingTo("200.00");
+        assertThat(result.getTotalCredit()).isEqualTo(Money.of("200.00"));
 
-        verify(creditEntryRepository).findByCustomerId(customerIdValueObject);
-        verify(creditEntryRepository).save(any(CreditEntry.class));
+        verify(creditEntryRepository).addCredits(Map.of(customerIdValueObject, Money.of("200.00")));
+        verify(creditEntryRepository, never()).save(any(CreditEntry.class));
     }
 
     @Test
@@ -173,4 +273,127 @@ class CreditServiceImplTest {
 
         verifyNoInteractions(creditEntryRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Get credit ledger - Newest page with cursor to older entries")
+    void whenGetCreditLedger_thenReturnPageAndLedgerBalance() {
+        List<CreditLedgerEntry> entries = List.of(
+                ledgerEntry(30L, "-40.00", CreditLedgerEntryType.PAYMENT_DEBIT),
+                ledgerEntry(20L, "200.00", CreditLedgerEntryType.TOP_UP),
+                ledgerEntry(10L, "840.00", CreditLedgerEntryType.OPENING_BALANCE));
+        when(creditLedgerRepository.findHistory(customerIdValueObject, null, 3)).thenReturn(entries);
+        when(creditLedgerRepository.balanceOf(customerIdValueObject)).thenReturn(Money.of("1000.00"));
+
+        var result = creditService.getCreditLedger(customerId, null, 2);
+
+        assertThat(result.getLedgerBalance()).isEqualTo(Money.of("1000.00"));
+        assertThat(result.getEntries()).extracting("id").containsExactly(30L, 20L);
+        assertThat(result.getNextBefore()).isEqualTo(20L);
+    }
+
+    @Test
+    @DisplayName("Hold credit - Success")
+    void whenHoldCreditWithinAvailableBalance_thenHoldIsScheduled() {
+        UUID orderId = UUID.randomUUID();
+        CreditHoldRequest request = holdRequest(orderId, "250.00");
+
+        when(creditHoldRepository.findActiveByOrderId(orderId)).thenReturn(Optional.empty());
+        when(creditHoldExpiryScheduler.expiryFor(null)).thenReturn(ZonedDateTime.now().plusMinutes(15));
+        when(creditEntryRepository.holdIfAvailable(eq(customerIdValueObject), any())).thenReturn(true);
+        when(creditHoldRepository.save(any(CreditHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var result = creditService.holdCredit(request);
+
+        assertThat(result.getOrderId()).isEqualTo(orderId);
+        assertThat(result.getStatus()).isEqualTo(CreditHoldStatus.HELD);
+        assertThat(result.getAmount()).isEqualTo(Money.of("250.00"));
+
+        verify(creditEntryRepository).holdIfAvailable(customerIdValueObject, Money.of("250.00"));
+        verify(creditHoldExpiryScheduler).schedule(any(CreditHold.class));
+        verify(creditEntryRepository, never()).save(any(CreditEntry.class));
+    }
+
+    @Test
+    @DisplayName("Hold credit - Insufficient available credit")
+    void whenHoldCreditExceedsAvailableBalance_thenThrowException() {
+        UUID orderId = UUID.randomUUID();
+        CreditEntry partlyHeld = new CreditEntry(creditId, customerIdValueObject,
+                Money.of("1000.00"), Money.of("900.00"));
+
+        when(creditHoldRepository.findActiveByOrderId(orderId)).thenReturn(Optional.empty());
+        when(creditHoldExpiryScheduler.expiryFor(null)).thenReturn(ZonedDateTime.now().plusMinutes(15));
+        when(creditEntryRepository.holdIfAvailable(eq(customerIdValueObject), any())).thenReturn(false);
+        when(creditEntryRepository.findByCustomerId(customerIdValueObject)).thenReturn(Optional.of(partlyHeld));
+
+        assertThatThrownBy(() -> creditService.holdCredit(holdRequest(orderId, "250.00")))
+                .isInstanceOf(PaymentDomainException.class)
+                .hasMessageStartingWith("Insufficient available credit for customer: " + customerId)
+                .hasMessageContaining("Available: 100.00");
+
+        verify(creditHoldRepository, never()).save(any());
+        verify(creditHoldExpiryScheduler, never()).schedule(any());
+    }
+
+    @Test
+    @DisplayName("Hold credit - Existing active hold is returned")
+    void whenHoldCreditForOrderWithActiveHold_thenReturnExistingHold() {
+        UUID orderId = UUID.randomUUID();
+        CreditHold activeHold = CreditHold.createHold(customerIdValueObject, orderId,
+                Money.of("250.00"), ZonedDateTime.now().plusMinutes(5));
+        when(creditHoldRepository.findActiveByOrderId(orderId)).thenReturn(Optional.of(activeHold));
+
+        var result = creditService.holdCredit(holdRequest(orderId, "250.00"));
+
+        assertThat(result.getHoldId()).isEqualTo(activeHold.getId());
+        verifyNoInteractions(creditEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Capture hold - Already released")
+    void whenCaptureReleasedHold_thenThrowException() {
+        CreditHold releasedHold = new CreditHold(UUID.randomUUID(), customerIdValueObject, UUID.randomUUID(),
+                Money.of("250.00"), CreditHoldStatus.RELEASED, ZonedDateTime.now(), ZonedDateTime.now().plusMinutes(5));
+        when(creditHoldRepository.findById(releasedHold.getId())).thenReturn(Optional.of(releasedHold));
+
+        assertThatThrownBy(() -> creditService.captureHold(releasedHold.getId()))
+                .isInstanceOf(PaymentDomainException.class)
+                .hasMessage("Credit hold " + releasedHold.getId() + " is not active: RELEASED");
+
+        verify(creditHoldRepository, never()).transition(any(), any(), any());
+        verifyNoInteractions(creditEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Expire hold - Already captured concurrently")
+    void whenExpireHoldLosesTransition_thenNothingIsReleased() {
+        CreditHold hold = CreditHold.createHold(customerIdValueObject, UUID.randomUUID(),
+                Money.of("250.00"), ZonedDateTime.now().plusMinutes(5));
+        when(creditHoldRepository.findById(hold.getId())).thenReturn(Optional.of(hold));
+        when(creditHoldRepository.transition(hold.getId(), CreditHoldStatus.HELD, CreditHoldStatus.EXPIRED))
+                .thenReturn(false);
+
+        assertThat(creditService.expireHold(hold.getId())).isFalse();
+
+        verifyNoInteractions(creditEntryRepository);
+    }
+
+    private CreditHoldRequest holdRequest(UUID orderId, String amount) {
+        return CreditHoldRequest.builder()
+                .customerId(customerId)
+                .orderId(orderId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private CreditLedgerEntry singleLedgerEntry() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<CreditLedgerEntry>> entries = ArgumentCaptor.forClass(Collection.class);
+        verify(creditLedgerRepository).appendAll(entries.capture());
+        assertThat(entries.getValue()).hasSize(1);
+        return entries.getValue().iterator().next();
+    }
+
+    private CreditLedgerEntry ledgerEntry(long id, String amount, CreditLedgerEntryType entryType) {
+        return new CreditLedgerEntry(id, customerIdValueObject, Money.of(amount), entryType, null, ZonedDateTime.now());
+    }
+}
@@ -0,0 +1,66 @@
+package com.system.payment_application_service.handler;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Hierarchical Timer Wheel Tests")
+class HierarchicalTimerWheelTest {
+
+    @Test
+    @DisplayName("Timers fire at the first tick at or after their deadline")
+    void whenAdvancing_thenTimersFireOnTimeAcrossLevels() {
+        // 8 ô x 10ms: deadline xa nhất cần 4 tầng và phải cascade xuống
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(10, 8, 0);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long deadline = random.nextInt(20_000);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 10; now <= 20_010; now += 10) {
+            for (Long deadline : wheel.advance(now)) {
+                assertThat(deadline).isLessThan(now).isGreaterThanOrEqualTo(now - 10);
+                fired.add(deadline);
+            }
+        }
+
+        assertThat(fired).containsExactlyInAnyOrderElementsOf(deadlines);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cancelled timers never fire")
+    void whenCancelled_thenTimerDoesNotFire() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 1_000);
+        HierarchicalTimerWheel.Timeout<String> near = wheel.schedule("near", 1_030);
+        HierarchicalTimerWheel.Timeout<String> far = wheel.schedule("far", 5_000);
+        wheel.schedule("kept", 1_050);
+
+        assertThat(near.cancel()).isTrue();
+        assertThat(far.cancel()).isTrue();
+        assertThat(far.cancel()).isFalse();
+
+        assertThat(wheel.advance(10_000)).containsExactly("kept");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Past deadlines fire on the next tick")
+    void whenDeadlineAlreadyPassed_thenFireOnNextTick() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 1_000);
+        wheel.advance(2_000);
+        HierarchicalTimerWheel.Timeout<String> late = wheel.schedule("late", 500);
+
+        assertThat(wheel.advance(2_010)).containsExactly("late");
+        assertThat(late.cancel()).isFalse();
+    }
+}
@@ -0,0 +1,96 @@
+package com.system.payment_application_service.handler;
+
+import com.system.payment_application_service.dto.IdempotentPaymentRecord;
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Payment Idempotency Cache Tests")
+class PaymentIdempotencyCacheTest {
+
+    private final PaymentIdempotencyCache cache =
+            new PaymentIdempotencyCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("Concurrent requests with one key share a single execution")
+    void whenSameKeyArrivesConcurrently_thenExecuteOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentProcessResponse response = completedResponse();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PaymentProcessResponse>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> cache.execute("key", "fingerprint", () -> {
+                executions.incrementAndGet();
+                executing.countDown();
+                await(release);
+                return new IdempotentPaymentRecord("key", "fingerprint", response);
+            })));
+            await(executing);
+            for (int i = 0; i < 7; i++) {
+                futures.add(executor.submit(() -> cache.execute("key", "fingerprint", () -> {
+                    executions.incrementAndGet();
+                    return new IdempotentPaymentRecord("key", "fingerprint", completedResponse());
+                })));
+            }
+            // Các request sau vẫn đang chờ lần thực thi đầu tiên
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<PaymentProcessResponse> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isSameAs(response);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Failed execution is not cached")
+    void whenExecutionFails_thenNextRequestExecutesAgain() {
+        assertThatThrownBy(() -> cache.execute("key", "fingerprint", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        PaymentProcessResponse response = cache.execute("key", "fingerprint",
+                () -> new IdempotentPaymentRecord("key", "fingerprint", completedResponse()));
+
+        assertThat(response.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+    }
+
+    private static PaymentProcessResponse completedResponse() {
+        return PaymentProcessResponse.builder()
+                .paymentId(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .status(PaymentStatus.COMPLETED)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.system.payment_application_service.handler;
+
+import com.system.payment_application_service.dto.PaymentCursor;
+import com.system.payment_application_service.dto.PaymentProcessRequest;
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_application_service.dto.PaymentStatusTotal;
+import com.system.payment_application_service.dto.UpdateCreditRequest;
+import com.system.payment_application_service.ports.output.CreditEntryRepository;
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_application_service.ports.output.PaymentRepository;
+import com.system.payment_domain_core.entity.CreditEntry;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
+import com.system.payment_domain_core.entity.Payment;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Payment Service Concurrency Tests")
+class PaymentServiceImplConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private InMemoryCreditEntryRepository creditEntryRepository;
+    private InMemoryCreditLedgerRepository creditLedgerRepository;
+    private InMemoryPaymentRepository paymentRepository;
+    private PaymentServiceImpl paymentService;
+    private CreditServiceImpl creditService;
+    private UUID customerId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = UUID.randomUUID();
+        creditEntryRepository = new InMemoryCreditEntryRepository();
+        creditEntryRepository.put(new CreditEntry(UUID.randomUUID(), new CustomerId(customerId), Money.of("500.00")));
+        creditLedgerRepository = new InMemoryCreditLedgerRepository();
+        paymentRepository = new InMemoryPaymentRepository();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CreditBalanceCache creditBalanceCache = new CreditBalanceCache(meterRegistry, 100, Duration.ofMinutes(1));
+        CustomerLockStripes customerLocks = new CustomerLockStripes(256);
+        paymentService = new PaymentServiceImpl(paymentRepository, creditEntryRepository, creditLedgerRepository,
+                creditBalanceCache, null, new PaymentIdempotencyCache(meterRegistry, 100, Duration.ofMinutes(1)),
+                TransactionOperations.withoutTransaction(), customerLocks);
+        creditService = new CreditServiceImpl(creditEntryRepository, null, creditLedgerRepository, null,
+                creditBalanceCache, null, TransactionOperations.withoutTransaction(), customerLocks);
+    }
+
+    @Test
+    @DisplayName("Concurrent payments on one wallet - Balance is exact")
+    void whenManyThreadsPayFromOneWallet_thenNoDebitIsLost() throws Exception {
+        List<PaymentProcessResponse> responses = hammer(2000, () ->
+                List.of(paymentService.processPayment(request("1.00"))));
+
+        assertSettledExactly(responses, 500);
+    }
+
+    @Test
+    @DisplayName("Concurrent single and batch payments on one wallet - Balance is exact")
+    void whenSingleAndBatchPaymentsRace_thenNoDebitIsLost() throws Exception {
+        List<PaymentProcessResponse> responses = hammer(400, () -> {
+            List<PaymentProcessResponse> results = new ArrayList<>(paymentService.processPayments(
+                    List.of(request("1.00"), request("1.00"), request("1.00"), request("1.00"))));
+            results.add(paymentService.processPayment(request("1.00")));
+            return results;
+        });
+
+        assertSettledExactly(responses, 500);
+    }
+
+    @Test
+    @DisplayName("Concurrent top-ups, credit resets and payments on one wallet - Ledger matches balance")
+    void whenCreditChangesRaceWithPayments_thenLedgerMatchesBalance() throws Exception {
+        AtomicInteger task = new AtomicInteger();
+        hammer(900, () -> {
+            switch (task.getAndIncrement() % 3) {
+                case 0 -> creditService.addCreditToCustomer(customerId, new BigDecimal("2.00"));
+                case 1 -> creditService.updateTotalCredit(UpdateCreditRequest.builder()
+                        .customerId(customerId)
+                        .totalCredit(new BigDecimal("300.00"))
+                        .build());
+                default -> {
+                    return List.of(paymentService.processPayment(request("1.00")));
+                }
+            }
+            return List.of();
+        });
+
+        // Số dư ban đầu 500.00 không có trong ledger
+        assertThat(creditEntryRepository.balanceOf(customerId).subtract(Money.of("500.00")))
+                .isEqualTo(creditLedgerRepository.balanceOf(new CustomerId(customerId)));
+    }
+
+    private void assertSettledExactly(List<PaymentProcessResponse> responses, int affordablePayments) {
+        long completed = responses.stream().filter(response -> response.getStatus() == PaymentStatus.COMPLETED).count();
+        BigDecimal debited = responses.stream()
+                .filter(response -> response.getStatus() == PaymentStatus.COMPLETED)
+                .map(PaymentProcessResponse::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertThat(completed).isEqualTo(affordablePayments);
+        assertThat(debited).isEqualByComparingTo("500.00");
+        assertThat(creditEntryRepository.balanceOf(customerId)).isEqualTo(Money.ZERO);
+        assertThat(paymentRepository.completedCount()).isEqualTo(affordablePayments);
+        assertThat(creditLedgerRepository.entries).hasSize(affordablePayments);
+        assertThat(creditLedgerRepository.balanceOf(new CustomerId(customerId))).isEqualTo(Money.of("-500.00"));
+    }
+
+    private List<PaymentProcessResponse> hammer(int tasks, Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<PaymentProcessResponse>>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run();
+                }));
+            }
+            start.countDown();
+
+            List<PaymentProcessResponse> responses = new ArrayList<>();
+            for (Future<List<PaymentProcessResponse>> future : futures) {
+                responses.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PaymentProcessRequest request(String price) {
+        return PaymentProcessRequest.builder()
+                .orderId(UUID.randomUUID())
+                .customerId(customerId)
+                .price(new BigDecimal(price))
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        List<PaymentProcessResponse> run() throws Exception;
+    }
+
+    /**
+     * Stands in for the credit_entry table: reads return snapshots, {@code save} overwrites the row
+     * (so a read-check-write caller would lose updates) and the conditional updates are atomic per row,
+     * like the UPDATE statements they replace.
+     */
+    private static class InMemoryCreditEntryRepository implements CreditEntryRepository {
+        private final ConcurrentHashMap<CustomerId, CreditEntry> rows = new ConcurrentHashMap<>();
+
+        void put(CreditEntry creditEntry) {
+            rows.put(creditEntry.getCustomerId(), creditEntry);
+        }
+
+        Money balanceOf(UUID customerId) {
+            return rows.get(new CustomerId(customerId)).getTotalCredit();
+        }
+
+        @Override
+        public Optional<CreditEntry> findByCustomerId(CustomerId customerId) {
+            return Optional.ofNullable(rows.get(customerId)).map(this::snapshot);
+        }
+
+        // Không mô phỏng khoá dòng: trong test này CustomerLockStripes dùng chung đã xếp hàng các lần ghi của một customer
+        @Override
+        public Optional<CreditEntry> findByCustomerIdForUpdate(CustomerId customerId) {
+            return findByCustomerId(customerId);
+        }
+
+        @Override
+        public List<CreditEntry> findByCustomerIds(Collection<CustomerId> customerIds) {
+            return customerIds.stream()
+                    .map(this::findByCustomerId)
+                    .flatMap(Optional::stream)
+                    .toList();
+        }
+
+        @Override
+        public CreditEntry save(CreditEntry creditEntry) {
+            rows.put(creditEntry.getCustomerId(), snapshot(creditEntry));
+            return creditEntry;
+        }
+
+        @Override
+        public List<CreditEntry> saveAll(Collection<CreditEntry> creditEntries) {
+            creditEntries.forEach(this::save);
+            return List.copyOf(creditEntries);
+        }
+
+        @Override
+        public boolean debitIfSufficient(CustomerId customerId, Money amount) {
+            return updateIf(customerId, row -> !row.getAvailableCredit().isLessThan(amount),
+                    row -> new CreditEntry(row.getId(), customerId, row.getTotalCredit().subtract(amount), row.getHeldCredit()));
+        }
+
+        @Override
+        public boolean holdIfAvailable(CustomerId customerId, Money amount) {
+            return updateIf(customerId, row -> !row.getAvailableCredit().isLessThan(amount),
+                    row -> new CreditEntry(row.getId(), customerId, row.getTotalCredit(), row.getHeldCredit().add(amount)));
+        }
+
+        @Override
+        public boolean captureHeld(CustomerId customerId, Money amount) {
+            return updateIf(customerId, row -> !row.getHeldCredit().isLessThan(amount),
+                    row -> new CreditEntry(row.getId(), customerId, row.getTotalCredit().subtract(amount),
+                            row.getHeldCredit().subtract(amount)));
+        }
+
+        @Override
+        public boolean releaseHeld(CustomerId customerId, Money amount) {
+            return updateIf(customerId, row -> !row.getHeldCredit().isLessThan(amount),
+                    row -> new CreditEntry(row.getId(), customerId, row.getTotalCredit(), row.getHeldCredit().subtract(amount)));
+        }
+
+        @Override
+        public void addCredits(Map<CustomerId, Money> amounts) {
+            amounts.forEach((customerId, amount) -> rows.merge(customerId,
+                    new CreditEntry(UUID.randomUUID(), customerId, amount),
+                    (row, added) -> new CreditEntry(row.getId(), customerId, row.getTotalCredit().add(amount), row.getHeldCredit())));
+        }
+
+        private boolean updateIf(CustomerId customerId, Predicate<CreditEntry> condition,
+                                 UnaryOperator<CreditEntry> update) {
+            boolean[] updated = {false};
+            rows.computeIfPresent(customerId, (id, row) -> {
+                if (!condition.test(row)) {
+                    return row;
+                }
+                updated[0] = true;
+                return update.apply(row);
+            });
+            return updated[0];
+        }
+
+        private CreditEntry snapshot(CreditEntry creditEntry) {
+            return new CreditEntry(creditEntry.getId(), creditEntry.getCustomerId(),
+                    creditEntry.getTotalCredit(), creditEntry.getHeldCredit());
+        }
+    }
+
+    private static class InMemoryCreditLedgerRepository implements CreditLedgerRepository {
+        private final AtomicLong sequence = new AtomicLong();
+        private final ConcurrentLinkedQueue<CreditLedgerEntry> entries = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void appendAll(Collection<CreditLedgerEntry> batch) {
+            batch.forEach(entry -> entries.add(new CreditLedgerEntry(sequence.incrementAndGet(), entry.getCustomerId(),
+                    entry.getAmount(), entry.getEntryType(), entry.getReferenceId(), entry.getCreatedAt())));
+        }
+
+        @Override
+        public Money balanceOf(CustomerId customerId) {
+            return entries.stream()
+                    .filter(entry -> entry.getCustomerId().equals(customerId))
+                    .map(CreditLedgerEntry::getAmount)
+                    .reduce(Money.ZERO, Money::add);
+        }
+
+        @Override
+        public List<CreditLedgerEntry> findHistory(CustomerId customerId, Long beforeId, int limit) {
+            return entries.stream()
+                    .filter(entry -> entry.getCustomerId().equals(customerId))
+                    .filter(entry -> beforeId == null || entry.getId() < beforeId)
+                    .sorted(Comparator.comparing(CreditLedgerEntry::getId).reversed())
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public long committedHorizon() {
+            return sequence.get();
+        }
+
+        @Override
+        public int foldSnapshots(long upToId) {
+            // Không có snapshot: balanceOf luôn cộng thẳng các entry nên không có gì để gộp
+            return 0;
+        }
+    }
+
+    private static class InMemoryPaymentRepository implements PaymentRepository {
+        private static final Comparator<Payment> CREATED_AT_THEN_ID =
+                Comparator.comparing(Payment::getCreatedAt).thenComparing(payment -> payment.getId().getValue());
+
+        private final ConcurrentLinkedQueue<Payment> payments = new ConcurrentLinkedQueue<>();
+
+        long completedCount() {
+            return payments.stream().filter(payment -> payment.getPaymentStatus() == PaymentStatus.COMPLETED).count();
+        }
+
+        @Override
+        public Payment save(Payment payment) {
+            payments.add(payment);
+            return payment;
+        }
+
+        @Override
+        public List<Payment> saveAll(Collection<Payment> batch) {
+            payments.addAll(batch);
+            return List.copyOf(batch);
+        }
+
+        @Override
+        public Optional<Payment> findByOrderId(UUID orderId) {
+            return payments.stream()
+                    .filter(payment -> payment.getOrderId().equals(orderId))
+                    .max(Comparator.comparing(Payment::getCreatedAt));
+        }
+
+        @Override
+        public boolean existsCompletedByOrderId(UUID orderId) {
+            return payments.stream().anyMatch(payment -> payment.getOrderId().equals(orderId)
+                    && payment.getPaymentStatus() == PaymentStatus.COMPLETED);
+        }
+
+        @Override
+        public List<Payment> findByOrderIds(Collection<UUID> orderIds) {
+            return payments.stream().filter(payment -> orderIds.contains(payment.getOrderId())).toList();
+        }
+
+        @Override
+        public List<Payment> findByCustomerId(UUID customerId) {
+            return payments.stream().filter(payment -> payment.getCustomerId().getValue().equals(customerId)).toList();
+        }
+
+        @Override
+        public List<Payment> findAll() {
+            return List.copyOf(payments);
+        }
+
+        @Override
+        public List<Payment> findByCustomerIdOptional(UUID customerId) {
+            return customerId == null ? findAll() : findByCustomerId(customerId);
+        }
+
+        @Override
+        public List<PaymentStatusTotal> sumByStatus(UUID customerId) {
+            Map<PaymentStatus, List<Payment>> byStatus = findByCustomerIdOptional(customerId).stream()
+                    .collect(Collectors.groupingBy(Payment::getPaymentStatus));
+            return byStatus.entrySet().stream()
+                    .map(entry -> new PaymentStatusTotal(entry.getKey(), entry.getValue().size(),
+                            entry.getValue().stream().map(Payment::getPrice).reduce(Money.ZERO, Money::add).toBigDecimal()))
+                    .toList();
+        }
+
+        @Override
+        public List<Payment> findPage(UUID customerId, PaymentCursor after, int limit) {
+            return streamByCustomerIdOptional(customerId)
+                    .filter(payment -> after == null || payment.getCreatedAt().isAfter(after.getCreatedAt())
+                            || (payment.getCreatedAt().isEqual(after.getCreatedAt())
+                                && payment.getId().getValue().compareTo(after.getPaymentId()) > 0))
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public Stream<Payment> streamByCustomerIdOptional(UUID customerId) {
+            return findByCustomerIdOptional(customerId).stream().sorted(CREATED_AT_THEN_ID);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.system.payment_application_service.handler;
+
+import com.system.payment_application_service.dto.IdempotentPaymentRecord;
+import com.system.payment_application_service.dto.PaymentCursor;
+import com.system.payment_application_service.dto.PaymentGroupByStatusResponse;
+import com.system.payment_application_service.dto.PaymentPageResponse;
+import com.system.payment_application_service.dto.PaymentProcessRequest;
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_application_service.dto.PaymentStatusGroupDto;
+import com.system.payment_application_service.dto.PaymentStatusTotal;
+import com.system.payment_application_service.dto.PaymentSummaryDto;
+import com.system.payment_application_service.ports.output.CreditEntryRepository;
+import com.system.payment_application_service.ports.output.CreditLedgerRepository;
+import com.system.payment_application_service.ports.output.PaymentIdempotencyRepository;
+import com.system.payment_application_service.ports.output.PaymentRepository;
+import com.system.payment_domain_core.entity.CreditEntry;
+import com.system.payment_domain_core.entity.CreditLedgerEntry;
+import com.system.payment_domain_core.entity.Payment;
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.CreditLedgerEntryType;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import com.system.payment_domain_core.valueobject.PaymentId;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Service Implementation Tests")
+class PaymentServiceImplTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private CreditEntryRepository creditEntryRepository;
+
+    @Mock
+    private CreditLedgerRepository creditLedgerRepository;
+
+    @Mock
+    private CreditBalanceCache creditBalanceCache;
+
+    @Mock
+    private PaymentIdempotencyRepository paymentIdempotencyRepository;
+
+    @Spy
+    private PaymentIdempotencyCache paymentIdempotencyCache =
+            new PaymentIdempotencyCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+
+    @Spy
+    private TransactionOperations transactionOperations = new TransactionTemplate() {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(null);
+        }
+    };
+
+    @Spy
+    private CustomerLockStripes customerLocks = new CustomerLockStripes(16);
+
+    @InjectMocks
+    private PaymentServiceImpl paymentService;
+
+    private UUID customerId;
+    private CustomerId customerIdValueObject;
+    private CreditEntry creditEntry;
+
+    @BeforeEach
+    void setUp() {
+        customerId = UUID.randomUUID();
+        customerIdValueObject = new CustomerId(customerId);
+        creditEntry = new CreditEntry(UUID.randomUUID(), customerIdValueObject, Money.of("100.00"));
+    }
+
+    @Test
+    @DisplayName("Process payment batch - Credit is shared across the batch")
+    @SuppressWarnings("unchecked")
+    void whenProcessPaymentsForSameCustomer_thenDebitCreditInRequestOrder() {
+        PaymentProcessRequest first = request(customerId, "60.00");
+        PaymentProcessRequest second = request(customerId, "30.00");
+        PaymentProcessRequest third = request(customerId, "20.00");
+
+        when(creditEntryRepository.findByCustomerIds(anyCollection())).thenReturn(List.of(creditEntry));
+        when(paymentRepository.findByOrderIds(anyCollection())).thenReturn(List.of());
+        when(creditEntryRepository.debitIfSufficient(any(), any())).thenReturn(true);
+
+        List<PaymentProcessResponse> responses = paymentService.processPayments(List.of(first, second, third));
+
+        assertThat(responses).extracting(PaymentProcessResponse::getStatus)
+                .containsExactly(PaymentStatus.COMPLETED, PaymentStatus.COMPLETED, PaymentStatus.FAILED);
+        assertThat(responses.get(2).getMessage()).startsWith("Insufficient credit");
+        assertThat(creditEntry.getTotalCredit()).isEqualTo(Money.of("10.00"));
+
+        verify(creditEntryRepository, times(1)).findByCustomerIds(anyCollection());
+        verify(creditEntryRepository).debitIfSufficient(eq(customerIdValueObject), eq(Money.of("90.00")));
+        verify(creditEntryRepository, never()).saveAll(anyCollection());
+        verify(paymentRepository).saveAll(anyCollection());
+        verify(creditEntryRepository, never()).findByCustomerId(any());
+
+        // Một ledger entry cho mỗi payment đã trừ credit, không phải tổng của batch
+        ArgumentCaptor<Collection<CreditLedgerEntry>> ledgerEntries = ArgumentCaptor.forClass(Collection.class);
+        verify(creditLedgerRepository).appendAll(ledgerEntries.capture());
+        assertThat(ledgerEntries.getValue())
+                .extracting(CreditLedgerEntry::getEntryType, CreditLedgerEntry::getAmount)
+                .containsExactly(
+                        tuple(CreditLedgerEntryType.PAYMENT_DEBIT, Money.of("-60.00")),
+                        tuple(CreditLedgerEntryType.PAYMENT_DEBIT, Money.of("-30.00")));
+    }
+
+    @Test
+    @DisplayName("Process payment batch - Bad order fails alone")
+    @SuppressWarnings("unchecked")
+    void whenOneOrderViolatesDomainRule_thenOnlyThatOrderFails() {
+        UUID unknownCustomerId = UUID.randomUUID();
+        PaymentProcessRequest valid = request(customerId, "40.00");
+        PaymentProcessRequest unknownCustomer = request(unknownCustomerId, "10.00");
+        PaymentProcessRequest alreadyPaid = request(customerId, "10.00");
+
+        Payment completedPayment = new Payment(new PaymentId(UUID.randomUUID()), alreadyPaid.getOrderId(),
+                customerIdValueObject, Money.of("10.00"), PaymentStatus.COMPLETED, ZonedDateTime.now());
+        when(creditEntryRepository.findByCustomerIds(anyCollection())).thenReturn(List.of(creditEntry));
+        when(paymentRepository.findByOrderIds(anyCollection())).thenReturn(List.of(completedPayment));
+        when(creditEntryRepository.debitIfSufficient(any(), any())).thenReturn(true);
+
+        List<PaymentProcessResponse> responses =
+                paymentService.processPayments(List.of(valid, unknownCustomer, alreadyPaid));
+
+        assertThat(responses).extracting(PaymentProcessResponse::getStatus)
+                .containsExactly(PaymentStatus.COMPLETED, PaymentStatus.FAILED, PaymentStatus.FAILED);
+        assertThat(responses.get(1).getMessage())
+                .isEqualTo("Credit entry not found for customer: " + unknownCustomerId);
+        assertThat(responses.get(2).getMessage())
+                .isEqualTo("Payment already completed for order: " + alreadyPaid.getOrderId());
+        assertThat(creditEntry.getTotalCredit()).isEqualTo(Money.of("60.00"));
+
+        ArgumentCaptor<Collection<Payment>> savedPayments = ArgumentCaptor.forClass(Collection.class);
+        verify(paymentRepository).saveAll(savedPayments.capture());
+        assertThat(savedPayments.getValue()).hasSize(1)
+                .allMatch(payment -> payment.getOrderId().equals(valid.getOrderId()));
+    }
+
+    @Test
+    @DisplayName("Process payment batch - Balance changed concurrently")
+    void whenBatchDebitFails_thenDebitPaymentsIndividually() {
+        PaymentProcessRequest first = request(customerId, "60.00");
+        PaymentProcessRequest second = request(customerId, "30.00");
+
+        when(creditEntryRepository.findByCustomerIds(anyCollection())).thenReturn(List.of(creditEntry));
+        when(paymentRepository.findByOrderIds(anyCollection())).thenReturn(List.of());
+        // Số dư thực tế chỉ còn 70.00: tổng 90.00 thất bại, 60.00 thành công, 30.00 thất bại
+        when(creditEntryRepository.debitIfSufficient(eq(customerIdValueObject), any()))
+                .thenReturn(false, true, false);
+
+        List<PaymentProcessResponse> responses = paymentService.processPayments(List.of(first, second));
+
+        assertThat(responses).extracting(PaymentProcessResponse::getStatus)
+                .containsExactly(PaymentStatus.COMPLETED, PaymentStatus.FAILED);
+        verify(creditEntryRepository, times(3)).debitIfSufficient(eq(customerIdValueObject), any());
+    }
+
+    @Test
+    @DisplayName("Find completed payment - Failed attempts are ignored")
+    void whenOrderHasCompletedPayment_thenReturnItAsCompleted() {
+        UUID orderId = UUID.randomUUID();
+        PaymentId paymentId = new PaymentId(UUID.randomUUID());
+        Payment failed = new Payment(new PaymentId(UUID.randomUUID()), orderId, customerIdValueObject,
+                Money.of("10.00"), PaymentStatus.FAILED, ZonedDateTime.now().minusMinutes(1));
+        Payment completed = new Payment(paymentId, orderId, customerIdValueObject,
+                Money.of("10.00"), PaymentStatus.COMPLETED, ZonedDateTime.now());
+        when(paymentRepository.findByOrderIds(List.of(orderId))).thenReturn(List.of(failed, completed));
+
+        Optional<PaymentProcessResponse> response = paymentService.findCompletedPayment(orderId);
+
+        assertThat(response).hasValueSatisfying(found -> {
+            assertThat(found.getPaymentId()).isEqualTo(paymentId.getValue());
+            assertThat(found.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+            assertThat(found.getPrice()).isEqualByComparingTo("10.00");
+        });
+    }
+
+    @Test
+    @DisplayName("Find completed payment - Order not paid")
+    void whenOrderHasOnlyFailedPayments_thenReturnEmpty() {
+        UUID orderId = UUID.randomUUID();
+        Payment failed = new Payment(new PaymentId(UUID.randomUUID()), orderId, customerIdValueObject,
+                Money.of("10.00"), PaymentStatus.FAILED, ZonedDateTime.now());
+        when(paymentRepository.findByOrderIds(List.of(orderId))).thenReturn(List.of(failed));
+
+        assertThat(paymentService.findCompletedPayment(orderId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Group by status - Totals come from the aggregate table")
+    void whenGroupByStatusWithoutPayments_thenPaymentsAreNotLoaded() {
+        when(paymentRepository.sumByStatus(customerId)).thenReturn(List.of(
+                new PaymentStatusTotal(PaymentStatus.FAILED, 2, new BigDecimal("15.00")),
+                new PaymentStatusTotal(PaymentStatus.COMPLETED, 3, new BigDecimal("120.50"))));
+
+        PaymentGroupByStatusResponse response = paymentService.getPaymentsGroupByStatus(customerId, false);
+
+        assertThat(response.getTotalCount()).isEqualTo(5);
+        assertThat(response.getTotalAmount()).isEqualByComparingTo("135.50");
+        assertThat(response.getStatusGroups()).extracting(PaymentStatusGroupDto::getStatus)
+                .containsExactly(PaymentStatus.COMPLETED, PaymentStatus.FAILED);
+        assertThat(response.getStatusGroups()).allMatch(group -> group.getPayments() == null);
+        verify(paymentRepository, never()).findByCustomerIdOptional(any());
+    }
+
+    @Test
+    @DisplayName("Group by status - Payments listed on request")
+    void whenGroupByStatusWithPayments_thenPaymentsAreGrouped() {
+        Payment completed = new Payment(new PaymentId(UUID.randomUUID()), UUID.randomUUID(),
+                customerIdValueObject, Money.of("40.00"), PaymentStatus.COMPLETED, ZonedDateTime.now());
+        when(paymentRepository.sumByStatus(customerId)).thenReturn(List.of(
+                new PaymentStatusTotal(PaymentStatus.COMPLETED, 1, new BigDecimal("40.00"))));
+        when(paymentRepository.findByCustomerIdOptional(customerId)).thenReturn(List.of(completed));
+
+        PaymentGroupByStatusResponse response = paymentService.getPaymentsGroupByStatus(customerId, true);
+
+        assertThat(response.getStatusGroups()).singleElement()
+                .satisfies(group -> assertThat(group.getPayments()).extracting(PaymentSummaryDto::getPaymentId)
+                        .containsExactly(completed.getId().getValue()));
+    }
+
+    @Test
+    @DisplayName("List payments - Cursor continues after the last payment of the page")
+    void whenPageIsFull_thenNextCursorPointsAtLastPayment() {
+        List<Payment> payments = List.of(payment("10.00"), payment("20.00"), payment("30.00"));
+        when(paymentRepository.findPage(customerId, null, 3)).thenReturn(payments);
+
+        PaymentPageResponse page = paymentService.listPayments(customerId, null, 2);
+
+        assertThat(page.getPayments()).hasSize(2);
+        PaymentCursor cursor = PaymentCursor.decode(page.getNextCursor());
+        assertThat(cursor.getPaymentId()).isEqualTo(payments.get(1).getId().getValue());
+        assertThat(cursor.getCreatedAt().toInstant()).isEqualTo(payments.get(1).getCreatedAt().toInstant());
+
+        when(paymentRepository.findPage(eq(customerId), argThat(after -> after != null
+                && after.getPaymentId().equals(cursor.getPaymentId())), eq(3)))
+                .thenReturn(List.of(payments.get(2)));
+
+        PaymentPageResponse lastPage = paymentService.listPayments(customerId, page.getNextCursor(), 2);
+
+        assertThat(lastPage.getPayments()).hasSize(1);
+        assertThat(lastPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("List payments - Malformed cursor is rejected")
+    void whenCursorIsMalformed_thenThrowException() {
+        assertThatThrownBy(() -> paymentService.listPayments(customerId, "not-a-cursor", 10))
+                .isInstanceOf(PaymentDomainException.class)
+                .hasMessage("Invalid payment cursor: not-a-cursor");
+    }
+
+    @Test
+    @DisplayName("Process payment with idempotency key - Stored response is replayed")
+    void whenIdempotencyKeyAlreadyStored_thenReplayWithoutCharging() {
+        PaymentProcessRequest request = request(customerId, "25.00");
+        PaymentProcessResponse stored = PaymentProcessResponse.builder()
+                .paymentId(UUID.randomUUID())
+                .orderId(request.getOrderId())
+                .customerId(customerId)
+                .price(new BigDecimal("25.00"))
+                .status(PaymentStatus.COMPLETED)
+                .message("Payment processed successfully")
+                .build();
+        when(paymentIdempotencyRepository.findByKey("key-1"))
+                .thenReturn(Optional.of(new IdempotentPaymentRecord("key-1",
+                        request.getOrderId() + "|" + customerId + "|25", stored)));
+
+        PaymentProcessResponse first = paymentService.processPayment(request, "key-1");
+        PaymentProcessResponse second = paymentService.processPayment(request, "key-1");
+
+        assertThat(first.getPaymentId()).isEqualTo(stored.getPaymentId());
+        assertThat(second.getPaymentId()).isEqualTo(stored.getPaymentId());
+        // Lần thứ hai lấy từ cache trong bộ nhớ
+        verify(paymentIdempotencyRepository, times(1)).findByKey("key-1");
+        verifyNoInteractions(creditEntryRepository);
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Process payment with idempotency key - First execution is stored")
+    void whenIdempotencyKeyIsNew_thenChargeOnceAndStoreResponse() {
+        PaymentProcessRequest request = request(customerId, "25.00");
+        when(paymentIdempotencyRepository.findByKey("key-2")).thenReturn(Optional.empty());
+        when(creditEntryRepository.debitIfSufficient(customerIdValueObject, Money.of("25.00"))).thenReturn(true);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(paymentIdempotencyRepository.insertIfAbsent(any())).thenReturn(true);
+
+        PaymentProcessResponse response = paymentService.processPayment(request, "key-2");
+
+        assertThat(response.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        verify(paymentIdempotencyRepository).insertIfAbsent(argThat(record ->
+                record.getIdempotencyKey().equals("key-2")
+                        && record.getResponse().getPaymentId().equals(response.getPaymentId())));
+        verify(creditLedgerRepository).appendAll(argThat(entries -> entries.size() == 1
+                && entries.iterator().next().getReferenceId().equals(response.getPaymentId())
+                && entries.iterator().next().getAmount().equals(Money.of("-25.00"))));
+    }
+
+    @Test
+    @DisplayName("Process payment with idempotency key - Key reused for another request")
+    void whenIdempotencyKeyReusedWithDifferentRequest_thenThrowException() {
+        PaymentProcessRequest request = request(customerId, "25.00");
+        PaymentProcessResponse stored = PaymentProcessResponse.builder()
+                .paymentId(UUID.randomUUID())
+                .orderId(request.getOrderId())
+                .status(PaymentStatus.COMPLETED)
+                .build();
+        when(paymentIdempotencyRepository.findByKey("key-3"))
+                .thenReturn(Optional.of(new IdempotentPaymentRecord("key-3", "another-request", stored)));
+
+        assertThatThrownBy(() -> paymentService.processPayment(request, "key-3"))
+                .isInstanceOf(PaymentDomainException.class)
+                .hasMessage("Idempotency-Key key-3 was already used for a different request");
+    }
+
+    private Payment payment(String price) {
+        return new Payment(new PaymentId(UUID.randomUUID()), UUID.randomUUID(), customerIdValueObject,
+                Money.of(price), PaymentStatus.COMPLETED, ZonedDateTime.now());
+    }
+
+    private static PaymentProcessRequest request(UUID customerId, String price) {
+        return PaymentProcessRequest.builder()
+                .orderId(UUID.randomUUID())
+                .customerId(customerId)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
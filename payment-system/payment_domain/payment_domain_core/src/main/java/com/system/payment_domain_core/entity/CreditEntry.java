@@ -2,55 +2,70 @@ package com.system.payment_domain_core.entity;
 
 import com.system.payment_domain_core.exception.PaymentDomainException;
 import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
 import lombok.Getter;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Getter
 public class CreditEntry {
     private final UUID id;
     private final CustomerId customerId;
-    private BigDecimal totalCredit;
+    private Money totalCredit;
+    // Tổng các hold đang HELD; số dư khả dụng = totalCredit - heldCredit
+    private Money heldCredit;
 
-    public CreditEntry(UUID id, CustomerId customerId, BigDecimal totalCredit) {
+    public CreditEntry(UUID id, CustomerId customerId, Money totalCredit) {
+        this(id, customerId, totalCredit, Money.ZERO);
+    }
+
+    public CreditEntry(UUID id, CustomerId customerId, Money totalCredit, Money heldCredit) {
         this.id = id;
         this.customerId = customerId;
         this.totalCredit = totalCredit;
+        this.heldCredit = heldCredit != null ? heldCredit : Money.ZERO;
     }
 
-    public void subtractCredit(BigDecimal amount) {
-        if (totalCredit.compareTo(amount) < 0) {
+    public Money getAvailableCredit() {
+        return totalCredit.subtract(heldCredit);
+    }
+
+    public void subtractCredit(Money amount) {
+        if (getAvailableCredit().isLessThan(amount)) {
             throw new PaymentDomainException("Insufficient credit for customer: " + customerId.getValue());
         }
         this.totalCredit = this.totalCredit.subtract(amount);
     }
 
-    public void addCredit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) < 0) {
+    public void addCredit(Money amount) {
+        if (amount.isNegative()) {
             throw new PaymentDomainException("Credit amount cannot be negative for customer: " + customerId.getValue());
         }
         this.totalCredit = this.totalCredit.add(amount);
     }
 
-    public void updateTotalCredit(BigDecimal newTotalCredit) {
-        if (newTotalCredit.compareTo(BigDecimal.ZERO) < 0) {
+    public void updateTotalCredit(Money newTotalCredit) {
+        if (newTotalCredit.isNegative()) {
             throw new PaymentDomainException("Total credit cannot be negative for customer: " + customerId.getValue());
         }
+        if (newTotalCredit.isLessThan(heldCredit)) {
+            throw new PaymentDomainException("Total credit cannot be below held credit " + heldCredit
+                    + " for customer: " + customerId.getValue());
+        }
         this.totalCredit = newTotalCredit;
     }
 
-    public static CreditEntry createNewCreditEntry(UUID id, CustomerId customerId, BigDecimal initialCredit) {
-        if (initialCredit.compareTo(BigDecimal.ZERO) < 0) {
+    public static CreditEntry createNewCreditEntry(UUID id, CustomerId customerId, Money initialCredit) {
+        if (initialCredit.isNegative()) {
             throw new PaymentDomainException("Initial credit cannot be negative for customer: " + customerId.getValue());
         }
         return new CreditEntry(id, customerId, initialCredit);
     }
 
-    public boolean hasSufficientCredit(BigDecimal requiredAmount) {
-        if (requiredAmount.compareTo(BigDecimal.ZERO) < 0) {
+    public boolean hasSufficientCredit(Money requiredAmount) {
+        if (requiredAmount.isNegative()) {
             throw new PaymentDomainException("Required amount cannot be negative for customer: " + customerId.getValue());
         }
-        return this.totalCredit.compareTo(requiredAmount) >= 0;
+        return !getAvailableCredit().isLessThan(requiredAmount);
     }
 }
\ No newline at end of file
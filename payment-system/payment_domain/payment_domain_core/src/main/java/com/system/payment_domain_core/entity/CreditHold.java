@@ -0,0 +1,70 @@
+package com.system.payment_domain_core.entity;
+
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.CreditHoldStatus;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import lombok.Getter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Credit reserved for an order: counted against the available balance until it is captured
+ * (debited), released or expired.
+ */
+@Getter
+public class CreditHold {
+    private final UUID id;
+    private final CustomerId customerId;
+    private final UUID orderId;
+    private final Money amount;
+    private CreditHoldStatus status;
+    private final ZonedDateTime createdAt;
+    private final ZonedDateTime expiresAt;
+
+    public static CreditHold createHold(CustomerId customerId, UUID orderId, Money amount, ZonedDateTime expiresAt) {
+        if (amount == null || !amount.isPositive()) {
+            throw new PaymentDomainException("Hold amount must be positive for customer: " + customerId.getValue());
+        }
+        ZonedDateTime now = ZonedDateTime.now();
+        if (!expiresAt.isAfter(now)) {
+            throw new PaymentDomainException("Hold expiry must be in the future for order: " + orderId);
+        }
+        return new CreditHold(UUID.randomUUID(), customerId, orderId, amount, CreditHoldStatus.HELD, now, expiresAt);
+    }
+
+    public CreditHold(UUID id, CustomerId customerId, UUID orderId, Money amount,
+                      CreditHoldStatus status, ZonedDateTime createdAt, ZonedDateTime expiresAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.orderId = orderId;
+        this.amount = amount;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpiredAt(ZonedDateTime time) {
+        return !expiresAt.isAfter(time);
+    }
+
+    public void capture() {
+        transitionTo(CreditHoldStatus.CAPTURED);
+    }
+
+    public void release() {
+        transitionTo(CreditHoldStatus.RELEASED);
+    }
+
+    public void expire() {
+        transitionTo(CreditHoldStatus.EXPIRED);
+    }
+
+    private void transitionTo(CreditHoldStatus newStatus) {
+        if (this.status != CreditHoldStatus.HELD) {
+            throw new PaymentDomainException("Credit hold " + id + " is not active: " + status);
+        }
+        this.status = newStatus;
+    }
+}
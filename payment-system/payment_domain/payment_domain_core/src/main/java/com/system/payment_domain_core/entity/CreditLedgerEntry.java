@@ -0,0 +1,67 @@
+package com.system.payment_domain_core.entity;
+
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.CreditLedgerEntryType;
+import com.system.payment_domain_core.valueobject.CustomerId;
+import com.system.payment_domain_core.valueobject.Money;
+import lombok.Getter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * One movement of a customer's total credit: positive for credit added, negative for credit taken.
+ * Entries are never updated; the balance is the sum of the customer's entries.
+ */
+@Getter
+public class CreditLedgerEntry {
+    // Gán bởi database khi insert
+    private final Long id;
+    private final CustomerId customerId;
+    private final Money amount;
+    private final CreditLedgerEntryType entryType;
+    // Payment hoặc hold gây ra biến động, null với top-up và điều chỉnh
+    private final UUID referenceId;
+    private final ZonedDateTime createdAt;
+
+    public static CreditLedgerEntry topUp(CustomerId customerId, Money amount) {
+        return credit(customerId, amount, CreditLedgerEntryType.TOP_UP);
+    }
+
+    public static CreditLedgerEntry adjustment(CustomerId customerId, Money delta) {
+        return new CreditLedgerEntry(null, customerId, delta, CreditLedgerEntryType.ADJUSTMENT, null, ZonedDateTime.now());
+    }
+
+    public static CreditLedgerEntry paymentDebit(CustomerId customerId, Money amount, UUID paymentId) {
+        return debit(customerId, amount, CreditLedgerEntryType.PAYMENT_DEBIT, paymentId);
+    }
+
+    public static CreditLedgerEntry holdCapture(CustomerId customerId, Money amount, UUID holdId) {
+        return debit(customerId, amount, CreditLedgerEntryType.HOLD_CAPTURE, holdId);
+    }
+
+    private static CreditLedgerEntry credit(CustomerId customerId, Money amount, CreditLedgerEntryType entryType) {
+        if (!amount.isPositive()) {
+            throw new PaymentDomainException("Ledger credit must be positive for customer: " + customerId.getValue());
+        }
+        return new CreditLedgerEntry(null, customerId, amount, entryType, null, ZonedDateTime.now());
+    }
+
+    private static CreditLedgerEntry debit(CustomerId customerId, Money amount, CreditLedgerEntryType entryType,
+                                           UUID referenceId) {
+        if (!amount.isPositive()) {
+            throw new PaymentDomainException("Ledger debit must be positive for customer: " + customerId.getValue());
+        }
+        return new CreditLedgerEntry(null, customerId, amount.negate(), entryType, referenceId, ZonedDateTime.now());
+    }
+
+    public CreditLedgerEntry(Long id, CustomerId customerId, Money amount, CreditLedgerEntryType entryType,
+                             UUID referenceId, ZonedDateTime createdAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.amount = amount;
+        this.entryType = entryType;
+        this.referenceId = referenceId;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.system.payment_domain_core.valueobject;
+
+public enum CreditHoldStatus {
+    HELD,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,9 @@
+package com.system.payment_domain_core.valueobject;
+
+public enum CreditLedgerEntryType {
+    OPENING_BALANCE,
+    TOP_UP,
+    ADJUSTMENT,
+    PAYMENT_DEBIT,
+    HOLD_CAPTURE
+}
@@ -0,0 +1,188 @@
+package com.system.payment_domain_core.valueobject;
+
+import com.system.payment_domain_core.exception.PaymentDomainException;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable amount of money held as a number of cents (two fixed decimals, same as the NUMERIC(…, 2)
+ * columns). Comparisons never allocate and arithmetic throws on overflow instead of wrapping.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final int CENTS_PER_UNIT = 100;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @throws PaymentDomainException if {@code amount} has a non-zero digit beyond the second decimal
+     *                                or does not fit in a long number of cents
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            throw new PaymentDomainException("Money amount cannot be null");
+        }
+        try {
+            return ofCents(amount.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new PaymentDomainException("Invalid money amount: " + amount.toPlainString());
+        }
+    }
+
+    public static Money of(String amount) {
+        return parse(amount);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code "-12.5"} or {@code "100.00"} without going through
+     * {@link BigDecimal}; anything else (exponents, more than two significant decimals) falls back to
+     * {@link #of(BigDecimal)}.
+     */
+    public static Money parse(CharSequence text) {
+        if (text == null) {
+            throw new PaymentDomainException("Money amount cannot be null");
+        }
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int integerDigits = 0;
+        // Tối đa 16 chữ số phần nguyên để units * 100 + 99 không tràn long
+        while (i < length && isDigit(text.charAt(i)) && integerDigits < 16) {
+            units = units * 10 + (text.charAt(i++) - '0');
+            integerDigits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < length && text.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(text.charAt(i)) && fractionDigits < SCALE) {
+                fraction = fraction * 10 + (text.charAt(i++) - '0');
+                fractionDigits++;
+            }
+            while (i < length && text.charAt(i) == '0') {
+                i++;
+            }
+        }
+        if (i != length || (integerDigits == 0 && fractionDigits == 0)) {
+            return parseSlow(text);
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        long cents = units * CENTS_PER_UNIT + fraction;
+        return ofCents(negative ? -cents : cents);
+    }
+
+    private static Money parseSlow(CharSequence text) {
+        try {
+            return of(new BigDecimal(text.toString()));
+        } catch (NumberFormatException e) {
+            throw new PaymentDomainException("Invalid money amount: " + text);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money add(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money subtract(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money multiply(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    public Money min(Money other) {
+        return cents <= other.cents ? this : other;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return cents == ((Money) o).cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Plain two-decimal form, e.g. {@code "-0.05"} or {@code "1250.00"}; also the JSON number written
+     * for the amount.
+     */
+    @Override
+    public String toString() {
+        // Không dùng Math.abs(cents) để Long.MIN_VALUE vẫn in đúng
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        long remainder = Math.abs(cents % CENTS_PER_UNIT);
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) {
+            sb.append('-');
+        }
+        sb.append(units).append('.');
+        if (remainder < 10) {
+            sb.append('0');
+        }
+        return sb.append(remainder).toString();
+    }
+}
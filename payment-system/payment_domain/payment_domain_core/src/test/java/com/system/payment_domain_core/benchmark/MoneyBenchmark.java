@@ -0,0 +1,114 @@
+package com.system.payment_domain_core.benchmark;
+
+import com.system.payment_domain_core.valueobject.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-payment credit arithmetic: the previous {@code BigDecimal} code (copied inline as the baseline)
+ * against {@link Money}. Add {@code -Dbenchmark.args="MoneyBenchmark -prof gc"} to the command in the
+ * pom's {@code benchmark} profile to see bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private static final int BATCH_SIZE = 64;
+
+    private BigDecimal totalCredit;
+    private BigDecimal heldCredit;
+    private BigDecimal price;
+    private BigDecimal[] batchPrices;
+
+    private Money totalCreditMoney;
+    private Money heldCreditMoney;
+    private Money priceMoney;
+    private Money[] batchPricesMoney;
+
+    @Setup
+    public void setUp() {
+        totalCredit = new BigDecimal("1500.00");
+        heldCredit = new BigDecimal("250.00");
+        price = new BigDecimal("42.50");
+        totalCreditMoney = Money.of(totalCredit);
+        heldCreditMoney = Money.of(heldCredit);
+        priceMoney = Money.of(price);
+        batchPrices = new BigDecimal[BATCH_SIZE];
+        batchPricesMoney = new Money[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batchPrices[i] = BigDecimal.valueOf(1000 + i * 37L, 2);
+            batchPricesMoney[i] = Money.of(batchPrices[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal debitBigDecimal() {
+        BigDecimal available = totalCredit.subtract(heldCredit);
+        if (available.compareTo(price) < 0) {
+            throw new IllegalStateException();
+        }
+        return totalCredit.subtract(price);
+    }
+
+    @Benchmark
+    public Money debitMoney() {
+        Money available = totalCreditMoney.subtract(heldCreditMoney);
+        if (available.isLessThan(priceMoney)) {
+            throw new IllegalStateException();
+        }
+        return totalCreditMoney.subtract(priceMoney);
+    }
+
+    @Benchmark
+    public BigDecimal batchTotalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal batchPrice : batchPrices) {
+            total = total.add(batchPrice);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money batchTotalMoney() {
+        Money total = Money.ZERO;
+        for (Money batchPrice : batchPricesMoney) {
+            total = total.add(batchPrice);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public String insufficientMessageBigDecimal() {
+        return String.format("Insufficient credit. Available: %.2f, Required: %.2f", heldCredit, totalCredit);
+    }
+
+    @Benchmark
+    public String insufficientMessageMoney() {
+        return "Insufficient credit. Available: " + heldCreditMoney + ", Required: " + totalCreditMoney;
+    }
+
+    @Benchmark
+    public Money convertFromColumn() {
+        return Money.of(totalCredit);
+    }
+
+    @Benchmark
+    public Money parseJsonNumber() {
+        return Money.parse("1234.56");
+    }
+}
@@ -0,0 +1,69 @@
+package com.system.payment_domain_core.valueobject;
+
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Convert from BigDecimal - Same cents regardless of scale")
+    void whenConvertingFromBigDecimal_thenScaleDoesNotMatter() {
+        assertThat(Money.of(new BigDecimal("12.5")).getCents()).isEqualTo(1250);
+        assertThat(Money.of(new BigDecimal("12.500"))).isEqualTo(Money.of(new BigDecimal("12.50")));
+        assertThat(Money.of(new BigDecimal("1E+2")).getCents()).isEqualTo(10000);
+        assertThat(Money.of(new BigDecimal("-0.05")).getCents()).isEqualTo(-5);
+    }
+
+    @Test
+    @DisplayName("Convert from BigDecimal - Fractions of a cent are rejected")
+    void whenAmountHasFractionOfCent_thenThrowException() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("10.005")))
+                .isInstanceOf(PaymentDomainException.class)
+                .hasMessage("Invalid money amount: 10.005");
+        assertThatThrownBy(() -> Money.parse("10.005"))
+                .isInstanceOf(PaymentDomainException.class);
+    }
+
+    @Test
+    @DisplayName("Parse - Plain decimals and fallbacks agree with BigDecimal")
+    void whenParsing_thenMatchesBigDecimal() {
+        for (String text : new String[]{"0", "7", "7.", ".5", "-12.3", "+12.30", "100.00", "100.000", "1.5e2",
+                "92233720368547758.07", "00000000000000000001.25"}) {
+            assertThat(Money.parse(text).toBigDecimal()).as(text).isEqualByComparingTo(new BigDecimal(text));
+        }
+        assertThatThrownBy(() -> Money.parse("12,50")).isInstanceOf(PaymentDomainException.class);
+        assertThatThrownBy(() -> Money.parse("-")).isInstanceOf(PaymentDomainException.class);
+        assertThatThrownBy(() -> Money.parse("92233720368547758.08")).isInstanceOf(PaymentDomainException.class);
+    }
+
+    @Test
+    @DisplayName("Arithmetic - Overflow throws instead of wrapping")
+    void whenArithmeticOverflows_thenThrowException() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThat(Money.of("10.25").add(Money.of("0.75"))).isEqualTo(Money.of("11.00"));
+        assertThat(Money.of("10.25").subtract(Money.of("20"))).isEqualTo(Money.of("-9.75"));
+        assertThat(Money.of("2.50").multiply(3)).isEqualTo(Money.of("7.50"));
+        assertThatThrownBy(() -> max.add(Money.ofCents(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> max.multiply(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofCents(Long.MIN_VALUE).negate()).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("Format - Always two decimals, locale independent")
+    void whenFormatting_thenTwoDecimals() {
+        assertThat(Money.ofCents(0)).hasToString("0.00");
+        assertThat(Money.ofCents(5)).hasToString("0.05");
+        assertThat(Money.ofCents(-5)).hasToString("-0.05");
+        assertThat(Money.ofCents(123456)).hasToString("1234.56");
+        assertThat(Money.ofCents(Long.MIN_VALUE)).hasToString("-92233720368547758.08");
+        assertThat(Money.ofCents(-123456).toBigDecimal()).isEqualTo(new BigDecimal("-1234.56"));
+    }
+}
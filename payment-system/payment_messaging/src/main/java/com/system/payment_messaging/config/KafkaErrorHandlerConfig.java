@@ -0,0 +1,31 @@
+package com.system.payment_messaging.config;
+
+import com.system.payment_messaging.listener.kafka.PaymentRequestRecoverer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.time.Duration;
+
+@Configuration
+public class KafkaErrorHandlerConfig {
+
+    // Spring Boot gắn bean này vào listener container factory mặc định.
+    // Lỗi không phải PaymentDomainException (DB timeout, mất kết nối...) được thử lại với backoff,
+    // hết lượt thì recoverer vẫn gửi response để order không kẹt ở PENDING
+    @Bean
+    public CommonErrorHandler paymentRequestErrorHandler(
+            PaymentRequestRecoverer paymentRequestRecoverer,
+            @Value("${payment.messaging.retry.max-retries:3}") int maxRetries,
+            @Value("${payment.messaging.retry.initial-interval:PT1S}") Duration initialInterval,
+            @Value("${payment.messaging.retry.max-interval:PT10S}") Duration maxInterval) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialInterval.toMillis());
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(maxInterval.toMillis());
+        return new DefaultErrorHandler(paymentRequestRecoverer, backOff);
+    }
+}
@@ -0,0 +1,22 @@
+package com.system.payment_messaging.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Payment service sở hữu topic response (key theo orderId)
+    @Bean
+    public NewTopic paymentOrderResponseTopic(
+            @Value("${kafka.topic.payment-order-response.partitions:6}") int partitions,
+            @Value("${kafka.topic.payment-order-response.replicas:1}") int replicas) {
+        return TopicBuilder.name("payment.order.response")
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+}
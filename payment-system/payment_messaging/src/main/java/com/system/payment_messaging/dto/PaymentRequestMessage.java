@@ -0,0 +1,31 @@
+package com.system.payment_messaging.dto;
+
+import com.system.payment_application_service.dto.PaymentProcessRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Payload of the {@code order.payment.request} topic, as published by the order service.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRequestMessage {
+    private UUID orderId;
+    private UUID customerId;
+    private BigDecimal price;
+
+    public PaymentProcessRequest toPaymentProcessRequest() {
+        return PaymentProcessRequest.builder()
+                .orderId(this.orderId)
+                .customerId(this.customerId)
+                .price(this.price)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.system.payment_messaging.dto;
+
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Payload of the {@code payment.order.response} topic. Field names match the order service's
+ * {@code PaymentResponse} / {@code PaymentResponseEvent}; {@code paymentStatus} is COMPLETED or FAILED.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentResponseMessage {
+    private UUID paymentId;
+    private UUID orderId;
+    private UUID customerId;
+    private BigDecimal price;
+    private String paymentStatus;
+    private String failureMessage;
+
+    public static PaymentResponseMessage fromPaymentProcessResponse(PaymentProcessResponse response) {
+        boolean completed = response.getStatus() == PaymentStatus.COMPLETED;
+        return PaymentResponseMessage.builder()
+                .paymentId(response.getPaymentId())
+                .orderId(response.getOrderId())
+                .customerId(response.getCustomerId())
+                .price(response.getPrice())
+                .paymentStatus(response.getStatus().name())
+                .failureMessage(completed ? null : response.getMessage())
+                .build();
+    }
+
+    public static PaymentResponseMessage failed(PaymentRequestMessage request, String failureMessage) {
+        return PaymentResponseMessage.builder()
+                .orderId(request.getOrderId())
+                .customerId(request.getCustomerId())
+                .price(request.getPrice())
+                .paymentStatus("FAILED")
+                .failureMessage(failureMessage)
+                .build();
+    }
+}
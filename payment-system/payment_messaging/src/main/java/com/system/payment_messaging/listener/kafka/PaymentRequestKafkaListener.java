@@ -0,0 +1,61 @@
+package com.system.payment_messaging.listener.kafka;
+
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_application_service.ports.input.PaymentService;
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_messaging.dto.PaymentRequestMessage;
+import com.system.payment_messaging.dto.PaymentResponseMessage;
+import com.system.payment_messaging.publisher.kafka.PaymentResponseKafkaPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumes payment requests straight from Kafka, settles them with {@link PaymentService}
+ * and publishes the outcome to {@code payment.order.response}.
+ * <p>
+ * One consumer per partition of {@code order.payment.request}. With customer-keyed records, a customer's
+ * payments are handled one at a time by the same consumer while other customers proceed in parallel.
+ * A redelivered request for an order that is already paid is answered with the original COMPLETED payment.
+ * Other failures are retried by the container error handler and then answered by {@link PaymentRequestRecoverer}.
+ */
+@Slf4j
+@Component
+public class PaymentRequestKafkaListener {
+
+    private final PaymentService paymentService;
+    private final PaymentResponseKafkaPublisher paymentResponseKafkaPublisher;
+    private final PaymentRequestRecoverer paymentRequestRecoverer;
+
+    public PaymentRequestKafkaListener(PaymentService paymentService,
+                                       PaymentResponseKafkaPublisher paymentResponseKafkaPublisher,
+                                       PaymentRequestRecoverer paymentRequestRecoverer) {
+        this.paymentService = paymentService;
+        this.paymentResponseKafkaPublisher = paymentResponseKafkaPublisher;
+        this.paymentRequestRecoverer = paymentRequestRecoverer;
+    }
+
+    @KafkaListener(
+            topics = "order.payment.request",
+            groupId = "payment-order-request-consumer-group",
+            concurrency = "${kafka.topic.order-payment-request.partitions:6}",
+            properties = {
+                    "spring.json.use.type.headers=false",
+                    "spring.json.value.default.type=com.system.payment_messaging.dto.PaymentRequestMessage"
+            }
+    )
+    public void receive(PaymentRequestMessage request) {
+        log.info("Received payment request for order: {} and customer: {} with amount: {}",
+                request.getOrderId(), request.getCustomerId(), request.getPrice());
+
+        PaymentResponseMessage response;
+        try {
+            PaymentProcessResponse result = paymentService.processPayment(request.toPaymentProcessRequest());
+            response = PaymentResponseMessage.fromPaymentProcessResponse(result);
+        } catch (PaymentDomainException e) {
+            response = paymentRequestRecoverer.failureResponse(request, e.getMessage());
+        }
+
+        paymentResponseKafkaPublisher.publish(response);
+    }
+}
@@ -0,0 +1,60 @@
+package com.system.payment_messaging.listener.kafka;
+
+import com.system.payment_application_service.ports.input.PaymentService;
+import com.system.payment_messaging.dto.PaymentRequestMessage;
+import com.system.payment_messaging.dto.PaymentResponseMessage;
+import com.system.payment_messaging.publisher.kafka.PaymentResponseKafkaPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Answers a payment request that could not be settled, so the order service always gets a reply on
+ * {@code payment.order.response}. Used by {@link PaymentRequestKafkaListener} for rejected payments and
+ * by the container error handler once retries of any other failure are exhausted.
+ * <p>
+ * A request for an order that is already paid is answered with the original COMPLETED payment, never FAILED.
+ * If the lookup or the publish fails, the exception propagates and the record is redelivered.
+ */
+@Slf4j
+@Component
+public class PaymentRequestRecoverer implements ConsumerRecordRecoverer {
+
+    private final PaymentService paymentService;
+    private final PaymentResponseKafkaPublisher paymentResponseKafkaPublisher;
+
+    public PaymentRequestRecoverer(PaymentService paymentService,
+                                   PaymentResponseKafkaPublisher paymentResponseKafkaPublisher) {
+        this.paymentService = paymentService;
+        this.paymentResponseKafkaPublisher = paymentResponseKafkaPublisher;
+    }
+
+    @Override
+    public void accept(ConsumerRecord<?, ?> record, Exception exception) {
+        Throwable cause = exception instanceof ListenerExecutionFailedException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+        if (!(record.value() instanceof PaymentRequestMessage request)) {
+            log.error("Dropping unprocessable record {}-{}@{}", record.topic(), record.partition(), record.offset(), cause);
+            return;
+        }
+        log.error("Payment request for order: {} failed after retries", request.getOrderId(), cause);
+        paymentResponseKafkaPublisher.publish(failureResponse(request, "Payment processing error: " + cause.getMessage()));
+    }
+
+    /**
+     * Response for a request that was not settled: the existing COMPLETED payment of the order if
+     * there is one, otherwise FAILED with {@code failureMessage}.
+     */
+    public PaymentResponseMessage failureResponse(PaymentRequestMessage request, String failureMessage) {
+        return paymentService.findCompletedPayment(request.getOrderId())
+                // Request giao lại cho đơn đã thanh toán: trả lại kết quả COMPLETED cũ, không bao giờ FAILED
+                .map(PaymentResponseMessage::fromPaymentProcessResponse)
+                .orElseGet(() -> {
+                    log.warn("Payment failed for order: {} - {}", request.getOrderId(), failureMessage);
+                    return PaymentResponseMessage.failed(request, failureMessage);
+                });
+    }
+}
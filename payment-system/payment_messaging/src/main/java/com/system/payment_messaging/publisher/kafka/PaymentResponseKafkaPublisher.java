@@ -0,0 +1,47 @@
+package com.system.payment_messaging.publisher.kafka;
+
+import com.system.payment_messaging.dto.PaymentResponseMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+public class PaymentResponseKafkaPublisher {
+
+    private static final String TOPIC = "payment.order.response";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final long sendTimeoutMs;
+
+    public PaymentResponseKafkaPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                         @Value("${payment.messaging.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Publishes the payment result and waits for the broker acknowledgement, so a failed send
+     * surfaces to the listener and the request record is redelivered instead of being committed.
+     */
+    public void publish(PaymentResponseMessage message) {
+        log.info("Publishing payment response to topic: {} for order: {} with status: {}",
+                TOPIC, message.getOrderId(), message.getPaymentStatus());
+        try {
+            kafkaTemplate.send(TOPIC, message.getOrderId().toString(), message)
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing payment response for order: "
+                    + message.getOrderId(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish payment response for order: "
+                    + message.getOrderId(), e);
+        }
+    }
+}
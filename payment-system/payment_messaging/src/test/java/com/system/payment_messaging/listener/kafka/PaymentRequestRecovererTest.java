@@ -0,0 +1,153 @@
+package com.system.payment_messaging.listener.kafka;
+
+import com.system.payment_application_service.dto.PaymentProcessResponse;
+import com.system.payment_application_service.ports.input.PaymentService;
+import com.system.payment_domain_core.exception.PaymentDomainException;
+import com.system.payment_domain_core.valueobject.PaymentStatus;
+import com.system.payment_messaging.config.KafkaErrorHandlerConfig;
+import com.system.payment_messaging.dto.PaymentRequestMessage;
+import com.system.payment_messaging.dto.PaymentResponseMessage;
+import com.system.payment_messaging.publisher.kafka.PaymentResponseKafkaPublisher;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.ListenerExecutionFailedException;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Request Recoverer Tests")
+class PaymentRequestRecovererTest {
+
+    private static final int MAX_RETRIES = 2;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentResponseKafkaPublisher publisher;
+
+    private PaymentRequestRecoverer recoverer;
+    private PaymentRequestKafkaListener listener;
+    private PaymentRequestMessage request;
+
+    @BeforeEach
+    void setUp() {
+        recoverer = new PaymentRequestRecoverer(paymentService, publisher);
+        listener = new PaymentRequestKafkaListener(paymentService, publisher, recoverer);
+        request = new PaymentRequestMessage(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("25.00"));
+    }
+
+    @Test
+    @DisplayName("Non-domain failure is retried, then answered with FAILED")
+    void nonDomainFailure_afterRetries_publishesFailed() {
+        QueryTimeoutException timeout = new QueryTimeoutException("lock timeout");
+        when(paymentService.processPayment(any())).thenThrow(timeout);
+        when(paymentService.findCompletedPayment(request.getOrderId())).thenReturn(Optional.empty());
+        CommonErrorHandler errorHandler = new KafkaErrorHandlerConfig()
+                .paymentRequestErrorHandler(recoverer, MAX_RETRIES, Duration.ofMillis(1), Duration.ofMillis(1));
+
+        deliverUntilHandled(errorHandler);
+
+        verify(paymentService, times(MAX_RETRIES + 1)).processPayment(any());
+        PaymentResponseMessage response = publishedResponse();
+        assertThat(response.getOrderId()).isEqualTo(request.getOrderId());
+        assertThat(response.getPaymentStatus()).isEqualTo("FAILED");
+        assertThat(response.getFailureMessage()).contains("lock timeout");
+    }
+
+    @Test
+    @DisplayName("Recovered request of an already paid order is answered with the COMPLETED payment")
+    void recover_alreadyPaid_publishesCompleted() {
+        UUID paymentId = UUID.randomUUID();
+        when(paymentService.findCompletedPayment(request.getOrderId())).thenReturn(Optional.of(
+                PaymentProcessResponse.builder()
+                        .paymentId(paymentId)
+                        .orderId(request.getOrderId())
+                        .customerId(request.getCustomerId())
+                        .price(request.getPrice())
+                        .status(PaymentStatus.COMPLETED)
+                        .build()));
+
+        recoverer.accept(record(), new ListenerExecutionFailedException("failed",
+                new QueryTimeoutException("connection lost")));
+
+        PaymentResponseMessage response = publishedResponse();
+        assertThat(response.getPaymentStatus()).isEqualTo("COMPLETED");
+        assertThat(response.getPaymentId()).isEqualTo(paymentId);
+    }
+
+    @Test
+    @DisplayName("Rejected payment is answered with FAILED without going through the error handler")
+    void domainFailure_publishesFailedImmediately() {
+        when(paymentService.processPayment(any())).thenThrow(new PaymentDomainException("Insufficient credit"));
+        when(paymentService.findCompletedPayment(request.getOrderId())).thenReturn(Optional.empty());
+
+        listener.receive(request);
+
+        PaymentResponseMessage response = publishedResponse();
+        assertThat(response.getPaymentStatus()).isEqualTo("FAILED");
+        assertThat(response.getFailureMessage()).isEqualTo("Insufficient credit");
+    }
+
+    @Test
+    @DisplayName("Failed publish of the recovery response propagates so the record is redelivered")
+    void recover_publishFails_propagates() {
+        when(paymentService.findCompletedPayment(request.getOrderId())).thenReturn(Optional.empty());
+        doThrow(new IllegalStateException("broker down")).when(publisher).publish(any());
+
+        assertThatThrownBy(() -> recoverer.accept(record(), new QueryTimeoutException("lock timeout")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // Giả lập container: mỗi lần giao lại record cho listener tới khi error handler recover xong
+    private void deliverUntilHandled(CommonErrorHandler errorHandler) {
+        Consumer<?, ?> consumer = mock(Consumer.class);
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        lenient().when(container.isRunning()).thenReturn(true);
+        ConsumerRecord<String, Object> record = record();
+        for (int delivery = 0; delivery <= MAX_RETRIES; delivery++) {
+            try {
+                listener.receive(request);
+                return;
+            } catch (RuntimeException e) {
+                try {
+                    errorHandler.handleRemaining(new ListenerExecutionFailedException("Listener failed", e),
+                            List.of(record), consumer, container);
+                    return;
+                } catch (KafkaException seekToCurrent) {
+                    // Chưa hết lượt retry: record được seek lại và giao tiếp
+                }
+            }
+        }
+    }
+
+    private ConsumerRecord<String, Object> record() {
+        return new ConsumerRecord<>("order.payment.request", 0, 42L, request.getCustomerId().toString(), request);
+    }
+
+    private PaymentResponseMessage publishedResponse() {
+        ArgumentCaptor<PaymentResponseMessage> captor = ArgumentCaptor.forClass(PaymentResponseMessage.class);
+        verify(publisher).publish(captor.capture());
+        return captor.getValue();
+    }
+}